@@ -0,0 +1,59 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Common base class for all benchmarks that operate on the state of a
+ * completed data flow analysis. The fixture is created once per trial. The
+ * DroidBench fixture is not part of the default parameter set, because it
+ * requires external files. Select it with <code>-p fixture=droidbench</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xss16m", "-Xmx8g" })
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+public abstract class AbstractFixtureBenchmark {
+
+	@Param({ BenchmarkFixture.FIXTURE_HEAP, BenchmarkFixture.FIXTURE_COLLECTIONS })
+	public String fixture;
+
+	protected BenchmarkFixture benchmarkFixture;
+
+	@Setup(Level.Trial)
+	public void setUpFixture() {
+		benchmarkFixture = BenchmarkFixture.create(fixture);
+		benchmarkFixture.getSolver().startReplay();
+		setUp();
+	}
+
+	/**
+	 * Prepares the inputs of the concrete benchmark once the fixture is available
+	 */
+	protected abstract void setUp();
+
+	/**
+	 * Gets the next index when cycling through an input list of the given size
+	 *
+	 * @param cursor The current cursor position
+	 * @param size   The size of the input list
+	 * @return The next cursor position
+	 */
+	protected static int next(int cursor, int size) {
+		return cursor + 1 >= size ? 0 : cursor + 1;
+	}
+
+}
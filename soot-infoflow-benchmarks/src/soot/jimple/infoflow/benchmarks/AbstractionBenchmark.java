@@ -0,0 +1,35 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import soot.jimple.infoflow.benchmarks.RecordingTaintPropagationHandler.PropagationSample;
+import soot.jimple.infoflow.data.Abstraction;
+
+/**
+ * Benchmarks for deriving new taint abstractions from existing ones, using the
+ * pairs of incoming and outgoing abstractions observed during the analysis of
+ * the fixture
+ */
+public class AbstractionBenchmark extends AbstractFixtureBenchmark {
+
+	private List<PropagationSample> samples;
+	private int cursor = 0;
+
+	@Override
+	protected void setUp() {
+		samples = new ArrayList<>(benchmarkFixture.getHandler().getSamples());
+		if (samples.isEmpty())
+			throw new RuntimeException("The fixture " + fixture + " did not produce any abstractions");
+	}
+
+	@Benchmark
+	public Abstraction deriveNewAbstraction() {
+		PropagationSample sample = samples.get(cursor);
+		cursor = next(cursor, samples.size());
+		return sample.getIncoming().deriveNewAbstraction(sample.getOutgoing().getAccessPath(), sample.getStmt());
+	}
+
+}
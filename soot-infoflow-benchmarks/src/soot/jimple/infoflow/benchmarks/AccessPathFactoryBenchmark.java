@@ -0,0 +1,42 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import soot.jimple.infoflow.benchmarks.RecordingTaintPropagationHandler.PropagationSample;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+
+/**
+ * Benchmarks for creating access paths. The access paths are re-created from
+ * the components of the access paths observed during the analysis of the
+ * fixture, which covers the type checks, the base reduction and the length
+ * limitation in {@link AccessPathFactory}.
+ */
+public class AccessPathFactoryBenchmark extends AbstractFixtureBenchmark {
+
+	private AccessPathFactory factory;
+	private List<AccessPath> accessPaths;
+	private int cursor = 0;
+
+	@Override
+	protected void setUp() {
+		factory = benchmarkFixture.getManager().getAccessPathFactory();
+		accessPaths = new ArrayList<>();
+		for (PropagationSample sample : benchmarkFixture.getHandler().getSamples())
+			accessPaths.add(sample.getOutgoing().getAccessPath());
+		if (accessPaths.isEmpty())
+			throw new RuntimeException("The fixture " + fixture + " did not produce any access paths");
+	}
+
+	@Benchmark
+	public AccessPath createAccessPath() {
+		AccessPath ap = accessPaths.get(cursor);
+		cursor = next(cursor, accessPaths.size());
+		return factory.createAccessPath(ap.getPlainValue(), ap.getBaseType(), ap.getFragments(),
+				ap.getTaintSubFields(), false, true, ap.getArrayTaintType());
+	}
+
+}
@@ -0,0 +1,307 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import soot.SootMethod;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.android.InfoflowAndroidConfiguration;
+import soot.jimple.infoflow.android.SetupApplication;
+import soot.jimple.infoflow.config.ConfigForTest;
+import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryTaintWrapper;
+import soot.jimple.infoflow.methodSummary.taintWrappers.TaintWrapperFactory;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.problems.InfoflowProblem;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+
+/**
+ * Runs a complete data flow analysis on one of the well-known test targets and
+ * keeps the solver state, the taint abstractions and the manager alive, so that
+ * the individual benchmarks can operate on realistic data.
+ *
+ * The following fixtures are supported:
+ * <ul>
+ * <li><code>heap</code>: The heap test cases from the <code>soot-infoflow</code>
+ * test targets</li>
+ * <li><code>collections</code>: The list and map test cases from the
+ * <code>soot-infoflow</code> test targets</li>
+ * <li><code>droidbench</code>: A DroidBench APK. The APK is taken from the
+ * <code>droidbench.apk</code> system property relative to the
+ * <code>DROIDBENCH</code> directory. The Android platforms are taken from
+ * <code>ANDROID_JARS</code>.</li>
+ * </ul>
+ */
+public class BenchmarkFixture {
+
+	public static final String FIXTURE_HEAP = "heap";
+	public static final String FIXTURE_COLLECTIONS = "collections";
+	public static final String FIXTURE_DROIDBENCH = "droidbench";
+
+	private static final int MAX_RECORDED_EDGES = 50000;
+
+	private static final List<String> SOURCES = Arrays.asList(
+			"<soot.jimple.infoflow.test.android.TelephonyManager: java.lang.String getDeviceId()>",
+			"<soot.jimple.infoflow.test.android.TelephonyManager: int getIMEI()>",
+			"<soot.jimple.infoflow.test.android.TelephonyManager: int getIMSI()>",
+			"<soot.jimple.infoflow.test.android.AccountManager: java.lang.String getPassword()>",
+			"<soot.jimple.infoflow.test.android.AccountManager: java.lang.String[] getUserData(java.lang.String)>");
+	private static final List<String> SINKS = Arrays.asList(
+			"<soot.jimple.infoflow.test.android.ConnectionManager: void publish(java.lang.String)>",
+			"<soot.jimple.infoflow.test.android.ConnectionManager: void publish(int)>");
+
+	private static final List<String> HEAP_ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.HeapTestCode: void simpleTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void argumentTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void doubleCallTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void methodTest0()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void methodTest1()>");
+	private static final List<String> COLLECTIONS_ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.ListTestCode: void concreteWriteReadPos0Test()>",
+			"<soot.jimple.infoflow.test.ListTestCode: void iteratorTest()>",
+			"<soot.jimple.infoflow.test.ListTestCode: void linkedListIteratorTest()>",
+			"<soot.jimple.infoflow.test.MapTestCode: void concreteWriteReadPos0Test()>",
+			"<soot.jimple.infoflow.test.MapTestCode: void writeReadPos0Test()>");
+
+	private final RecordingTaintPropagationHandler handler = new RecordingTaintPropagationHandler(
+			MAX_RECORDED_EDGES);
+	private SummaryTaintWrapper taintWrapper;
+	private RecordingInfoflowSolver solver;
+
+	private BenchmarkFixture() {
+	}
+
+	/**
+	 * Creates the fixture with the given name and runs the data flow analysis on
+	 * it
+	 *
+	 * @param name The name of the fixture
+	 * @return The fixture with the recorded analysis state
+	 */
+	public static BenchmarkFixture create(String name) {
+		BenchmarkFixture fixture = new BenchmarkFixture();
+		try {
+			fixture.taintWrapper = TaintWrapperFactory.createTaintWrapper();
+		} catch (URISyntaxException | IOException e) {
+			throw new RuntimeException("Could not load the method summaries", e);
+		}
+
+		switch (name) {
+		case FIXTURE_HEAP:
+			fixture.runJavaTarget(HEAP_ENTRY_POINTS);
+			break;
+		case FIXTURE_COLLECTIONS:
+			fixture.runJavaTarget(COLLECTIONS_ENTRY_POINTS);
+			break;
+		case FIXTURE_DROIDBENCH:
+			fixture.runDroidBench(System.getProperty("droidbench.apk", "Aliasing/Merge1.apk"));
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown benchmark fixture: " + name);
+		}
+
+		if (fixture.solver == null || fixture.handler.getManager() == null)
+			throw new RuntimeException("The analysis of fixture " + name + " did not run the forward solver");
+		fixture.handler.freeze();
+		return fixture;
+	}
+
+	/**
+	 * Runs the data flow analysis on the given entry points from the
+	 * <code>soot-infoflow</code> test targets
+	 *
+	 * @param entryPoints The entry points to analyze
+	 */
+	private void runJavaTarget(Collection<String> entryPoints) {
+		soot.G.reset();
+
+		Infoflow infoflow = new Infoflow() {
+
+			@Override
+			protected IInfoflowSolver createDataFlowSolver(InterruptableExecutor executor,
+					AbstractInfoflowProblem problem, SolverConfiguration solverConfig) {
+				if (problem instanceof InfoflowProblem) {
+					solver = new RecordingInfoflowSolver(problem, executor, MAX_RECORDED_EDGES);
+					solverPeerGroup.addSolver(solver);
+					return solver;
+				}
+				return super.createDataFlowSolver(executor, problem, solverConfig);
+			}
+
+		};
+		infoflow.setThrowExceptions(true);
+		infoflow.setSootConfig(new ConfigForTest());
+		infoflow.setTaintWrapper(taintWrapper);
+		infoflow.setTaintPropagationHandler(handler);
+		infoflow.getConfig().getSolverConfiguration().setDataFlowSolver(DataFlowSolver.ContextFlowSensitive);
+		infoflow.computeInfoflow(getAppPath(), getLibPath(), entryPoints, SOURCES, SINKS);
+	}
+
+	/**
+	 * Runs the data flow analysis on the given DroidBench APK
+	 *
+	 * @param apkName The name of the APK file relative to the DroidBench directory
+	 */
+	private void runDroidBench(String apkName) {
+		String androidJars = getSetting("ANDROID_JARS");
+		if (androidJars == null)
+			throw new RuntimeException("Android JAR dir not set");
+		String droidBenchDir = getSetting("DROIDBENCH");
+		if (droidBenchDir == null) {
+			File droidBenchFile = new File("DroidBench/apk");
+			if (!droidBenchFile.exists())
+				droidBenchFile = new File("../DroidBench/apk");
+			if (droidBenchFile.exists())
+				droidBenchDir = droidBenchFile.getAbsolutePath();
+		}
+		if (droidBenchDir == null)
+			throw new RuntimeException("DroidBench dir not set");
+
+		InfoflowAndroidConfiguration androidConfig = new InfoflowAndroidConfiguration();
+		androidConfig.getAnalysisFileConfig().setAndroidPlatformDir(new File(androidJars));
+		androidConfig.getAnalysisFileConfig().setTargetAPKFile(new File(new File(droidBenchDir), apkName));
+		androidConfig.getSolverConfiguration().setDataFlowSolver(DataFlowSolver.ContextFlowSensitive);
+
+		SetupApplication setupApplication = new SetupApplication(androidConfig) {
+
+			@Override
+			protected IInPlaceInfoflow createInfoflowInternal(Collection<SootMethod> lifecycleMethods) {
+				final File androidJar = getConfig().getAnalysisFileConfig().getAndroidPlatformDir();
+				return new InPlaceInfoflow(androidJar, forceAndroidJar, cfgFactory, lifecycleMethods) {
+
+					@Override
+					protected IInfoflowSolver createDataFlowSolver(InterruptableExecutor executor,
+							AbstractInfoflowProblem problem, SolverConfiguration solverConfig) {
+						if (problem instanceof InfoflowProblem) {
+							solver = new RecordingInfoflowSolver(problem, executor, MAX_RECORDED_EDGES);
+							solverPeerGroup.addSolver(solver);
+							return solver;
+						}
+						return super.createDataFlowSolver(executor, problem, solverConfig);
+					}
+
+				};
+			}
+
+		};
+		setupApplication.setTaintWrapper(taintWrapper);
+		setupApplication.setTaintPropagationHandler(handler);
+		try {
+			setupApplication.runInfoflow(new File(getAndroidRoot(), "SourcesAndSinks.txt"));
+		} catch (IOException e) {
+			throw new RuntimeException("Could not analyze DroidBench APK " + apkName, e);
+		}
+	}
+
+	/**
+	 * Gets a setting from the environment or, if it is not defined there, from the
+	 * system properties
+	 *
+	 * @param name The name of the setting
+	 * @return The value of the setting, or <code>null</code> if it is not defined
+	 */
+	private static String getSetting(String name) {
+		String value = System.getenv(name);
+		if (value == null)
+			value = System.getProperty(name);
+		return value;
+	}
+
+	/**
+	 * Gets the root directory of the given FlowDroid module. If the system property
+	 * <code>flowdroid.root</code> is set, the module is resolved relative to it.
+	 * Otherwise, the current directory and its parent are tried.
+	 *
+	 * @param module The name of the module
+	 * @return The root directory of the module
+	 */
+	private static File getModuleRoot(String module) {
+		String root = System.getProperty("flowdroid.root");
+		if (root != null)
+			return new File(root, module);
+		File f = new File(module);
+		if (f.exists())
+			return f;
+		return new File(new File(".."), module);
+	}
+
+	private static File getAndroidRoot() {
+		return getModuleRoot("soot-infoflow-android");
+	}
+
+	/**
+	 * Gets the application class path consisting of the compiled
+	 * <code>soot-infoflow</code> test targets
+	 *
+	 * @return The application class path
+	 */
+	private static String getAppPath() {
+		List<String> paths = new ArrayList<>();
+		for (String module : new String[] { "soot-infoflow", "soot-infoflow-summaries" }) {
+			File moduleRoot = getModuleRoot(module);
+			for (String dir : new String[] { "build/classes", "build/testclasses" }) {
+				File f = new File(moduleRoot, dir);
+				if (f.exists())
+					paths.add(f.getAbsolutePath());
+			}
+		}
+		if (paths.isEmpty())
+			throw new RuntimeException("Could not find the compiled soot-infoflow test targets");
+		return String.join(File.pathSeparator, paths);
+	}
+
+	/**
+	 * Gets the library class path for analyzing the Java test targets
+	 *
+	 * @return The library class path
+	 */
+	private static String getLibPath() {
+		File rtJar = new File(System.getProperty("java.home") + File.separator + "lib" + File.separator + "rt.jar");
+		return rtJar.exists() ? rtJar.getAbsolutePath() : "";
+	}
+
+	/**
+	 * Gets the forward solver whose edges have been recorded
+	 *
+	 * @return The recording forward solver
+	 */
+	public RecordingInfoflowSolver getSolver() {
+		return solver;
+	}
+
+	/**
+	 * Gets the handler that has recorded the taint abstractions
+	 *
+	 * @return The recording taint propagation handler
+	 */
+	public RecordingTaintPropagationHandler getHandler() {
+		return handler;
+	}
+
+	/**
+	 * Gets the manager of the forward data flow analysis
+	 *
+	 * @return The manager of the forward data flow analysis
+	 */
+	public InfoflowManager getManager() {
+		return handler.getManager();
+	}
+
+	/**
+	 * Gets the summary-based taint wrapper that was used during the analysis
+	 *
+	 * @return The summary-based taint wrapper
+	 */
+	public SummaryTaintWrapper getTaintWrapper() {
+		return taintWrapper;
+	}
+
+}
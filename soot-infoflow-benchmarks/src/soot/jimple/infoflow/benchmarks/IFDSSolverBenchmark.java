@@ -0,0 +1,59 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import heros.solver.PathEdge;
+import soot.Unit;
+import soot.jimple.infoflow.data.Abstraction;
+
+/**
+ * Benchmarks for the edge processing in the fast IFDS solver. The edges that
+ * the solver has processed during the analysis of the fixture are replayed
+ * against the completed solver. Since all jump functions already exist, each
+ * operation measures the flow functions, the memory manager and the jump
+ * function lookups, but no scheduling.
+ */
+public class IFDSSolverBenchmark extends AbstractFixtureBenchmark {
+
+	private RecordingInfoflowSolver solver;
+
+	private List<PathEdge<Unit, Abstraction>> normalEdges;
+	private List<PathEdge<Unit, Abstraction>> callEdges;
+	private List<PathEdge<Unit, Abstraction>> exitEdges;
+
+	private int normalCursor = 0;
+	private int callCursor = 0;
+	private int exitCursor = 0;
+
+	@Override
+	protected void setUp() {
+		solver = benchmarkFixture.getSolver();
+		normalEdges = new ArrayList<>(solver.getNormalEdges());
+		callEdges = new ArrayList<>(solver.getCallEdges());
+		exitEdges = new ArrayList<>(solver.getExitEdges());
+		if (normalEdges.isEmpty() || callEdges.isEmpty() || exitEdges.isEmpty())
+			throw new RuntimeException("The fixture " + fixture + " did not produce edges of all kinds");
+	}
+
+	@Benchmark
+	public void processNormalFlow() {
+		solver.replayNormalFlow(normalEdges.get(normalCursor));
+		normalCursor = next(normalCursor, normalEdges.size());
+	}
+
+	@Benchmark
+	public void processCall() {
+		solver.replayCall(callEdges.get(callCursor));
+		callCursor = next(callCursor, callEdges.size());
+	}
+
+	@Benchmark
+	public void processExit() {
+		solver.replayExit(exitEdges.get(exitCursor));
+		exitCursor = next(exitCursor, exitEdges.size());
+	}
+
+}
@@ -0,0 +1,54 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import soot.jimple.infoflow.benchmarks.RecordingTaintPropagationHandler.PropagationSample;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.FlowDroidMemoryManager;
+import soot.jimple.infoflow.data.FlowDroidMemoryManager.PathDataErasureMode;
+
+/**
+ * Benchmarks for the FlowDroid memory manager. The memory manager modifies the
+ * abstractions it is given, so every operation works on a freshly derived copy
+ * of a recorded abstraction. The <code>deriveBaseline</code> benchmark measures
+ * the cost of this copy alone.
+ */
+public class MemoryManagerBenchmark extends AbstractFixtureBenchmark {
+
+	@Param({ "EraseNothing", "KeepOnlyContextData", "EraseAll" })
+	public PathDataErasureMode erasureMode;
+
+	private FlowDroidMemoryManager memoryManager;
+	private List<PropagationSample> samples;
+	private int cursor = 0;
+
+	@Override
+	protected void setUp() {
+		memoryManager = new FlowDroidMemoryManager(false, erasureMode);
+		samples = new ArrayList<>(benchmarkFixture.getHandler().getSamples());
+		if (samples.isEmpty())
+			throw new RuntimeException("The fixture " + fixture + " did not produce any abstractions");
+	}
+
+	@Benchmark
+	public Abstraction deriveBaseline() {
+		PropagationSample sample = samples.get(cursor);
+		cursor = next(cursor, samples.size());
+		return sample.getIncoming().deriveDefinitelyNewAbstraction(sample.getOutgoing().getAccessPath(),
+				sample.getStmt());
+	}
+
+	@Benchmark
+	public Abstraction handleGeneratedMemoryObject() {
+		PropagationSample sample = samples.get(cursor);
+		cursor = next(cursor, samples.size());
+		Abstraction output = sample.getIncoming().deriveDefinitelyNewAbstraction(sample.getOutgoing().getAccessPath(),
+				sample.getStmt());
+		return memoryManager.handleGeneratedMemoryObject(sample.getIncoming(), output);
+	}
+
+}
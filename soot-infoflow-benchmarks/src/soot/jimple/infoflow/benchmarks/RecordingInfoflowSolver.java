@@ -0,0 +1,152 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import heros.solver.PathEdge;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.fastSolver.InfoflowSolver;
+
+/**
+ * Variant of the fast {@link InfoflowSolver} that records the path edges it
+ * processes while solving the data flow problem. After the analysis has
+ * completed, the recorded edges can be replayed against the same solver
+ * instance to measure the cost of the flow functions and the jump function
+ * lookups in isolation. Edges that are discovered during a replay are not
+ * scheduled again.
+ */
+public class RecordingInfoflowSolver extends InfoflowSolver {
+
+	private final int maxRecordedEdges;
+
+	private final List<PathEdge<Unit, Abstraction>> normalEdges = Collections.synchronizedList(new ArrayList<>());
+	private final List<PathEdge<Unit, Abstraction>> callEdges = Collections.synchronizedList(new ArrayList<>());
+	private final List<PathEdge<Unit, Abstraction>> exitEdges = Collections.synchronizedList(new ArrayList<>());
+
+	private volatile boolean replaying = false;
+
+	/**
+	 * Creates a new instance of the {@link RecordingInfoflowSolver} class
+	 *
+	 * @param problem          The data flow problem to solve
+	 * @param executor         The executor on which to run the solver tasks
+	 * @param maxRecordedEdges The maximum number of edges to record per edge kind
+	 */
+	public RecordingInfoflowSolver(AbstractInfoflowProblem problem, InterruptableExecutor executor,
+			int maxRecordedEdges) {
+		super(problem, executor);
+		this.maxRecordedEdges = maxRecordedEdges;
+	}
+
+	@Override
+	protected void processNormalFlow(PathEdge<Unit, Abstraction> edge) {
+		record(normalEdges, edge);
+		super.processNormalFlow(edge);
+	}
+
+	@Override
+	protected void processCall(PathEdge<Unit, Abstraction> edge) {
+		record(callEdges, edge);
+		super.processCall(edge);
+	}
+
+	@Override
+	protected void processExit(PathEdge<Unit, Abstraction> edge) {
+		record(exitEdges, edge);
+		super.processExit(edge);
+	}
+
+	private void record(List<PathEdge<Unit, Abstraction>> edges, PathEdge<Unit, Abstraction> edge) {
+		if (!replaying && edges.size() < maxRecordedEdges)
+			edges.add(edge);
+	}
+
+	@Override
+	protected void scheduleEdgeProcessing(PathEdge<Unit, Abstraction> edge, ScheduleTarget scheduleTarget) {
+		// The executor has already been shut down when we replay edges
+		if (!replaying)
+			super.scheduleEdgeProcessing(edge, scheduleTarget);
+	}
+
+	@Override
+	protected boolean addEndSummary(SootMethod m, Abstraction d1, Unit eP, Abstraction d2) {
+		// During replay, all end summaries already exist. We nevertheless want to
+		// measure the return flows to the callers.
+		boolean isNew = super.addEndSummary(m, d1, eP, d2);
+		return isNew || replaying;
+	}
+
+	@Override
+	public void cleanup() {
+		// We keep the jump functions, end summaries and incoming records, because we
+		// need them for replaying the edges
+	}
+
+	/**
+	 * Switches the solver into replay mode. In this mode, no new edges are recorded
+	 * or scheduled.
+	 */
+	public void startReplay() {
+		this.replaying = true;
+	}
+
+	/**
+	 * Replays the given edge through the normal flow processing of the solver
+	 *
+	 * @param edge The edge to replay
+	 */
+	public void replayNormalFlow(PathEdge<Unit, Abstraction> edge) {
+		processNormalFlow(edge);
+	}
+
+	/**
+	 * Replays the given edge through the call processing of the solver
+	 *
+	 * @param edge The edge to replay
+	 */
+	public void replayCall(PathEdge<Unit, Abstraction> edge) {
+		processCall(edge);
+	}
+
+	/**
+	 * Replays the given edge through the exit processing of the solver
+	 *
+	 * @param edge The edge to replay
+	 */
+	public void replayExit(PathEdge<Unit, Abstraction> edge) {
+		processExit(edge);
+	}
+
+	/**
+	 * Gets the recorded edges that were processed as normal flows
+	 *
+	 * @return The recorded normal flow edges
+	 */
+	public List<PathEdge<Unit, Abstraction>> getNormalEdges() {
+		return normalEdges;
+	}
+
+	/**
+	 * Gets the recorded edges that were processed as calls
+	 *
+	 * @return The recorded call edges
+	 */
+	public List<PathEdge<Unit, Abstraction>> getCallEdges() {
+		return callEdges;
+	}
+
+	/**
+	 * Gets the recorded edges that were processed as method exits
+	 *
+	 * @return The recorded exit edges
+	 */
+	public List<PathEdge<Unit, Abstraction>> getExitEdges() {
+		return exitEdges;
+	}
+
+}
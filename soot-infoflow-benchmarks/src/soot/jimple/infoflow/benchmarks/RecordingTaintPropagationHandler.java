@@ -0,0 +1,139 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler;
+
+/**
+ * Taint propagation handler that records the taint abstractions produced by the
+ * data flow analysis, so that the benchmarks can use them as realistic inputs
+ */
+public class RecordingTaintPropagationHandler implements TaintPropagationHandler {
+
+	/**
+	 * A single propagation step observed during the analysis
+	 */
+	public static class PropagationSample {
+
+		private final Stmt stmt;
+		private final Abstraction d1;
+		private final Abstraction incoming;
+		private final Abstraction outgoing;
+		private final FlowFunctionType type;
+
+		private PropagationSample(Stmt stmt, Abstraction d1, Abstraction incoming, Abstraction outgoing,
+				FlowFunctionType type) {
+			this.stmt = stmt;
+			this.d1 = d1;
+			this.incoming = incoming;
+			this.outgoing = outgoing;
+			this.type = type;
+		}
+
+		public Stmt getStmt() {
+			return stmt;
+		}
+
+		public Abstraction getD1() {
+			return d1;
+		}
+
+		public Abstraction getIncoming() {
+			return incoming;
+		}
+
+		public Abstraction getOutgoing() {
+			return outgoing;
+		}
+
+		public FlowFunctionType getType() {
+			return type;
+		}
+
+	}
+
+	private final int maxSamples;
+	private final List<PropagationSample> samples = Collections.synchronizedList(new ArrayList<>());
+
+	private volatile InfoflowManager manager;
+	private volatile boolean frozen = false;
+
+	/**
+	 * Creates a new instance of the {@link RecordingTaintPropagationHandler} class
+	 *
+	 * @param maxSamples The maximum number of propagation samples to record
+	 */
+	public RecordingTaintPropagationHandler(int maxSamples) {
+		this.maxSamples = maxSamples;
+	}
+
+	@Override
+	public void notifyFlowIn(Unit stmt, Abstraction taint, InfoflowManager manager, FlowFunctionType type) {
+		if (this.manager == null)
+			this.manager = manager;
+	}
+
+	@Override
+	public Set<Abstraction> notifyFlowOut(Unit stmt, Abstraction d1, Abstraction incoming, Set<Abstraction> outgoing,
+			InfoflowManager manager, FlowFunctionType type) {
+		if (this.manager == null)
+			this.manager = manager;
+		if (!frozen && outgoing != null && samples.size() < maxSamples) {
+			for (Abstraction abs : outgoing) {
+				if (abs != null && abs.getAccessPath() != null && !abs.getAccessPath().isEmpty())
+					samples.add(new PropagationSample((Stmt) stmt, d1, incoming, abs, type));
+			}
+		}
+		return outgoing;
+	}
+
+	/**
+	 * Stops recording new samples. Benchmarks that replay edges through the solver
+	 * should call this method first.
+	 */
+	public void freeze() {
+		this.frozen = true;
+	}
+
+	/**
+	 * Gets the manager of the forward data flow analysis
+	 *
+	 * @return The manager of the forward data flow analysis
+	 */
+	public InfoflowManager getManager() {
+		return manager;
+	}
+
+	/**
+	 * Gets all recorded propagation samples
+	 *
+	 * @return The recorded propagation samples
+	 */
+	public List<PropagationSample> getSamples() {
+		return samples;
+	}
+
+	/**
+	 * Gets the recorded propagation samples of the given flow function type
+	 *
+	 * @param type The type of flow function
+	 * @return The recorded propagation samples of the given flow function type
+	 */
+	public List<PropagationSample> getSamples(FlowFunctionType type) {
+		List<PropagationSample> res = new ArrayList<>();
+		synchronized (samples) {
+			for (PropagationSample sample : samples)
+				if (sample.type == type)
+					res.add(sample);
+		}
+		return res;
+	}
+
+}
@@ -0,0 +1,45 @@
+package soot.jimple.infoflow.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import soot.jimple.infoflow.benchmarks.RecordingTaintPropagationHandler.PropagationSample;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
+import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryTaintWrapper;
+
+/**
+ * Benchmarks for applying method summaries. The call sites and incoming taints
+ * are taken from the call-to-return edges observed during the analysis of the
+ * fixture, which has been run with the summary-based taint wrapper.
+ */
+public class SummaryTaintWrapperBenchmark extends AbstractFixtureBenchmark {
+
+	private SummaryTaintWrapper taintWrapper;
+	private List<PropagationSample> samples;
+	private int cursor = 0;
+
+	@Override
+	protected void setUp() {
+		taintWrapper = benchmarkFixture.getTaintWrapper();
+		samples = new ArrayList<>();
+		for (PropagationSample sample : benchmarkFixture.getHandler()
+				.getSamples(FlowFunctionType.CallToReturnFlowFunction)) {
+			if (sample.getStmt().containsInvokeExpr() && taintWrapper.supportsCallee(sample.getStmt()))
+				samples.add(sample);
+		}
+		if (samples.isEmpty())
+			throw new RuntimeException("The fixture " + fixture + " did not produce any summarized calls");
+	}
+
+	@Benchmark
+	public Set<Abstraction> getTaintsForMethod() {
+		PropagationSample sample = samples.get(cursor);
+		cursor = next(cursor, samples.size());
+		return taintWrapper.getTaintsForMethod(sample.getStmt(), sample.getD1(), sample.getIncoming());
+	}
+
+}
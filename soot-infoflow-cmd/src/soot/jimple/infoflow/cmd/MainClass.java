@@ -18,12 +18,15 @@ import org.apache.commons.cli.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import soot.jimple.infoflow.AnalysisPhase;
 import soot.jimple.infoflow.InfoflowConfiguration.AliasingAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.CallbackSourceMode;
 import soot.jimple.infoflow.InfoflowConfiguration.CallgraphAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.CodeEliminationMode;
 import soot.jimple.infoflow.InfoflowConfiguration.DataFlowDirection;
 import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
+import soot.jimple.infoflow.InfoflowConfiguration.FlowFunctionCacheMode;
 import soot.jimple.infoflow.InfoflowConfiguration.ImplicitFlowMode;
 import soot.jimple.infoflow.InfoflowConfiguration.LayoutMatchingMode;
 import soot.jimple.infoflow.InfoflowConfiguration.PathBuildingAlgorithm;
@@ -104,6 +107,7 @@ public class MainClass {
 	private static final String OPTION_MAX_CALLBACKS_DEPTH = "md";
 	private static final String OPTION_PATH_SPECIFIC_RESULTS = "ps";
 	private static final String OPTION_MAX_THREAD_NUMBER = "mt";
+	private static final String OPTION_MAX_PATH_THREAD_NUMBER = "mtp";
 	private static final String OPTION_LENIENT_PARSING_MODE = "lp";
 
 	// Inter-component communication
@@ -124,9 +128,13 @@ public class MainClass {
 	private static final String OPTION_STATIC_FLOW_TRACKING_MODE = "sf";
 	private static final String OPTION_DATA_FLOW_DIRECTION = "dir";
 	private static final String OPTION_GC_SLEEP_TIME = "st";
+	private static final String OPTION_EXECUTOR_TYPE = "et";
+	private static final String OPTION_FLOW_FUNCTION_CACHE_METHODS = "fcm";
 
 	// Evaluation-specific options
 	private static final String OPTION_ANALYZE_FRAMEWORKS = "ff";
+	private static final String OPTION_SOLVER_METRICS_INTERVAL = "smi";
+	private static final String OPTION_SOLVER_METRICS_FILE = "smf";
 
 	// Callgraph analysis
 	private static final String OPTION_CALLGRAPH_FILE = "cf";
@@ -193,6 +201,8 @@ public class MainClass {
 				"Write the discovered sources and sinks to the log output");
 		options.addOption(OPTION_MAX_THREAD_NUMBER, "maxthreadnum", true,
 				"Limit the maximum number of threads to the given value");
+		options.addOption(OPTION_MAX_PATH_THREAD_NUMBER, "maxpaththreadnum", true,
+				"Limit the maximum number of threads for the path reconstruction to the given value");
 		options.addOption(OPTION_ONE_COMPONENT, "onecomponentatatime", false,
 				"Analyze one Android component at a time");
 		options.addOption(OPTION_ONE_SOURCE, "onesourceatatime", false, "Analyze one source at a time");
@@ -227,7 +237,7 @@ public class MainClass {
 		options.addOption(OPTION_DATA_FLOW_SOLVER, "dataflowsolver", true,
 				"Use the specified data flow solver (CONTEXTFLOWSENSITIVE, FLOWINSENSITIVE)");
 		options.addOption(OPTION_ALIAS_ALGO, "aliasalgo", true,
-				"Use the specified aliasing algorithm (NONE, FLOWSENSITIVE, PTSBASED, LAZY)");
+				"Use the specified aliasing algorithm (NONE, FLOWSENSITIVE, PTSBASED, PTSBASEDBULK, LAZY)");
 		options.addOption(OPTION_CODE_ELIMINATION_MODE, "codeelimination", true,
 				"Use the specified code elimination algorithm (NONE, PROPAGATECONSTS, REMOVECODE)");
 		options.addOption(OPTION_CALLBACK_SOURCE_MODE, "callbacksourcemode", true,
@@ -242,10 +252,18 @@ public class MainClass {
 				"Specifies the direction of the infoflow analysis (FORWARDS, BACKWARDS)");
 		options.addOption(OPTION_GC_SLEEP_TIME, "gcsleeptime", true,
 				"Specifies the sleep time for path edge collectors in seconds");
+		options.addOption(OPTION_EXECUTOR_TYPE, "executortype", true,
+				"Specifies the kind of threads for the data flow analysis and path reconstruction (PLATFORM, VIRTUAL)");
+		options.addOption(OPTION_FLOW_FUNCTION_CACHE_METHODS, "flowfunctioncachemethods", true,
+				"Caches flow functions per method for at most the given number of methods (-1 for no limit)");
 
 		// Evaluation-specific options
 		options.addOption(OPTION_ANALYZE_FRAMEWORKS, "analyzeframeworks", false,
 				"Analyze the full frameworks together with the app without any optimizations");
+		options.addOption(OPTION_SOLVER_METRICS_INTERVAL, "solvermetricsinterval", true,
+				"Collect solver metrics and sample them in the given interval in milliseconds");
+		options.addOption(OPTION_SOLVER_METRICS_FILE, "solvermetricsfile", true,
+				"Collect solver metrics and write them to the given JSON file");
 
 		// Callgraph-specific options
 		options.addOption(OPTION_CALLGRAPH_FILE, "callgraphdir", true,
@@ -606,6 +624,8 @@ public class MainClass {
 			return AliasingAlgorithm.FlowSensitive;
 		else if (aliasAlgo.equalsIgnoreCase("PTSBASED"))
 			return AliasingAlgorithm.PtsBased;
+		else if (aliasAlgo.equalsIgnoreCase("PTSBASEDBULK"))
+			return AliasingAlgorithm.PtsBasedBulk;
 		else if (aliasAlgo.equalsIgnoreCase("LAZY"))
 			return AliasingAlgorithm.Lazy;
 		else {
@@ -690,6 +710,17 @@ public class MainClass {
 		}
 	}
 
+	private static ExecutorType parseExecutorType(String executorType) {
+		if (executorType.equalsIgnoreCase("PLATFORM"))
+			return ExecutorType.PlatformThreads;
+		else if (executorType.equalsIgnoreCase("VIRTUAL"))
+			return ExecutorType.VirtualThreads;
+		else {
+			System.err.println(String.format("Invalid executor type: %s", executorType));
+			throw new AbortAnalysisException();
+		}
+	}
+
 	/**
 	 * Parses the given command-line options and fills the given configuration
 	 * object accordingly
@@ -801,6 +832,11 @@ public class MainClass {
 				config.setMaxThreadNum(maxthreadnum);
 			}
 		}
+		{
+			Integer maxPathThreadNum = getIntOption(cmd, OPTION_MAX_PATH_THREAD_NUMBER);
+			if (maxPathThreadNum != null)
+				config.setMaxThreadNum(AnalysisPhase.PATH_RECONSTRUCTION, maxPathThreadNum);
+		}
 
 		// Inter-component communication
 		if (cmd.hasOption(OPTION_ICC_NO_PURIFY))
@@ -872,6 +908,11 @@ public class MainClass {
 			if (dataflowDirection != null && !dataflowDirection.isEmpty())
 				config.setDataFlowDirection(parseDataFlowDirection(dataflowDirection));
 		}
+		{
+			String executorType = cmd.getOptionValue(OPTION_EXECUTOR_TYPE);
+			if (executorType != null && !executorType.isEmpty())
+				config.setExecutorType(parseExecutorType(executorType));
+		}
 
 		{
 			String[] toSkip = cmd.getOptionValues(OPTION_SKIP_APK_FILE);
@@ -908,6 +949,25 @@ public class MainClass {
 				config.getSolverConfiguration().setSleepTime(sleepTime);
 			}
 		}
+		{
+			Integer maxMethods = getIntOption(cmd, OPTION_FLOW_FUNCTION_CACHE_METHODS);
+			if (maxMethods != null) {
+				config.getSolverConfiguration().setFlowFunctionCacheMode(FlowFunctionCacheMode.PerMethod);
+				config.getSolverConfiguration().setMaxCachedFlowFunctionMethods(maxMethods);
+			}
+		}
+		{
+			Integer metricsInterval = getIntOption(cmd, OPTION_SOLVER_METRICS_INTERVAL);
+			if (metricsInterval != null)
+				config.getSolverConfiguration().setMetricsSamplingInterval(metricsInterval);
+
+			String metricsFile = cmd.getOptionValue(OPTION_SOLVER_METRICS_FILE);
+			if (metricsFile != null && !metricsFile.isEmpty()) {
+				config.getSolverConfiguration().setMetricsOutputFile(metricsFile);
+				if (!config.getSolverConfiguration().isMetricsEnabled())
+					config.getSolverConfiguration().setMetricsSamplingInterval(1000);
+			}
+		}
 	}
 
 	private Integer getIntOption(CommandLine cmd, String option) {
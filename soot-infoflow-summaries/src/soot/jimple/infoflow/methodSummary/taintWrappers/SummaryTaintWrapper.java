@@ -1435,8 +1435,14 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper, ICollection
 		if (checkType == Scene.v().getObjectType())
 			return baseType instanceof RefType;
 
-		return baseType == checkType || fastHierarchy.canStoreType(baseType, checkType)
-				|| fastHierarchy.canStoreType(checkType, baseType);
+		if (baseType == checkType)
+			return true;
+
+		// Use the shared cache of the data flow analysis if we have one
+		TypeUtils typeUtils = manager == null ? null : manager.getTypeUtils();
+		if (typeUtils != null)
+			return typeUtils.canStoreType(baseType, checkType) || typeUtils.canStoreType(checkType, baseType);
+		return fastHierarchy.canStoreType(baseType, checkType) || fastHierarchy.canStoreType(checkType, baseType);
 	}
 
 	/**
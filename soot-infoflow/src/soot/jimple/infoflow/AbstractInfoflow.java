@@ -1,20 +1,30 @@
 package soot.jimple.infoflow;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -67,17 +77,21 @@ import soot.jimple.infoflow.aliasing.Aliasing;
 import soot.jimple.infoflow.aliasing.BackwardsFlowSensitiveAliasStrategy;
 import soot.jimple.infoflow.aliasing.IAliasingStrategy;
 import soot.jimple.infoflow.aliasing.NullAliasStrategy;
+import soot.jimple.infoflow.aliasing.PtsBasedAliasStrategy;
 import soot.jimple.infoflow.cfg.BiDirICFGFactory;
 import soot.jimple.infoflow.cfg.DefaultBiDiICFGFactory;
 import soot.jimple.infoflow.cfg.FlowDroidSinkStatement;
 import soot.jimple.infoflow.cfg.FlowDroidSourceStatement;
 import soot.jimple.infoflow.cfg.FlowDroidUserClass;
 import soot.jimple.infoflow.cfg.LibraryClassPatcher;
+import soot.jimple.infoflow.cfg.SinkReachabilitySlicer;
 import soot.jimple.infoflow.codeOptimization.DeadCodeEliminator;
 import soot.jimple.infoflow.codeOptimization.ICodeOptimizer;
 import soot.jimple.infoflow.config.IInfoflowConfig;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.AbstractionSpillStore;
+import soot.jimple.infoflow.data.AccessPathFactory;
 import soot.jimple.infoflow.data.FlowDroidMemoryManager;
 import soot.jimple.infoflow.data.pathBuilders.DefaultPathBuilderFactory;
 import soot.jimple.infoflow.data.pathBuilders.IAbstractionPathBuilder;
@@ -128,16 +142,27 @@ import soot.jimple.infoflow.solver.IInfoflowSolver;
 import soot.jimple.infoflow.solver.ISolverPeerGroup;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
 import soot.jimple.infoflow.solver.cfg.BackwardsInfoflowCFG;
+import soot.jimple.infoflow.solver.cfg.FrozenInfoflowCFG;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.fastSolver.CompactJumpFunctions;
+import soot.jimple.infoflow.solver.fastSolver.DefaultJumpFunctions;
+import soot.jimple.infoflow.solver.fastSolver.DefaultSchedulingStrategy;
+import soot.jimple.infoflow.solver.fastSolver.IFDSSolver;
+import soot.jimple.infoflow.solver.fastSolver.IJumpFunctions;
 import soot.jimple.infoflow.solver.fastSolver.InfoflowSolver;
+import soot.jimple.infoflow.solver.gcSolver.AbstractReferenceCountingGarbageCollector;
 import soot.jimple.infoflow.solver.gcSolver.GCSolverPeerGroup;
+import soot.jimple.infoflow.solver.gcSolver.IGarbageCollector;
 import soot.jimple.infoflow.solver.memory.DefaultMemoryManagerFactory;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 import soot.jimple.infoflow.solver.memory.IMemoryManagerFactory;
+import soot.jimple.infoflow.solver.metrics.SolverMetricsWatcher;
 import soot.jimple.infoflow.solver.sparseSolver.SparseInfoflowSolver;
+import soot.jimple.infoflow.solver.sparseSolver.propagation.SparseCFGIndex;
 import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
 import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition;
+import soot.jimple.infoflow.sourcesSinks.manager.BaseSourceSinkManager;
 import soot.jimple.infoflow.sourcesSinks.manager.DefaultSourceSinkManager;
 import soot.jimple.infoflow.sourcesSinks.manager.IOneSourceAtATimeManager;
 import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
@@ -146,6 +171,8 @@ import soot.jimple.infoflow.sourcesSinks.manager.SourceInfo;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
 import soot.jimple.infoflow.threading.DefaultExecutorFactory;
 import soot.jimple.infoflow.threading.IExecutorFactory;
+import soot.jimple.infoflow.threading.ThreadBudget;
+import soot.jimple.infoflow.threading.VirtualThreadExecutorFactory;
 import soot.jimple.infoflow.util.SootMethodRepresentationParser;
 import soot.jimple.infoflow.util.SystemClassHandler;
 import soot.jimple.toolkits.callgraph.ReachableMethods;
@@ -168,6 +195,7 @@ public abstract class AbstractInfoflow implements IInfoflow {
 	protected InfoflowResults results = null;
 	protected InfoflowManager manager;
 	protected ISolverPeerGroup solverPeerGroup;
+	protected SparseCFGIndex sparseCfgIndex;
 
 	protected IPathBuilderFactory pathBuilderFactory;
 	protected InfoflowConfiguration config = new InfoflowConfiguration();
@@ -206,6 +234,7 @@ public abstract class AbstractInfoflow implements IInfoflow {
 	protected IUsageContextProvider usageContextProvider = null;
 
 	protected FlowDroidMemoryWatcher memoryWatcher = null;
+	protected volatile FlowDroidMemoryWatcher prepassMemoryWatcher = null;
 	protected MultiMap<AnalysisPhase, AbstractSolverWatcher> customWatchers = new HashMultiMap<>();
 
 	/**
@@ -881,6 +910,13 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 			IInfoflowCFG iCfg = icfgFactory.buildBiDirICFG(config.getCallgraphAlgorithm(),
 					config.getEnableExceptionTracking());
+			if (config.getFreezeICFG() && config.getCallgraphAlgorithm() != CallgraphAlgorithm.OnDemand) {
+				long beforeFreeze = System.nanoTime();
+				FrozenInfoflowCFG frozenCfg = FrozenInfoflowCFG.freeze(iCfg);
+				logger.info("Freezing the ICFG with {} units in {} methods took {} seconds",
+						frozenCfg.getUnitCount(), frozenCfg.getMethodCount(), (System.nanoTime() - beforeFreeze) / 1E9);
+				iCfg = frozenCfg;
+			}
 
 			if (config.isTaintAnalysisEnabled())
 				runTaintAnalysis(sourcesSinks, additionalSeeds, iCfg, performanceData);
@@ -948,28 +984,28 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			oneSourceAtATime.resetCurrentSource();
 		boolean hasMoreSources = oneSourceAtATime == null || oneSourceAtATime.hasNextSource();
 
+		// All phases draw their threads from the same budget
+		final ThreadBudget threadBudget = new ThreadBudget(config);
+
+		// Collect the solver metrics over all sources if requested
+		final SolverConfiguration solverConfig = config.getSolverConfiguration();
+		final SolverMetricsWatcher metricsWatcher = solverConfig.isMetricsEnabled()
+				? new SolverMetricsWatcher(solverConfig.getMetricsSamplingInterval())
+				: null;
+
 		while (hasMoreSources) {
 			// Fetch the next source
 			if (oneSourceAtATime != null)
 				oneSourceAtATime.nextSource();
 
 			// Create the executor that takes care of the workers
-			int numThreads = Runtime.getRuntime().availableProcessors();
-			InterruptableExecutor executor = executorFactory.createExecutor(numThreads, true, config);
-			executor.setThreadFactory(new ThreadFactory() {
-
-				@Override
-				public Thread newThread(Runnable r) {
-					Thread thrIFDS = new Thread(r);
-					thrIFDS.setDaemon(true);
-					thrIFDS.setName("FlowDroid");
-					return thrIFDS;
-				}
-
-			});
+			final ThreadBudget.Lease taintLease = threadBudget.acquire(AnalysisPhase.TAINT_PROPAGATION);
+			InterruptableExecutor executor = taintLease
+					.track(executorFactory.createExecutor(taintLease.getThreadCount(), true, config, "FlowDroid"));
 
 			// Initialize the memory manager
 			IMemoryManager<Abstraction, Unit> memoryManager = createMemoryManager();
+			final AbstractionSpillStore spillStore = createSpillStore(memoryManager);
 
 			// Initialize our infrastructure for global taints
 			final Set<IInfoflowSolver> solvers = new HashSet<>();
@@ -977,6 +1013,11 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 			// Initialize the data flow manager
 			manager = initializeInfoflowManager(sourcesSinks, iCfg, globalTaintManager);
+			manager.setThreadBudget(threadBudget);
+
+			// Degrade the analysis step by step before we terminate it when the memory
+			// is getting low
+			registerDegradationSteps(memoryManager, manager.getAccessPathFactory(), iCfg);
 
 			// Create the solver peer group
 			switch (manager.getConfig().getSolverConfiguration().getDataFlowSolver()) {
@@ -1108,7 +1149,8 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				additionalManager.setUsageContextProvider(usageContextProvider);
 			}
 
-			// Start a thread for enforcing the timeout
+			// Start a thread for enforcing the timeout. The timeout includes the
+			// flow-insensitive prepass, which may take a share of it.
 			FlowDroidTimeoutWatcher timeoutWatcher = null;
 			if (config.getDataFlowTimeout() > 0) {
 				timeoutWatcher = new FlowDroidTimeoutWatcher(config.getDataFlowTimeout(), results);
@@ -1122,6 +1164,19 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				timeoutWatcher.start();
 			}
 
+			// Start a thread for sampling the solver metrics
+			if (metricsWatcher != null) {
+				metricsWatcher.addSolver((IMemoryBoundedSolver) forwardSolver, "forward");
+				if (aliasingStrategy.getSolver() != null)
+					metricsWatcher.addSolver((IMemoryBoundedSolver) aliasingStrategy.getSolver(), "alias");
+				if (additionalSolver != null)
+					metricsWatcher.addSolver((IMemoryBoundedSolver) additionalSolver, "additional");
+				if (additionalAliasSolver != null)
+					metricsWatcher.addSolver((IMemoryBoundedSolver) additionalAliasSolver, "additionalAlias");
+				metricsWatcher.start();
+			}
+
+			ThreadBudget.Lease pathLease = null;
 			InterruptableExecutor resultExecutor = null;
 			long beforePathReconstruction = 0;
 			try {
@@ -1146,28 +1201,44 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				if (additionalNativeCallHandler != null)
 					additionalNativeCallHandler.initialize(manager);
 
+				// Remove the seeds from which a cheap flow-insensitive analysis cannot reach
+				// any sink
+				if (solverConfig.isFlowInsensitivePrepass() && !runFlowInsensitivePrepass(sourcesSinks,
+						forwardProblem, zeroValue, additionalSeeds, iCfg, threadBudget, performanceData))
+					continue;
+
 				// Register the handler for interim results
 				TaintPropagationResults propagationResults = forwardProblem.getResults();
-				resultExecutor = executorFactory.createExecutor(numThreads, false, config);
-				resultExecutor.setThreadFactory(new ThreadFactory() {
-
-					@Override
-					public Thread newThread(Runnable r) {
-						return createNewThread(r);
-					}
-				});
-
-				// Create the path builder
-				final IAbstractionPathBuilder builder = createPathBuilder(resultExecutor);
 
 				// If we want incremental result reporting, we have to
-				// initialize it before we start the taint tracking
-				if (config.getIncrementalResultReporting())
+				// initialize it before we start the taint tracking. The path
+				// reconstruction then shares the thread budget with the taint
+				// propagation.
+				IAbstractionPathBuilder builder = null;
+				if (config.getIncrementalResultReporting()) {
+					pathLease = threadBudget.acquire(AnalysisPhase.PATH_RECONSTRUCTION);
+					resultExecutor = createResultExecutor(pathLease);
+					builder = createPathBuilder(resultExecutor);
 					initializeIncrementalResultReporting(propagationResults, builder);
+				}
 
 				// Solve the main IFDS problem
 				solveIFDSProblem(performanceData, forwardSolver, backwardSolver, additionalSolver,
 						additionalAliasSolver, executor);
+				if (memoryManager instanceof FlowDroidMemoryManager) {
+					FlowDroidMemoryManager flowDroidMemoryManager = (FlowDroidMemoryManager) memoryManager;
+					performanceData.addGeneratedAbstractions(flowDroidMemoryManager.getGeneratedAbstractionCount(),
+							flowDroidMemoryManager.getGeneratedAbstractionBytes());
+				}
+
+				// The threads of the taint propagation are free for the path
+				// reconstruction now
+				taintLease.release();
+				if (builder == null) {
+					pathLease = threadBudget.acquire(AnalysisPhase.PATH_RECONSTRUCTION);
+					resultExecutor = createResultExecutor(pathLease);
+					builder = createPathBuilder(resultExecutor);
+				}
 
 				// Get the result abstractions
 				Set<AbstractionAtSink> res = propagationResults.getResults();
@@ -1212,11 +1283,19 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 				if (timeoutWatcher != null)
 					timeoutWatcher.stop();
+				if (metricsWatcher != null) {
+					metricsWatcher.stop();
+					metricsWatcher.clearSolvers();
+				}
 				memoryWatcher.removeSolver((IMemoryBoundedSolver) forwardSolver);
 				forwardSolver.cleanup();
 				forwardProblem = null;
 
 				solverPeerGroup = null;
+				if (sparseCfgIndex != null) {
+					sparseCfgIndex.printStats();
+					sparseCfgIndex = null;
+				}
 
 				// Remove the alias analysis from memory
 				aliasing = null;
@@ -1260,13 +1339,19 @@ public abstract class AbstractInfoflow implements IInfoflow {
 				// Reconstruct the paths from source to sink
 				reconstructPaths(builder, resultExecutor, res);
 			} finally {
-				// Terminate the executor
-				if (resultExecutor != null)
-					resultExecutor.shutdown();
+				// Terminate the executors and return their threads to the budget
+				if (pathLease != null)
+					pathLease.release();
+				taintLease.release();
+				threadBudget.reportUsage(performanceData);
 
-				// Make sure to stop the watcher thread
+				// Make sure to stop the watcher threads
 				if (timeoutWatcher != null)
 					timeoutWatcher.stop();
+				if (metricsWatcher != null) {
+					metricsWatcher.stop();
+					metricsWatcher.clearSolvers();
+				}
 
 				if (aliasingStrategy != null) {
 					IInfoflowSolver solver = aliasingStrategy.getSolver();
@@ -1279,6 +1364,8 @@ public abstract class AbstractInfoflow implements IInfoflow {
 
 				// Shut down the memory watcher
 				memoryWatcher.close();
+				if (spillStore != null)
+					spillStore.close();
 
 				// Get rid of all the stuff that's still floating around in
 				// memory
@@ -1301,6 +1388,20 @@ public abstract class AbstractInfoflow implements IInfoflow {
 					performanceData.getPathReconstructionSeconds()));
 		}
 
+		// Report the solver metrics
+		if (metricsWatcher != null) {
+			metricsWatcher.reportTo(performanceData);
+			String metricsFile = solverConfig.getMetricsOutputFile();
+			if (metricsFile != null && !metricsFile.isEmpty()) {
+				try {
+					metricsWatcher.writeJson(new File(metricsFile));
+				} catch (IOException e) {
+					logger.error("Could not write solver metrics to " + metricsFile, e);
+				}
+			}
+			metricsWatcher.close();
+		}
+
 		// Execute the post-processors
 		for (PostAnalysisHandler handler : this.postProcessors)
 			results = handler.onResultsAvailable(results, iCfg);
@@ -1469,10 +1570,34 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		performanceData.addTaintPropagationSeconds(taintPropagationSeconds);
 		performanceData.addEdgePropagationCount(forwardSolver.getPropagationCount());
 		performanceData.setInfoflowPropagationCount(forwardSolver.getPropagationCount());
+		if (forwardSolver instanceof IFDSSolver) {
+			IFDSSolver<?, ?, ?> ifdsSolver = (IFDSSolver<?, ?, ?>) forwardSolver;
+			long jfSaved = ifdsSolver.getEstimatedJumpFunctionMemorySavedPerMillionEdges();
+			if (jfSaved >= 0)
+				performanceData.setEstimatedJumpFunctionMemorySavedPerMillionEdges(jfSaved);
+		}
 		if (backwardSolver != null) {
 			performanceData.setAliasPropagationCount(backwardSolver.getPropagationCount());
 			performanceData.addEdgePropagationCount(backwardSolver.getPropagationCount());
 		}
+		if (manager != null && manager.getAliasing() != null) {
+			double aliasQueryHitRate = manager.getAliasing().getAliasingStrategy().getQueryCacheHitRate();
+			if (aliasQueryHitRate >= 0)
+				performanceData.setAliasQueryCacheHitRate(aliasQueryHitRate);
+		}
+		if (config.getAccessPathConfiguration().getUseAccessPathInterning() && manager != null) {
+			AccessPathFactory accessPathFactory = manager.getAccessPathFactory();
+			performanceData.addAccessPathInternHitCount(accessPathFactory.getInternedAccessPathHitCount());
+			performanceData.updateInternedAccessPathCount(accessPathFactory.getInternedAccessPathCount());
+		}
+		if (manager != null && manager.getTypeUtils() != null) {
+			double typeCheckHitRate = manager.getTypeUtils().getTypeCheckCacheHitRate();
+			if (typeCheckHitRate >= 0)
+				performanceData.setTypeCheckCacheHitRate(typeCheckHitRate);
+		}
+		for (IInfoflowSolver solver : new IInfoflowSolver[] { forwardSolver, backwardSolver, additionalSolver,
+				additionalAliasSolver })
+			reportGarbageCollection(solver, performanceData);
 
 		// Print taint wrapper statistics
 		if (taintWrapper != null) {
@@ -1560,8 +1685,39 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		int sinkCount = 0;
 		logger.info("Looking for sources and sinks...");
 
-		for (SootMethod sm : getMethodsForSeeds(iCfg))
-			sinkCount += scanMethodForSourcesSinks(sourcesSinks, problem, sm);
+		// If we slice the program, we need to know which methods contain sinks
+		final Collection<SootMethod> seedMethods = getMethodsForSeeds(iCfg);
+		final Set<SootMethod> sinkMethods = config.getSolverConfiguration().isSinkReachabilitySlicing()
+				? new HashSet<>()
+				: null;
+		long beforeScan = System.nanoTime();
+
+		// Classify all reachable statements once, so that neither the scan nor the
+		// taint propagation need to match the callees against the definitions again.
+		// With one source at a time, the index of the first source is reused.
+		if (config.getSourceSinkConfig().getPrecomputeStatementIndex()
+				&& sourcesSinks instanceof BaseSourceSinkManager)
+			((BaseSourceSinkManager) sourcesSinks).buildStatementIndex(iCfg, seedMethods, getScanThreadCount());
+
+		// System classes and the like are not scanned. We check this before we
+		// distribute the methods over the threads, because the check may tag classes.
+		List<SootMethod> scanMethods = new ArrayList<>(seedMethods.size());
+		for (SootMethod sm : seedMethods)
+			if (sm.hasActiveBody() && isValidSeedMethod(sm))
+				scanMethods.add(sm);
+		AtomicReferenceArray<List<Pair<Stmt, SourceOrSink>>> scanResults = scanMethodsForSourcesSinks(sourcesSinks,
+				scanMethods);
+
+		// Register the sources and sinks in the order of the methods, so that the
+		// seeds do not depend on the thread scheduling
+		for (int i = 0; i < scanMethods.size(); i++) {
+			int methodSinkCount = registerSourcesSinks(problem, scanResults.get(i));
+			if (sinkMethods != null && methodSinkCount > 0)
+				sinkMethods.add(scanMethods.get(i));
+			sinkCount += methodSinkCount;
+		}
+		scanResults = null;
+		performanceData.addSourceSinkScanSeconds((int) Math.round((System.nanoTime() - beforeScan) / 1E9));
 
 		// We optionally also allow additional seeds to be specified
 		if (additionalSeeds != null)
@@ -1589,9 +1745,101 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		// Update the performance statistics
 		performanceData.setSourceCount(problem.getInitialSeeds().size());
 		performanceData.setSinkCount(sinkCount);
+
+		// Remove the seeds from which no sink is reachable in the call graph
+		if (sinkMethods != null)
+			return sliceToSinkReachingMethods(problem, seedMethods, sinkMethods, additionalSeeds, iCfg,
+					performanceData);
+		return true;
+	}
+
+	/**
+	 * Restricts the given problem to the methods from which a sink is reachable in
+	 * the call graph. Seeds in methods from which a taint can never reach a sink
+	 * are removed. The remaining methods are registered with the problem, so that
+	 * the solver does not return taints into callers outside of the slice.
+	 * 
+	 * @param problem         The main IFDS problem with its initial seeds
+	 * @param seedMethods     The methods that have been scanned for sources and
+	 *                        sinks
+	 * @param sinkMethods     The methods that contain at least one sink
+	 * @param additionalSeeds The additional seed methods, which are never removed
+	 * @param iCfg            The interprocedural control flow graph
+	 * @param performanceData The object that receives the performance data
+	 * @return True if the taint propagation still has seeds to start from, false
+	 *         otherwise
+	 */
+	protected boolean sliceToSinkReachingMethods(AbstractInfoflowProblem problem, Collection<SootMethod> seedMethods,
+			Set<SootMethod> sinkMethods, final Set<String> additionalSeeds, IInfoflowCFG iCfg,
+			InfoflowPerformanceData performanceData) {
+		// Sources of a backward analysis are reached from the sinks, not vice versa
+		if (config.getDataFlowDirection() != DataFlowDirection.Forwards) {
+			logger.warn("Sink reachability slicing is only supported for forward analyses, skipping it");
+			return true;
+		}
+
+		// Context-insensitive static field taints are injected into every method
+		// that reads the field, regardless of the call graph
+		if (config.getStaticFieldTrackingMode() == StaticFieldTrackingMode.ContextFlowInsensitive) {
+			logger.warn("Sink reachability slicing is not supported with context-insensitive static field "
+					+ "tracking, skipping it");
+			return true;
+		}
+
+		long beforeSlicing = System.nanoTime();
+		SinkReachabilitySlicer slicer = new SinkReachabilitySlicer(iCfg);
+		Set<SootMethod> sinkReaching = slicer.getSinkReachingMethods(sinkMethods);
+
+		// If taints are returned past their seeds, they may also reach a sink through
+		// any transitive caller of the seed method
+		final Set<SootMethod> seedScope = problem.followReturnsPastSeeds() ? slicer.getTransitiveCallees(sinkReaching)
+				: sinkReaching;
+		final Set<Unit> additionalSeedUnits = getAdditionalSeedUnits(additionalSeeds);
+		int prunedSeeds = problem
+				.retainInitialSeeds(u -> additionalSeedUnits.contains(u) || seedScope.contains(iCfg.getMethodOf(u)));
+
+		// Taints can only be propagated into the callees of the remaining seeds and
+		// the sink-reaching methods
+		Set<SootMethod> roots = new HashSet<>(sinkReaching);
+		for (Unit u : problem.getInitialSeeds().keySet())
+			roots.add(iCfg.getMethodOf(u));
+		Set<SootMethod> relevantMethods = slicer.getTransitiveCallees(roots);
+		problem.setRelevantMethods(relevantMethods);
+
+		int prunedMethods = 0;
+		for (SootMethod sm : seedMethods)
+			if (!relevantMethods.contains(sm))
+				prunedMethods++;
+		performanceData.addPrunedSeedCount(prunedSeeds);
+		performanceData.addPrunedMethodCount(prunedMethods);
+		logger.info("Sink reachability slicing removed {} seeds and {} methods in {} seconds", prunedSeeds,
+				prunedMethods, (System.nanoTime() - beforeSlicing) / 1E9);
+
+		if (!problem.hasInitialSeeds()) {
+			logger.info("No source can reach a sink in the call graph, skipping the taint propagation");
+			return false;
+		}
 		return true;
 	}
 
+	/**
+	 * Gets the seed units of the additional seed methods, i.e., the first unit of
+	 * each additional seed method
+	 * 
+	 * @param additionalSeeds The signatures of the additional seed methods
+	 * @return The seed units of the additional seed methods
+	 */
+	private Set<Unit> getAdditionalSeedUnits(final Set<String> additionalSeeds) {
+		Set<Unit> seedUnits = new HashSet<>();
+		if (additionalSeeds != null)
+			for (String meth : additionalSeeds) {
+				SootMethod m = Scene.v().grabMethod(meth);
+				if (m != null && m.hasActiveBody())
+					seedUnits.add(m.getActiveBody().getUnits().getFirst());
+			}
+		return seedUnits;
+	}
+
 	protected Thread createNewThread(Runnable r) {
 		Thread thrPath = new Thread(r);
 		thrPath.setDaemon(true);
@@ -1617,6 +1865,238 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		return null;
 	}
 
+	/**
+	 * Creates the problem for the flow-insensitive prepass that decides which
+	 * seeds of the precise taint propagation can reach a sink
+	 * 
+	 * @param prepassManager The data flow manager for the prepass
+	 * @param zeroValue      The taint abstraction for the tautology
+	 * @return The IFDS problem for the prepass, or <code>null</code> if this
+	 *         analysis does not support a prepass
+	 */
+	protected AbstractInfoflowProblem createPrepassProblem(InfoflowManager prepassManager, Abstraction zeroValue) {
+		return null;
+	}
+
+	/**
+	 * Creates the memory watcher that aborts the flow-insensitive prepass when the
+	 * memory runs low. Aborting the prepass only terminates the prepass solver.
+	 * 
+	 * @return The memory watcher for the prepass
+	 */
+	protected FlowDroidMemoryWatcher createPrepassMemoryWatcher() {
+		return new FlowDroidMemoryWatcher(config.getMemoryThreshold());
+	}
+
+	/**
+	 * Runs a flow-insensitive taint propagation from the seeds of the given problem
+	 * and removes all source seeds from which this propagation does not reach any
+	 * sink. The flow-insensitive propagation over-approximates the precise one, so
+	 * the removed seeds cannot lead to a leak in the precise analysis either. For
+	 * the same reason, the precise taints of the remaining seeds can only appear in
+	 * methods in which the prepass has seen taints of these seeds. The precise
+	 * taint propagation is restricted to these methods.
+	 * 
+	 * The prepass may take at most half of the data flow timeout. The timeout of
+	 * the analysis keeps running during the prepass.
+	 * 
+	 * @param sourcesSinks    The {@link ISourceSinkManager} implementation for
+	 *                        identifying sources and sinks
+	 * @param problem         The main IFDS problem with its initial seeds
+	 * @param zeroValue       The taint abstraction for the tautology
+	 * @param additionalSeeds The additional seed methods, which are never removed
+	 * @param iCfg            The interprocedural control flow graph
+	 * @param threadBudget    The thread budget of the current analysis run
+	 * @param performanceData The object that receives the performance data
+	 * @return True if the precise analysis still has seeds to start from, false
+	 *         otherwise
+	 */
+	protected boolean runFlowInsensitivePrepass(final ISourceSinkManager sourcesSinks,
+			AbstractInfoflowProblem problem, Abstraction zeroValue, final Set<String> additionalSeeds,
+			IInfoflowCFG iCfg, ThreadBudget threadBudget, InfoflowPerformanceData performanceData) {
+		// The prepass shares the access paths and type checks of the main analysis
+		final Set<IInfoflowSolver> prepassSolvers = new HashSet<>();
+		InfoflowManager prepassManager = new InfoflowManager(config, null, iCfg, sourcesSinks, taintWrapper,
+				hierarchy, new GlobalTaintManager(prepassSolvers), manager);
+		AbstractInfoflowProblem prepassProblem = createPrepassProblem(prepassManager, zeroValue);
+		if (prepassProblem == null) {
+			logger.warn("This analysis does not support a flow-insensitive prepass, skipping it");
+			return true;
+		}
+
+		logger.info("Running flow-insensitive prepass on {} seeds...", problem.getInitialSeeds().size());
+		long beforePrepass = System.nanoTime();
+
+		// The prepass runs on its own executor, because the solver shuts down its
+		// executor once it is done. It uses the threads leased for the taint
+		// propagation, which does not start before the prepass has finished.
+		InterruptableExecutor prepassExecutor = threadBudget.track(AnalysisPhase.TAINT_PROPAGATION,
+				executorFactory.createExecutor(threadBudget.getThreadCount(AnalysisPhase.TAINT_PROPAGATION), true,
+						config, "FlowDroid Prepass"));
+		IInfoflowSolver prepassSolver = new soot.jimple.infoflow.solver.fastSolver.flowInsensitive.InfoflowSolver(
+				prepassProblem, prepassExecutor);
+		prepassManager.setMainSolver(prepassSolver);
+		prepassSolvers.add(prepassSolver);
+
+		// We need a flow-insensitive alias analysis as well
+		Aliasing prepassAliasing = createAliasController(new PtsBasedAliasStrategy(prepassManager));
+		if (dummyMainMethod != null)
+			prepassAliasing.excludeMethodFromMustAlias(dummyMainMethod);
+		prepassManager.setAliasing(prepassAliasing);
+
+		prepassProblem.setTaintWrapper(taintWrapper);
+		if (nativeCallHandler != null)
+			prepassProblem.setNativeCallHandler(nativeCallHandler);
+		problem.getInitialSeeds().forEach(prepassProblem::addInitialSeeds);
+		prepassProblem.setRelevantMethods(problem.getRelevantMethods());
+
+		// Record the methods in which the taints of each source appear
+		final Map<Unit, Set<SootMethod>> methodsBySource = new ConcurrentHashMap<>();
+		prepassProblem.setTaintPropagationHandler(new TaintPropagationHandler() {
+
+			@Override
+			public void notifyFlowIn(Unit stmt, Abstraction taint, InfoflowManager manager, FlowFunctionType type) {
+				if (taint.getSourceContext() == null || taint.getSourceContext().getStmt() == null)
+					return;
+				SootMethod sm = iCfg.getMethodOf(stmt);
+				if (sm == null)
+					return;
+				Set<SootMethod> methods = methodsBySource.get(taint.getSourceContext().getStmt());
+				if (methods == null)
+					methods = methodsBySource.computeIfAbsent(taint.getSourceContext().getStmt(),
+							k -> ConcurrentHashMap.newKeySet());
+				methods.add(sm);
+			}
+
+			@Override
+			public Set<Abstraction> notifyFlowOut(Unit stmt, Abstraction d1, Abstraction incoming,
+					Set<Abstraction> outgoing, InfoflowManager manager, FlowFunctionType type) {
+				return outgoing;
+			}
+
+		});
+
+		// The main solvers are already registered with the memory and timeout
+		// watchers of the analysis. The prepass gets its own watchers, so that
+		// aborting it does not terminate the main solvers as well. The memory watcher
+		// of the analysis is stopped in the meantime, and registers the thresholds
+		// that have been reached during the prepass again once it is reset.
+		FlowDroidMemoryWatcher prepassMemoryWatcher = createPrepassMemoryWatcher();
+		prepassMemoryWatcher.addSolver((IMemoryBoundedSolver) prepassSolver);
+		FlowDroidTimeoutWatcher prepassTimeoutWatcher = null;
+		if (config.getDataFlowTimeout() > 0) {
+			prepassTimeoutWatcher = new FlowDroidTimeoutWatcher(Math.max(1, config.getDataFlowTimeout() / 2));
+			prepassTimeoutWatcher.addSolver((IMemoryBoundedSolver) prepassSolver);
+		}
+
+		Set<Unit> reachingSources = null;
+		memoryWatcher.stop();
+		this.prepassMemoryWatcher = prepassMemoryWatcher;
+		try {
+			if (prepassTimeoutWatcher != null)
+				prepassTimeoutWatcher.start();
+			prepassSolver.solve();
+			if (!((IMemoryBoundedSolver) prepassSolver).isKilled())
+				reachingSources = getReachingSources(prepassProblem.getResults().getResults());
+		} finally {
+			this.prepassMemoryWatcher = null;
+			if (prepassTimeoutWatcher != null) {
+				prepassTimeoutWatcher.stop();
+				prepassTimeoutWatcher.close();
+			}
+			prepassMemoryWatcher.close();
+			prepassSolver.cleanup();
+			prepassManager.cleanup();
+			memoryWatcher.reset();
+			performanceData.addPrepassSeconds((int) Math.round((System.nanoTime() - beforePrepass) / 1E9));
+		}
+
+		// If the prepass did not complete, we cannot tell which seeds are irrelevant
+		if (reachingSources == null) {
+			logger.warn("Flow-insensitive prepass was aborted, keeping all seeds");
+			return true;
+		}
+
+		// Seeds that are not sources, i.e., the additional seed methods, have no
+		// source context and must always be kept
+		final Set<Unit> retainedSeeds = reachingSources;
+		retainedSeeds.addAll(getAdditionalSeedUnits(additionalSeeds));
+		int prunedSeeds = problem.retainInitialSeeds(retainedSeeds::contains);
+		performanceData.addPrunedSeedCount(prunedSeeds);
+		logger.info("Flow-insensitive prepass removed {} seeds, {} seeds remain", prunedSeeds,
+				problem.getInitialSeeds().size());
+
+		if (!problem.hasInitialSeeds()) {
+			logger.info("No source can reach a sink, skipping the taint propagation");
+			return false;
+		}
+
+		// Taints are not returned into methods in which the prepass has not seen any
+		// taint of a remaining source. We cannot attribute the taints of additional
+		// seeds to a source, so we do not restrict the analysis in this case.
+		if (additionalSeeds != null && !additionalSeeds.isEmpty())
+			return true;
+		Set<SootMethod> relevantMethods = new HashSet<>();
+		for (Unit source : reachingSources) {
+			Set<SootMethod> methods = methodsBySource.get(source);
+			if (methods != null)
+				relevantMethods.addAll(methods);
+		}
+		if (problem.getRelevantMethods() != null)
+			relevantMethods.retainAll(problem.getRelevantMethods());
+		problem.setRelevantMethods(relevantMethods);
+		logger.info("Flow-insensitive prepass restricted the taint propagation to {} methods",
+				relevantMethods.size());
+		return true;
+	}
+
+	/**
+	 * Gets the source statements from which the given abstractions at sinks have
+	 * been derived
+	 * 
+	 * @param results The abstractions at the sinks
+	 * @return The source statements from which the abstractions have been derived
+	 */
+	private static Set<Unit> getReachingSources(Set<AbstractionAtSink> results) {
+		Set<Unit> sources = new HashSet<>();
+		if (results == null || results.isEmpty())
+			return sources;
+
+		Set<Abstraction> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<Abstraction> worklist = new ArrayDeque<>();
+		for (AbstractionAtSink abs : results)
+			worklist.add(abs.getAbstraction());
+		while (!worklist.isEmpty()) {
+			Abstraction abs = worklist.poll();
+			if (!visited.add(abs))
+				continue;
+			if (abs.getSourceContext() != null && abs.getSourceContext().getStmt() != null)
+				sources.add(abs.getSourceContext().getStmt());
+			if (abs.getPredecessor() != null)
+				worklist.add(abs.getPredecessor());
+			if (abs.getNeighbors() != null)
+				worklist.addAll(abs.getNeighbors());
+		}
+		return sources;
+	}
+
+	/**
+	 * Writes the statistics of the garbage collector of the given solver into the
+	 * given performance data object, if the solver collects garbage
+	 * 
+	 * @param solver          The solver, or <code>null</code>
+	 * @param performanceData The performance data object to fill
+	 */
+	private void reportGarbageCollection(IInfoflowSolver solver, InfoflowPerformanceData performanceData) {
+		IGarbageCollector<?, ?> gc = null;
+		if (solver instanceof soot.jimple.infoflow.solver.gcSolver.IFDSSolver)
+			gc = ((soot.jimple.infoflow.solver.gcSolver.IFDSSolver<?, ?, ?>) solver).getGarbageCollector();
+		else if (solver instanceof soot.jimple.infoflow.solver.gcSolver.fpc.IFDSSolver)
+			gc = ((soot.jimple.infoflow.solver.gcSolver.fpc.IFDSSolver<?, ?, ?>) solver).getGarbageCollector();
+		if (gc instanceof AbstractReferenceCountingGarbageCollector)
+			((AbstractReferenceCountingGarbageCollector<?, ?, ?>) gc).reportTo(performanceData);
+	}
+
 	/**
 	 * Creates the instance of the data flow solver
 	 *
@@ -1631,6 +2111,9 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		case ContextFlowSensitive:
 			logger.info("Using context- and flow-sensitive solver");
 			InfoflowSolver infoflowSolver = new InfoflowSolver(problem, executor);
+			infoflowSolver.setJumpFunctions(createJumpFunctions(solverConfig));
+			configureSchedulingStrategy(infoflowSolver, solverConfig);
+			configureFlowFunctionCache(infoflowSolver, solverConfig);
 			solverPeerGroup.addSolver(infoflowSolver);
 			return infoflowSolver;
 		case SparseContextFlowSensitive:
@@ -1638,7 +2121,13 @@ public abstract class AbstractInfoflow implements IInfoflow {
 					.getSparsePropagationStrategy();
 			logger.info(
 					"Using sparse context-sensitive and flow-sensitive solver with sparsification " + opt.toString());
-			IInfoflowSolver sparseSolver = new SparseInfoflowSolver(problem, executor, opt);
+			// All sparse solvers of the same analysis share the per-method index
+			if (sparseCfgIndex == null)
+				sparseCfgIndex = new SparseCFGIndex(solverConfig.getMaxSparseIndexMethods());
+			SparseInfoflowSolver sparseSolver = new SparseInfoflowSolver(problem, executor, opt, sparseCfgIndex);
+			sparseSolver.setJumpFunctions(createJumpFunctions(solverConfig));
+			configureSchedulingStrategy(sparseSolver, solverConfig);
+			configureFlowFunctionCache(sparseSolver, solverConfig);
 			solverPeerGroup.addSolver(sparseSolver);
 			return sparseSolver;
 		case FlowInsensitive:
@@ -1646,14 +2135,22 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			return new soot.jimple.infoflow.solver.fastSolver.flowInsensitive.InfoflowSolver(problem, executor);
 		case GarbageCollecting:
 			logger.info("Using garbage-collecting solver");
-			IInfoflowSolver solver = new soot.jimple.infoflow.solver.gcSolver.InfoflowSolver(problem, executor,
-					solverConfig.getSleepTime());
+			soot.jimple.infoflow.solver.gcSolver.InfoflowSolver solver = new soot.jimple.infoflow.solver.gcSolver.InfoflowSolver(
+					problem, executor, solverConfig.getSleepTime());
+			solver.setGcThreadCount(solverConfig.getGcThreadCount());
+			solver.setGcPauseBudget(solverConfig.getGcPauseBudget());
+			solver.setThreadBudget(problem.getManager().getThreadBudget());
+			if (solverConfig.getGcReferenceCacheDirectory() != null)
+				solver.setReferenceCacheDirectory(new File(solverConfig.getGcReferenceCacheDirectory()));
 			solverPeerGroup.addSolver(solver);
 			return solver;
 		case FineGrainedGC:
 			logger.info("Using fine-grained garbage-collecting solver");
-			IInfoflowSolver fgSolver = new soot.jimple.infoflow.solver.gcSolver.fpc.InfoflowSolver(problem, executor,
-					solverConfig.getSleepTime());
+			soot.jimple.infoflow.solver.gcSolver.fpc.InfoflowSolver fgSolver = new soot.jimple.infoflow.solver.gcSolver.fpc.InfoflowSolver(
+					problem, executor, solverConfig.getSleepTime());
+			fgSolver.setGcThreadCount(solverConfig.getGcThreadCount());
+			fgSolver.setGcPauseBudget(solverConfig.getGcPauseBudget());
+			fgSolver.setThreadBudget(problem.getManager().getThreadBudget());
 			solverPeerGroup.addSolver(fgSolver);
 			return fgSolver;
 		default:
@@ -1661,6 +2158,64 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		}
 	}
 
+	/**
+	 * Creates the data structure in which the context- and flow-sensitive solvers
+	 * store their jump functions
+	 *
+	 * @param solverConfig The solver configuration
+	 * @return The data structure for storing the jump functions
+	 */
+	protected IJumpFunctions<Unit, Abstraction> createJumpFunctions(SolverConfiguration solverConfig) {
+		switch (solverConfig.getJumpFunctionStore()) {
+		case Compact:
+			logger.info("Using compact jump function store");
+			return new CompactJumpFunctions<>();
+		default:
+			return new DefaultJumpFunctions<>();
+		}
+	}
+
+	/**
+	 * Configures how the given context- and flow-sensitive solver schedules its
+	 * path edges
+	 *
+	 * @param solver       The solver to configure
+	 * @param solverConfig The solver configuration
+	 */
+	protected void configureSchedulingStrategy(IFDSSolver<Unit, Abstraction, IInfoflowCFG> solver,
+			SolverConfiguration solverConfig) {
+		switch (solverConfig.getEdgeSchedulingStrategy()) {
+		case Batched:
+			logger.info("Using batched edge scheduling");
+			solver.setSchedulingStrategy(
+					new DefaultSchedulingStrategy<Unit, Abstraction, IInfoflowCFG>(solver).EACH_EDGE_BATCHED);
+			break;
+		default:
+			// Keep the solver's default strategy
+			break;
+		}
+	}
+
+	/**
+	 * Configures the cache in which the given context- and flow-sensitive solver
+	 * keeps its flow functions
+	 *
+	 * @param solver       The solver to configure
+	 * @param solverConfig The solver configuration
+	 */
+	protected void configureFlowFunctionCache(IFDSSolver<Unit, Abstraction, IInfoflowCFG> solver,
+			SolverConfiguration solverConfig) {
+		switch (solverConfig.getFlowFunctionCacheMode()) {
+		case PerMethod:
+			logger.info("Using per-method flow function cache");
+			solver.enableMethodFlowFunctionCache(solverConfig.getMaxCachedFlowFunctionMethods());
+			break;
+		default:
+			// Keep the solver's default cache
+			break;
+		}
+	}
+
 	protected enum SourceSinkState {
 		SOURCE, SINK, NEITHER, BOTH
 	}
@@ -1752,69 +2307,166 @@ public abstract class AbstractInfoflow implements IInfoflow {
 	}
 
 	/**
-	 * Scans the given method for sources and sinks contained in it. Sinks are just
-	 * counted, sources are added to the InfoflowProblem as seeds.
+	 * Fork/join task that scans a range of methods for sources and sinks. Each
+	 * method's result is stored at the method's index, so that the results can be
+	 * processed in a deterministic order afterwards.
+	 */
+	private class SourceSinkScanTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 2475281386117383544L;
+
+		private static final int METHODS_PER_TASK = 32;
+
+		private final ISourceSinkManager sourcesSinks;
+		private final List<SootMethod> methods;
+		private final AtomicReferenceArray<List<Pair<Stmt, SourceOrSink>>> results;
+		private final int from;
+		private final int to;
+
+		private SourceSinkScanTask(ISourceSinkManager sourcesSinks, List<SootMethod> methods,
+				AtomicReferenceArray<List<Pair<Stmt, SourceOrSink>>> results, int from, int to) {
+			this.sourcesSinks = sourcesSinks;
+			this.methods = methods;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= METHODS_PER_TASK) {
+				for (int i = from; i < to; i++)
+					results.set(i, scanMethodForSourcesSinks(sourcesSinks, methods.get(i)));
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new SourceSinkScanTask(sourcesSinks, methods, results, from, mid),
+						new SourceSinkScanTask(sourcesSinks, methods, results, mid, to));
+			}
+		}
+
+	}
+
+	/**
+	 * Scans the given methods for sources and sinks. The methods are distributed
+	 * over all threads that the taint propagation may use.
+	 * 
+	 * @param sourcesSinks The SourceSinkManager to be used for identifying sources
+	 *                     and sinks
+	 * @param methods      The methods to scan
+	 * @return The sources and sinks of each method, at the same index as the
+	 *         method in the given list
+	 */
+	private AtomicReferenceArray<List<Pair<Stmt, SourceOrSink>>> scanMethodsForSourcesSinks(
+			final ISourceSinkManager sourcesSinks, List<SootMethod> methods) {
+		final AtomicReferenceArray<List<Pair<Stmt, SourceOrSink>>> results = new AtomicReferenceArray<>(
+				methods.size());
+		final int numThreads = getScanThreadCount();
+		if (numThreads <= 1 || methods.size() <= SourceSinkScanTask.METHODS_PER_TASK) {
+			new SourceSinkScanTask(sourcesSinks, methods, results, 0, methods.size()).compute();
+			return results;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(numThreads);
+		try {
+			pool.invoke(new SourceSinkScanTask(sourcesSinks, methods, results, 0, methods.size()));
+		} finally {
+			pool.shutdown();
+		}
+		return results;
+	}
+
+	/**
+	 * Gets the number of threads that may be used for scanning the methods for
+	 * sources and sinks
+	 * 
+	 * @return The number of threads for the source and sink scan
+	 */
+	private int getScanThreadCount() {
+		final ThreadBudget threadBudget = manager == null ? new ThreadBudget(config) : manager.getThreadBudget();
+		return threadBudget.getThreadCount(AnalysisPhase.TAINT_PROPAGATION);
+	}
+
+	/**
+	 * Scans the given method for sources and sinks contained in it. This method
+	 * does not modify any shared state, so that it can be called for multiple
+	 * methods in parallel.
+	 * 
+	 * @param sourcesSinks The SourceSinkManager to be used for identifying sources
+	 *                     and sinks
+	 * @param m            The method to scan for sources and sinks
+	 * @return The statements in the given method that are sources or sinks
+	 */
+	private List<Pair<Stmt, SourceOrSink>> scanMethodForSourcesSinks(final ISourceSinkManager sourcesSinks,
+			SootMethod m) {
+		List<Pair<Stmt, SourceOrSink>> found = Collections.emptyList();
+
+		// Look for a source in the method. Also look for sinks. If we
+		// have no sink in the program, we don't need to perform any
+		// analysis
+		PatchingChain<Unit> units = m.getActiveBody().getUnits();
+		for (Unit u : units) {
+			Stmt s = (Stmt) u;
+			SourceOrSink sos = scanStmtForSourcesSinks(sourcesSinks, s);
+			if (sos.getState() != SourceSinkState.NEITHER) {
+				if (found.isEmpty())
+					found = new ArrayList<>();
+				found.add(new Pair<>(s, sos));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Registers the sources and sinks found in a method. Sinks are just counted,
+	 * sources are added to the InfoflowProblem as seeds.
 	 * 
-	 * @param sourcesSinks   The SourceSinkManager to be used for identifying
-	 *                       sources and sinks
 	 * @param forwardProblem The InfoflowProblem in which to register the sources as
 	 *                       seeds
-	 * @param m              The method to scan for sources and sinks
-	 * @return The number of sinks found in this method
+	 * @param found          The sources and sinks found in the method
+	 * @return The number of sinks found in the method
 	 */
-	private int scanMethodForSourcesSinks(final ISourceSinkManager sourcesSinks, AbstractInfoflowProblem forwardProblem,
-			SootMethod m) {
+	private int registerSourcesSinks(AbstractInfoflowProblem forwardProblem,
+			List<Pair<Stmt, SourceOrSink>> found) {
 		if (getConfig().getLogSourcesAndSinks() && collectedSources == null) {
-			collectedSources = new HashSet<>();
-			collectedSinks = new HashSet<>();
+			collectedSources = new LinkedHashSet<>();
+			collectedSinks = new LinkedHashSet<>();
 		}
 
 		int sinkCount = 0;
-		if (m.hasActiveBody()) {
-			// Check whether this is a system class we need to ignore
-			if (!isValidSeedMethod(m))
-				return sinkCount;
-
-			// Look for a source in the method. Also look for sinks. If we
-			// have no sink in the program, we don't need to perform any
-			// analysis
-			PatchingChain<Unit> units = m.getActiveBody().getUnits();
-			for (Unit u : units) {
-				Stmt s = (Stmt) u;
-				SourceOrSink sos = scanStmtForSourcesSinks(sourcesSinks, s);
-				switch (sos.getState()) {
-				case SOURCE:
-					if (s.containsInvokeExpr() && !isCallbackOrReturn(sos.getSourceInfo().getAllDefinitions()))
+		for (Pair<Stmt, SourceOrSink> pair : found) {
+			Stmt s = pair.getO1();
+			SourceOrSink sos = pair.getO2();
+			switch (sos.getState()) {
+			case SOURCE:
+				if (s.containsInvokeExpr() && !isCallbackOrReturn(sos.getSourceInfo().getAllDefinitions()))
+					s.addTag(FlowDroidSourceStatement.INSTANCE);
+				forwardProblem.addInitialSeeds(s, Collections.singleton(forwardProblem.zeroValue()));
+				if (getConfig().getLogSourcesAndSinks())
+					collectedSources.add(s);
+				break;
+			case SINK:
+				if (s.containsInvokeExpr())
+					s.addTag(FlowDroidSinkStatement.INSTANCE);
+				if (getConfig().getLogSourcesAndSinks())
+					collectedSinks.add(s);
+				sinkCount++;
+				break;
+			case BOTH:
+				if (s.containsInvokeExpr()) {
+					if (!isCallbackOrReturn(sos.getSourceInfo().getAllDefinitions()))
 						s.addTag(FlowDroidSourceStatement.INSTANCE);
-					forwardProblem.addInitialSeeds(s, Collections.singleton(forwardProblem.zeroValue()));
-					if (getConfig().getLogSourcesAndSinks())
-						collectedSources.add(s);
-					break;
-				case SINK:
-					if (s.containsInvokeExpr())
-						s.addTag(FlowDroidSinkStatement.INSTANCE);
-					if (getConfig().getLogSourcesAndSinks())
-						collectedSinks.add(s);
-					sinkCount++;
-					break;
-				case BOTH:
-					if (s.containsInvokeExpr()) {
-						if (!isCallbackOrReturn(sos.getSourceInfo().getAllDefinitions()))
-							s.addTag(FlowDroidSourceStatement.INSTANCE);
-						s.addTag(FlowDroidSinkStatement.INSTANCE);
-					}
-					forwardProblem.addInitialSeeds(s, Collections.singleton(forwardProblem.zeroValue()));
-					if (getConfig().getLogSourcesAndSinks()) {
-						collectedSources.add(s);
-						collectedSinks.add(s);
-					}
-					sinkCount++;
-					break;
-				case NEITHER:
-					break;
+					s.addTag(FlowDroidSinkStatement.INSTANCE);
+				}
+				forwardProblem.addInitialSeeds(s, Collections.singleton(forwardProblem.zeroValue()));
+				if (getConfig().getLogSourcesAndSinks()) {
+					collectedSources.add(s);
+					collectedSinks.add(s);
 				}
+				sinkCount++;
+				break;
+			case NEITHER:
+				break;
 			}
-
 		}
 		return sinkCount;
 	}
@@ -2061,6 +2713,88 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		return memoryManager;
 	}
 
+	/**
+	 * Registers the steps that the memory watcher takes before it terminates the
+	 * solvers when the memory is getting low
+	 * 
+	 * @param memoryManager     The memory manager of the data flow solvers
+	 * @param accessPathFactory The factory that creates the access paths for new
+	 *                          taints
+	 * @param iCfg              The interprocedural control flow graph
+	 */
+	protected void registerDegradationSteps(IMemoryManager<Abstraction, Unit> memoryManager,
+			AccessPathFactory accessPathFactory, IInfoflowCFG iCfg) {
+		final double flushThreshold = config.getCacheFlushMemoryThreshold();
+		if (flushThreshold > 0 && flushThreshold < config.getMemoryThreshold()) {
+			int state = InfoflowResults.TERMINATION_DEGRADED_CACHES_FLUSHED;
+			if (memoryManager instanceof FlowDroidMemoryManager)
+				state |= InfoflowResults.TERMINATION_DEGRADED_PATH_DATA_ERASED;
+			memoryWatcher.addDegradationStep(flushThreshold, state, () -> {
+				memoryWatcher.releaseSolverCaches();
+				releaseAliasingCaches(manager);
+				iCfg.purge();
+				if (memoryManager instanceof FlowDroidMemoryManager)
+					((FlowDroidMemoryManager) memoryManager)
+							.setPathDataErasureMode(FlowDroidMemoryManager.PathDataErasureMode.EraseAll);
+			});
+		} else if (flushThreshold > 0)
+			logger.warn("The cache flush threshold must be lower than the memory threshold, step disabled");
+
+		final double reductionThreshold = config.getPrecisionReductionMemoryThreshold();
+		if (reductionThreshold > 0 && reductionThreshold < config.getMemoryThreshold()) {
+			int state = InfoflowResults.TERMINATION_DEGRADED_ACCESS_PATHS_SHORTENED;
+			DataFlowSolver solver = config.getSolverConfiguration().getDataFlowSolver();
+			if (solver == DataFlowSolver.GarbageCollecting || solver == DataFlowSolver.FineGrainedGC)
+				state |= InfoflowResults.TERMINATION_DEGRADED_SOLVER_GC;
+			memoryWatcher.addDegradationStep(reductionThreshold, state, () -> {
+				accessPathFactory.limitAccessPathLength(config.getReducedAccessPathLength());
+				memoryWatcher.collectSolverGarbage();
+			});
+		} else if (reductionThreshold > 0)
+			logger.warn("The precision reduction threshold must be lower than the memory threshold, step disabled");
+	}
+
+	/**
+	 * Releases the caches of the aliasing strategies of the given data flow manager
+	 * and of its additional manager
+	 * 
+	 * @param manager The data flow manager
+	 */
+	private static void releaseAliasingCaches(InfoflowManager manager) {
+		for (InfoflowManager m = manager; m != null; m = m.additionalManager) {
+			if (m.getAliasing() != null)
+				m.getAliasing().getAliasingStrategy().releaseCaches();
+		}
+	}
+
+	/**
+	 * Creates the store to which the memory manager moves cold predecessor chains
+	 * when the memory is getting low
+	 * 
+	 * @param memoryManager The memory manager that shall use the new store
+	 * @return The new spill store, or <code>null</code> if predecessor chains shall
+	 *         always be kept on the heap
+	 */
+	protected AbstractionSpillStore createSpillStore(IMemoryManager<Abstraction, Unit> memoryManager) {
+		double threshold = config.getPathSpillThreshold();
+		if (threshold <= 0 || !(memoryManager instanceof FlowDroidMemoryManager))
+			return null;
+		if (threshold >= config.getMemoryThreshold()) {
+			logger.warn("The path spill threshold must be lower than the memory threshold, spilling disabled");
+			return null;
+		}
+
+		try {
+			AbstractionSpillStore spillStore = new AbstractionSpillStore(null);
+			((FlowDroidMemoryManager) memoryManager).setSpillStore(spillStore);
+			memoryWatcher.enableSpilling(spillStore, threshold);
+			return spillStore;
+		} catch (IOException e) {
+			logger.error("Could not create the spill file, keeping all paths on the heap", e);
+			return null;
+		}
+	}
+
 	/**
 	 * Releases the callgraph and all intermediate objects associated with it
 	 */
@@ -2356,6 +3090,9 @@ public abstract class AbstractInfoflow implements IInfoflow {
 			// Stop all registered solvers
 			memoryWatcher.forceTerminate(reason);
 		}
+		FlowDroidMemoryWatcher prepassWatcher = prepassMemoryWatcher;
+		if (prepassWatcher != null)
+			prepassWatcher.forceTerminate(reason);
 	}
 
 	public void setThrowExceptions(boolean b) {
@@ -2413,6 +3150,27 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		return pathBuilderFactory.createPathBuilder(manager, executor);
 	}
 
+	/**
+	 * Creates the executor on which the path builder runs its tasks
+	 * 
+	 * @param pathLease The threads leased for the path reconstruction
+	 * @return The new executor
+	 */
+	private InterruptableExecutor createResultExecutor(ThreadBudget.Lease pathLease) {
+		InterruptableExecutor resultExecutor = pathLease
+				.track(executorFactory.createExecutor(pathLease.getThreadCount(), false, config));
+		if (!VirtualThreadExecutorFactory.usesVirtualThreads(resultExecutor)) {
+			resultExecutor.setThreadFactory(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable r) {
+					return createNewThread(r);
+				}
+			});
+		}
+		return resultExecutor;
+	}
+
 	/**
 	 * Initializes an appropriate instance of the rule manager factory
 	 * 
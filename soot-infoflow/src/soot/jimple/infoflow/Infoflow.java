@@ -10,7 +10,14 @@
 package soot.jimple.infoflow;
 
 import java.io.File;
-
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import soot.MethodOrMethodContext;
+import soot.PointsToAnalysis;
+import soot.Scene;
+import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
@@ -18,6 +25,7 @@ import soot.jimple.infoflow.aliasing.FlowSensitiveAliasStrategy;
 import soot.jimple.infoflow.aliasing.IAliasingStrategy;
 import soot.jimple.infoflow.aliasing.LazyAliasingStrategy;
 import soot.jimple.infoflow.aliasing.NullAliasStrategy;
+import soot.jimple.infoflow.aliasing.PointsToSetCache;
 import soot.jimple.infoflow.aliasing.PtsBasedAliasStrategy;
 import soot.jimple.infoflow.cfg.BiDirICFGFactory;
 import soot.jimple.infoflow.data.Abstraction;
@@ -39,6 +47,7 @@ import soot.jimple.infoflow.sourcesSinks.manager.EmptySourceSinkManager;
 import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
 import soot.jimple.infoflow.sourcesSinks.manager.SinkInfo;
 import soot.jimple.infoflow.sourcesSinks.manager.SourceInfo;
+import soot.jimple.spark.pag.PAG;
 
 /**
  * main infoflow class which triggers the analysis and offers method to
@@ -132,6 +141,11 @@ public class Infoflow extends AbstractInfoflow {
 			backSolver = null;
 			aliasingStrategy = new PtsBasedAliasStrategy(manager);
 			break;
+		case PtsBasedBulk:
+			backProblem = null;
+			backSolver = null;
+			aliasingStrategy = new PtsBasedAliasStrategy(manager, createPointsToSetCache());
+			break;
 		case None:
 			backProblem = null;
 			backSolver = null;
@@ -148,11 +162,42 @@ public class Infoflow extends AbstractInfoflow {
 		return aliasingStrategy;
 	}
 
+	/**
+	 * Creates the cache for the bulk points-to-based alias analysis and fills it
+	 * with the points-to sets of all reachable methods
+	 * 
+	 * @return The new points-to set cache, or <code>null</code> if the current
+	 *         points-to analysis does not support caching
+	 */
+	protected PointsToSetCache createPointsToSetCache() {
+		PointsToAnalysis pta = Scene.v().getPointsToAnalysis();
+		if (!PointsToSetCache.isSupported(pta)) {
+			logger.warn("Bulk points-to aliasing requires SPARK, querying the points-to analysis directly");
+			return null;
+		}
+
+		long beforePrecompute = System.nanoTime();
+		List<SootMethod> reachableMethods = new ArrayList<>();
+		for (Iterator<MethodOrMethodContext> iter = Scene.v().getReachableMethods().listener(); iter.hasNext();)
+			reachableMethods.add(iter.next().method());
+
+		PointsToSetCache ptsCache = new PointsToSetCache((PAG) pta);
+		ptsCache.precompute(reachableMethods);
+		logger.info("Computed {} distinct points-to sets in {} seconds", ptsCache.getDistinctSetCount(),
+				(System.nanoTime() - beforePrecompute) / 1E9);
+		return ptsCache;
+	}
+
 	@Override
 	protected InfoflowProblem createInfoflowProblem(Abstraction zeroValue) {
 		return new InfoflowProblem(manager, zeroValue, ruleManagerFactory);
 	}
 
+	@Override
+	protected InfoflowProblem createPrepassProblem(InfoflowManager prepassManager, Abstraction zeroValue) {
+		return new InfoflowProblem(prepassManager, zeroValue, ruleManagerFactory);
+	}
+
 	@Override
 	protected SourceOrSink scanStmtForSourcesSinks(final ISourceSinkManager sourcesSinks, Stmt s) {
 		SourceInfo sourceInfo = sourcesSinks.getSourceInfo(s, manager);
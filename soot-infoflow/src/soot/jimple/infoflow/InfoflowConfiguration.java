@@ -1,5 +1,7 @@
 package soot.jimple.infoflow;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Objects;
 
 import org.slf4j.Logger;
@@ -85,6 +87,12 @@ public class InfoflowConfiguration {
 		 * A flow-insensitive algorithm based on Soot's point-to-sets
 		 */
 		PtsBased,
+		/**
+		 * Same as {@link #PtsBased}, but computes the points-to sets of all locals and
+		 * fields once after the callgraph has been constructed and keeps them in a
+		 * compact form. Requires SPARK.
+		 */
+		PtsBasedBulk,
 		/**
 		 * Do not perform any alias analysis
 		 */
@@ -167,6 +175,91 @@ public class InfoflowConfiguration {
 		Precise
 	}
 
+	/**
+	 * Enumeration containing the data structures in which the context- and
+	 * flow-sensitive solvers can store their jump functions
+	 */
+	public static enum JumpFunctionStore {
+		/**
+		 * Store every jump function as a separate path edge object in a concurrent hash
+		 * map
+		 */
+		Default,
+		/**
+		 * Assign integer IDs to statements and abstractions, and store the jump
+		 * functions as packed long keys in a striped, open-addressing table. This
+		 * reduces the memory consumption, but requires some additional lookups.
+		 */
+		Compact
+	}
+
+	/**
+	 * Enumeration containing the caches in which the context- and flow-sensitive
+	 * solvers can keep their flow functions
+	 */
+	public static enum FlowFunctionCacheMode {
+		/**
+		 * Use a Guava cache with soft values that the garbage collector may clear
+		 * under memory pressure
+		 */
+		Default,
+		/**
+		 * Keep the flow functions of each method in arrays indexed by statement, and
+		 * evict complete methods once a configurable number of methods is cached
+		 */
+		PerMethod
+	}
+
+	/**
+	 * Enumeration containing the options for distributing the edge processing
+	 * tasks of the data flow solvers among the worker threads
+	 */
+	public static enum TaskSchedulingMode {
+		/**
+		 * Use a thread pool with one shared work queue
+		 */
+		Default,
+		/**
+		 * Use a fork/join pool in which all edges of the same method are processed by
+		 * the same worker. Idle workers steal complete methods from busy workers.
+		 */
+		WorkStealing
+	}
+
+	/**
+	 * Enumeration containing the options for scheduling the path edges in the
+	 * context- and flow-sensitive solvers
+	 */
+	public static enum EdgeSchedulingStrategy {
+		/**
+		 * Schedule a new task for each path edge
+		 */
+		EachEdgeIndividually,
+		/**
+		 * Schedule all path edges that a task produces for the same source abstraction
+		 * and target statement in a single task
+		 */
+		Batched
+	}
+
+	/**
+	 * Enumeration containing the kinds of threads on which the taint propagation
+	 * and the path reconstruction run
+	 */
+	public static enum ExecutorType {
+		/**
+		 * Use a pool of platform threads that is sized to the number of available
+		 * processors
+		 */
+		PlatformThreads,
+		/**
+		 * Use virtual threads that are multiplexed onto a bounded pool of carrier
+		 * threads. Requires Java 21 or later, falls back to platform threads on older
+		 * runtimes.
+		 */
+		VirtualThreads
+	}
+
 	public static enum DataFlowDirection {
 		/**
 		 * Use the default forwards infoflow search
@@ -405,6 +498,8 @@ public class InfoflowConfiguration {
 		private SourceSinkFilterMode sourceFilterMode = SourceSinkFilterMode.UseAllButExcluded;
 		private SourceSinkFilterMode sinkFilterMode = SourceSinkFilterMode.UseAllButExcluded;
 
+		private boolean precomputeStatementIndex = false;
+
 		/**
 		 * Copies the settings of the given configuration into this configuration object
 		 *
@@ -417,6 +512,8 @@ public class InfoflowConfiguration {
 
 			this.sourceFilterMode = ssConfig.sourceFilterMode;
 			this.sinkFilterMode = ssConfig.sinkFilterMode;
+
+			this.precomputeStatementIndex = ssConfig.precomputeStatementIndex;
 		}
 
 		/**
@@ -527,6 +624,31 @@ public class InfoflowConfiguration {
 			return sourceFilterMode;
 		}
 
+		/**
+		 * Sets whether the source/sink manager shall classify all reachable
+		 * statements once before the data flow analysis starts. The taint propagation
+		 * then only looks up the precomputed definitions instead of matching the
+		 * callee against the source and sink definitions on every check.
+		 *
+		 * @param precomputeStatementIndex True to precompute the source and sink
+		 *                                 definitions of all reachable statements,
+		 *                                 otherwise false
+		 */
+		public void setPrecomputeStatementIndex(boolean precomputeStatementIndex) {
+			this.precomputeStatementIndex = precomputeStatementIndex;
+		}
+
+		/**
+		 * Gets whether the source/sink manager shall classify all reachable
+		 * statements once before the data flow analysis starts
+		 *
+		 * @return True to precompute the source and sink definitions of all reachable
+		 *         statements, otherwise false
+		 */
+		public boolean getPrecomputeStatementIndex() {
+			return this.precomputeStatementIndex;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -534,6 +656,7 @@ public class InfoflowConfiguration {
 			result = prime * result + ((callbackSourceMode == null) ? 0 : callbackSourceMode.hashCode());
 			result = prime * result + (enableLifecycleSources ? 1231 : 1237);
 			result = prime * result + ((layoutMatchingMode == null) ? 0 : layoutMatchingMode.hashCode());
+			result = prime * result + (precomputeStatementIndex ? 1231 : 1237);
 			result = prime * result + ((sinkFilterMode == null) ? 0 : sinkFilterMode.hashCode());
 			result = prime * result + ((sourceFilterMode == null) ? 0 : sourceFilterMode.hashCode());
 			return result;
@@ -554,6 +677,8 @@ public class InfoflowConfiguration {
 				return false;
 			if (layoutMatchingMode != other.layoutMatchingMode)
 				return false;
+			if (precomputeStatementIndex != other.precomputeStatementIndex)
+				return false;
 			if (sinkFilterMode != other.sinkFilterMode)
 				return false;
 			if (sourceFilterMode != other.sourceFilterMode)
@@ -1019,11 +1144,25 @@ public class InfoflowConfiguration {
 	public static class SolverConfiguration {
 		private DataFlowSolver dataFlowSolver = DataFlowSolver.ContextFlowSensitive;
 		private SparsePropagationStrategy sparsePropagationStrategy = SparsePropagationStrategy.Precise;
+		private JumpFunctionStore jumpFunctionStore = JumpFunctionStore.Default;
+		private TaskSchedulingMode taskSchedulingMode = TaskSchedulingMode.Default;
+		private EdgeSchedulingStrategy edgeSchedulingStrategy = EdgeSchedulingStrategy.EachEdgeIndividually;
+		private FlowFunctionCacheMode flowFunctionCacheMode = FlowFunctionCacheMode.Default;
+		private int maxCachedFlowFunctionMethods = -1;
+		private int maxSparseIndexMethods = -1;
 		private int maxJoinPointAbstractions = 10;
 		private int maxCalleesPerCallSite = 75;
 		private int maxAbstractionPathLength = 100;
 		private int sleepTime = 1;
+		private int gcThreadCount = 1;
+		private int gcPauseBudget = 0;
+		private String gcReferenceCacheDirectory = null;
 		private boolean followReturnsPastSources = true;
+		private boolean flowInsensitivePrepass = false;
+		private boolean sinkReachabilitySlicing = false;
+		private boolean aliasQueryCaching = true;
+		private int metricsSamplingInterval = 0;
+		private String metricsOutputFile = null;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -1033,9 +1172,23 @@ public class InfoflowConfiguration {
 		public void merge(SolverConfiguration solverConfig) {
 			this.dataFlowSolver = solverConfig.dataFlowSolver;
 			this.sparsePropagationStrategy = solverConfig.sparsePropagationStrategy;
+			this.jumpFunctionStore = solverConfig.jumpFunctionStore;
+			this.taskSchedulingMode = solverConfig.taskSchedulingMode;
+			this.edgeSchedulingStrategy = solverConfig.edgeSchedulingStrategy;
+			this.flowFunctionCacheMode = solverConfig.flowFunctionCacheMode;
+			this.maxCachedFlowFunctionMethods = solverConfig.maxCachedFlowFunctionMethods;
+			this.maxSparseIndexMethods = solverConfig.maxSparseIndexMethods;
 			this.maxJoinPointAbstractions = solverConfig.maxJoinPointAbstractions;
 			this.maxCalleesPerCallSite = solverConfig.maxCalleesPerCallSite;
 			this.maxAbstractionPathLength = solverConfig.maxAbstractionPathLength;
+			this.gcThreadCount = solverConfig.gcThreadCount;
+			this.gcPauseBudget = solverConfig.gcPauseBudget;
+			this.gcReferenceCacheDirectory = solverConfig.gcReferenceCacheDirectory;
+			this.metricsSamplingInterval = solverConfig.metricsSamplingInterval;
+			this.metricsOutputFile = solverConfig.metricsOutputFile;
+			this.flowInsensitivePrepass = solverConfig.flowInsensitivePrepass;
+			this.sinkReachabilitySlicing = solverConfig.sinkReachabilitySlicing;
+			this.aliasQueryCaching = solverConfig.aliasQueryCaching;
 		}
 
 		/**
@@ -1075,6 +1228,131 @@ public class InfoflowConfiguration {
 			this.sparsePropagationStrategy = sparsePropagationStrategy;
 		}
 
+		/**
+		 * Gets the data structure in which the solver stores its jump functions
+		 *
+		 * @return The data structure in which the solver stores its jump functions
+		 */
+		public JumpFunctionStore getJumpFunctionStore() {
+			return this.jumpFunctionStore;
+		}
+
+		/**
+		 * Sets the data structure in which the solver stores its jump functions. This
+		 * option only applies to the context- and flow-sensitive solvers.
+		 *
+		 * @param jumpFunctionStore The data structure in which the solver shall store
+		 *                          its jump functions
+		 */
+		public void setJumpFunctionStore(JumpFunctionStore jumpFunctionStore) {
+			this.jumpFunctionStore = jumpFunctionStore;
+		}
+
+		/**
+		 * Gets how the edge processing tasks of the data flow solvers shall be
+		 * distributed among the worker threads
+		 *
+		 * @return The scheduling mode for the edge processing tasks
+		 */
+		public TaskSchedulingMode getTaskSchedulingMode() {
+			return this.taskSchedulingMode;
+		}
+
+		/**
+		 * Sets how the edge processing tasks of the data flow solvers shall be
+		 * distributed among the worker threads
+		 *
+		 * @param taskSchedulingMode The scheduling mode for the edge processing tasks
+		 */
+		public void setTaskSchedulingMode(TaskSchedulingMode taskSchedulingMode) {
+			this.taskSchedulingMode = taskSchedulingMode;
+		}
+
+		/**
+		 * Gets the strategy for scheduling the path edges in the context- and
+		 * flow-sensitive solvers
+		 *
+		 * @return The strategy for scheduling the path edges
+		 */
+		public EdgeSchedulingStrategy getEdgeSchedulingStrategy() {
+			return this.edgeSchedulingStrategy;
+		}
+
+		/**
+		 * Sets the strategy for scheduling the path edges in the context- and
+		 * flow-sensitive solvers
+		 *
+		 * @param edgeSchedulingStrategy The strategy for scheduling the path edges
+		 */
+		public void setEdgeSchedulingStrategy(EdgeSchedulingStrategy edgeSchedulingStrategy) {
+			this.edgeSchedulingStrategy = edgeSchedulingStrategy;
+		}
+
+		/**
+		 * Gets the cache in which the context- and flow-sensitive solvers keep their
+		 * flow functions
+		 *
+		 * @return The flow function cache to use
+		 */
+		public FlowFunctionCacheMode getFlowFunctionCacheMode() {
+			return this.flowFunctionCacheMode;
+		}
+
+		/**
+		 * Sets the cache in which the context- and flow-sensitive solvers keep their
+		 * flow functions
+		 *
+		 * @param flowFunctionCacheMode The flow function cache to use
+		 */
+		public void setFlowFunctionCacheMode(FlowFunctionCacheMode flowFunctionCacheMode) {
+			this.flowFunctionCacheMode = flowFunctionCacheMode;
+		}
+
+		/**
+		 * Gets the maximum number of methods for which the per-method flow function
+		 * cache keeps flow functions
+		 *
+		 * @return The maximum number of cached methods, or -1 for no limit
+		 */
+		public int getMaxCachedFlowFunctionMethods() {
+			return this.maxCachedFlowFunctionMethods;
+		}
+
+		/**
+		 * Sets the maximum number of methods for which the per-method flow function
+		 * cache keeps flow functions. If more methods are accessed, the methods that
+		 * have not been used for the longest time are evicted.
+		 *
+		 * @param maxCachedFlowFunctionMethods The maximum number of cached methods,
+		 *                                     or -1 for no limit
+		 */
+		public void setMaxCachedFlowFunctionMethods(int maxCachedFlowFunctionMethods) {
+			this.maxCachedFlowFunctionMethods = maxCachedFlowFunctionMethods;
+		}
+
+		/**
+		 * Gets the maximum number of methods that the sparse solvers keep in their
+		 * per-method index of def-use data and sparse successors
+		 *
+		 * @return The maximum number of indexed methods, or -1 for no limit
+		 */
+		public int getMaxSparseIndexMethods() {
+			return this.maxSparseIndexMethods;
+		}
+
+		/**
+		 * Sets the maximum number of methods that the sparse solvers keep in their
+		 * per-method index of def-use data and sparse successors. If more methods are
+		 * accessed, the methods that have not been used for the longest time are
+		 * evicted and indexed again when they are needed.
+		 *
+		 * @param maxSparseIndexMethods The maximum number of indexed methods, or -1
+		 *                              for no limit
+		 */
+		public void setMaxSparseIndexMethods(int maxSparseIndexMethods) {
+			this.maxSparseIndexMethods = maxSparseIndexMethods;
+		}
+
 		/**
 		 * Gets the maximum number of abstractions that shall be recorded per join
 		 * point. In other words, enabling this option disables the recording of
@@ -1175,6 +1453,127 @@ public class InfoflowConfiguration {
 			return this.sleepTime;
 		}
 
+		/**
+		 * Gets the number of threads that the garbage collectors use for checking and
+		 * removing the candidates of a single collection cycle
+		 *
+		 * @return The number of threads per garbage collection cycle
+		 */
+		public int getGcThreadCount() {
+			return this.gcThreadCount;
+		}
+
+		/**
+		 * Sets the number of threads that the garbage collectors use for checking and
+		 * removing the candidates of a single collection cycle
+		 *
+		 * @param gcThreadCount The number of threads per garbage collection cycle
+		 */
+		public void setGcThreadCount(int gcThreadCount) {
+			this.gcThreadCount = gcThreadCount;
+		}
+
+		/**
+		 * Gets the maximum time that a single garbage collection cycle may take.
+		 * Candidates that have not been checked when the budget is exhausted are
+		 * postponed to the next cycle.
+		 *
+		 * @return The maximum duration of a garbage collection cycle in milliseconds,
+		 *         or 0 for no limit
+		 */
+		public int getGcPauseBudget() {
+			return this.gcPauseBudget;
+		}
+
+		/**
+		 * Sets the maximum time that a single garbage collection cycle may take.
+		 * Candidates that have not been checked when the budget is exhausted are
+		 * postponed to the next cycle.
+		 *
+		 * @param gcPauseBudget The maximum duration of a garbage collection cycle in
+		 *                      milliseconds, or 0 for no limit
+		 */
+		public void setGcPauseBudget(int gcPauseBudget) {
+			this.gcPauseBudget = gcPauseBudget;
+		}
+
+		/**
+		 * Gets the directory in which the garbage-collecting solver persists the
+		 * transitive callees of the methods. The index in this directory is keyed by
+		 * the call graph, so that later analyses of the same program can reuse it.
+		 *
+		 * @return The directory for the reference index, or <code>null</code> if the
+		 *         references shall always be computed from the call graph
+		 */
+		public String getGcReferenceCacheDirectory() {
+			return this.gcReferenceCacheDirectory;
+		}
+
+		/**
+		 * Sets the directory in which the garbage-collecting solver persists the
+		 * transitive callees of the methods. The index in this directory is keyed by
+		 * the call graph, so that later analyses of the same program can reuse it.
+		 *
+		 * @param gcReferenceCacheDirectory The directory for the reference index, or
+		 *                                  <code>null</code> if the references shall
+		 *                                  always be computed from the call graph
+		 */
+		public void setGcReferenceCacheDirectory(String gcReferenceCacheDirectory) {
+			this.gcReferenceCacheDirectory = gcReferenceCacheDirectory;
+		}
+
+		/**
+		 * Gets the interval in which the solver metrics are sampled
+		 *
+		 * @return The sampling interval in milliseconds, or 0 if no solver metrics
+		 *         shall be collected
+		 */
+		public int getMetricsSamplingInterval() {
+			return this.metricsSamplingInterval;
+		}
+
+		/**
+		 * Sets the interval in which the solver metrics are sampled. Collecting
+		 * metrics adds a small overhead to the hot paths of the solvers and is thus
+		 * disabled by default.
+		 *
+		 * @param metricsSamplingInterval The sampling interval in milliseconds, or 0
+		 *                                to disable the solver metrics
+		 */
+		public void setMetricsSamplingInterval(int metricsSamplingInterval) {
+			this.metricsSamplingInterval = metricsSamplingInterval;
+		}
+
+		/**
+		 * Gets whether the solvers shall collect metrics on their hot paths
+		 *
+		 * @return True if the solvers shall collect metrics, otherwise false
+		 */
+		public boolean isMetricsEnabled() {
+			return this.metricsSamplingInterval > 0;
+		}
+
+		/**
+		 * Gets the file to which the solver metrics shall be written as JSON
+		 *
+		 * @return The target file for the solver metrics, or <code>null</code> if the
+		 *         metrics shall only be reported in the performance data
+		 */
+		public String getMetricsOutputFile() {
+			return this.metricsOutputFile;
+		}
+
+		/**
+		 * Sets the file to which the solver metrics shall be written as JSON
+		 *
+		 * @param metricsOutputFile The target file for the solver metrics, or
+		 *                          <code>null</code> if the metrics shall only be
+		 *                          reported in the performance data
+		 */
+		public void setMetricsOutputFile(String metricsOutputFile) {
+			this.metricsOutputFile = metricsOutputFile;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -1182,10 +1581,24 @@ public class InfoflowConfiguration {
 			result = prime * result + ((dataFlowSolver == null) ? 0 : dataFlowSolver.hashCode());
 			if (dataFlowSolver == DataFlowSolver.SparseContextFlowSensitive)
 				result = prime * result + sparsePropagationStrategy.hashCode();
+			result = prime * result + ((jumpFunctionStore == null) ? 0 : jumpFunctionStore.hashCode());
+			result = prime * result + ((taskSchedulingMode == null) ? 0 : taskSchedulingMode.hashCode());
+			result = prime * result + ((edgeSchedulingStrategy == null) ? 0 : edgeSchedulingStrategy.hashCode());
+			result = prime * result + ((flowFunctionCacheMode == null) ? 0 : flowFunctionCacheMode.hashCode());
+			result = prime * result + maxCachedFlowFunctionMethods;
+			result = prime * result + maxSparseIndexMethods;
 			result = prime * result + maxCalleesPerCallSite;
 			result = prime * result + maxJoinPointAbstractions;
 			result = prime * result + maxAbstractionPathLength;
+			result = prime * result + gcThreadCount;
+			result = prime * result + gcPauseBudget;
+			result = prime * result + ((gcReferenceCacheDirectory == null) ? 0 : gcReferenceCacheDirectory.hashCode());
 			result = prime * result + (followReturnsPastSources ? 31 : 17);
+			result = prime * result + (flowInsensitivePrepass ? 1231 : 1237);
+			result = prime * result + (sinkReachabilitySlicing ? 1231 : 1237);
+			result = prime * result + (aliasQueryCaching ? 1231 : 1237);
+			result = prime * result + metricsSamplingInterval;
+			result = prime * result + ((metricsOutputFile == null) ? 0 : metricsOutputFile.hashCode());
 			return result;
 		}
 
@@ -1203,14 +1616,42 @@ public class InfoflowConfiguration {
 			if (dataFlowSolver == DataFlowSolver.SparseContextFlowSensitive)
 				if (sparsePropagationStrategy != other.sparsePropagationStrategy)
 					return false;
+			if (jumpFunctionStore != other.jumpFunctionStore)
+				return false;
+			if (taskSchedulingMode != other.taskSchedulingMode)
+				return false;
+			if (edgeSchedulingStrategy != other.edgeSchedulingStrategy)
+				return false;
+			if (flowFunctionCacheMode != other.flowFunctionCacheMode)
+				return false;
+			if (maxCachedFlowFunctionMethods != other.maxCachedFlowFunctionMethods)
+				return false;
+			if (maxSparseIndexMethods != other.maxSparseIndexMethods)
+				return false;
 			if (maxCalleesPerCallSite != other.maxCalleesPerCallSite)
 				return false;
 			if (maxJoinPointAbstractions != other.maxJoinPointAbstractions)
 				return false;
 			if (maxAbstractionPathLength != other.maxAbstractionPathLength)
 				return false;
+			if (gcThreadCount != other.gcThreadCount)
+				return false;
+			if (gcPauseBudget != other.gcPauseBudget)
+				return false;
+			if (!Objects.equals(gcReferenceCacheDirectory, other.gcReferenceCacheDirectory))
+				return false;
 			if (followReturnsPastSources != other.followReturnsPastSources)
 				return false;
+			if (flowInsensitivePrepass != other.flowInsensitivePrepass)
+				return false;
+			if (sinkReachabilitySlicing != other.sinkReachabilitySlicing)
+				return false;
+			if (aliasQueryCaching != other.aliasQueryCaching)
+				return false;
+			if (metricsSamplingInterval != other.metricsSamplingInterval)
+				return false;
+			if (!Objects.equals(metricsOutputFile, other.metricsOutputFile))
+				return false;
 			return true;
 		}
 
@@ -1232,6 +1673,76 @@ public class InfoflowConfiguration {
 			this.followReturnsPastSources = followreturns;
 		}
 
+		/**
+		 * Gets whether a cheap flow-insensitive taint propagation shall run before the
+		 * precise one to remove the seeds that cannot reach any sink
+		 *
+		 * @return True if the flow-insensitive prepass is enabled, otherwise false
+		 */
+		public boolean isFlowInsensitivePrepass() {
+			return flowInsensitivePrepass;
+		}
+
+		/**
+		 * Sets whether a cheap flow-insensitive taint propagation shall run before the
+		 * precise one. The precise solver then only starts from those sources from
+		 * which the flow-insensitive analysis has reached a sink. Since the
+		 * flow-insensitive analysis over-approximates the precise one, no leaks are
+		 * lost.
+		 *
+		 * @param flowInsensitivePrepass True to enable the flow-insensitive prepass,
+		 *                               otherwise false
+		 */
+		public void setFlowInsensitivePrepass(boolean flowInsensitivePrepass) {
+			this.flowInsensitivePrepass = flowInsensitivePrepass;
+		}
+
+		/**
+		 * Gets whether the flow-sensitive alias strategies shall skip alias queries
+		 * that have already been sent to the alias solver
+		 *
+		 * @return True if repeated alias queries are skipped, otherwise false
+		 */
+		public boolean isAliasQueryCaching() {
+			return aliasQueryCaching;
+		}
+
+		/**
+		 * Sets whether the flow-sensitive alias strategies shall skip alias queries
+		 * that have already been sent to the alias solver. The results of such a
+		 * query have already been reported to the data flow solver, so skipping it
+		 * does not change the results of the analysis.
+		 *
+		 * @param aliasQueryCaching True to skip repeated alias queries, otherwise
+		 *                          false
+		 */
+		public void setAliasQueryCaching(boolean aliasQueryCaching) {
+			this.aliasQueryCaching = aliasQueryCaching;
+		}
+
+		/**
+		 * Gets whether the seeds and methods of the taint propagation shall be
+		 * restricted to those from which a sink is reachable in the call graph
+		 *
+		 * @return True if the sink reachability slicing is enabled, otherwise false
+		 */
+		public boolean isSinkReachabilitySlicing() {
+			return sinkReachabilitySlicing;
+		}
+
+		/**
+		 * Sets whether the seeds and methods of the taint propagation shall be
+		 * restricted to those from which a sink is reachable in the call graph. Seeds
+		 * in methods that can neither call a sink nor return into a caller that can
+		 * are removed, and taints are not returned into such callers.
+		 *
+		 * @param sinkReachabilitySlicing True to enable the sink reachability slicing,
+		 *                                otherwise false
+		 */
+		public void setSinkReachabilitySlicing(boolean sinkReachabilitySlicing) {
+			this.sinkReachabilitySlicing = sinkReachabilitySlicing;
+		}
+
 	}
 
 	/**
@@ -1246,6 +1757,7 @@ public class InfoflowConfiguration {
 		private boolean useRecursiveAccessPaths = true;
 		private boolean useThisChainReduction = true;
 		private boolean useSameFieldReduction = true;
+		private boolean useAccessPathInterning = true;
 
 		/**
 		 * Merges the given configuration options into this configuration object
@@ -1257,6 +1769,7 @@ public class InfoflowConfiguration {
 			this.useRecursiveAccessPaths = config.useRecursiveAccessPaths;
 			this.useThisChainReduction = config.useThisChainReduction;
 			this.useSameFieldReduction = config.useSameFieldReduction;
+			this.useAccessPathInterning = config.useAccessPathInterning;
 		}
 
 		/**
@@ -1347,11 +1860,34 @@ public class InfoflowConfiguration {
 			this.useSameFieldReduction = useSameFieldReduction;
 		}
 
+		/**
+		 * Gets whether structurally equal access paths shall be mapped to a single
+		 * canonical instance when they are created
+		 *
+		 * @return True if access paths shall be interned, otherwise false
+		 */
+		public boolean getUseAccessPathInterning() {
+			return useAccessPathInterning;
+		}
+
+		/**
+		 * Sets whether structurally equal access paths shall be mapped to a single
+		 * canonical instance when they are created. This saves memory and speeds up
+		 * equality checks between access paths.
+		 *
+		 * @param useAccessPathInterning True if access paths shall be interned,
+		 *                               otherwise false
+		 */
+		public void setUseAccessPathInterning(boolean useAccessPathInterning) {
+			this.useAccessPathInterning = useAccessPathInterning;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
 			int result = 1;
 			result = prime * result + accessPathLength;
+			result = prime * result + (useAccessPathInterning ? 1231 : 1237);
 			result = prime * result + (useRecursiveAccessPaths ? 1231 : 1237);
 			result = prime * result + (useSameFieldReduction ? 1231 : 1237);
 			result = prime * result + (useThisChainReduction ? 1231 : 1237);
@@ -1369,6 +1905,8 @@ public class InfoflowConfiguration {
 			AccessPathConfiguration other = (AccessPathConfiguration) obj;
 			if (accessPathLength != other.accessPathLength)
 				return false;
+			if (useAccessPathInterning != other.useAccessPathInterning)
+				return false;
 			if (useRecursiveAccessPaths != other.useRecursiveAccessPaths)
 				return false;
 			if (useSameFieldReduction != other.useSameFieldReduction)
@@ -1393,11 +1931,14 @@ public class InfoflowConfiguration {
 	private boolean ignoreFlowsInSystemPackages = false;
 	private boolean excludeSootLibraryClasses = false;
 	private int maxThreadNum = -1;
+	private Map<AnalysisPhase, Integer> phaseMaxThreadNums = new EnumMap<>(AnalysisPhase.class);
 	private boolean writeOutputFiles = false;
 	private boolean logSourcesAndSinks = false;
 	private boolean enableReflection = false;
 	private boolean enableLineNumbers = false;
 	private boolean enableOriginalNames = false;
+	private boolean freezeICFG = false;
+	private ExecutorType executorType = ExecutorType.PlatformThreads;
 
 	private boolean inspectSources = false;
 	private boolean inspectSinks = false;
@@ -1419,6 +1960,10 @@ public class InfoflowConfiguration {
 	private boolean incrementalResultReporting = false;
 	private long dataFlowTimeout = 0;
 	private double memoryThreshold = 0.9d;
+	private double pathSpillThreshold = 0;
+	private double cacheFlushMemoryThreshold = 0;
+	private double precisionReductionMemoryThreshold = 0;
+	private int reducedAccessPathLength = 1;
 	private boolean oneSourceAtATime = false;
 	private int maxAliasingBases = Integer.MAX_VALUE;
 	private boolean additionalFlowsEnabled = false;
@@ -1444,11 +1989,15 @@ public class InfoflowConfiguration {
 		this.ignoreFlowsInSystemPackages = config.ignoreFlowsInSystemPackages;
 		this.excludeSootLibraryClasses = config.excludeSootLibraryClasses;
 		this.maxThreadNum = config.maxThreadNum;
+		this.phaseMaxThreadNums = new EnumMap<>(AnalysisPhase.class);
+		this.phaseMaxThreadNums.putAll(config.phaseMaxThreadNums);
 		this.writeOutputFiles = config.writeOutputFiles;
 		this.logSourcesAndSinks = config.logSourcesAndSinks;
 		this.enableReflection = config.enableReflection;
 		this.enableLineNumbers = config.enableLineNumbers;
 		this.enableOriginalNames = config.enableOriginalNames;
+		this.freezeICFG = config.freezeICFG;
+		this.executorType = config.executorType;
 
 		this.pathConfiguration.merge(config.pathConfiguration);
 		this.outputConfiguration.merge(config.outputConfiguration);
@@ -1472,6 +2021,10 @@ public class InfoflowConfiguration {
 		this.incrementalResultReporting = config.incrementalResultReporting;
 		this.dataFlowTimeout = config.dataFlowTimeout;
 		this.memoryThreshold = config.memoryThreshold;
+		this.pathSpillThreshold = config.pathSpillThreshold;
+		this.cacheFlushMemoryThreshold = config.cacheFlushMemoryThreshold;
+		this.precisionReductionMemoryThreshold = config.precisionReductionMemoryThreshold;
+		this.reducedAccessPathLength = config.reducedAccessPathLength;
 		this.oneSourceAtATime = config.oneSourceAtATime;
 	}
 
@@ -1935,6 +2488,44 @@ public class InfoflowConfiguration {
 		return this.maxThreadNum;
 	}
 
+	/**
+	 * Sets the maximum number of threads to be used in the given phase of the
+	 * analysis. This value overrides the global maximum number of threads for this
+	 * phase. A value of -1 indicates that there will be as many threads as there
+	 * are CPU cores on the machine.
+	 *
+	 * @param phase     The phase of the analysis
+	 * @param threadNum The maximum number of threads to be used in the given phase,
+	 *                  or -1 for an unlimited number of threads.
+	 */
+	public void setMaxThreadNum(AnalysisPhase phase, int threadNum) {
+		this.phaseMaxThreadNums.put(phase, threadNum);
+	}
+
+	/**
+	 * Removes the phase-specific maximum number of threads for the given phase of
+	 * the analysis. The global maximum number of threads applies afterwards.
+	 *
+	 * @param phase The phase of the analysis
+	 */
+	public void clearMaxThreadNum(AnalysisPhase phase) {
+		this.phaseMaxThreadNums.remove(phase);
+	}
+
+	/**
+	 * Gets the maximum number of threads to be used in the given phase of the
+	 * analysis. If no phase-specific value has been configured, the global maximum
+	 * number of threads is returned.
+	 *
+	 * @param phase The phase of the analysis
+	 * @return The maximum number of threads to be used in the given phase, or -1
+	 *         for an unlimited number of threads.
+	 */
+	public int getMaxThreadNum(AnalysisPhase phase) {
+		Integer threadNum = this.phaseMaxThreadNums.get(phase);
+		return threadNum == null ? this.maxThreadNum : threadNum;
+	}
+
 	/**
 	 * Gets whether FlowDroid shall write the Jimple files to disk after the data
 	 * flow analysis
@@ -2016,6 +2607,51 @@ public class InfoflowConfiguration {
 		this.enableReflection = enableReflections;
 	}
 
+	/**
+	 * Gets whether the interprocedural control-flow graph shall be frozen into an
+	 * array-based snapshot after callgraph construction
+	 *
+	 * @return True if the interprocedural control-flow graph shall be frozen,
+	 *         otherwise false
+	 */
+	public boolean getFreezeICFG() {
+		return this.freezeICFG;
+	}
+
+	/**
+	 * Sets whether the interprocedural control-flow graph shall be frozen into an
+	 * array-based snapshot after callgraph construction. The snapshot answers the
+	 * most frequent solver queries faster, but requires additional memory and is
+	 * not available with the on-demand callgraph algorithm.
+	 *
+	 * @param freezeICFG True if the interprocedural control-flow graph shall be
+	 *                   frozen, otherwise false
+	 */
+	public void setFreezeICFG(boolean freezeICFG) {
+		this.freezeICFG = freezeICFG;
+	}
+
+	/**
+	 * Gets the kind of threads on which the taint propagation and the path
+	 * reconstruction run
+	 *
+	 * @return The kind of threads to use for the analysis
+	 */
+	public ExecutorType getExecutorType() {
+		return this.executorType;
+	}
+
+	/**
+	 * Sets the kind of threads on which the taint propagation and the path
+	 * reconstruction run. The maximum number of threads still limits the number of
+	 * carrier threads when using virtual threads.
+	 *
+	 * @param executorType The kind of threads to use for the analysis
+	 */
+	public void setExecutorType(ExecutorType executorType) {
+		this.executorType = executorType;
+	}
+
 	/**
 	 * Gets whether line numbers associated with sources and sinks should be output
 	 * in XML results
@@ -2183,6 +2819,107 @@ public class InfoflowConfiguration {
 		this.memoryThreshold = memoryThreshold;
 	}
 
+	/**
+	 * Gets the threshold at which the data flow analysis starts moving old
+	 * predecessor chains of taint abstractions to disk. These chains are only
+	 * needed for path reconstruction and are loaded again on demand. A value of
+	 * zero disables this feature.
+	 *
+	 * @return The fraction of the heap at which to start moving predecessor chains
+	 *         to disk, or zero if predecessor chains shall always be kept on the
+	 *         heap
+	 */
+	public double getPathSpillThreshold() {
+		return pathSpillThreshold;
+	}
+
+	/**
+	 * Sets the threshold at which the data flow analysis starts moving old
+	 * predecessor chains of taint abstractions to disk. The threshold should be
+	 * lower than the memory threshold at which the analysis is terminated.
+	 *
+	 * @param pathSpillThreshold The fraction of the heap at which to start moving
+	 *                           predecessor chains to disk, or zero to always keep
+	 *                           predecessor chains on the heap
+	 */
+	public void setPathSpillThreshold(double pathSpillThreshold) {
+		this.pathSpillThreshold = pathSpillThreshold;
+	}
+
+	/**
+	 * Gets the threshold at which the data flow analysis flushes its caches and
+	 * stops recording path data to save memory. This is the first degradation step
+	 * before the analysis is terminated. A value of zero disables this step.
+	 *
+	 * @return The fraction of the heap at which to flush the caches, or zero if
+	 *         the caches shall never be flushed
+	 */
+	public double getCacheFlushMemoryThreshold() {
+		return cacheFlushMemoryThreshold;
+	}
+
+	/**
+	 * Sets the threshold at which the data flow analysis flushes its caches and
+	 * stops recording path data to save memory. The threshold should be lower than
+	 * the memory threshold at which the analysis is terminated.
+	 *
+	 * @param cacheFlushMemoryThreshold The fraction of the heap at which to flush
+	 *                                  the caches, or zero to never flush the
+	 *                                  caches
+	 */
+	public void setCacheFlushMemoryThreshold(double cacheFlushMemoryThreshold) {
+		this.cacheFlushMemoryThreshold = cacheFlushMemoryThreshold;
+	}
+
+	/**
+	 * Gets the threshold at which the data flow analysis forces the garbage
+	 * collection in the solvers and shortens the access paths of new taints to
+	 * save memory. This is the second degradation step before the analysis is
+	 * terminated. A value of zero disables this step.
+	 *
+	 * @return The fraction of the heap at which to reduce the precision, or zero
+	 *         if the precision shall never be reduced
+	 */
+	public double getPrecisionReductionMemoryThreshold() {
+		return precisionReductionMemoryThreshold;
+	}
+
+	/**
+	 * Sets the threshold at which the data flow analysis forces the garbage
+	 * collection in the solvers and shortens the access paths of new taints to
+	 * save memory. The threshold should be lower than the memory threshold at which
+	 * the analysis is terminated.
+	 *
+	 * @param precisionReductionMemoryThreshold The fraction of the heap at which to
+	 *                                          reduce the precision, or zero to
+	 *                                          never reduce the precision
+	 */
+	public void setPrecisionReductionMemoryThreshold(double precisionReductionMemoryThreshold) {
+		this.precisionReductionMemoryThreshold = precisionReductionMemoryThreshold;
+	}
+
+	/**
+	 * Gets the maximum length of new access paths after the precision has been
+	 * reduced to save memory
+	 *
+	 * @return The maximum length of new access paths after the precision has been
+	 *         reduced
+	 */
+	public int getReducedAccessPathLength() {
+		return reducedAccessPathLength;
+	}
+
+	/**
+	 * Sets the maximum length of new access paths after the precision has been
+	 * reduced to save memory
+	 *
+	 * @param reducedAccessPathLength The maximum length of new access paths after
+	 *                                the precision has been reduced
+	 */
+	public void setReducedAccessPathLength(int reducedAccessPathLength) {
+		this.reducedAccessPathLength = reducedAccessPathLength;
+	}
+
 	/**
 	 * Gets whether one source shall be analyzed at a time instead of all sources
 	 * together
@@ -2303,14 +3040,16 @@ public class InfoflowConfiguration {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(accessPathConfiguration, additionalFlowsEnabled, aliasingAlgorithm, callgraphAlgorithm,
-				codeEliminationMode, dataFlowDirection, dataFlowTimeout, enableArraySizeTainting, enableArrays,
-				enableExceptions, enableInstanceOfTainting, enableLineNumbers, enableOriginalNames, enableReflection,
-				enableTypeChecking, excludeSootLibraryClasses, filterConditionalSinks, flowSensitiveAliasing,
-				ignoreFlowsInSystemPackages, implicitFlowMode, incrementalResultReporting, inspectSinks, inspectSources,
-				logSourcesAndSinks, maxAliasingBases, maxThreadNum, memoryThreshold, oneSourceAtATime,
-				outputConfiguration, patchInvokeDynamicInstructions, pathAgnosticResults, pathConfiguration,
-				preciseCollectionTracking, solverConfiguration, sootIntegrationMode, sourceSinkConfig,
+		return Objects.hash(accessPathConfiguration, additionalFlowsEnabled, aliasingAlgorithm,
+				cacheFlushMemoryThreshold, callgraphAlgorithm, codeEliminationMode, dataFlowDirection, dataFlowTimeout,
+				enableArraySizeTainting, enableArrays, enableExceptions, enableInstanceOfTainting, enableLineNumbers,
+				enableOriginalNames, enableReflection, enableTypeChecking, excludeSootLibraryClasses, executorType,
+				filterConditionalSinks, flowSensitiveAliasing, freezeICFG, ignoreFlowsInSystemPackages,
+				implicitFlowMode, incrementalResultReporting, inspectSinks, inspectSources, logSourcesAndSinks,
+				maxAliasingBases, maxThreadNum, memoryThreshold, oneSourceAtATime, outputConfiguration,
+				patchInvokeDynamicInstructions, pathAgnosticResults, pathConfiguration, pathSpillThreshold,
+				phaseMaxThreadNums, preciseCollectionTracking, precisionReductionMemoryThreshold,
+				reducedAccessPathLength, solverConfiguration, sootIntegrationMode, sourceSinkConfig,
 				staticFieldTrackingMode, stopAfterFirstKFlows, taintAnalysisEnabled, writeOutputFiles);
 	}
 
@@ -2325,7 +3064,10 @@ public class InfoflowConfiguration {
 		InfoflowConfiguration other = (InfoflowConfiguration) obj;
 		return Objects.equals(accessPathConfiguration, other.accessPathConfiguration)
 				&& additionalFlowsEnabled == other.additionalFlowsEnabled
-				&& aliasingAlgorithm == other.aliasingAlgorithm && callgraphAlgorithm == other.callgraphAlgorithm
+				&& aliasingAlgorithm == other.aliasingAlgorithm
+				&& Double.doubleToLongBits(cacheFlushMemoryThreshold) == Double
+						.doubleToLongBits(other.cacheFlushMemoryThreshold)
+				&& callgraphAlgorithm == other.callgraphAlgorithm
 				&& codeEliminationMode == other.codeEliminationMode && dataFlowDirection == other.dataFlowDirection
 				&& dataFlowTimeout == other.dataFlowTimeout && enableArraySizeTainting == other.enableArraySizeTainting
 				&& enableArrays == other.enableArrays && enableExceptions == other.enableExceptions
@@ -2333,8 +3075,9 @@ public class InfoflowConfiguration {
 				&& enableLineNumbers == other.enableLineNumbers && enableOriginalNames == other.enableOriginalNames
 				&& enableReflection == other.enableReflection && enableTypeChecking == other.enableTypeChecking
 				&& excludeSootLibraryClasses == other.excludeSootLibraryClasses
+				&& executorType == other.executorType
 				&& filterConditionalSinks == other.filterConditionalSinks
-				&& flowSensitiveAliasing == other.flowSensitiveAliasing
+				&& flowSensitiveAliasing == other.flowSensitiveAliasing && freezeICFG == other.freezeICFG
 				&& ignoreFlowsInSystemPackages == other.ignoreFlowsInSystemPackages
 				&& implicitFlowMode == other.implicitFlowMode
 				&& incrementalResultReporting == other.incrementalResultReporting && inspectSinks == other.inspectSinks
@@ -2346,7 +3089,12 @@ public class InfoflowConfiguration {
 				&& patchInvokeDynamicInstructions == other.patchInvokeDynamicInstructions
 				&& pathAgnosticResults == other.pathAgnosticResults
 				&& Objects.equals(pathConfiguration, other.pathConfiguration)
+				&& Double.doubleToLongBits(pathSpillThreshold) == Double.doubleToLongBits(other.pathSpillThreshold)
+				&& Objects.equals(phaseMaxThreadNums, other.phaseMaxThreadNums)
 				&& preciseCollectionTracking == other.preciseCollectionTracking
+				&& Double.doubleToLongBits(precisionReductionMemoryThreshold) == Double
+						.doubleToLongBits(other.precisionReductionMemoryThreshold)
+				&& reducedAccessPathLength == other.reducedAccessPathLength
 				&& Objects.equals(solverConfiguration, other.solverConfiguration)
 				&& sootIntegrationMode == other.sootIntegrationMode
 				&& Objects.equals(sourceSinkConfig, other.sourceSinkConfig)
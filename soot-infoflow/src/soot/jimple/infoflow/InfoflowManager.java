@@ -11,6 +11,7 @@ import soot.jimple.infoflow.solver.IInfoflowSolver;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
+import soot.jimple.infoflow.threading.ThreadBudget;
 import soot.jimple.infoflow.typing.TypeUtils;
 import soot.jimple.toolkits.callgraph.VirtualEdgesSummaries;
 
@@ -40,6 +41,7 @@ public class InfoflowManager {
 	public InfoflowManager additionalManager;
 
 	private IUsageContextProvider usageContextProvider;
+	private ThreadBudget threadBudget;
 
 	public InfoflowManager(InfoflowConfiguration config) {
 		this.config = config;
@@ -86,6 +88,24 @@ public class InfoflowManager {
 		this.accessPathFactory = existingManager.getAccessPathFactory();
 		this.globalTaintManager = existingManager.getGlobalTaintManager();
 		this.usageContextProvider = null;
+		this.threadBudget = existingManager.getThreadBudget();
+	}
+
+	protected InfoflowManager(InfoflowConfiguration config, IInfoflowSolver mainSolver, IInfoflowCFG icfg,
+			ISourceSinkManager sourceSinkManager, ITaintPropagationWrapper taintWrapper, FastHierarchy hierarchy,
+			GlobalTaintManager globalTaintManager, InfoflowManager existingManager) {
+		this.config = config;
+		this.mainSolver = mainSolver;
+		this.icfg = icfg;
+		this.originalIcfg = null;
+		this.sourceSinkManager = sourceSinkManager;
+		this.taintWrapper = taintWrapper;
+		this.typeUtils = existingManager.getTypeUtils();
+		this.hierarchy = hierarchy;
+		this.accessPathFactory = existingManager.getAccessPathFactory();
+		this.globalTaintManager = globalTaintManager;
+		this.usageContextProvider = null;
+		this.threadBudget = existingManager.getThreadBudget();
 	}
 
 	public InfoflowManager(InfoflowConfiguration config, IInfoflowSolver mainSolver, IInfoflowCFG icfg) {
@@ -269,6 +289,29 @@ public class InfoflowManager {
 		return this.usageContextProvider;
 	}
 
+	/**
+	 * Sets the thread budget from which all phases of the analysis draw their
+	 * threads
+	 *
+	 * @param threadBudget The thread budget of the current analysis run
+	 */
+	public void setThreadBudget(ThreadBudget threadBudget) {
+		this.threadBudget = threadBudget;
+	}
+
+	/**
+	 * Gets the thread budget from which all phases of the analysis draw their
+	 * threads. If no budget has been set, a new one is created from the
+	 * configuration.
+	 *
+	 * @return The thread budget of the current analysis run
+	 */
+	public synchronized ThreadBudget getThreadBudget() {
+		if (this.threadBudget == null)
+			this.threadBudget = new ThreadBudget(config);
+		return this.threadBudget;
+	}
+
 	/**
 	 * Returns the virtual edge summaries
 	 * @return the virtual edge summaries
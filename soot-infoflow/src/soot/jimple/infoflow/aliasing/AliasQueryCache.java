@@ -0,0 +1,123 @@
+package soot.jimple.infoflow.aliasing;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.MapMaker;
+
+import gnu.trove.strategy.HashingStrategy;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.collect.ConcurrentWeakInterner;
+import soot.jimple.infoflow.data.Abstraction;
+
+/**
+ * Remembers the queries that have been sent to an IFDS-based alias solver. The
+ * alias solver reports its results directly to the data flow solver in the
+ * context of the query, so the results of a query that has already been
+ * started are either known already, or will become known once the running
+ * query completes. Sending the same query again cannot produce any new alias
+ * taints and only adds load on the solver.
+ *
+ * The cache only holds weak references to the contexts and abstractions of the
+ * queries. A query is forgotten once the alias solver no longer references its
+ * abstraction, e.g., because the solver has collected the corresponding edges.
+ * The same query is then sent to the solver again.
+ */
+public class AliasQueryCache {
+
+	private static final HashingStrategy<Abstraction> ABSTRACTION_EQUALITY = new HashingStrategy<Abstraction>() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int computeHashCode(Abstraction object) {
+			return object.hashCode();
+		}
+
+		@Override
+		public boolean equals(Abstraction o1, Abstraction o2) {
+			return o1.equals(o2);
+		}
+
+	};
+
+	private final int maxJoinPointAbstractions;
+
+	// Context -> statement -> abstractions that have been sent to the solver
+	private volatile ConcurrentMap<Abstraction, ConcurrentMap<Stmt, ConcurrentWeakInterner<Abstraction>>> queries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Creates a new alias query cache that does not limit the number of neighbors
+	 * it records
+	 */
+	public AliasQueryCache() {
+		this(-1);
+	}
+
+	/**
+	 * Creates a new alias query cache
+	 *
+	 * @param maxJoinPointAbstractions The maximum number of neighbors to record on
+	 *                                 the abstraction of a query, or -1 for no
+	 *                                 limit. This should be the same limit that
+	 *                                 the alias solver uses.
+	 */
+	public AliasQueryCache(int maxJoinPointAbstractions) {
+		this.maxJoinPointAbstractions = maxJoinPointAbstractions;
+		clear();
+	}
+
+	/**
+	 * Registers a new alias query. If an equal query has already been started, the
+	 * given abstraction is recorded as a neighbor of the abstraction of that
+	 * query, just like the alias solver would do if the query was sent to it. In
+	 * that way, the alternative paths remain available for the path
+	 * reconstruction.
+	 *
+	 * @param d1   The context in which the aliases are computed
+	 * @param stmt The statement at which the aliases are computed
+	 * @param abs  The abstraction that is sent to the alias solver
+	 * @return True if the query is new and must be sent to the alias solver,
+	 *         false if the same query has already been started before
+	 */
+	public boolean registerQuery(Abstraction d1, Stmt stmt, Abstraction abs) {
+		ConcurrentWeakInterner<Abstraction> stmtQueries = queries
+				.computeIfAbsent(d1, k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(stmt, k -> new ConcurrentWeakInterner<>(ABSTRACTION_EQUALITY, 1));
+		Abstraction query = stmtQueries.intern(abs);
+		if (query == abs) {
+			misses.increment();
+			return true;
+		}
+
+		hits.increment();
+		if (maxJoinPointAbstractions < 0 || query.getNeighborCount() < maxJoinPointAbstractions)
+			query.addNeighbor(abs);
+		return false;
+	}
+
+	/**
+	 * Gets the fraction of queries that had already been started before
+	 *
+	 * @return The hit rate of this cache between 0 and 1, or -1 if no query has
+	 *         been registered yet
+	 */
+	public double getHitRate() {
+		long hits = this.hits.sum();
+		long total = hits + misses.sum();
+		return total == 0 ? -1 : (double) hits / total;
+	}
+
+	/**
+	 * Removes all queries from this cache
+	 */
+	public void clear() {
+		// Weak keys are compared by identity
+		queries = new MapMaker().weakKeys().concurrencyLevel(Runtime.getRuntime().availableProcessors()).makeMap();
+	}
+
+}
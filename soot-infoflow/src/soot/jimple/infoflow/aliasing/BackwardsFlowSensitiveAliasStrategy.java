@@ -5,6 +5,7 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.Value;
 import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
@@ -20,10 +21,16 @@ import java.util.Set;
 public class BackwardsFlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 
 	private final IInfoflowSolver bSolver;
+	private final AliasQueryCache queryCache;
 
 	public BackwardsFlowSensitiveAliasStrategy(InfoflowManager manager, IInfoflowSolver backwardsSolver) {
 		super(manager);
 		this.bSolver = backwardsSolver;
+
+		SolverConfiguration solverConfig = manager.getConfig().getSolverConfiguration();
+		this.queryCache = solverConfig.isAliasQueryCaching()
+				? new AliasQueryCache(solverConfig.getMaxJoinPointAbstractions())
+				: null;
 	}
 
 	@Override
@@ -31,6 +38,12 @@ public class BackwardsFlowSensitiveAliasStrategy extends AbstractBulkAliasStrate
 			Set<Abstraction> taintSet, SootMethod method, Abstraction newAbs) {
 		// Start the backwards solver
 		assert manager.getICFG() instanceof BackwardsInfoflowCFG;
+
+		// If the same query has already been started, its results have already
+		// been reported or will be reported once the running query completes
+		if (queryCache != null && !queryCache.registerQuery(d1, src, newAbs))
+			return;
+
 		// sometimes we need to revisit the statement itself, so
 		// looping through predecessors isn't always needed
 		bSolver.processEdge(new PathEdge<Unit, Abstraction>(d1, src, newAbs));
@@ -60,6 +73,18 @@ public class BackwardsFlowSensitiveAliasStrategy extends AbstractBulkAliasStrate
 	@Override
 	public void cleanup() {
 		bSolver.cleanup();
+		releaseCaches();
+	}
+
+	@Override
+	public void releaseCaches() {
+		if (queryCache != null)
+			queryCache.clear();
+	}
+
+	@Override
+	public double getQueryCacheHitRate() {
+		return queryCache == null ? -1 : queryCache.getHitRate();
 	}
 
 }
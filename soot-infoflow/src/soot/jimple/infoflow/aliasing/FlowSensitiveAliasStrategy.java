@@ -7,6 +7,7 @@ import soot.SootMethod;
 import soot.Unit;
 import soot.Value;
 import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
@@ -19,10 +20,16 @@ import soot.jimple.infoflow.solver.IInfoflowSolver;
 public class FlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 
 	private final IInfoflowSolver bSolver;
+	private final AliasQueryCache queryCache;
 
 	public FlowSensitiveAliasStrategy(InfoflowManager manager, IInfoflowSolver backwardsSolver) {
 		super(manager);
 		this.bSolver = backwardsSolver;
+
+		SolverConfiguration solverConfig = manager.getConfig().getSolverConfiguration();
+		this.queryCache = solverConfig.isAliasQueryCaching()
+				? new AliasQueryCache(solverConfig.getMaxJoinPointAbstractions())
+				: null;
 	}
 
 	@Override
@@ -30,6 +37,11 @@ public class FlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 			Set<Abstraction> taintSet, SootMethod method, Abstraction newAbs) {
 		// Start the backwards solver
 		Abstraction bwAbs = newAbs.deriveInactiveAbstraction(src);
+
+		// If the same query has already been started, its results have already
+		// been reported or will be reported once the running query completes
+		if (queryCache != null && !queryCache.registerQuery(d1, src, bwAbs))
+			return;
 		for (Unit predUnit : manager.getICFG().getPredsOf(src))
 			bSolver.processEdge(new PathEdge<Unit, Abstraction>(d1, predUnit, bwAbs));
 	}
@@ -58,6 +70,18 @@ public class FlowSensitiveAliasStrategy extends AbstractBulkAliasStrategy {
 	@Override
 	public void cleanup() {
 		bSolver.cleanup();
+		releaseCaches();
+	}
+
+	@Override
+	public void releaseCaches() {
+		if (queryCache != null)
+			queryCache.clear();
+	}
+
+	@Override
+	public double getQueryCacheHitRate() {
+		return queryCache == null ? -1 : queryCache.getHitRate();
 	}
 
 }
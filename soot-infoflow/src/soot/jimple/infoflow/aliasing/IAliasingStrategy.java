@@ -109,4 +109,21 @@ public interface IAliasingStrategy {
 	 */
 	public void cleanup();
 
+	/**
+	 * Releases the caches of this aliasing strategy that only serve to avoid
+	 * redundant work. The strategy must still compute the same aliases afterwards.
+	 */
+	public default void releaseCaches() {
+	}
+
+	/**
+	 * Gets the fraction of alias queries that were not sent to the alias solver,
+	 * because the same query had already been started before
+	 * @return The hit rate of the alias query cache between 0 and 1, or -1 if
+	 * this aliasing strategy does not cache its queries
+	 */
+	public default double getQueryCacheHitRate() {
+		return -1;
+	}
+
 }
@@ -0,0 +1,96 @@
+package soot.jimple.infoflow.aliasing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Immutable set of allocation site numbers. Only the words between the lowest
+ * and the highest set bit are stored, which keeps the sets of variables that
+ * only point to few, closely numbered allocation sites small. Instances can be
+ * shared between any number of threads.
+ */
+public class PointsToBitSet {
+
+	/**
+	 * The set that does not contain any allocation site
+	 */
+	public static final PointsToBitSet EMPTY = new PointsToBitSet(0, new long[0]);
+
+	private final int wordOffset;
+	private final long[] words;
+
+	private PointsToBitSet(int wordOffset, long[] words) {
+		this.wordOffset = wordOffset;
+		this.words = words;
+	}
+
+	/**
+	 * Creates a new set with the same elements as the given bit set
+	 *
+	 * @param bits The bit set to copy
+	 * @return The new set
+	 */
+	public static PointsToBitSet of(BitSet bits) {
+		long[] allWords = bits.toLongArray();
+		int first = 0;
+		while (first < allWords.length && allWords[first] == 0)
+			first++;
+		if (first == allWords.length)
+			return EMPTY;
+		return new PointsToBitSet(first, Arrays.copyOfRange(allWords, first, allWords.length));
+	}
+
+	/**
+	 * Checks whether this set and the given set have at least one element in
+	 * common
+	 *
+	 * @param other The other set
+	 * @return True if the two sets have at least one element in common, false
+	 *         otherwise
+	 */
+	public boolean intersects(PointsToBitSet other) {
+		int from = Math.max(wordOffset, other.wordOffset);
+		int to = Math.min(wordOffset + words.length, other.wordOffset + other.words.length);
+		for (int i = from; i < to; i++) {
+			if ((words[i - wordOffset] & other.words[i - other.wordOffset]) != 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the given element is in this set
+	 *
+	 * @param element The element to look for
+	 * @return True if the given element is in this set, false otherwise
+	 */
+	public boolean contains(int element) {
+		int word = (element >>> 6) - wordOffset;
+		return word >= 0 && word < words.length && (words[word] & (1L << element)) != 0;
+	}
+
+	/**
+	 * Gets whether this set is empty
+	 *
+	 * @return True if this set is empty, false otherwise
+	 */
+	public boolean isEmpty() {
+		return words.length == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * wordOffset + Arrays.hashCode(words);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		PointsToBitSet other = (PointsToBitSet) obj;
+		return wordOffset == other.wordOffset && Arrays.equals(words, other.words);
+	}
+
+}
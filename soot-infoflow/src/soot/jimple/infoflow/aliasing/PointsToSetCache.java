@@ -0,0 +1,212 @@
+package soot.jimple.infoflow.aliasing;
+
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import heros.solver.Pair;
+import soot.Local;
+import soot.PointsToAnalysis;
+import soot.PointsToSet;
+import soot.RefLikeType;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.ValueBox;
+import soot.jimple.ArrayRef;
+import soot.jimple.InstanceFieldRef;
+import soot.jimple.StaticFieldRef;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.spark.pag.Node;
+import soot.jimple.spark.pag.PAG;
+import soot.jimple.spark.sets.P2SetVisitor;
+import soot.jimple.spark.sets.PointsToSetInternal;
+
+/**
+ * Cache for the points-to sets computed by SPARK. The sets are stored as
+ * compact bit sets over the numbers of the allocation sites, and equal sets are
+ * only stored once. Checking whether two values may alias then boils down to
+ * intersecting two bit sets. The cache is safe for concurrent use.
+ */
+public class PointsToSetCache {
+
+	private final PAG pta;
+
+	private final ConcurrentMap<Local, PointsToBitSet> localSets = new ConcurrentHashMap<>();
+	private final ConcurrentMap<SootField, PointsToBitSet> staticFieldSets = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Pair<Local, SootField>, PointsToBitSet> instanceFieldSets = new ConcurrentHashMap<>();
+	private final ConcurrentMap<PointsToBitSet, PointsToBitSet> canonicalSets = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new cache
+	 *
+	 * @param pta The SPARK pointer assignment graph from which to take the
+	 *            points-to sets
+	 */
+	public PointsToSetCache(PAG pta) {
+		this.pta = pta;
+	}
+
+	/**
+	 * Computes the points-to sets of all locals of reference type, and of all
+	 * fields that are accessed in the given methods
+	 *
+	 * @param methods The methods for which to compute the points-to sets
+	 */
+	public void precompute(Iterable<SootMethod> methods) {
+		for (SootMethod method : methods) {
+			if (!method.hasActiveBody())
+				continue;
+			for (Local local : method.getActiveBody().getLocals())
+				if (local.getType() instanceof RefLikeType)
+					getPointsToSet(local);
+			for (Unit u : method.getActiveBody().getUnits()) {
+				for (ValueBox vb : u.getUseAndDefBoxes()) {
+					Value val = vb.getValue();
+					if (val instanceof InstanceFieldRef || val instanceof StaticFieldRef)
+						getPointsToSet(val);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the points-to set for the given value
+	 *
+	 * @param targetValue The value for which to get the points-to set
+	 * @return The points-to set for the given value, or <code>null</code> if the
+	 *         value cannot point to any object
+	 */
+	public PointsToBitSet getPointsToSet(Value targetValue) {
+		if (targetValue instanceof Local)
+			return getLocalPointsToSet((Local) targetValue);
+		else if (targetValue instanceof InstanceFieldRef) {
+			InstanceFieldRef iref = (InstanceFieldRef) targetValue;
+			return getInstanceFieldPointsToSet((Local) iref.getBase(), iref.getField());
+		} else if (targetValue instanceof StaticFieldRef)
+			return getStaticFieldPointsToSet(((StaticFieldRef) targetValue).getField());
+		else if (targetValue instanceof ArrayRef)
+			return getLocalPointsToSet((Local) ((ArrayRef) targetValue).getBase());
+		else
+			return null;
+	}
+
+	/**
+	 * Gets the points-to set for the given access path
+	 *
+	 * @param accessPath The access path for which to get the points-to set
+	 * @return The points-to set for the given access path
+	 */
+	public PointsToBitSet getPointsToSet(AccessPath accessPath) {
+		if (accessPath.isLocal())
+			return getLocalPointsToSet(accessPath.getPlainValue());
+		else if (accessPath.isInstanceFieldRef())
+			return getInstanceFieldPointsToSet(accessPath.getPlainValue(), accessPath.getFirstField());
+		else if (accessPath.isStaticFieldRef())
+			return getStaticFieldPointsToSet(accessPath.getFirstField());
+		else
+			throw new RuntimeException("Unexepected access path type");
+	}
+
+	private PointsToBitSet getLocalPointsToSet(Local local) {
+		PointsToBitSet pts = localSets.get(local);
+		if (pts == null) {
+			PointsToSet sparkSet;
+			synchronized (pta) {
+				sparkSet = pta.reachingObjects(local);
+			}
+			pts = putIfAbsent(localSets, local, toBitSet(sparkSet));
+		}
+		return pts;
+	}
+
+	private PointsToBitSet getInstanceFieldPointsToSet(Local base, SootField field) {
+		Pair<Local, SootField> key = new Pair<>(base, field);
+		PointsToBitSet pts = instanceFieldSets.get(key);
+		if (pts == null) {
+			PointsToSet sparkSet;
+			synchronized (pta) {
+				sparkSet = pta.reachingObjects(base, field);
+			}
+			pts = putIfAbsent(instanceFieldSets, key, toBitSet(sparkSet));
+		}
+		return pts;
+	}
+
+	private PointsToBitSet getStaticFieldPointsToSet(SootField field) {
+		PointsToBitSet pts = staticFieldSets.get(field);
+		if (pts == null) {
+			PointsToSet sparkSet;
+			synchronized (pta) {
+				sparkSet = pta.reachingObjects(field);
+			}
+			pts = putIfAbsent(staticFieldSets, field, toBitSet(sparkSet));
+		}
+		return pts;
+	}
+
+	private <K> PointsToBitSet putIfAbsent(ConcurrentMap<K, PointsToBitSet> map, K key, PointsToBitSet pts) {
+		PointsToBitSet canonical = canonicalSets.putIfAbsent(pts, pts);
+		if (canonical != null)
+			pts = canonical;
+		PointsToBitSet existing = map.putIfAbsent(key, pts);
+		return existing == null ? pts : existing;
+	}
+
+	/**
+	 * Converts the given SPARK points-to set into a bit set
+	 *
+	 * @param sparkSet The SPARK points-to set
+	 * @return The bit set with the numbers of all allocation sites in the given
+	 *         points-to set
+	 */
+	private static PointsToBitSet toBitSet(PointsToSet sparkSet) {
+		if (sparkSet == null || sparkSet.isEmpty())
+			return PointsToBitSet.EMPTY;
+		if (!(sparkSet instanceof PointsToSetInternal))
+			throw new IllegalArgumentException("Unsupported points-to set: " + sparkSet.getClass().getName());
+
+		final BitSet bits = new BitSet();
+		((PointsToSetInternal) sparkSet).forall(new P2SetVisitor() {
+
+			@Override
+			public void visit(Node n) {
+				bits.set(n.getNumber());
+			}
+
+		});
+		return PointsToBitSet.of(bits);
+	}
+
+	/**
+	 * Checks whether the given points-to analysis can be used with this cache
+	 *
+	 * @param pta The points-to analysis to check
+	 * @return True if the points-to sets of the given analysis can be cached,
+	 *         false otherwise
+	 */
+	public static boolean isSupported(PointsToAnalysis pta) {
+		return pta instanceof PAG;
+	}
+
+	/**
+	 * Gets the number of distinct points-to sets in this cache
+	 *
+	 * @return The number of distinct points-to sets in this cache
+	 */
+	public int getDistinctSetCount() {
+		return canonicalSets.size();
+	}
+
+	/**
+	 * Removes all points-to sets from this cache
+	 */
+	public void clear() {
+		localSets.clear();
+		staticFieldSets.clear();
+		instanceFieldSets.clear();
+		canonicalSets.clear();
+	}
+
+}
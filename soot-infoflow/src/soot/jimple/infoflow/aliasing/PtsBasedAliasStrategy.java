@@ -32,16 +32,31 @@ import soot.jimple.infoflow.data.AccessPathFragment;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
 
 /**
- * A simple points-to-based aliasing strategy for FlowDroid
+ * A simple points-to-based aliasing strategy for FlowDroid. If a
+ * {@link PointsToSetCache} is given, the points-to sets are taken from the
+ * cache instead of querying the points-to analysis again for every taint.
  * 
  * @author Steven Arzt
  */
 public class PtsBasedAliasStrategy extends AbstractBulkAliasStrategy {
 
 	private final Table<SootMethod, Abstraction, Set<Abstraction>> aliases = HashBasedTable.create();
+	private final PointsToSetCache ptsCache;
 
 	public PtsBasedAliasStrategy(InfoflowManager manager) {
+		this(manager, null);
+	}
+
+	/**
+	 * Creates a new instance of the {@link PtsBasedAliasStrategy} class
+	 * 
+	 * @param manager  The data flow manager
+	 * @param ptsCache The cache from which to take the points-to sets, or
+	 *                 <code>null</code> to query the points-to analysis directly
+	 */
+	public PtsBasedAliasStrategy(InfoflowManager manager, PointsToSetCache ptsCache) {
 		super(manager);
+		this.ptsCache = ptsCache;
 	}
 
 	@Override
@@ -86,7 +101,12 @@ public class PtsBasedAliasStrategy extends AbstractBulkAliasStrategy {
 		if (ap.getFragmentCount() > 1)
 			return;
 
-		PointsToSet ptsTaint = getPointsToSet(newAbs.getAccessPath());
+		PointsToSet ptsTaint = null;
+		PointsToBitSet ptsTaintBits = null;
+		if (ptsCache == null)
+			ptsTaint = getPointsToSet(newAbs.getAccessPath());
+		else
+			ptsTaintBits = ptsCache.getPointsToSet(newAbs.getAccessPath());
 		AccessPathFragment[] appendFragmentsA = appendFragments.toArray(new AccessPathFragment[appendFragments.size()]);
 
 		// We run once per method and we are flow-insensitive anyway, so we
@@ -94,16 +114,21 @@ public class PtsBasedAliasStrategy extends AbstractBulkAliasStrategy {
 		// one automatically taints the corresponding def set.
 		boolean beforeActUnit = method.getActiveBody().getUnits().contains(actStmt);
 		final AccessPathFactory apFactory = manager.getAccessPathFactory();
+		final Local baseOrg = newAbs.getAccessPath().getPlainValue();
+		PointsToSet ptsBaseOrg = null;
+		PointsToBitSet ptsBaseOrgBits = null;
+		if (ptsCache == null)
+			ptsBaseOrg = getPointsToSet(baseOrg);
+		else
+			ptsBaseOrgBits = ptsCache.getPointsToSet(baseOrg);
 		for (Unit u : method.getActiveBody().getUnits()) {
 			Stmt stmt = (Stmt) u;
 			if (stmt == actStmt)
 				beforeActUnit = false;
 
 			// Generic check for relevant variables
-			PointsToSet ptsBaseOrg = getPointsToSet(newAbs.getAccessPath().getPlainValue());
 			for (ValueBox vb : stmt.getUseAndDefBoxes()) {
-				PointsToSet ptsBase = getPointsToSet(vb.getValue());
-				if (ptsBase != null && ptsBase.hasNonEmptyIntersection(ptsBaseOrg)) {
+				if (isBaseAliased(ptsBaseOrg, ptsBaseOrgBits, vb.getValue())) {
 					// Schedule the AP at the location where we found the alias
 					AccessPath newAP = apFactory.appendFields(
 							apFactory.copyWithNewValue(newAbs.getAccessPath(), vb.getValue()), appendFragmentsA,
@@ -126,7 +151,8 @@ public class PtsBasedAliasStrategy extends AbstractBulkAliasStrategy {
 				DefinitionStmt assign = (DefinitionStmt) u;
 				Value rop = assign.getRightOp();
 				Value lop = assign.getLeftOp();
-				if (isAliasedAtStmt(ptsTaint, rop) && (appendFragments != null && appendFragments.size() > 0)) {
+				if (isAliasedAtStmt(ptsTaint, ptsTaintBits, rop)
+						&& (appendFragments != null && appendFragments.size() > 0)) {
 					Abstraction aliasAbsLeft = newAbs.deriveNewAbstraction(
 							manager.getAccessPathFactory().createAccessPath(lop, appendFragmentsA, taintSubFields),
 							stmt);
@@ -141,7 +167,7 @@ public class PtsBasedAliasStrategy extends AbstractBulkAliasStrategy {
 
 				// If we have a = b and our taint is an alias to a, we must add
 				// a taint for b.
-				if (isAliasedAtStmt(ptsTaint, lop) && isValidAccessPathRoot(rop)) {
+				if (isAliasedAtStmt(ptsTaint, ptsTaintBits, lop) && isValidAccessPathRoot(rop)) {
 					Abstraction aliasAbsRight = newAbs.deriveNewAbstraction(
 							manager.getAccessPathFactory().createAccessPath(rop, appendFragmentsA, taintSubFields),
 							stmt);
@@ -161,7 +187,23 @@ public class PtsBasedAliasStrategy extends AbstractBulkAliasStrategy {
 		return op instanceof FieldRef || op instanceof Local || op instanceof ArrayRef;
 	}
 
-	private boolean isAliasedAtStmt(PointsToSet ptsTaint, Value val) {
+	private boolean isBaseAliased(PointsToSet ptsBaseOrg, PointsToBitSet ptsBaseOrgBits, Value val) {
+		if (ptsCache != null) {
+			PointsToBitSet ptsBase = ptsCache.getPointsToSet(val);
+			return ptsBase != null && ptsBaseOrgBits != null && ptsBase.intersects(ptsBaseOrgBits);
+		}
+		PointsToSet ptsBase = getPointsToSet(val);
+		return ptsBase != null && ptsBase.hasNonEmptyIntersection(ptsBaseOrg);
+	}
+
+	private boolean isAliasedAtStmt(PointsToSet ptsTaint, PointsToBitSet ptsTaintBits, Value val) {
+		if (ptsCache != null) {
+			if (ptsTaintBits != null) {
+				PointsToBitSet ptsRight = ptsCache.getPointsToSet(val);
+				return ptsRight != null && ptsTaintBits.intersects(ptsRight);
+			}
+			return false;
+		}
 		if (ptsTaint != null) {
 			PointsToSet ptsRight = getPointsToSet(val);
 			return ptsRight != null && ptsTaint.hasNonEmptyIntersection(ptsRight);
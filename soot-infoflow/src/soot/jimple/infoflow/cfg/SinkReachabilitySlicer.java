@@ -0,0 +1,85 @@
+package soot.jimple.infoflow.cfg;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Slices the program down to the methods from which a sink can be reached over
+ * the call graph. A taint can only reach a sink if it is propagated into a
+ * method that (transitively) calls a method with a sink, or if it is returned
+ * into a caller that does so.
+ *
+ * The slice consists of two sets. The sink-reaching methods are all methods
+ * from which a method with a sink is reachable via call edges. The relevant
+ * methods additionally contain all transitive callees of the sink-reaching
+ * methods, because these methods may still pass a taint back to a
+ * sink-reaching caller. A taint in a method outside of the relevant methods can
+ * never reach a sink.
+ */
+public class SinkReachabilitySlicer {
+
+	private final IInfoflowCFG icfg;
+
+	/**
+	 * Creates a new slicer
+	 *
+	 * @param icfg The interprocedural control flow graph whose call graph shall be
+	 *             sliced
+	 */
+	public SinkReachabilitySlicer(IInfoflowCFG icfg) {
+		this.icfg = icfg;
+	}
+
+	/**
+	 * Computes all methods from which one of the given sink methods is reachable
+	 * via call edges, including the sink methods themselves
+	 *
+	 * @param sinkMethods The methods that contain at least one sink
+	 * @return The methods from which a sink is reachable
+	 */
+	public Set<SootMethod> getSinkReachingMethods(Collection<SootMethod> sinkMethods) {
+		Set<SootMethod> reaching = new HashSet<>(sinkMethods);
+		Deque<SootMethod> worklist = new ArrayDeque<>(sinkMethods);
+		while (!worklist.isEmpty()) {
+			SootMethod sm = worklist.poll();
+			for (Unit callSite : icfg.getCallersOf(sm)) {
+				SootMethod caller = icfg.getMethodOf(callSite);
+				if (caller != null && reaching.add(caller))
+					worklist.add(caller);
+			}
+		}
+		return reaching;
+	}
+
+	/**
+	 * Computes the given methods and all of their transitive callees
+	 *
+	 * @param methods The methods from which to start
+	 * @return The given methods and all methods that are transitively called by
+	 *         them
+	 */
+	public Set<SootMethod> getTransitiveCallees(Collection<SootMethod> methods) {
+		Set<SootMethod> callees = new HashSet<>(methods);
+		Deque<SootMethod> worklist = new ArrayDeque<>(methods);
+		while (!worklist.isEmpty()) {
+			SootMethod sm = worklist.poll();
+			if (!sm.hasActiveBody())
+				continue;
+			for (Unit callSite : icfg.getCallsFromWithin(sm)) {
+				for (SootMethod callee : icfg.getCalleesOfCallAt(callSite)) {
+					if (callees.add(callee))
+						worklist.add(callee);
+				}
+			}
+		}
+		return callees;
+	}
+
+}
@@ -0,0 +1,206 @@
+package soot.jimple.infoflow.collect;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Lock-free set to which records can only be added. The records are kept in a
+ * singly-linked list to which new records are prepended with a compare-and-set
+ * operation. Duplicates are detected by scanning the list. Once the list grows
+ * beyond a small threshold, an index of the list is built and published
+ * together with a seal node in a single compare-and-set operation. From then
+ * on, the index is used for detecting duplicates. No thread ever waits for
+ * another one.
+ *
+ * Every record that has been added by a successful
+ * {@link #putIfAbsent(Object)} is visible to all iterators that are created
+ * afterwards. Iterators are weakly consistent, i.e., they never throw a
+ * {@link java.util.ConcurrentModificationException} and return all records that
+ * were present when the iterator was created.
+ *
+ * @param <R> The type of the records in the set
+ */
+public class AppendOnlyRecordSet<R> extends AbstractSet<R> {
+
+	/**
+	 * The number of records up to which duplicates are detected by scanning the
+	 * list
+	 */
+	private static final int INDEX_THRESHOLD = 8;
+
+	/**
+	 * A node in the linked list of records. Each node knows the number of records
+	 * in the remainder of the list.
+	 */
+	private static class Node<R> {
+
+		private final R record;
+		private final Node<R> next;
+		private final int size;
+
+		private Node(R record, Node<R> next) {
+			this.record = record;
+			this.next = next;
+			this.size = (record == null ? 0 : 1) + (next == null ? 0 : next.size);
+		}
+
+	}
+
+	/**
+	 * Node that marks the point at which the list was sealed. All nodes below the
+	 * seal are in the index that the seal carries. Seals do not carry a record.
+	 */
+	private static class Seal<R> extends Node<R> {
+
+		private final ConcurrentHashMap<R, R> index;
+
+		private Seal(Node<R> next, ConcurrentHashMap<R, R> index) {
+			super(null, next);
+			this.index = index;
+		}
+
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<AppendOnlyRecordSet, Node> HEAD = AtomicReferenceFieldUpdater
+			.newUpdater(AppendOnlyRecordSet.class, Node.class, "head");
+
+	private volatile Node<R> head = null;
+	private volatile ConcurrentHashMap<R, R> index = null;
+
+	/**
+	 * Adds the given record to this set if no equal record is contained yet
+	 *
+	 * @param record The record to add
+	 * @return The existing record if there already is an equal one, otherwise
+	 *         <code>null</code>
+	 */
+	public R putIfAbsent(R record) {
+		if (record == null)
+			throw new NullPointerException("Records must not be null");
+
+		Node<R> scannedUpTo = null;
+		while (true) {
+			// Once the index has been published, it is the only place where
+			// duplicates are detected
+			ConcurrentHashMap<R, R> idx = this.index;
+			if (idx != null) {
+				R existing = idx.putIfAbsent(record, record);
+				if (existing != null)
+					return existing;
+				push(record);
+				return null;
+			}
+
+			// Check the records that have been added since the last attempt. If
+			// another thread has sealed the list in the meantime, we take the
+			// index from the seal.
+			Node<R> h = this.head;
+			Seal<R> seal = null;
+			for (Node<R> n = h; n != scannedUpTo; n = n.next) {
+				if (n instanceof Seal) {
+					seal = (Seal<R>) n;
+					break;
+				}
+				if (record.equals(n.record))
+					return n.record;
+			}
+			if (seal != null) {
+				this.index = seal.index;
+				continue;
+			}
+			scannedUpTo = h;
+
+			if (h != null && h.size >= INDEX_THRESHOLD) {
+				// Build the index first and then publish it together with the seal,
+				// so that the index is complete as soon as the seal is visible
+				ConcurrentHashMap<R, R> newIndex = new ConcurrentHashMap<>(h.size * 2);
+				for (Node<R> n = h; n != null; n = n.next)
+					newIndex.put(n.record, n.record);
+				if (HEAD.compareAndSet(this, h, new Seal<>(h, newIndex)))
+					this.index = newIndex;
+				continue;
+			}
+
+			if (HEAD.compareAndSet(this, h, new Node<>(record, h)))
+				return null;
+		}
+	}
+
+	/**
+	 * Prepends the given record to the list without checking for duplicates
+	 *
+	 * @param record The record to prepend
+	 */
+	private void push(R record) {
+		while (true) {
+			Node<R> h = this.head;
+			if (HEAD.compareAndSet(this, h, new Node<>(record, h)))
+				return;
+		}
+	}
+
+	@Override
+	public boolean add(R record) {
+		return putIfAbsent(record) == null;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (o == null)
+			return false;
+		ConcurrentHashMap<R, R> idx = this.index;
+		if (idx != null)
+			return idx.containsKey(o);
+		for (Node<R> n = head; n != null; n = n.next) {
+			if (o.equals(n.record))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		Node<R> h = this.head;
+		return h == null ? 0 : h.size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return head == null;
+	}
+
+	@Override
+	public Iterator<R> iterator() {
+		final Node<R> start = this.head;
+		return new Iterator<R>() {
+
+			private Node<R> next = skipSeals(start);
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public R next() {
+				Node<R> n = next;
+				if (n == null)
+					throw new NoSuchElementException();
+				next = skipSeals(n.next);
+				return n.record;
+			}
+
+		};
+	}
+
+	private static <R> Node<R> skipSeals(Node<R> n) {
+		while (n != null && n.record == null)
+			n = n.next;
+		return n;
+	}
+
+}
@@ -0,0 +1,300 @@
+package soot.jimple.infoflow.collect;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent map that assigns dense integer IDs to objects. Two objects that
+ * are equal according to {@link Object#equals(Object)} receive the same ID. IDs
+ * start at 1, so that 0 can be used as a marker for "no object".
+ *
+ * By default, the map only holds weak references to the objects. Once an
+ * object is no longer used anywhere else, its ID is released. IDs are never
+ * re-used, so clients can ask whether an ID still belongs to a live object, and
+ * drop the data they have associated with released IDs. Note that the ID
+ * belongs to the instance that registered it. If an equal instance is still in
+ * use elsewhere, the ID is released nevertheless. Clients for which this is not
+ * acceptable can create a map with strong references, in which IDs are only
+ * released by {@link #clear()}.
+ *
+ * @param <T> The type of the objects to which IDs are assigned
+ */
+public class ConcurrentIdMap<T> {
+
+	private static final int DEFAULT_STRIPES = 64;
+	private static final int INITIAL_STRIPE_CAPACITY = 16;
+	private static final float MAX_LOAD_FACTOR = 0.75f;
+
+	/**
+	 * A weak reference to an object with an ID in a hash chain. In maps with
+	 * strong references, the entry additionally keeps the object alive.
+	 */
+	private static class Entry<T> extends WeakReference<T> {
+
+		private final int hash;
+		private final int id;
+		private final T strongReferent;
+		private Entry<T> next;
+
+		private Entry(T referent, int hash, int id, Entry<T> next, ReferenceQueue<T> queue, boolean strong) {
+			super(referent, strong ? null : queue);
+			this.hash = hash;
+			this.id = id;
+			this.strongReferent = strong ? referent : null;
+			this.next = next;
+		}
+
+	}
+
+	/**
+	 * A single stripe of the map
+	 */
+	private static class Stripe<T> {
+
+		private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+		private Entry<T>[] table = newTable(INITIAL_STRIPE_CAPACITY);
+		private int size = 0;
+		private int threshold = (int) (INITIAL_STRIPE_CAPACITY * MAX_LOAD_FACTOR);
+
+		/**
+		 * Removes all entries whose objects have been garbage-collected, and
+		 * releases their IDs
+		 *
+		 * @param owner The map to which this stripe belongs
+		 */
+		private void expungeStaleEntries(ConcurrentIdMap<T> owner) {
+			Object ref;
+			while ((ref = queue.poll()) != null) {
+				@SuppressWarnings("unchecked")
+				Entry<T> stale = (Entry<T>) ref;
+				int idx = stale.hash & (table.length - 1);
+				Entry<T> prev = null;
+				for (Entry<T> e = table[idx]; e != null; prev = e, e = e.next) {
+					if (e == stale) {
+						if (prev == null)
+							table[idx] = e.next;
+						else
+							prev.next = e.next;
+						size--;
+						owner.releaseId(e.id);
+						break;
+					}
+				}
+			}
+		}
+
+		private void rehash() {
+			final Entry<T>[] oldTable = table;
+			final Entry<T>[] newTable = newTable(oldTable.length << 1);
+			final int mask = newTable.length - 1;
+			for (Entry<T> head : oldTable) {
+				Entry<T> e = head;
+				while (e != null) {
+					Entry<T> next = e.next;
+					int idx = e.hash & mask;
+					e.next = newTable[idx];
+					newTable[idx] = e;
+					e = next;
+				}
+			}
+			this.table = newTable;
+			this.threshold = (int) (newTable.length * MAX_LOAD_FACTOR);
+		}
+
+	}
+
+	private final Stripe<T>[] stripes;
+	private final int stripeShift;
+	private final boolean strong;
+	private final AtomicInteger nextId = new AtomicInteger(1);
+
+	private final BitSet releasedIds = new BitSet();
+	private final LongAdder releasedCount = new LongAdder();
+
+	/**
+	 * Creates a new map with the default number of stripes
+	 */
+	public ConcurrentIdMap() {
+		this(DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Creates a new map with weak references to the objects
+	 *
+	 * @param numStripes The number of stripes. Will be rounded up to the next
+	 *                   power of two.
+	 */
+	public ConcurrentIdMap(int numStripes) {
+		this(numStripes, false);
+	}
+
+	/**
+	 * Creates a new map
+	 *
+	 * @param numStripes The number of stripes. Will be rounded up to the next
+	 *                   power of two.
+	 * @param strong     True to keep the objects alive until the map is cleared,
+	 *                   false to release their IDs once they are
+	 *                   garbage-collected
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentIdMap(int numStripes, boolean strong) {
+		this.strong = strong;
+		int n = Integer.highestOneBit(Math.max(1, numStripes - 1)) << 1;
+		if (numStripes <= 1)
+			n = 1;
+		this.stripes = new Stripe[n];
+		for (int i = 0; i < n; i++)
+			stripes[i] = new Stripe<>();
+		this.stripeShift = 32 - Integer.numberOfTrailingZeros(n);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Entry<T>[] newTable(int capacity) {
+		return new Entry[capacity];
+	}
+
+	private static int spread(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		return h;
+	}
+
+	private Stripe<T> stripeFor(int hash) {
+		if (stripes.length == 1)
+			return stripes[0];
+		return stripes[hash >>> stripeShift];
+	}
+
+	private void releaseId(int id) {
+		synchronized (releasedIds) {
+			releasedIds.set(id);
+		}
+		releasedCount.increment();
+	}
+
+	/**
+	 * Gets the ID of the given object. If the object has no ID yet, a new one is
+	 * assigned.
+	 *
+	 * @param obj The object for which to get the ID
+	 * @return The ID of the given object
+	 * @throws IllegalStateException if all IDs have been used up
+	 */
+	public int getOrCreateId(T obj) {
+		final int hash = spread(obj.hashCode());
+		final Stripe<T> stripe = stripeFor(hash);
+		synchronized (stripe) {
+			stripe.expungeStaleEntries(this);
+
+			Entry<T>[] table = stripe.table;
+			int idx = hash & (table.length - 1);
+			for (Entry<T> e = table[idx]; e != null; e = e.next) {
+				if (e.hash == hash) {
+					T existing = e.get();
+					if (existing != null && existing.equals(obj))
+						return e.id;
+				}
+			}
+
+			int id = nextId.getAndIncrement();
+			if (id <= 0) {
+				nextId.set(Integer.MIN_VALUE);
+				throw new IllegalStateException("Ran out of object IDs");
+			}
+			table[idx] = new Entry<>(obj, hash, id, table[idx], stripe.queue, strong);
+			if (++stripe.size > stripe.threshold)
+				stripe.rehash();
+			return id;
+		}
+	}
+
+	/**
+	 * Checks whether the given ID still belongs to an object. Objects that have
+	 * been garbage-collected, but not yet been noticed by this map, still count as
+	 * live.
+	 *
+	 * @param id The ID to check
+	 * @return True if the given ID has been handed out and not been released yet,
+	 *         false otherwise
+	 */
+	public boolean isLive(int id) {
+		if (id <= 0 || id > getMaxId())
+			return false;
+		synchronized (releasedIds) {
+			return !releasedIds.get(id);
+		}
+	}
+
+	/**
+	 * Removes the entries of all objects that have been garbage-collected and
+	 * releases their IDs
+	 */
+	public void expungeStaleEntries() {
+		for (Stripe<T> stripe : stripes) {
+			synchronized (stripe) {
+				stripe.expungeStaleEntries(this);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of objects to which IDs have been assigned. Objects that
+	 * have been garbage-collected, but not yet been noticed by this map, are
+	 * counted as well.
+	 *
+	 * @return The number of objects to which IDs have been assigned
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe<T> stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Gets the number of IDs that have been released because their objects have
+	 * been garbage-collected
+	 *
+	 * @return The number of released IDs
+	 */
+	public long getReleasedCount() {
+		return releasedCount.sum();
+	}
+
+	/**
+	 * Gets the largest ID that has been handed out so far
+	 *
+	 * @return The largest ID that has been handed out so far
+	 */
+	public int getMaxId() {
+		int next = nextId.get();
+		return next <= 0 ? Integer.MAX_VALUE : next - 1;
+	}
+
+	/**
+	 * Removes all objects from this map and restarts the ID numbering
+	 */
+	public void clear() {
+		for (Stripe<T> stripe : stripes) {
+			synchronized (stripe) {
+				stripe.table = newTable(INITIAL_STRIPE_CAPACITY);
+				stripe.size = 0;
+				stripe.threshold = (int) (INITIAL_STRIPE_CAPACITY * MAX_LOAD_FACTOR);
+			}
+		}
+		synchronized (releasedIds) {
+			releasedIds.clear();
+		}
+		releasedCount.reset();
+		nextId.set(1);
+	}
+
+}
@@ -0,0 +1,251 @@
+package soot.jimple.infoflow.collect;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import gnu.trove.strategy.HashingStrategy;
+
+/**
+ * Concurrent table that maps structurally equal objects to a single canonical
+ * instance. The table only holds weak references to the canonical instances,
+ * i.e., an instance is removed from the table once it is no longer used
+ * anywhere else. The table is split into a fixed number of stripes, each of
+ * which is a chained hash table that is guarded by its own lock.
+ *
+ * @param <E> The type of the objects to intern
+ */
+public class ConcurrentWeakInterner<E> {
+
+	private static final int DEFAULT_STRIPES = 64;
+	private static final int INITIAL_STRIPE_CAPACITY = 16;
+	private static final float MAX_LOAD_FACTOR = 0.75f;
+
+	/**
+	 * A weak reference to a canonical instance in a hash chain
+	 */
+	private static class Entry<E> extends WeakReference<E> {
+
+		private final int hash;
+		private Entry<E> next;
+
+		private Entry(E referent, int hash, Entry<E> next, ReferenceQueue<E> queue) {
+			super(referent, queue);
+			this.hash = hash;
+			this.next = next;
+		}
+
+	}
+
+	/**
+	 * A single stripe of the table
+	 */
+	private static class Stripe<E> {
+
+		private final ReferenceQueue<E> queue = new ReferenceQueue<>();
+		private Entry<E>[] table = newTable(INITIAL_STRIPE_CAPACITY);
+		private int size = 0;
+		private int threshold = (int) (INITIAL_STRIPE_CAPACITY * MAX_LOAD_FACTOR);
+
+		@SuppressWarnings("unchecked")
+		private static <E> Entry<E>[] newTable(int capacity) {
+			return new Entry[capacity];
+		}
+
+		/**
+		 * Removes all entries whose canonical instances have been garbage-collected
+		 */
+		private void expungeStaleEntries() {
+			Object ref;
+			while ((ref = queue.poll()) != null) {
+				@SuppressWarnings("unchecked")
+				Entry<E> stale = (Entry<E>) ref;
+				int idx = stale.hash & (table.length - 1);
+				Entry<E> prev = null;
+				for (Entry<E> e = table[idx]; e != null; prev = e, e = e.next) {
+					if (e == stale) {
+						if (prev == null)
+							table[idx] = e.next;
+						else
+							prev.next = e.next;
+						size--;
+						break;
+					}
+				}
+			}
+		}
+
+		private void rehash() {
+			final Entry<E>[] oldTable = table;
+			final Entry<E>[] newTable = newTable(oldTable.length << 1);
+			final int mask = newTable.length - 1;
+			for (Entry<E> head : oldTable) {
+				Entry<E> e = head;
+				while (e != null) {
+					Entry<E> next = e.next;
+					int idx = e.hash & mask;
+					e.next = newTable[idx];
+					newTable[idx] = e;
+					e = next;
+				}
+			}
+			this.table = newTable;
+			this.threshold = (int) (newTable.length * MAX_LOAD_FACTOR);
+		}
+
+	}
+
+	private final HashingStrategy<? super E> strategy;
+	private final Stripe<E>[] stripes;
+	private final int stripeShift;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Creates a new interner that compares objects using their
+	 * {@link Object#equals(Object)} and {@link Object#hashCode()} methods
+	 */
+	public ConcurrentWeakInterner() {
+		this(new HashingStrategy<Object>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public int computeHashCode(Object object) {
+				return object.hashCode();
+			}
+
+			@Override
+			public boolean equals(Object o1, Object o2) {
+				return o1.equals(o2);
+			}
+
+		});
+	}
+
+	/**
+	 * Creates a new interner with the default number of stripes
+	 *
+	 * @param strategy The strategy that defines structural equality
+	 */
+	public ConcurrentWeakInterner(HashingStrategy<? super E> strategy) {
+		this(strategy, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Creates a new interner
+	 *
+	 * @param strategy   The strategy that defines structural equality
+	 * @param numStripes The number of stripes. Will be rounded up to the next
+	 *                   power of two.
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentWeakInterner(HashingStrategy<? super E> strategy, int numStripes) {
+		this.strategy = strategy;
+
+		int n = Integer.highestOneBit(Math.max(1, numStripes - 1)) << 1;
+		if (numStripes <= 1)
+			n = 1;
+		this.stripes = new Stripe[n];
+		for (int i = 0; i < n; i++)
+			stripes[i] = new Stripe<>();
+		this.stripeShift = 32 - Integer.numberOfTrailingZeros(n);
+	}
+
+	/**
+	 * Spreads the bits of the given hash code
+	 *
+	 * @param h The hash code
+	 * @return The spread hash code
+	 */
+	private static int spread(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		return h;
+	}
+
+	private Stripe<E> stripeFor(int hash) {
+		if (stripes.length == 1)
+			return stripes[0];
+		return stripes[hash >>> stripeShift];
+	}
+
+	/**
+	 * Gets the canonical instance that is structurally equal to the given object.
+	 * If there is no such instance yet, the given object becomes the canonical
+	 * instance.
+	 *
+	 * @param value The object to intern
+	 * @return The canonical instance that is structurally equal to the given
+	 *         object
+	 */
+	public E intern(E value) {
+		if (value == null)
+			return null;
+
+		final int hash = spread(strategy.computeHashCode(value));
+		final Stripe<E> stripe = stripeFor(hash);
+		synchronized (stripe) {
+			stripe.expungeStaleEntries();
+
+			Entry<E>[] table = stripe.table;
+			int idx = hash & (table.length - 1);
+			for (Entry<E> e = table[idx]; e != null; e = e.next) {
+				if (e.hash == hash) {
+					E existing = e.get();
+					if (existing != null && strategy.equals(existing, value)) {
+						hits.increment();
+						return existing;
+					}
+				}
+			}
+
+			table[idx] = new Entry<>(value, hash, table[idx], stripe.queue);
+			if (++stripe.size > stripe.threshold)
+				stripe.rehash();
+		}
+		misses.increment();
+		return value;
+	}
+
+	/**
+	 * Gets the number of canonical instances in this table. Instances that have
+	 * been garbage-collected, but not yet removed from the table, are counted as
+	 * well.
+	 *
+	 * @return The number of canonical instances in this table
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe<E> stripe : stripes) {
+			synchronized (stripe) {
+				stripe.expungeStaleEntries();
+				size += stripe.size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Gets the number of calls to {@link #intern(Object)} that returned an
+	 * existing canonical instance
+	 *
+	 * @return The number of successful lookups
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of calls to {@link #intern(Object)} that registered a new
+	 * canonical instance
+	 *
+	 * @return The number of new canonical instances
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+}
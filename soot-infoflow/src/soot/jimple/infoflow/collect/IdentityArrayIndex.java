@@ -0,0 +1,108 @@
+package soot.jimple.infoflow.collect;
+
+import java.util.List;
+
+/**
+ * Immutable map that compares its keys by identity. The keys and values are
+ * kept in two parallel arrays with open addressing and linear probing. Once the
+ * index has been created, lookups neither allocate nor lock, so the index can
+ * be read by any number of threads.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public class IdentityArrayIndex<K, V> {
+
+	private final Object[] keys;
+	private final Object[] values;
+	private final int mask;
+	private final int size;
+
+	/**
+	 * Creates a new index
+	 *
+	 * @param keys   The keys to put into the index
+	 * @param values The values of the keys, at the same position as the
+	 *               respective key. If a key appears more than once, the last
+	 *               value wins.
+	 */
+	public IdentityArrayIndex(List<? extends K> keys, V[] values) {
+		if (keys.size() != values.length)
+			throw new IllegalArgumentException("Number of keys and values does not match");
+
+		// Keep the load factor at or below 0.5
+		int capacity = Integer.highestOneBit(Math.max(2, keys.size()) * 2 - 1) << 1;
+		this.keys = new Object[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+
+		int size = 0;
+		for (int i = 0; i < values.length; i++) {
+			Object key = keys.get(i);
+			if (key == null)
+				throw new IllegalArgumentException("Null keys are not supported");
+			int slot = hash(key) & mask;
+			while (this.keys[slot] != null && this.keys[slot] != key)
+				slot = (slot + 1) & mask;
+			if (this.keys[slot] == null) {
+				this.keys[slot] = key;
+				size++;
+			}
+			this.values[slot] = values[i];
+		}
+		this.size = size;
+	}
+
+	private static int hash(Object key) {
+		// Spread the identity hash code, because its lower bits are not
+		// necessarily well distributed
+		int h = System.identityHashCode(key) * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Gets the value of the given key
+	 *
+	 * @param key The key to look up
+	 * @return The value of the given key, or <code>null</code> if the key is not
+	 *         in the index
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		int slot = hash(key) & mask;
+		Object k;
+		while ((k = keys[slot]) != null) {
+			if (k == key)
+				return (V) values[slot];
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the given key is in the index
+	 *
+	 * @param key The key to look up
+	 * @return True if the given key is in the index, false otherwise
+	 */
+	public boolean containsKey(Object key) {
+		int slot = hash(key) & mask;
+		Object k;
+		while ((k = keys[slot]) != null) {
+			if (k == key)
+				return true;
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the number of keys in the index
+	 *
+	 * @return The number of keys in the index
+	 */
+	public int size() {
+		return size;
+	}
+
+}
@@ -0,0 +1,302 @@
+package soot.jimple.infoflow.collect;
+
+/**
+ * Concurrent map from primitive keys to object values. Each key consists of a
+ * <code>long</code> and an optional <code>int</code> part. The map is split
+ * into a fixed number of stripes, each of which is an open-addressing hash
+ * table with linear probing that is guarded by its own lock. The map does not
+ * create any objects per entry, which makes it considerably smaller than a
+ * {@link java.util.concurrent.ConcurrentHashMap} with boxed keys. The
+ * <code>long</code> key <code>0</code> is reserved and must not be used.
+ * Entries cannot be removed individually, but all entries that match a filter
+ * can be removed at once.
+ *
+ * @param <V> The type of the values in the map
+ */
+public class StripedLongKeyedMap<V> {
+
+	private static final int DEFAULT_STRIPES = 64;
+	private static final int INITIAL_STRIPE_CAPACITY = 64;
+	private static final float MAX_LOAD_FACTOR = 0.7f;
+
+	/**
+	 * Filter for removing entries from the map
+	 */
+	public interface KeyFilter {
+
+		/**
+		 * Checks whether the entry with the given key shall be removed
+		 *
+		 * @param key    The <code>long</code> part of the key
+		 * @param subKey The <code>int</code> part of the key
+		 * @return True if the entry shall be removed, false otherwise
+		 */
+		public boolean remove(long key, int subKey);
+
+	}
+
+	/**
+	 * A single stripe of the map
+	 */
+	private static class Stripe {
+
+		private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+		private int[] subKeys = new int[INITIAL_STRIPE_CAPACITY];
+		private Object[] values = new Object[INITIAL_STRIPE_CAPACITY];
+		private int size = 0;
+		private int threshold = (int) (INITIAL_STRIPE_CAPACITY * MAX_LOAD_FACTOR);
+
+		private Object get(long key, int subKey, int hash) {
+			final long[] keys = this.keys;
+			final int mask = keys.length - 1;
+			int idx = hash & mask;
+			while (true) {
+				long k = keys[idx];
+				if (k == key && subKeys[idx] == subKey)
+					return values[idx];
+				if (k == 0)
+					return null;
+				idx = (idx + 1) & mask;
+			}
+		}
+
+		private Object putIfAbsent(long key, int subKey, int hash, Object value) {
+			final int mask = keys.length - 1;
+			int idx = hash & mask;
+			while (true) {
+				long k = keys[idx];
+				if (k == key && subKeys[idx] == subKey)
+					return values[idx];
+				if (k == 0) {
+					keys[idx] = key;
+					subKeys[idx] = subKey;
+					values[idx] = value;
+					if (++size > threshold)
+						rebuild(keys.length << 1, null);
+					return null;
+				}
+				idx = (idx + 1) & mask;
+			}
+		}
+
+		/**
+		 * Copies all entries into new arrays of the given capacity
+		 *
+		 * @param newCapacity The capacity of the new arrays
+		 * @param filter      The filter that decides which entries to drop, or
+		 *                    <code>null</code> to keep all entries
+		 * @return The number of entries that have been dropped
+		 */
+		private int rebuild(int newCapacity, KeyFilter filter) {
+			final long[] oldKeys = keys;
+			final int[] oldSubKeys = subKeys;
+			final Object[] oldValues = values;
+			final int mask = newCapacity - 1;
+
+			long[] newKeys = new long[newCapacity];
+			int[] newSubKeys = new int[newCapacity];
+			Object[] newValues = new Object[newCapacity];
+			int removed = 0;
+			for (int i = 0; i < oldKeys.length; i++) {
+				long k = oldKeys[i];
+				if (k != 0) {
+					if (filter != null && filter.remove(k, oldSubKeys[i])) {
+						removed++;
+						continue;
+					}
+					int idx = slotHash(k, oldSubKeys[i]) & mask;
+					while (newKeys[idx] != 0)
+						idx = (idx + 1) & mask;
+					newKeys[idx] = k;
+					newSubKeys[idx] = oldSubKeys[i];
+					newValues[idx] = oldValues[i];
+				}
+			}
+			this.keys = newKeys;
+			this.subKeys = newSubKeys;
+			this.values = newValues;
+			this.size -= removed;
+			this.threshold = (int) (newCapacity * MAX_LOAD_FACTOR);
+			return removed;
+		}
+
+	}
+
+	private final Stripe[] stripes;
+	private final int stripeShift;
+
+	/**
+	 * Creates a new map with the default number of stripes
+	 */
+	public StripedLongKeyedMap() {
+		this(DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Creates a new map
+	 *
+	 * @param numStripes The number of stripes. Will be rounded up to the next power
+	 *                   of two.
+	 */
+	public StripedLongKeyedMap(int numStripes) {
+		int n = Integer.highestOneBit(Math.max(1, numStripes - 1)) << 1;
+		if (numStripes <= 1)
+			n = 1;
+		this.stripes = new Stripe[n];
+		for (int i = 0; i < n; i++)
+			stripes[i] = new Stripe();
+		this.stripeShift = 32 - Integer.numberOfTrailingZeros(n);
+	}
+
+	/**
+	 * Spreads the bits of the given key
+	 *
+	 * @param key    The <code>long</code> part of the key
+	 * @param subKey The <code>int</code> part of the key
+	 * @return The hash of the key
+	 */
+	private static long mix(long key, int subKey) {
+		key ^= subKey * 0x9e3779b97f4a7c15L;
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	private static int slotHash(long key, int subKey) {
+		return (int) mix(key, subKey);
+	}
+
+	private Stripe stripeFor(long mixed) {
+		if (stripes.length == 1)
+			return stripes[0];
+		return stripes[(int) (mixed >>> 32) >>> stripeShift];
+	}
+
+	/**
+	 * Gets the value associated with the given key
+	 *
+	 * @param key The key to look up
+	 * @return The value associated with the given key, or <code>null</code> if
+	 *         there is no such value
+	 */
+	public V get(long key) {
+		return get(key, 0);
+	}
+
+	/**
+	 * Gets the value associated with the given two-part key
+	 *
+	 * @param key    The <code>long</code> part of the key
+	 * @param subKey The <code>int</code> part of the key
+	 * @return The value associated with the given key, or <code>null</code> if
+	 *         there is no such value
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key, int subKey) {
+		if (key == 0)
+			throw new IllegalArgumentException("The key 0 is reserved");
+		final long mixed = mix(key, subKey);
+		final Stripe stripe = stripeFor(mixed);
+		synchronized (stripe) {
+			return (V) stripe.get(key, subKey, (int) mixed);
+		}
+	}
+
+	/**
+	 * Associates the given value with the given key if there is no mapping for the
+	 * key yet
+	 *
+	 * @param key   The key
+	 * @param value The value
+	 * @return The existing value if there is one, otherwise <code>null</code>
+	 */
+	public V putIfAbsent(long key, V value) {
+		return putIfAbsent(key, 0, value);
+	}
+
+	/**
+	 * Associates the given value with the given two-part key if there is no
+	 * mapping for the key yet
+	 *
+	 * @param key    The <code>long</code> part of the key
+	 * @param subKey The <code>int</code> part of the key
+	 * @param value  The value
+	 * @return The existing value if there is one, otherwise <code>null</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public V putIfAbsent(long key, int subKey, V value) {
+		if (key == 0)
+			throw new IllegalArgumentException("The key 0 is reserved");
+		final long mixed = mix(key, subKey);
+		final Stripe stripe = stripeFor(mixed);
+		synchronized (stripe) {
+			return (V) stripe.putIfAbsent(key, subKey, (int) mixed, value);
+		}
+	}
+
+	/**
+	 * Removes all entries whose keys match the given filter. The filter is invoked
+	 * while the respective stripe is locked.
+	 *
+	 * @param filter The filter that decides which entries to remove
+	 * @return The number of entries that have been removed
+	 */
+	public int removeIf(KeyFilter filter) {
+		int removed = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				removed += stripe.rebuild(stripe.keys.length, filter);
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Gets the number of entries in this map
+	 *
+	 * @return The number of entries in this map
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Removes all entries from this map
+	 */
+	public void clear() {
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				stripe.keys = new long[INITIAL_STRIPE_CAPACITY];
+				stripe.subKeys = new int[INITIAL_STRIPE_CAPACITY];
+				stripe.values = new Object[INITIAL_STRIPE_CAPACITY];
+				stripe.size = 0;
+				stripe.threshold = (int) (INITIAL_STRIPE_CAPACITY * MAX_LOAD_FACTOR);
+			}
+		}
+	}
+
+	/**
+	 * Gets the total number of slots allocated in the stripes of this map
+	 *
+	 * @return The total number of slots in this map
+	 */
+	public long getCapacity() {
+		long capacity = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				capacity += stripe.keys.length;
+			}
+		}
+		return capacity;
+	}
+
+}
@@ -10,10 +10,12 @@
  ******************************************************************************/
 package soot.jimple.infoflow.data;
 
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 import com.google.common.collect.Sets;
@@ -51,38 +53,101 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	protected SourceContext sourceContext = null;
 
 	/**
-	 * Unit/Stmt which activates the taint when the abstraction passes it
+	 * The state that most abstractions do not need, or <code>null</code> if all of
+	 * it is empty
 	 */
-	protected Unit activationUnit = null;
+	protected Extension extension = null;
+
+	protected int hashCode = 0;
+	protected int propagationPathLength = 0;
+
 	/**
-	 * Unit/Stmt which indicates it origin; tells the aliasing to turn around in
-	 * backwards analysis
+	 * Boolean properties of this abstraction, see the <code>FLAG_</code> constants
 	 */
-	protected Unit turnUnit = null;
+	protected int flags = 0;
+
 	/**
 	 * taint is thrown by an exception (is set to false when it reaches the
 	 * catch-Stmt)
 	 */
-	protected boolean exceptionThrown = false;
-	protected int hashCode = 0;
-	protected int neighborHashCode = 0;
+	protected static final int FLAG_EXCEPTION_THROWN = 1;
+	protected static final int FLAG_IMPLICIT = 1 << 1;
+	/**
+	 * Only valid for inactive abstractions. Specifies whether an access paths has
+	 * been cut during alias analysis.
+	 */
+	protected static final int FLAG_DEPENDS_ON_CUT_AP = 1 << 2;
 
 	/**
-	 * The postdominators we need to pass in order to leave the current conditional
-	 * branch. Do not use the synchronized Stack class here to avoid deadlocks.
+	 * Estimated shallow heap size of an abstraction with compressed object
+	 * pointers: the object header, seven references and three ints
 	 */
-	protected List<UnitContainer> postdominators = null;
-	protected Unit dominator = null;
-	protected boolean isImplicit = false;
+	public static final int BYTES_PER_ABSTRACTION = 56;
 
 	/**
-	 * Only valid for inactive abstractions. Specifies whether an access paths has
-	 * been cut during alias analysis.
+	 * Estimated shallow heap size of an {@link Extension} with compressed object
+	 * pointers: the object header, six references and one long
 	 */
-	protected boolean dependsOnCutAP = false;
+	public static final int BYTES_PER_EXTENSION = 48;
 
-	protected AtomicBitSet pathFlags = null;
-	protected int propagationPathLength = 0;
+	/**
+	 * State of an abstraction that is only used for inactive abstractions, implicit
+	 * flows, or path reconstruction. Keeping it in a separate object saves memory
+	 * for the vast majority of abstractions that do not need it. Every abstraction
+	 * has its own extension object, extensions are never shared.
+	 */
+	protected static class Extension {
+
+		/**
+		 * Unit/Stmt which activates the taint when the abstraction passes it
+		 */
+		protected Unit activationUnit = null;
+		/**
+		 * Unit/Stmt which indicates it origin; tells the aliasing to turn around in
+		 * backwards analysis
+		 */
+		protected Unit turnUnit = null;
+
+		/**
+		 * The postdominators we need to pass in order to leave the current
+		 * conditional branch. Do not use the synchronized Stack class here to avoid
+		 * deadlocks.
+		 */
+		protected List<UnitContainer> postdominators = null;
+		protected Unit dominator = null;
+
+		protected AtomicBitSet pathFlags = null;
+
+		/**
+		 * The store to which the predecessor and the neighbors of the abstraction
+		 * have been moved, or <code>null</code> if they are still on the heap
+		 */
+		protected AbstractionSpillStore spillStore = null;
+		protected long spillHandle = AbstractionSpillStore.NO_HANDLE;
+
+		/**
+		 * Creates a copy of the given extension for a derived abstraction. The path
+		 * flags and the spill state are not copied, because they belong to the
+		 * original abstraction.
+		 *
+		 * @param original The extension to copy
+		 * @return The copy, or <code>null</code> if the copy would be empty
+		 */
+		static Extension derive(Extension original) {
+			if (original == null || (original.activationUnit == null && original.turnUnit == null
+					&& original.postdominators == null && original.dominator == null))
+				return null;
+
+			Extension ext = new Extension();
+			ext.activationUnit = original.activationUnit;
+			ext.turnUnit = original.turnUnit;
+			ext.postdominators = original.postdominators == null ? null
+					: new ArrayList<UnitContainer>(original.postdominators);
+			ext.dominator = original.dominator;
+			return ext;
+		}
+
+	}
 
 	public Abstraction(Collection<ISourceSinkDefinition> definitions, AccessPath sourceVal, Stmt sourceStmt,
 			Object userData, boolean exceptionThrown, boolean isImplicit) {
@@ -92,12 +157,10 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	Abstraction(AccessPath apToTaint, SourceContext sourceContext, boolean exceptionThrown, boolean isImplicit) {
 		this.sourceContext = sourceContext;
 		this.accessPath = apToTaint;
-		this.activationUnit = null;
-		this.turnUnit = null;
-		this.exceptionThrown = exceptionThrown;
+		setFlag(FLAG_EXCEPTION_THROWN, exceptionThrown);
 
 		this.neighbors = null;
-		this.isImplicit = isImplicit;
+		setFlag(FLAG_IMPLICIT, isImplicit);
 		this.currentStmt = sourceContext == null ? null : sourceContext.getStmt();
 	}
 
@@ -111,23 +174,13 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	protected Abstraction(AccessPath p, Abstraction original) {
 		if (original == null) {
 			sourceContext = null;
-			exceptionThrown = false;
-			activationUnit = null;
-			turnUnit = null;
-			isImplicit = false;
+			flags = 0;
+			extension = null;
 		} else {
 			sourceContext = original.sourceContext;
-			exceptionThrown = original.exceptionThrown;
-			activationUnit = original.activationUnit;
-			turnUnit = original.turnUnit;
-			assert activationUnit == null || flowSensitiveAliasing;
-
-			postdominators = original.postdominators == null ? null
-					: new ArrayList<UnitContainer>(original.postdominators);
-			dominator = original.dominator;
-
-			dependsOnCutAP = original.dependsOnCutAP;
-			isImplicit = original.isImplicit;
+			flags = original.flags;
+			extension = Extension.derive(original.extension);
+			assert getActivationUnit() == null || flowSensitiveAliasing;
 		}
 		accessPath = p;
 		neighbors = null;
@@ -157,19 +210,20 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (a == null)
 			return null;
 
-		a.postdominators = null;
-		a.dominator = null;
-		a.activationUnit = activationUnit;
-		a.dependsOnCutAP |= a.getAccessPath().isCutOffApproximation();
+		a.setPostdominators(null);
+		a.setDominator(null);
+		a.setActivationUnit(activationUnit);
+		if (a.getAccessPath().isCutOffApproximation())
+			a.setFlag(FLAG_DEPENDS_ON_CUT_AP, true);
 		return a;
 	}
 
 	public Abstraction deriveNewAbstraction(AccessPath p, Stmt currentStmt) {
-		return deriveNewAbstraction(p, currentStmt, isImplicit);
+		return deriveNewAbstraction(p, currentStmt, isImplicit());
 	}
 
 	public Abstraction deriveDefinitelyNewAbstraction(AccessPath p, Stmt currentStmt) {
-		return deriveDefinitelyNewAbstraction(p, currentStmt, isImplicit);
+		return deriveDefinitelyNewAbstraction(p, currentStmt, isImplicit());
 	}
 
 	public Abstraction deriveDefinitelyNewAbstraction(AccessPath p, Stmt currentStmt, boolean isImplicit) {
@@ -177,14 +231,14 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (abs == null)
 			return null;
 
-		abs.isImplicit = isImplicit;
+		abs.setFlag(FLAG_IMPLICIT, isImplicit);
 		return abs;
 	}
 
 	public Abstraction deriveNewAbstraction(AccessPath p, Stmt currentStmt, boolean isImplicit) {
 		// If the new abstraction looks exactly like the current one, there is
 		// no need to create a new object
-		if (this.accessPath.equals(p) && this.currentStmt == currentStmt && this.isImplicit == isImplicit)
+		if (this.accessPath.equals(p) && this.currentStmt == currentStmt && isImplicit() == isImplicit)
 			return this;
 
 		return deriveDefinitelyNewAbstraction(p, currentStmt, isImplicit);
@@ -207,9 +261,9 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		abs.propagationPathLength = propagationPathLength + 1;
 
 		if (!abs.getAccessPath().isEmpty())
-			abs.postdominators = null;
-		if (!abs.isAbstractionActive())
-			abs.dependsOnCutAP = abs.dependsOnCutAP || p.isCutOffApproximation();
+			abs.setPostdominators(null);
+		if (!abs.isAbstractionActive() && p.isCutOffApproximation())
+			abs.setFlag(FLAG_DEPENDS_ON_CUT_AP, true);
 
 		abs.sourceContext = null;
 		return abs;
@@ -227,7 +281,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 		abs.currentStmt = throwStmt;
 		abs.sourceContext = null;
-		abs.exceptionThrown = true;
+		abs.setFlag(FLAG_EXCEPTION_THROWN, true);
 		return abs;
 	}
 
@@ -239,25 +293,27 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 * @return The newly derived abstraction
 	 */
 	public Abstraction deriveNewAbstractionOnCatch(AccessPath ap) {
-		assert this.exceptionThrown;
+		assert getExceptionThrown();
 		Abstraction abs = deriveNewAbstractionMutable(ap, null);
 		if (abs == null)
 			return null;
 
-		abs.exceptionThrown = false;
+		abs.setFlag(FLAG_EXCEPTION_THROWN, false);
 		return abs;
 	}
 
 	public boolean isAbstractionActive() {
-		return activationUnit == null;
+		return getActivationUnit() == null;
 	}
 
 	public boolean isImplicit() {
-		return isImplicit;
+		return (flags & FLAG_IMPLICIT) != 0;
 	}
 
 	@Override
 	public String toString() {
+		Unit activationUnit = getActivationUnit();
+		Unit turnUnit = getTurnUnit();
 		return (isAbstractionActive() ? "" : "_") + accessPath.toString() + " | "
 				+ (turnUnit != null || activationUnit == null ? "" : activationUnit.toString())
 				+ (turnUnit == null ? "" : turnUnit.toString()) + ">>";
@@ -268,21 +324,23 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public Unit getActivationUnit() {
-		return this.activationUnit;
+		Extension ext = this.extension;
+		return ext == null ? null : ext.activationUnit;
 	}
 
 	public Unit getTurnUnit() {
-		return this.turnUnit;
+		Extension ext = this.extension;
+		return ext == null ? null : ext.turnUnit;
 	}
 
 	public Abstraction deriveNewAbstractionWithTurnUnit(Unit turnUnit) {
-		if (this.turnUnit == turnUnit)
+		if (getTurnUnit() == turnUnit)
 			return this;
 
 		Abstraction a = clone();
 		a.sourceContext = null;
-		a.activationUnit = null;
-		a.turnUnit = turnUnit;
+		a.setActivationUnit(null);
+		a.setTurnUnit(turnUnit);
 		return a;
 	}
 
@@ -292,7 +350,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 		Abstraction a = clone();
 		a.sourceContext = null;
-		a.activationUnit = null;
+		a.setActivationUnit(null);
 		return a;
 	}
 
@@ -302,12 +360,13 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 * @return True if this value has been thrown as an exception, otherwise false
 	 */
 	public boolean getExceptionThrown() {
-		return this.exceptionThrown;
+		return (flags & FLAG_EXCEPTION_THROWN) != 0;
 	}
 
 	public Abstraction deriveConditionalAbstractionEnter(UnitContainer postdom, Stmt conditionalUnit) {
 		assert this.isAbstractionActive();
 
+		List<UnitContainer> postdominators = getPostdominators();
 		if (postdominators != null && postdominators.contains(postdom))
 			return this;
 
@@ -315,10 +374,11 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		if (abs == null)
 			return null;
 
-		if (abs.postdominators == null)
-			abs.postdominators = Collections.singletonList(postdom);
+		List<UnitContainer> absPostdominators = abs.getPostdominators();
+		if (absPostdominators == null)
+			abs.setPostdominators(Collections.singletonList(postdom));
 		else
-			abs.postdominators.add(0, postdom);
+			absPostdominators.add(0, postdom);
 		return abs;
 	}
 
@@ -332,25 +392,38 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 
 		// Postdominators are only kept intraprocedurally in order to not
 		// mess up the summary functions with caller-side information
-		abs.postdominators = null;
+		abs.setPostdominators(null);
 
 		return abs;
 	}
 
 	public Abstraction dropTopPostdominator() {
+		List<UnitContainer> postdominators = getPostdominators();
 		if (postdominators == null || postdominators.isEmpty())
 			return this;
 
 		Abstraction abs = clone();
 		abs.sourceContext = null;
-		abs.postdominators.remove(0);
+		abs.getPostdominators().remove(0);
 		return abs;
 	}
 
 	public UnitContainer getTopPostdominator() {
+		List<UnitContainer> postdominators = getPostdominators();
 		if (postdominators == null || postdominators.isEmpty())
 			return null;
-		return this.postdominators.get(0);
+		return postdominators.get(0);
+	}
+
+	/**
+	 * Gets the postdominators we need to pass in order to leave the current
+	 * conditional branch
+	 *
+	 * @return The postdominators, or <code>null</code> if there are none
+	 */
+	protected List<UnitContainer> getPostdominators() {
+		Extension ext = this.extension;
+		return ext == null ? null : ext.postdominators;
 	}
 
 	public boolean isTopPostdominator(Unit u) {
@@ -368,7 +441,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public Abstraction deriveNewAbstractionWithDominator(Unit dominator, Stmt stmt) {
-		if (this.dominator != null)
+		if (getDominator() != null)
 			return this;
 
 		Abstraction abs = deriveNewAbstractionMutable(accessPath, stmt);
@@ -391,8 +464,8 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		Abstraction abs = deriveNewAbstractionMutable(ap, stmt);
 		if (abs == null)
 			return null;
-		abs.turnUnit = stmt;
-		abs.dominator = null;
+		abs.setTurnUnit(stmt);
+		abs.setDominator(null);
 		return abs;
 	}
 
@@ -405,19 +478,75 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public void setDominator(Unit dominator) {
-		this.dominator = dominator;
+		if (dominator != null || extension != null)
+			getOrCreateExtension().dominator = dominator;
 	}
 
 	public Unit getDominator() {
-		return this.dominator;
+		Extension ext = this.extension;
+		return ext == null ? null : ext.dominator;
 	}
 
 	public boolean isDominator(Unit u) {
+		Unit dominator = getDominator();
 		if (dominator == null)
 			return false;
 		return dominator == u;
 	}
 
+	private void setActivationUnit(Unit activationUnit) {
+		if (activationUnit != null || extension != null)
+			getOrCreateExtension().activationUnit = activationUnit;
+	}
+
+	private void setTurnUnit(Unit turnUnit) {
+		if (turnUnit != null || extension != null)
+			getOrCreateExtension().turnUnit = turnUnit;
+	}
+
+	private void setPostdominators(List<UnitContainer> postdominators) {
+		if (postdominators != null || extension != null)
+			getOrCreateExtension().postdominators = postdominators;
+	}
+
+	/**
+	 * Gets the extension object of this abstraction, and creates it if necessary
+	 *
+	 * @return The extension object of this abstraction
+	 */
+	private Extension getOrCreateExtension() {
+		Extension ext = this.extension;
+		if (ext == null) {
+			ext = new Extension();
+			this.extension = ext;
+		}
+		return ext;
+	}
+
+	/**
+	 * Gets the estimated shallow heap size of this abstraction including its
+	 * extension object, if any. Objects that may be shared with other
+	 * abstractions, such as the access path or the neighbors, are not counted.
+	 *
+	 * @return The estimated size of this abstraction in bytes
+	 */
+	public int getEstimatedSize() {
+		return extension == null ? BYTES_PER_ABSTRACTION : BYTES_PER_ABSTRACTION + BYTES_PER_EXTENSION;
+	}
+
+	/**
+	 * Sets or clears the given boolean property
+	 *
+	 * @param flag  The <code>FLAG_</code> constant of the property
+	 * @param value The new value of the property
+	 */
+	private void setFlag(int flag, boolean value) {
+		if (value)
+			flags |= flag;
+		else
+			flags &= ~flag;
+	}
+
 	@Override
 	public Abstraction clone() {
 		Abstraction abs = new Abstraction(accessPath, this);
@@ -500,31 +629,18 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 				return false;
 		} else if (!sourceContext.equals(other.sourceContext))
 			return false;
-		if (activationUnit == null) {
-			if (other.activationUnit != null)
-				return false;
-		} else if (!activationUnit.equals(other.activationUnit))
-			return false;
-		if (turnUnit == null) {
-			if (other.turnUnit != null)
-				return false;
-		} else if (!turnUnit.equals(other.turnUnit))
+		if (this.flags != other.flags)
 			return false;
-		if (this.exceptionThrown != other.exceptionThrown)
-			return false;
-		if (postdominators == null) {
-			if (other.postdominators != null)
-				return false;
-		} else if (!postdominators.equals(other.postdominators))
+
+		if (this.extension == null && other.extension == null)
+			return true;
+		if (!Objects.equals(getActivationUnit(), other.getActivationUnit()))
 			return false;
-		if (dominator == null) {
-			if (other.dominator != null)
-				return false;
-		} else if (!dominator.equals(other.dominator))
+		if (!Objects.equals(getTurnUnit(), other.getTurnUnit()))
 			return false;
-		if (this.dependsOnCutAP != other.dependsOnCutAP)
+		if (!Objects.equals(getPostdominators(), other.getPostdominators()))
 			return false;
-		if (this.isImplicit != other.isImplicit)
+		if (!Objects.equals(getDominator(), other.getDominator()))
 			return false;
 		return true;
 	}
@@ -540,13 +656,17 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		// deliberately ignore prevAbs
 		result = prime * result + ((sourceContext == null) ? 0 : sourceContext.hashCode());
 		result = prime * result + ((accessPath == null) ? 0 : accessPath.hashCode());
+		Unit activationUnit = getActivationUnit();
+		Unit turnUnit = getTurnUnit();
+		List<UnitContainer> postdominators = getPostdominators();
+		Unit dominator = getDominator();
 		result = prime * result + ((activationUnit == null) ? 0 : activationUnit.hashCode());
 		result = prime * result + ((turnUnit == null) ? 0 : turnUnit.hashCode());
-		result = prime * result + (exceptionThrown ? 1231 : 1237);
+		result = prime * result + (getExceptionThrown() ? 1231 : 1237);
 		result = prime * result + ((postdominators == null) ? 0 : postdominators.hashCode());
 		result = prime * result + ((dominator == null) ? 0 : dominator.hashCode());
-		result = prime * result + (dependsOnCutAP ? 1231 : 1237);
-		result = prime * result + (isImplicit ? 1231 : 1237);
+		result = prime * result + (dependsOnCutAP() ? 1231 : 1237);
+		result = prime * result + (isImplicit() ? 1231 : 1237);
 		this.hashCode = result;
 
 		return this.hashCode;
@@ -579,16 +699,54 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	}
 
 	public boolean dependsOnCutAP() {
-		return dependsOnCutAP;
+		return (flags & FLAG_DEPENDS_ON_CUT_AP) != 0;
 	}
 
 	@Override
 	public Abstraction getPredecessor() {
-		return this.predecessor;
+		Abstraction pred = this.predecessor;
+		if (pred != null)
+			return pred;
+
+		// The predecessor might have been moved to disk. The spill store is
+		// published before the predecessor is cut, see cutSpilledLinks(), so we only
+		// need the lock if the abstraction has actually been spilled.
+		VarHandle.acquireFence();
+		Extension ext = this.extension;
+		if (ext == null || ext.spillStore == null)
+			return null;
+
+		AbstractionSpillStore store;
+		long handle;
+		synchronized (this) {
+			pred = this.predecessor;
+			if (pred != null)
+				return pred;
+			store = ext.spillStore;
+			handle = ext.spillHandle;
+		}
+		return store.getPredecessor(handle);
 	}
 
 	public Set<Abstraction> getNeighbors() {
-		return this.neighbors;
+		// Read the volatile field first to make sure that we see the spill store
+		Set<Abstraction> nbs = this.neighbors;
+		Extension ext = this.extension;
+		if (ext == null || ext.spillStore == null)
+			return nbs;
+
+		Set<Abstraction> spilledNeighbors = ext.spillStore.getNeighbors(ext.spillHandle);
+		if (nbs == null || nbs.isEmpty())
+			return spilledNeighbors.isEmpty() ? null : spilledNeighbors;
+		if (spilledNeighbors.isEmpty())
+			return nbs;
+
+		Set<Abstraction> allNeighbors = Sets.newIdentityHashSet();
+		synchronized (this) {
+			allNeighbors.addAll(nbs);
+		}
+		allNeighbors.addAll(spilledNeighbors);
+		return allNeighbors;
 	}
 
 	public Stmt getCurrentStmt() {
@@ -604,7 +762,14 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 		synchronized (this) {
 			if (this.neighbors == null)
 				this.neighbors = Sets.newIdentityHashSet();
-			return this.neighbors.add(originalAbstraction);
+			if (!this.neighbors.add(originalAbstraction))
+				return false;
+
+			// The store must not lose the new neighbor when it drops this object
+			Extension ext = this.extension;
+			if (ext != null && ext.spillStore != null)
+				ext.spillStore.retain(ext.spillHandle, this);
+			return true;
 		}
 	}
 
@@ -626,8 +791,6 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	public void setPredecessor(Abstraction predecessor) {
 		this.predecessor = predecessor;
 		assert this.predecessor != this;
-
-		this.neighborHashCode = 0;
 	}
 
 	/**
@@ -639,7 +802,6 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	public void setSourceContext(SourceContext sourceContext) {
 		this.sourceContext = sourceContext;
 		this.hashCode = 0;
-		this.neighborHashCode = 0;
 	}
 
 	/**
@@ -651,14 +813,18 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 *         before, otherwise false
 	 */
 	public boolean registerPathFlag(int id, int maxSize) {
+		Extension ext = this.extension;
+		AtomicBitSet pathFlags = ext == null ? null : ext.pathFlags;
 		if (pathFlags == null || pathFlags.getLargestInt() < maxSize) {
 			synchronized (this) {
+				ext = getOrCreateExtension();
+				pathFlags = ext.pathFlags;
 				if (pathFlags == null) {
 					// Make sure that the field is set only after the
 					// constructor
 					// is done and the object is fully usable
-					AtomicBitSet pf = new AtomicBitSet(maxSize);
-					pathFlags = pf;
+					pathFlags = new AtomicBitSet(maxSize);
+					ext.pathFlags = pathFlags;
 				} else if (pathFlags.getLargestInt() < maxSize) {
 					AtomicBitSet pf = new AtomicBitSet(maxSize);
 					for (int i = 0; i < pathFlags.size(); i++) {
@@ -666,6 +832,7 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 							pf.set(i);
 					}
 					pathFlags = pf;
+					ext.pathFlags = pathFlags;
 				}
 			}
 		}
@@ -690,16 +857,96 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	void setAccessPath(AccessPath accessPath) {
 		this.accessPath = accessPath;
 		this.hashCode = 0;
-		this.neighborHashCode = 0;
 	}
 
 	void setCurrentStmt(Stmt currentStmt) {
 		this.currentStmt = currentStmt;
 	}
 
+	/**
+	 * For internal use by the spill store only
+	 */
+	long getSpillHandle() {
+		Extension ext = this.extension;
+		return ext == null ? AbstractionSpillStore.NO_HANDLE : ext.spillHandle;
+	}
+
+	void setSpillHandle(long spillHandle) {
+		getOrCreateExtension().spillHandle = spillHandle;
+	}
+
+	/**
+	 * Gets whether the predecessor and the neighbors of this abstraction have been
+	 * moved to disk
+	 *
+	 * @return True if this abstraction has been spilled, otherwise false
+	 */
+	boolean isSpilled() {
+		Extension ext = this.extension;
+		return ext != null && ext.spillStore != null;
+	}
+
+	/**
+	 * Removes the links to the predecessor and the neighbors after they have been
+	 * written to the given spill store. Neighbors that have been added after the
+	 * given snapshot remain on the heap, and the store keeps this abstraction
+	 * alive, so that these neighbors are not lost.
+	 *
+	 * @param store              The store to which the links have been written
+	 * @param spilledPredecessor The predecessor that has been written
+	 * @param spilledNeighbors   The neighbors that have been written
+	 */
+	void cutSpilledLinks(AbstractionSpillStore store, Abstraction spilledPredecessor,
+			Abstraction[] spilledNeighbors) {
+		synchronized (this) {
+			Extension ext = getOrCreateExtension();
+			ext.spillStore = store;
+
+			// Readers that see the cut predecessor must also see the spill store
+			VarHandle.releaseFence();
+			if (this.predecessor == spilledPredecessor)
+				this.predecessor = null;
+
+			Set<Abstraction> nbs = this.neighbors;
+			Set<Abstraction> remaining = null;
+			if (nbs != null && nbs.size() > spilledNeighbors.length) {
+				remaining = Sets.newIdentityHashSet();
+				remaining.addAll(nbs);
+				for (Abstraction nb : spilledNeighbors)
+					remaining.remove(nb);
+
+				// These neighbors have been added after the snapshot and exist only on
+				// the heap
+				store.retain(ext.spillHandle, this);
+			}
+			this.neighbors = remaining;
+		}
+	}
+
+	/**
+	 * Initializes an abstraction that has been loaded from the given spill store
+	 *
+	 * @param store          The store from which the abstraction has been loaded
+	 * @param spillHandle    The handle of the abstraction in the spill store
+	 * @param activationUnit The activation unit of the abstraction
+	 * @param turnUnit       The turn unit of the abstraction
+	 */
+	void initSpilled(AbstractionSpillStore store, long spillHandle, Unit activationUnit, Unit turnUnit) {
+		Extension ext = getOrCreateExtension();
+		ext.activationUnit = activationUnit;
+		ext.turnUnit = turnUnit;
+		ext.spillStore = store;
+		ext.spillHandle = spillHandle;
+	}
+
 	@Override
 	public int getNeighborCount() {
-		return neighbors == null ? 0 : neighbors.size();
+		Set<Abstraction> nbs = this.neighbors;
+		Extension ext = this.extension;
+		int count = nbs == null ? 0 : nbs.size();
+		if (ext != null && ext.spillStore != null)
+			count += ext.spillStore.getNeighborCount(ext.spillHandle);
+		return count;
 	}
 
 	@Override
@@ -0,0 +1,671 @@
+package soot.jimple.infoflow.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
+
+import soot.Local;
+import soot.SootField;
+import soot.Type;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
+
+/**
+ * Store that moves cold predecessor chains of taint abstractions out of the
+ * heap into an append-only, memory-mapped file. Only the path builders need the
+ * predecessors and neighbors of an abstraction, so they can be written to disk
+ * while the taint propagation continues. Spilled abstractions keep a handle
+ * into the file and load their predecessors and neighbors lazily when they are
+ * requested.
+ *
+ * Statements, locals, types, fields and source contexts are not written to
+ * disk. Instead, the file refers to them by numeric IDs, and the objects
+ * themselves stay on the heap. Except for the source contexts, which exist once
+ * per source, these objects belong to the Soot scene and would stay alive
+ * anyway. Access paths are written field by field and are created again when an
+ * abstraction is loaded, so that the store does not keep them alive.
+ *
+ * The store only holds weak references to the abstractions on the heap. An
+ * abstraction that is loaded again after it has been garbage-collected is a new
+ * object that is equal to the old one. Only spilled abstractions that have
+ * gained new neighbors after they were spilled are kept alive, because these
+ * neighbors are not on disk.
+ *
+ * Abstractions are read without locking the store. Each record is written
+ * before the links that lead to it, and the arrays with the mapped segments and
+ * the objects are published again after each change.
+ */
+public class AbstractionSpillStore {
+
+	private static final Logger logger = LoggerFactory.getLogger(AbstractionSpillStore.class);
+
+	/**
+	 * The number of predecessors of a new abstraction that always remain on the
+	 * heap
+	 */
+	private static final int HOT_CHAIN_LENGTH = 8;
+
+	private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Marker for a missing predecessor
+	 */
+	static final long NO_HANDLE = -1;
+
+	// Record layout: local, statement, call site, source context, activation unit
+	// and turn unit IDs, flags, path length, predecessor handle, neighbor count,
+	// base type and base context IDs, access path flags, fragment count, the
+	// neighbor handles, and the field, type and context IDs of the fragments
+	private static final int OFFSET_LOCAL = 0;
+	private static final int OFFSET_STMT = 4;
+	private static final int OFFSET_CALL_SITE = 8;
+	private static final int OFFSET_SOURCE_CONTEXT = 12;
+	private static final int OFFSET_ACTIVATION_UNIT = 16;
+	private static final int OFFSET_TURN_UNIT = 20;
+	private static final int OFFSET_FLAGS = 24;
+	private static final int OFFSET_PATH_LENGTH = 28;
+	private static final int OFFSET_PREDECESSOR = 32;
+	private static final int OFFSET_NEIGHBOR_COUNT = 40;
+	private static final int OFFSET_BASE_TYPE = 44;
+	private static final int OFFSET_BASE_CONTEXT = 48;
+	private static final int OFFSET_AP_FLAGS = 52;
+	private static final int OFFSET_FRAGMENT_COUNT = 56;
+	private static final int OFFSET_NEIGHBORS = 60;
+	private static final int BYTES_PER_NEIGHBOR = 8;
+	private static final int BYTES_PER_FRAGMENT = 12;
+
+	// Access path flags: the kind of access path in the lowest two bits, the
+	// boolean properties, and the array taint type from bit 8 on
+	private static final int AP_NULL = 0;
+	private static final int AP_ZERO = 1;
+	private static final int AP_EMPTY = 2;
+	private static final int AP_REGULAR = 3;
+	private static final int AP_KIND_MASK = 3;
+	private static final int AP_TAINT_SUB_FIELDS = 1 << 2;
+	private static final int AP_CUT_OFF_APPROXIMATION = 1 << 3;
+	private static final int AP_IMMUTABLE_ALIASES = 1 << 4;
+	private static final int AP_ARRAY_TAINT_TYPE_SHIFT = 8;
+
+	private static final ArrayTaintType[] ARRAY_TAINT_TYPES = ArrayTaintType.values();
+
+	/**
+	 * A spilled abstraction whose links have not been written yet
+	 */
+	private static class PendingRecord {
+
+		private final Abstraction abs;
+		private final long handle;
+		private final Abstraction predecessor;
+		private final Abstraction[] neighbors;
+
+		private PendingRecord(Abstraction abs, long handle, Abstraction predecessor, Abstraction[] neighbors) {
+			this.abs = abs;
+			this.handle = handle;
+			this.predecessor = predecessor;
+			this.neighbors = neighbors;
+		}
+
+	}
+
+	private final File file;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+
+	// Written under the lock of the store, read without it
+	private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+	private volatile Object[] objects = new Object[64];
+
+	private long writePosition = 0;
+	private int objectCount = 0;
+	private final Map<Object, Integer> objectIds = new IdentityHashMap<>();
+	private final List<Abstraction> pinned = new ArrayList<>();
+
+	/**
+	 * Abstractions that are still on the heap, either because they were alive when
+	 * they were spilled, or because they have been loaded again
+	 */
+	private final ConcurrentMap<Long, Abstraction> heapAbstractions = new MapMaker().weakValues().makeMap();
+
+	/**
+	 * Spilled abstractions with neighbors that are only on the heap
+	 */
+	private final ConcurrentMap<Long, Abstraction> retainedAbstractions = new ConcurrentHashMap<>();
+
+	private volatile boolean active = false;
+	private volatile boolean closed = false;
+
+	private final LongAdder spilledCount = new LongAdder();
+	private final LongAdder loadedCount = new LongAdder();
+
+	/**
+	 * Creates a new instance of the {@link AbstractionSpillStore} class
+	 *
+	 * @param directory The directory in which to create the spill file, or
+	 *                  <code>null</code> to use the default temporary directory
+	 * @throws IOException Thrown if the spill file could not be created
+	 */
+	public AbstractionSpillStore(File directory) throws IOException {
+		this.file = File.createTempFile("flowdroid-spill", ".bin", directory);
+		this.file.deleteOnExit();
+		this.raf = new RandomAccessFile(file, "rw");
+		this.channel = raf.getChannel();
+	}
+
+	/**
+	 * Starts moving cold predecessor chains to disk. This method is typically
+	 * called when the memory is getting low.
+	 */
+	public void activate() {
+		if (!active && !closed) {
+			logger.warn("Memory is getting low, moving predecessor chains to {}", file.getAbsolutePath());
+			active = true;
+		}
+	}
+
+	/**
+	 * Gets whether this store is currently moving predecessor chains to disk
+	 *
+	 * @return True if this store is moving predecessor chains to disk, otherwise
+	 *         false
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Moves the predecessor chain of the given abstraction to disk, except for the
+	 * most recent predecessors
+	 *
+	 * @param abs The abstraction whose cold predecessors shall be spilled
+	 */
+	public void spillColdChain(Abstraction abs) {
+		if (!active || closed)
+			return;
+
+		// Skip the hot part of the chain. We deliberately read the field directly,
+		// because we must not load abstractions that are already on disk.
+		Abstraction cur = abs;
+		for (int i = 0; i < HOT_CHAIN_LENGTH && cur != null; i++)
+			cur = cur.predecessor;
+		if (cur == null || cur.isSpilled())
+			return;
+
+		try {
+			spill(cur);
+		} catch (IOException e) {
+			logger.error("Could not spill abstractions, keeping them on the heap", e);
+			active = false;
+		}
+	}
+
+	/**
+	 * Writes the given abstraction and everything that is reachable through its
+	 * predecessors and neighbors to disk
+	 *
+	 * @param root The abstraction to spill
+	 * @throws IOException Thrown if the spill file could not be written
+	 */
+	private void spill(Abstraction root) throws IOException {
+		// We first assign a handle to each abstraction, and only then write the
+		// links. This allows for cycles through the neighbors.
+		Deque<PendingRecord> pending = new ArrayDeque<>();
+		getOrCreateHandle(root, pending);
+		while (!pending.isEmpty()) {
+			PendingRecord record = pending.pop();
+			long predHandle = record.predecessor == null ? NO_HANDLE : getOrCreateHandle(record.predecessor, pending);
+			long[] nbHandles = new long[record.neighbors.length];
+			for (int i = 0; i < nbHandles.length; i++)
+				nbHandles[i] = getOrCreateHandle(record.neighbors[i], pending);
+			writeLinks(record.handle, predHandle, nbHandles);
+
+			// The links are on disk now, so we can cut them on the heap
+			record.abs.cutSpilledLinks(this, record.predecessor, record.neighbors);
+			spilledCount.increment();
+		}
+	}
+
+	/**
+	 * Gets the handle of the given abstraction. If the abstraction has not been
+	 * spilled yet, a new record is allocated, and the abstraction is added to the
+	 * list of pending records.
+	 *
+	 * @param abs     The abstraction for which to get the handle
+	 * @param pending The list of records whose links still need to be written
+	 * @return The handle of the given abstraction
+	 * @throws IOException Thrown if the spill file could not be written
+	 */
+	private long getOrCreateHandle(Abstraction abs, Deque<PendingRecord> pending) throws IOException {
+		synchronized (abs) {
+			long handle = abs.getSpillHandle();
+			if (handle != NO_HANDLE)
+				return handle;
+
+			// Postdominators cannot be written to disk, and huge records do not fit
+			// into a segment. We keep such abstractions on the heap.
+			Set<Abstraction> neighbors = abs.neighbors;
+			int neighborCount = neighbors == null ? 0 : neighbors.size();
+			if (abs.getPostdominators() != null || abs.getDominator() != null
+					|| getRecordSize(neighborCount, abs.getAccessPath()) > SEGMENT_SIZE) {
+				synchronized (this) {
+					handle = -2 - pinned.size();
+					pinned.add(abs);
+				}
+				abs.setSpillHandle(handle);
+				return handle;
+			}
+
+			Abstraction[] nbs = neighbors == null ? new Abstraction[0] : neighbors.toArray(new Abstraction[0]);
+			handle = writeRecord(abs, nbs.length);
+			abs.setSpillHandle(handle);
+			heapAbstractions.put(handle, abs);
+			pending.push(new PendingRecord(abs, handle, abs.predecessor, nbs));
+			return handle;
+		}
+	}
+
+	/**
+	 * Gets the number of bytes that the record of an abstraction needs
+	 *
+	 * @param neighborCount The number of neighbors of the abstraction
+	 * @param ap            The access path of the abstraction
+	 * @return The size of the record in bytes
+	 */
+	private static long getRecordSize(int neighborCount, AccessPath ap) {
+		AccessPathFragment[] fragments = ap == null ? null : ap.getFragments();
+		int fragmentCount = fragments == null ? 0 : fragments.length;
+		return OFFSET_NEIGHBORS + (long) BYTES_PER_NEIGHBOR * neighborCount
+				+ (long) BYTES_PER_FRAGMENT * fragmentCount;
+	}
+
+	/**
+	 * Gets the buffer that contains the given position in the spill file, and maps
+	 * a new segment if necessary. Callers must hold the lock of the store.
+	 *
+	 * @param position The position in the spill file
+	 * @return The buffer that contains the given position
+	 * @throws IOException Thrown if the spill file could not be mapped
+	 */
+	private MappedByteBuffer getOrMapSegment(long position) throws IOException {
+		int idx = (int) (position / SEGMENT_SIZE);
+		MappedByteBuffer[] segs = this.segments;
+		if (segs.length <= idx) {
+			int oldLength = segs.length;
+			segs = Arrays.copyOf(segs, idx + 1);
+			for (int i = oldLength; i < segs.length; i++)
+				segs[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * SEGMENT_SIZE, SEGMENT_SIZE);
+			this.segments = segs;
+		}
+		return segs[idx];
+	}
+
+	/**
+	 * Gets the buffer that contains the record with the given handle
+	 *
+	 * @param handle The handle of the record
+	 * @return The buffer that contains the record
+	 */
+	private MappedByteBuffer getSegment(long handle) {
+		// The store clears the segments after it has been marked as closed
+		MappedByteBuffer[] segs = this.segments;
+		checkOpen();
+		return segs[(int) (handle / SEGMENT_SIZE)];
+	}
+
+	/**
+	 * Gets the ID of the given object and assigns a new one if necessary. Callers
+	 * must hold the lock of the store.
+	 *
+	 * @param obj The object for which to get the ID
+	 * @return The ID of the given object, or 0 for <code>null</code>
+	 */
+	private int getObjectId(Object obj) {
+		if (obj == null)
+			return 0;
+		Integer id = objectIds.get(obj);
+		if (id == null) {
+			Object[] objs = this.objects;
+			if (objectCount == objs.length)
+				objs = Arrays.copyOf(objs, objs.length * 2);
+			objs[objectCount++] = obj;
+			this.objects = objs;
+			id = objectCount;
+			objectIds.put(obj, id);
+		}
+		return id;
+	}
+
+	private Object getObject(int id) {
+		return id == 0 ? null : this.objects[id - 1];
+	}
+
+	/**
+	 * Writes the data of the given abstraction into a new record. The links are
+	 * left empty.
+	 *
+	 * @param abs           The abstraction to write
+	 * @param neighborCount The number of neighbors to reserve space for
+	 * @return The handle of the new record
+	 * @throws IOException Thrown if the spill file could not be written
+	 */
+	private synchronized long writeRecord(Abstraction abs, int neighborCount) throws IOException {
+		if (closed)
+			throw new IOException("The spill store has already been closed");
+
+		// Records never cross segment boundaries
+		AccessPath ap = abs.getAccessPath();
+		int size = (int) getRecordSize(neighborCount, ap);
+		long inSegment = writePosition % SEGMENT_SIZE;
+		if (inSegment + size > SEGMENT_SIZE)
+			writePosition += SEGMENT_SIZE - inSegment;
+
+		long handle = writePosition;
+		MappedByteBuffer segment = getOrMapSegment(handle);
+		int pos = (int) (handle % SEGMENT_SIZE);
+		segment.putInt(pos + OFFSET_STMT, getObjectId(abs.getCurrentStmt()));
+		segment.putInt(pos + OFFSET_CALL_SITE, getObjectId(abs.getCorrespondingCallSite()));
+		segment.putInt(pos + OFFSET_SOURCE_CONTEXT, getObjectId(abs.getSourceContext()));
+		segment.putInt(pos + OFFSET_ACTIVATION_UNIT, getObjectId(abs.getActivationUnit()));
+		segment.putInt(pos + OFFSET_TURN_UNIT, getObjectId(abs.getTurnUnit()));
+		segment.putInt(pos + OFFSET_FLAGS, abs.flags);
+		segment.putInt(pos + OFFSET_PATH_LENGTH, abs.propagationPathLength);
+		segment.putLong(pos + OFFSET_PREDECESSOR, NO_HANDLE);
+		segment.putInt(pos + OFFSET_NEIGHBOR_COUNT, neighborCount);
+		writeAccessPath(segment, pos, neighborCount, ap);
+
+		writePosition += size;
+		return handle;
+	}
+
+	/**
+	 * Writes the given access path into a record. The local, the types, the fields
+	 * and the contexts are referenced by their IDs.
+	 *
+	 * @param segment       The buffer that contains the record
+	 * @param pos           The position of the record in the buffer
+	 * @param neighborCount The number of neighbors in the record
+	 * @param ap            The access path to write
+	 */
+	private void writeAccessPath(MappedByteBuffer segment, int pos, int neighborCount, AccessPath ap) {
+		int apFlags;
+		if (ap == null)
+			apFlags = AP_NULL;
+		else if (ap == AccessPath.getZeroAccessPath())
+			apFlags = AP_ZERO;
+		else if (ap == AccessPath.getEmptyAccessPath())
+			apFlags = AP_EMPTY;
+		else {
+			apFlags = AP_REGULAR | (ap.getArrayTaintType().ordinal() << AP_ARRAY_TAINT_TYPE_SHIFT);
+			if (ap.getTaintSubFields())
+				apFlags |= AP_TAINT_SUB_FIELDS;
+			if (ap.isCutOffApproximation())
+				apFlags |= AP_CUT_OFF_APPROXIMATION;
+			if (ap.getCanHaveImmutableAliases())
+				apFlags |= AP_IMMUTABLE_ALIASES;
+		}
+		segment.putInt(pos + OFFSET_AP_FLAGS, apFlags);
+		if ((apFlags & AP_KIND_MASK) != AP_REGULAR) {
+			segment.putInt(pos + OFFSET_FRAGMENT_COUNT, 0);
+			return;
+		}
+
+		segment.putInt(pos + OFFSET_LOCAL, getObjectId(ap.getPlainValue()));
+		segment.putInt(pos + OFFSET_BASE_TYPE, getObjectId(ap.getBaseType()));
+		segment.putInt(pos + OFFSET_BASE_CONTEXT, getObjectId(ap.getBaseContext()));
+
+		// We must distinguish between a missing fragment array and an empty one,
+		// because access paths compare their fragment arrays
+		AccessPathFragment[] fragments = ap.getFragments();
+		segment.putInt(pos + OFFSET_FRAGMENT_COUNT, fragments == null ? -1 : fragments.length);
+		if (fragments != null) {
+			int fragPos = pos + OFFSET_NEIGHBORS + BYTES_PER_NEIGHBOR * neighborCount;
+			for (AccessPathFragment fragment : fragments) {
+				segment.putInt(fragPos, getObjectId(fragment.getField()));
+				segment.putInt(fragPos + 4, getObjectId(fragment.getFieldType()));
+				segment.putInt(fragPos + 8, getObjectId(fragment.getContext()));
+				fragPos += BYTES_PER_FRAGMENT;
+			}
+		}
+	}
+
+	/**
+	 * Reads the access path of a record
+	 *
+	 * @param segment       The buffer that contains the record
+	 * @param pos           The position of the record in the buffer
+	 * @param neighborCount The number of neighbors in the record
+	 * @return The access path of the record
+	 */
+	private AccessPath readAccessPath(MappedByteBuffer segment, int pos, int neighborCount) {
+		int apFlags = segment.getInt(pos + OFFSET_AP_FLAGS);
+		switch (apFlags & AP_KIND_MASK) {
+		case AP_NULL:
+			return null;
+		case AP_ZERO:
+			return AccessPath.getZeroAccessPath();
+		case AP_EMPTY:
+			return AccessPath.getEmptyAccessPath();
+		}
+
+		int fragmentCount = segment.getInt(pos + OFFSET_FRAGMENT_COUNT);
+		AccessPathFragment[] fragments = null;
+		if (fragmentCount >= 0) {
+			fragments = new AccessPathFragment[fragmentCount];
+			int fragPos = pos + OFFSET_NEIGHBORS + BYTES_PER_NEIGHBOR * neighborCount;
+			for (int i = 0; i < fragmentCount; i++) {
+				fragments[i] = new AccessPathFragment((SootField) getObject(segment.getInt(fragPos)),
+						(Type) getObject(segment.getInt(fragPos + 4)),
+						(ContainerContext[]) getObject(segment.getInt(fragPos + 8)));
+				fragPos += BYTES_PER_FRAGMENT;
+			}
+		}
+		return new AccessPath((Local) getObject(segment.getInt(pos + OFFSET_LOCAL)),
+				(Type) getObject(segment.getInt(pos + OFFSET_BASE_TYPE)),
+				(ContainerContext[]) getObject(segment.getInt(pos + OFFSET_BASE_CONTEXT)), fragments,
+				(apFlags & AP_TAINT_SUB_FIELDS) != 0, (apFlags & AP_CUT_OFF_APPROXIMATION) != 0,
+				ARRAY_TAINT_TYPES[apFlags >>> AP_ARRAY_TAINT_TYPE_SHIFT], (apFlags & AP_IMMUTABLE_ALIASES) != 0);
+	}
+
+	private synchronized void writeLinks(long handle, long predHandle, long[] nbHandles) throws IOException {
+		if (closed)
+			throw new IOException("The spill store has already been closed");
+		MappedByteBuffer segment = this.segments[(int) (handle / SEGMENT_SIZE)];
+		int pos = (int) (handle % SEGMENT_SIZE);
+		segment.putLong(pos + OFFSET_PREDECESSOR, predHandle);
+		for (int i = 0; i < nbHandles.length; i++)
+			segment.putLong(pos + OFFSET_NEIGHBORS + BYTES_PER_NEIGHBOR * i, nbHandles[i]);
+	}
+
+	/**
+	 * Gets the abstraction with the given handle. If the abstraction is no longer
+	 * on the heap, it is loaded from disk.
+	 *
+	 * @param handle The handle of the abstraction
+	 * @return The abstraction with the given handle
+	 */
+	Abstraction getAbstraction(long handle) {
+		if (handle == NO_HANDLE)
+			return null;
+		if (handle < NO_HANDLE) {
+			synchronized (this) {
+				return pinned.get((int) (-2 - handle));
+			}
+		}
+
+		Abstraction abs = retainedAbstractions.get(handle);
+		if (abs != null)
+			return abs;
+		abs = heapAbstractions.get(handle);
+		if (abs != null)
+			return abs;
+
+		abs = readRecord(handle);
+		Abstraction oldAbs = heapAbstractions.putIfAbsent(handle, abs);
+		if (oldAbs != null)
+			return oldAbs;
+		loadedCount.increment();
+		return abs;
+	}
+
+	/**
+	 * Makes sure that the given spilled abstraction stays on the heap. This is
+	 * necessary when new links have been added to the abstraction after it was
+	 * spilled, since these links are not on disk.
+	 *
+	 * @param handle The handle of the spilled abstraction
+	 * @param abs    The spilled abstraction
+	 */
+	void retain(long handle, Abstraction abs) {
+		if (!closed)
+			retainedAbstractions.putIfAbsent(handle, abs);
+	}
+
+	/**
+	 * Creates a new abstraction from the record with the given handle
+	 *
+	 * @param handle The handle of the record
+	 * @return The new abstraction
+	 */
+	private Abstraction readRecord(long handle) {
+		MappedByteBuffer segment = getSegment(handle);
+		int pos = (int) (handle % SEGMENT_SIZE);
+		int neighborCount = segment.getInt(pos + OFFSET_NEIGHBOR_COUNT);
+		Abstraction abs = new Abstraction(readAccessPath(segment, pos, neighborCount),
+				(SourceContext) getObject(segment.getInt(pos + OFFSET_SOURCE_CONTEXT)), false, false);
+		abs.currentStmt = (Stmt) getObject(segment.getInt(pos + OFFSET_STMT));
+		abs.correspondingCallSite = (Stmt) getObject(segment.getInt(pos + OFFSET_CALL_SITE));
+		abs.flags = segment.getInt(pos + OFFSET_FLAGS);
+		abs.propagationPathLength = segment.getInt(pos + OFFSET_PATH_LENGTH);
+		abs.initSpilled(this, handle, (Unit) getObject(segment.getInt(pos + OFFSET_ACTIVATION_UNIT)),
+				(Unit) getObject(segment.getInt(pos + OFFSET_TURN_UNIT)));
+		return abs;
+	}
+
+	/**
+	 * Gets the predecessor of the spilled abstraction with the given handle
+	 *
+	 * @param handle The handle of the spilled abstraction
+	 * @return The predecessor of the spilled abstraction
+	 */
+	Abstraction getPredecessor(long handle) {
+		long predHandle = getSegment(handle).getLong((int) (handle % SEGMENT_SIZE) + OFFSET_PREDECESSOR);
+		return getAbstraction(predHandle);
+	}
+
+	/**
+	 * Gets the neighbors that the abstraction with the given handle had when it was
+	 * spilled
+	 *
+	 * @param handle The handle of the spilled abstraction
+	 * @return The neighbors of the spilled abstraction
+	 */
+	Set<Abstraction> getNeighbors(long handle) {
+		MappedByteBuffer segment = getSegment(handle);
+		int pos = (int) (handle % SEGMENT_SIZE);
+		int neighborCount = segment.getInt(pos + OFFSET_NEIGHBOR_COUNT);
+		if (neighborCount == 0)
+			return Collections.emptySet();
+
+		Set<Abstraction> neighbors = Sets.newIdentityHashSet();
+		for (int i = 0; i < neighborCount; i++)
+			neighbors.add(getAbstraction(segment.getLong(pos + OFFSET_NEIGHBORS + BYTES_PER_NEIGHBOR * i)));
+		return neighbors;
+	}
+
+	/**
+	 * Gets the number of neighbors that the abstraction with the given handle had
+	 * when it was spilled without loading the neighbors
+	 *
+	 * @param handle The handle of the spilled abstraction
+	 * @return The number of neighbors of the spilled abstraction
+	 */
+	int getNeighborCount(long handle) {
+		return getSegment(handle).getInt((int) (handle % SEGMENT_SIZE) + OFFSET_NEIGHBOR_COUNT);
+	}
+
+	private void checkOpen() {
+		if (closed)
+			throw new IllegalStateException("The spill store has already been closed");
+	}
+
+	/**
+	 * Gets the number of abstractions that have been moved to disk
+	 *
+	 * @return The number of spilled abstractions
+	 */
+	public long getSpilledCount() {
+		return spilledCount.sum();
+	}
+
+	/**
+	 * Gets the number of abstractions that have been loaded from disk again
+	 *
+	 * @return The number of loaded abstractions
+	 */
+	public long getLoadedCount() {
+		return loadedCount.sum();
+	}
+
+	/**
+	 * Gets the number of bytes that have been written to the spill file
+	 *
+	 * @return The size of the spill data in bytes
+	 */
+	public synchronized long getSpilledBytes() {
+		return writePosition;
+	}
+
+	/**
+	 * Closes this store and deletes the spill file. Spilled abstractions can no
+	 * longer be loaded afterwards.
+	 */
+	public void close() {
+		synchronized (this) {
+			if (closed)
+				return;
+			closed = true;
+			active = false;
+
+			if (writePosition > 0)
+				logger.info("Spilled {} abstractions ({} MB), loaded {} abstractions again",
+						spilledCount.sum(), writePosition / (1024 * 1024), loadedCount.sum());
+
+			segments = new MappedByteBuffer[0];
+			objects = new Object[0];
+			objectCount = 0;
+			objectIds.clear();
+			pinned.clear();
+			heapAbstractions.clear();
+			retainedAbstractions.clear();
+			try {
+				channel.close();
+				raf.close();
+			} catch (IOException e) {
+				logger.error("Could not close the spill file", e);
+			}
+		}
+		if (!file.delete())
+			logger.warn("Could not delete the spill file {}", file.getAbsolutePath());
+	}
+
+}
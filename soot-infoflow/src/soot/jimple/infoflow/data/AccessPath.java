@@ -43,6 +43,13 @@ public class AccessPath implements Cloneable {
 
 	private final boolean canHaveImmutableAliases;
 
+	/**
+	 * The interning table of the {@link AccessPathFactory} in which this access
+	 * path is the canonical instance, or <code>null</code> if the access path has
+	 * not been interned
+	 */
+	private Object internTable = null;
+
 	private int hashCode = 0;
 
 	/**
@@ -265,6 +272,26 @@ public class AccessPath implements Cloneable {
 		return hashCode;
 	}
 
+	/**
+	 * Gets whether this access path is the canonical instance in the interning
+	 * table of the {@link AccessPathFactory}
+	 *
+	 * @return True if this access path has been interned, otherwise false
+	 */
+	public boolean isInterned() {
+		return internTable != null;
+	}
+
+	/**
+	 * Marks this access path as the canonical instance in the given interning
+	 * table. For internal use by the {@link AccessPathFactory} only.
+	 *
+	 * @param internTable The interning table that holds this access path
+	 */
+	void markInterned(Object internTable) {
+		this.internTable = internTable;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj == this || super.equals(obj))
@@ -277,6 +304,13 @@ public class AccessPath implements Cloneable {
 		if (this.hashCode != 0 && other.hashCode != 0 && this.hashCode != other.hashCode)
 			return false;
 
+		// There is only one interned instance per access path in each interning
+		// table. Factories have their own tables, and the tables distinguish base
+		// contexts, which we ignore here.
+		if (this.internTable != null && this.internTable == other.internTable
+				&& Arrays.equals(baseContext, other.baseContext))
+			return false;
+
 		if (value == null) {
 			if (other.value != null)
 				return false;
@@ -25,6 +25,7 @@ import soot.jimple.InstanceFieldRef;
 import soot.jimple.StaticFieldRef;
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.AccessPathConfiguration;
+import soot.jimple.infoflow.collect.ConcurrentWeakInterner;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
 import soot.jimple.infoflow.data.accessPaths.SameFieldReductionStrategy;
@@ -37,10 +38,63 @@ public class AccessPathFactory {
 
 	private final InfoflowConfiguration config;
 	private final TypeUtils typeUtils;
+	private volatile int accessPathLengthLimit = -1;
 
 	private final static SameFieldReductionStrategy SAME_FIELD_REDUCTION = new SameFieldReductionStrategy();
 	private final static This0ReductionStrategy THIS0_REDUCTION = new This0ReductionStrategy();
 
+	/**
+	 * Structural equality for interning access paths. Access paths are only equal
+	 * in this sense if their base contexts are equal as well.
+	 */
+	private final static HashingStrategy<AccessPath> ACCESS_PATH_STRATEGY = new HashingStrategy<>() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int computeHashCode(AccessPath ap) {
+			return ap.hashCode();
+		}
+
+		@Override
+		public boolean equals(AccessPath ap1, AccessPath ap2) {
+			return ap1.equals(ap2) && Arrays.equals(ap1.getBaseContext(), ap2.getBaseContext());
+		}
+
+	};
+
+	/**
+	 * Structural equality for interning fragment arrays
+	 */
+	private final static HashingStrategy<AccessPathFragment[]> FRAGMENT_STRATEGY = new HashingStrategy<>() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int computeHashCode(AccessPathFragment[] fragments) {
+			return Arrays.hashCode(fragments);
+		}
+
+		@Override
+		public boolean equals(AccessPathFragment[] fragments1, AccessPathFragment[] fragments2) {
+			return Arrays.equals(fragments1, fragments2);
+		}
+
+	};
+
+	/**
+	 * Canonical instances of all access paths of this factory that are currently
+	 * alive
+	 */
+	private final ConcurrentWeakInterner<AccessPath> accessPaths = new ConcurrentWeakInterner<>(ACCESS_PATH_STRATEGY);
+
+	/**
+	 * Canonical instances of all fragment arrays of this factory that are
+	 * currently alive
+	 */
+	private final ConcurrentWeakInterner<AccessPathFragment[]> fragmentArrays = new ConcurrentWeakInterner<>(
+			FRAGMENT_STRATEGY);
+
 	/**
 	 * Specialized pair class for field bases
 	 * 
@@ -325,7 +379,7 @@ public class AccessPathFactory {
 		// Cut the fields at the maximum access path length. If this happens,
 		// we must always add a star
 		if (fragments != null) {
-			final int maxAccessPathLength = accessPathConfig.getAccessPathLength();
+			final int maxAccessPathLength = getMaxAccessPathLength(accessPathConfig);
 			if (maxAccessPathLength >= 0) {
 				int fieldNum = Math.min(maxAccessPathLength, fragments.length);
 				if (fragments.length > fieldNum) {
@@ -375,8 +429,46 @@ public class AccessPathFactory {
 			}
 		}
 
-		return new AccessPath(value, baseType, ctxt, fragments, taintSubFields, cutOffApproximation, arrayTaintType,
-				canHaveImmutableAliases);
+		if (!accessPathConfig.getUseAccessPathInterning())
+			return new AccessPath(value, baseType, ctxt, fragments, taintSubFields, cutOffApproximation,
+					arrayTaintType, canHaveImmutableAliases);
+
+		// Map the new access path to its canonical instance. All modifications to the
+		// fragment array must have happened before this point, because the array may
+		// be shared afterwards.
+		fragments = fragmentArrays.intern(fragments);
+		AccessPath ap = accessPaths.intern(new AccessPath(value, baseType, ctxt, fragments, taintSubFields,
+				cutOffApproximation, arrayTaintType, canHaveImmutableAliases));
+		if (!ap.isInterned())
+			ap.markInterned(accessPaths);
+		return ap;
+	}
+
+	/**
+	 * Gets the maximum length of new access paths, taking into account both the
+	 * configuration and the limit that was set at runtime
+	 * 
+	 * @param accessPathConfig The access path configuration
+	 * @return The maximum length of new access paths, or -1 if there is no limit
+	 */
+	private int getMaxAccessPathLength(AccessPathConfiguration accessPathConfig) {
+		final int configuredLength = accessPathConfig.getAccessPathLength();
+		final int limit = accessPathLengthLimit;
+		if (limit < 0)
+			return configuredLength;
+		return configuredLength < 0 ? limit : Math.min(configuredLength, limit);
+	}
+
+	/**
+	 * Limits the length of all access paths that are created from now on. Existing
+	 * access paths are not changed. This allows the data flow analysis to trade
+	 * precision for memory while it is running, without changing the configuration.
+	 * 
+	 * @param maxLength The maximum length of new access paths, or -1 to only apply
+	 *                  the limit from the configuration
+	 */
+	public void limitAccessPathLength(int maxLength) {
+		this.accessPathLengthLimit = maxLength;
 	}
 
 	private void registerBase(Type eiType, AccessPathFragment[] base) {
@@ -403,6 +495,27 @@ public class AccessPathFactory {
 		return baseRegister.get(tp);
 	}
 
+	/**
+	 * Gets the number of access paths created by this factory that were replaced
+	 * with an existing canonical instance
+	 *
+	 * @return The number of access paths that were replaced with an existing
+	 *         canonical instance
+	 */
+	public long getInternedAccessPathHitCount() {
+		return accessPaths.getHitCount();
+	}
+
+	/**
+	 * Gets the number of canonical access paths of this factory that are currently
+	 * alive
+	 *
+	 * @return The number of canonical access paths
+	 */
+	public int getInternedAccessPathCount() {
+		return accessPaths.size();
+	}
+
 	/**
 	 * Copies the given access path with a new base value, but retains the base type
 	 * 
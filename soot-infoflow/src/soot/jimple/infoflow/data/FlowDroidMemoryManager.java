@@ -3,6 +3,7 @@ package soot.jimple.infoflow.data;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,10 +77,13 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 	private ConcurrentMap<AccessPath, AccessPath> apCache = new ConcurrentHashMap<>();
 	private ConcurrentHashMap<AbstractionCacheKey, Abstraction> absCache = new ConcurrentHashMap<>();
 	private AtomicInteger reuseCounter = new AtomicInteger();
+	private final LongAdder generatedAbstractions = new LongAdder();
+	private final LongAdder generatedAbstractionBytes = new LongAdder();
 
 	private final boolean tracingEnabled;
-	private final PathDataErasureMode erasePathData;
+	private volatile PathDataErasureMode erasePathData;
 	private boolean useAbstractionCache = false;
+	private AbstractionSpillStore spillStore = null;
 
 	/**
 	 * Supported modes that define which path tracking data shall be erased and
@@ -133,6 +137,10 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 	 * @return The cached equivalent of the given access path
 	 */
 	private AccessPath getCachedAccessPath(AccessPath ap) {
+		// Interned access paths are already canonical
+		if (ap.isInterned())
+			return ap;
+
 		AccessPath oldAP = apCache.putIfAbsent(ap, ap);
 		if (oldAP == null)
 			return ap;
@@ -168,6 +176,27 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 		return this.reuseCounter.get();
 	}
 
+	/**
+	 * Gets the number of new abstractions that the solvers have kept after
+	 * optimizing them in this memory manager
+	 * 
+	 * @return The number of new abstractions
+	 */
+	public long getGeneratedAbstractionCount() {
+		return generatedAbstractions.sum();
+	}
+
+	/**
+	 * Gets the estimated shallow heap size of all new abstractions that the
+	 * solvers have kept after optimizing them in this memory manager
+	 * 
+	 * @return The estimated size of all new abstractions in bytes
+	 * @see Abstraction#getEstimatedSize()
+	 */
+	public long getGeneratedAbstractionBytes() {
+		return generatedAbstractionBytes.sum();
+	}
+
 	@Override
 	public Abstraction handleMemoryObject(Abstraction obj) {
 		return obj;
@@ -190,13 +219,14 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 			AccessPath newAP = getCachedAccessPath(output.getAccessPath());
 			output.setAccessPath(newAP);
 		}
+		final Abstraction newAbs = output;
 
 		// If an intermediate statement does not change any taint state, skip it. Note
 		// that we should not do this when we're reconstructing paths or we might lose
 		// statements along the way.
 		if (erasePathData != PathDataErasureMode.EraseNothing) {
 			Abstraction curAbs = output.getPredecessor();
-			while (curAbs != null && curAbs.getNeighbors() == null) {
+			while (curAbs != null && !curAbs.isSpilled() && curAbs.getNeighbors() == null) {
 				Abstraction predPred = curAbs.getPredecessor();
 				if (predPred != null) {
 					if (predPred.equals(output))
@@ -210,6 +240,10 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 		// because predecessors may already be recorded as neighbors.
 		erasePathData(output);
 
+		// Move the cold part of the predecessor chain to disk if memory is low
+		if (spillStore != null && spillStore.isActive())
+			spillStore.spillColdChain(output);
+
 		// We check for a cached version of the complete abstraction
 		if (useAbstractionCache) {
 			Abstraction cachedAbs = getCachedAbstraction(output);
@@ -217,6 +251,10 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 				return cachedAbs;
 		}
 
+		if (output == newAbs) {
+			generatedAbstractions.increment();
+			generatedAbstractionBytes.add(output.getEstimatedSize());
+		}
 		return output;
 	}
 
@@ -266,6 +304,32 @@ public class FlowDroidMemoryManager implements IMemoryManager<Abstraction, Unit>
 		this.useAbstractionCache = useAbstractionCache;
 	}
 
+	/**
+	 * Changes which path tracking data shall be erased from now on. Abstractions
+	 * that have already been processed are not changed.
+	 * 
+	 * @param erasePathData Specifies which data for tracking paths (current
+	 *                      statement, corresponding call site) shall be erased
+	 */
+	public void setPathDataErasureMode(PathDataErasureMode erasePathData) {
+		if (this.erasePathData != erasePathData) {
+			this.erasePathData = erasePathData;
+			if (erasePathData != PathDataErasureMode.EraseNothing)
+				logger.info("FDMM: Path data erasure enabled");
+		}
+	}
+
+	/**
+	 * Sets the store to which cold predecessor chains shall be moved when the
+	 * memory is getting low
+	 * 
+	 * @param spillStore The store for cold predecessor chains, or <code>null</code>
+	 *                   to keep all predecessor chains on the heap
+	 */
+	public void setSpillStore(AbstractionSpillStore spillStore) {
+		this.spillStore = spillStore;
+	}
+
 	@Override
 	public boolean isEssentialJoinPoint(Abstraction abs, Unit relatedCallSite) {
 		return relatedCallSite != null && erasePathData != PathDataErasureMode.EraseAll;
@@ -4,11 +4,11 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import heros.solver.Pair;
 import soot.jimple.Stmt;
+import soot.jimple.infoflow.AnalysisPhase;
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.collect.ConcurrentHashSet;
@@ -21,6 +21,8 @@ import soot.jimple.infoflow.results.InfoflowResults;
 import soot.jimple.infoflow.results.ResultSinkInfo;
 import soot.jimple.infoflow.results.ResultSourceInfo;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.threading.ThreadBudget;
+import soot.jimple.infoflow.threading.VirtualThreadExecutorFactory;
 
 /**
  * Class for reconstructing abstraction paths from sinks to source. This builder
@@ -49,19 +51,11 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 	}
 
 	private static InterruptableExecutor createExecutor(InfoflowManager manager) {
-		int numThreads = Runtime.getRuntime().availableProcessors();
-		int mtn = manager.getConfig().getMaxThreadNum();
-		InterruptableExecutor executor = new InterruptableExecutor(mtn == -1 ? numThreads : Math.min(mtn, numThreads),
-				Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>());
-		executor.setThreadFactory(new ThreadFactory() {
-
-			@Override
-			public Thread newThread(Runnable r) {
-				return new Thread(r, "Path reconstruction");
-			}
-
-		});
-		return executor;
+		ThreadBudget threadBudget = manager.getThreadBudget();
+		int poolSize = threadBudget.getThreadCount(AnalysisPhase.PATH_RECONSTRUCTION);
+		InterruptableExecutor executor = VirtualThreadExecutorFactory.createExecutor(manager.getConfig(), poolSize,
+				new PriorityBlockingQueue<Runnable>(), "Path reconstruction");
+		return threadBudget.track(AnalysisPhase.PATH_RECONSTRUCTION, executor);
 	}
 
 	protected enum PathProcessingResult {
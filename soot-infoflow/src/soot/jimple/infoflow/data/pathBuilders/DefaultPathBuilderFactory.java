@@ -2,14 +2,15 @@ package soot.jimple.infoflow.data.pathBuilders;
 
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
 
+import soot.jimple.infoflow.AnalysisPhase;
 import soot.jimple.infoflow.InfoflowConfiguration.PathBuildingAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.AbstractionAtSink;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.threading.ThreadBudget;
+import soot.jimple.infoflow.threading.VirtualThreadExecutorFactory;
 
 /**
  * Default factory class for abstraction path builders
@@ -73,28 +74,24 @@ public class DefaultPathBuilderFactory implements IPathBuilderFactory {
 	/**
 	 * Creates a new executor object for spawning worker threads
 	 * 
-	 * @param maxThreadNum The number of threads to use
+	 * @param manager      The data flow manager
+	 * @param maxThreadNum The maximum number of threads to use, or -1 to use the
+	 *                     thread budget for the path reconstruction
 	 * @return The generated executor
 	 */
-	private InterruptableExecutor createExecutor(int maxThreadNum) {
-		int numThreads = Runtime.getRuntime().availableProcessors();
-		InterruptableExecutor executor = new InterruptableExecutor(
-				maxThreadNum == -1 ? numThreads : Math.min(maxThreadNum, numThreads), Integer.MAX_VALUE, 30,
-				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
-		executor.setThreadFactory(new ThreadFactory() {
-
-			@Override
-			public Thread newThread(Runnable r) {
-				Thread thr = new Thread(r, "Path reconstruction");
-				return thr;
-			}
-		});
-		return executor;
+	private InterruptableExecutor createExecutor(InfoflowManager manager, int maxThreadNum) {
+		ThreadBudget threadBudget = manager.getThreadBudget();
+		int poolSize = threadBudget.getThreadCount(AnalysisPhase.PATH_RECONSTRUCTION);
+		if (maxThreadNum > 0)
+			poolSize = Math.min(maxThreadNum, poolSize);
+		InterruptableExecutor executor = VirtualThreadExecutorFactory.createExecutor(manager.getConfig(), poolSize,
+				new LinkedBlockingQueue<Runnable>(), "Path reconstruction");
+		return threadBudget.track(AnalysisPhase.PATH_RECONSTRUCTION, executor);
 	}
 
 	@Override
 	public IAbstractionPathBuilder createPathBuilder(InfoflowManager manager, int maxThreadNum) {
-		return createPathBuilder(manager, createExecutor(maxThreadNum));
+		return createPathBuilder(manager, createExecutor(manager, maxThreadNum));
 	}
 
 	@Override
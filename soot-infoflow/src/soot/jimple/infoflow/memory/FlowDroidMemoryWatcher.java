@@ -1,8 +1,14 @@
 package soot.jimple.infoflow.memory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import soot.jimple.infoflow.data.AbstractionSpillStore;
 import soot.jimple.infoflow.memory.MemoryWarningSystem.OnMemoryThresholdReached;
 import soot.jimple.infoflow.memory.reasons.OutOfMemoryReason;
 import soot.jimple.infoflow.results.InfoflowResults;
@@ -17,6 +23,9 @@ public class FlowDroidMemoryWatcher extends AbstractSolverWatcher {
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 	private final MemoryWarningSystem warningSystem = new MemoryWarningSystem();
+	private MemoryWarningSystem spillWarningSystem = null;
+	private final List<MemoryWarningSystem> degradationWarningSystems = new ArrayList<>();
+	private final Set<MemoryWarningSystem> suppressedWarningSystems = ConcurrentHashMap.newKeySet();
 
 	private final InfoflowResults results;
 	private ISolversTerminatedCallback terminationCallback = null;
@@ -68,7 +77,8 @@ public class FlowDroidMemoryWatcher extends AbstractSolverWatcher {
 					logger.warn("Running out of memory, solvers terminated");
 					if (terminationCallback != null)
 						terminationCallback.onSolversTerminated();
-				}
+				} else
+					suppressedWarningSystems.add(warningSystem);
 			}
 
 		});
@@ -76,9 +86,113 @@ public class FlowDroidMemoryWatcher extends AbstractSolverWatcher {
 		this.results = res;
 	}
 
+	/**
+	 * Starts moving cold predecessor chains to the given store once the given
+	 * memory threshold is reached. The threshold must be lower than the one at
+	 * which the solvers are terminated.
+	 * 
+	 * @param spillStore The store to which to move the cold predecessor chains
+	 * @param threshold  The threshold at which to start moving predecessor chains
+	 */
+	public void enableSpilling(AbstractionSpillStore spillStore, double threshold) {
+		if (spillWarningSystem != null)
+			spillWarningSystem.close();
+
+		final MemoryWarningSystem ws = new MemoryWarningSystem();
+		ws.addListener(new OnMemoryThresholdReached() {
+
+			@Override
+			public void onThresholdReached(long usedMemory, long maxMemory) {
+				if (!stopped)
+					spillStore.activate();
+				else
+					suppressedWarningSystems.add(ws);
+			}
+
+		});
+		ws.setWarningThreshold(threshold);
+		spillWarningSystem = ws;
+	}
+
+	/**
+	 * Registers a step that trades precision, path information, or running time
+	 * for memory. The step is executed once when the given memory threshold is
+	 * reached. Steps with lower thresholds are executed first, and the solvers are
+	 * only terminated if the memory is still running low afterwards.
+	 * 
+	 * @param threshold        The threshold at which to execute the step. Must be
+	 *                         lower than the threshold at which the solvers are
+	 *                         terminated.
+	 * @param terminationState The flags to record in the termination state of the
+	 *                         results when the step is executed
+	 * @param step             The step to execute
+	 */
+	public void addDegradationStep(double threshold, int terminationState, Runnable step) {
+		MemoryWarningSystem ws = new MemoryWarningSystem();
+		ws.addListener(new OnMemoryThresholdReached() {
+
+			@Override
+			public void onThresholdReached(long usedMemory, long maxMemory) {
+				if (!stopped) {
+					// Record how the results were obtained
+					if (results != null)
+						results.setTerminationState(results.getTerminationState() | terminationState);
+
+					step.run();
+					logger.warn("Running low on memory, degraded the data flow analysis (state {})",
+							terminationState);
+				} else
+					suppressedWarningSystems.add(ws);
+			}
+
+		});
+		ws.setWarningThreshold(threshold);
+		synchronized (degradationWarningSystems) {
+			degradationWarningSystems.add(ws);
+		}
+	}
+
+	/**
+	 * Asks all registered solvers to release the caches that they can re-compute
+	 * on demand
+	 */
+	public void releaseSolverCaches() {
+		for (IMemoryBoundedSolver solver : solvers.keySet())
+			solver.releaseCaches();
+	}
+
+	/**
+	 * Asks all registered solvers to remove the edges that they no longer need
+	 */
+	public void collectSolverGarbage() {
+		for (IMemoryBoundedSolver solver : solvers.keySet())
+			solver.collectGarbage();
+	}
+
+	/**
+	 * Resets the watcher so that it can be used again after being stopped. The
+	 * memory thresholds that have been reached while the watcher was stopped are
+	 * registered again, so that they still protect the solvers.
+	 */
+	@Override
+	public void reset() {
+		super.reset();
+		for (MemoryWarningSystem ws : suppressedWarningSystems)
+			ws.rearm();
+		suppressedWarningSystems.clear();
+	}
+
 	@Override
 	public void close() {
+		synchronized (degradationWarningSystems) {
+			for (MemoryWarningSystem ws : degradationWarningSystems)
+				ws.close();
+			degradationWarningSystems.clear();
+		}
+		if (spillWarningSystem != null)
+			spillWarningSystem.close();
 		warningSystem.close();
+		suppressedWarningSystems.clear();
 	}
 
 	/**
@@ -84,4 +84,19 @@ public interface IMemoryBoundedSolver {
 	 */
 	void addStatusListener(IMemoryBoundedSolverStatusNotification listener);
 
+	/**
+	 * Releases data that the solver can re-compute on demand, e.g., the flow
+	 * function cache. This method is called when the memory is getting low.
+	 */
+	default void releaseCaches() {
+	}
+
+	/**
+	 * Removes the edges that the solver no longer needs right away instead of
+	 * waiting for the next scheduled garbage collection. Solvers without a garbage
+	 * collector ignore this call.
+	 */
+	default void collectGarbage() {
+	}
+
 }
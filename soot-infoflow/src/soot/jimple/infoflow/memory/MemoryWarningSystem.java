@@ -14,6 +14,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.management.ListenerNotFoundException;
 import javax.management.Notification;
@@ -67,14 +68,19 @@ public class MemoryWarningSystem {
 	private boolean isClosed = false;
 
 	private long threshold;
+	private double percentage = -1;
+	private final long id = nextId.getAndIncrement();
 
 	private static Thread thrLowMemoryWarningThread;
+	private static final AtomicLong nextId = new AtomicLong();
 
 	private static TreeSet<MemoryWarningSystem> warningSystems = new TreeSet<>(new Comparator<MemoryWarningSystem>() {
 
 		@Override
 		public int compare(MemoryWarningSystem o1, MemoryWarningSystem o2) {
-			return Long.compare(o1.threshold, o2.threshold);
+			// Several warning systems may share the same threshold
+			int r = Long.compare(o1.threshold, o2.threshold);
+			return r != 0 ? r : Long.compare(o1.id, o2.id);
 		}
 	});
 
@@ -184,6 +190,7 @@ public class MemoryWarningSystem {
 		if (percentage <= 0.0 || percentage > 1.0) {
 			throw new IllegalArgumentException("Percentage not in range");
 		}
+		this.percentage = percentage;
 		long maxMemory = tenuredGenPool.getUsage().getMax();
 		long warningThreshold = (long) (maxMemory * percentage);
 		synchronized (warningSystems) {
@@ -261,6 +268,16 @@ public class MemoryWarningSystem {
 		}
 	}
 
+	/**
+	 * Registers this warning system again with the threshold that was set last. A
+	 * warning system only notifies its listeners once, so this method must be
+	 * called before it can notify them again.
+	 */
+	public void rearm() {
+		if (!isClosed && percentage > 0)
+			setWarningThreshold(percentage);
+	}
+
 	/**
 	 * Closes this warning system instance. It will no longer notify any listeners
 	 * of memory shortages.
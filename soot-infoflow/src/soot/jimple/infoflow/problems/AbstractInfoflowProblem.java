@@ -11,12 +11,13 @@
 package soot.jimple.infoflow.problems;
 
 import java.lang.ref.SoftReference;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,7 +56,7 @@ public abstract class AbstractInfoflowProblem
 
 	protected final InfoflowManager manager;
 
-	protected final Map<Unit, Set<Abstraction>> initialSeeds = new HashMap<Unit, Set<Abstraction>>();
+	protected final Map<Unit, Set<Abstraction>> initialSeeds = new LinkedHashMap<Unit, Set<Abstraction>>();
 	protected ITaintPropagationWrapper taintWrapper;
 	protected INativeCallHandler ncHandler;
 
@@ -67,6 +68,8 @@ public abstract class AbstractInfoflowProblem
 
 	protected TaintPropagationHandler taintPropagationHandler = null;
 
+	protected Set<SootMethod> relevantMethods = null;
+
 	private static class CallSite {
 		public Set<Unit> callsites = new ConcurrentHashSet<>();
 		public SoftReference<Set<SootMethod>> callsiteMethods = new SoftReference<>(new ConcurrentHashSet<>());
@@ -262,6 +265,18 @@ public abstract class AbstractInfoflowProblem
 		return this.initialSeeds;
 	}
 
+	/**
+	 * Removes all initial seeds at units that do not match the given filter
+	 * 
+	 * @param filter The filter that decides which seed units to keep
+	 * @return The number of seed units that have been removed
+	 */
+	public int retainInitialSeeds(Predicate<Unit> filter) {
+		int oldSize = this.initialSeeds.size();
+		this.initialSeeds.keySet().removeIf(u -> !filter.test(u));
+		return oldSize - this.initialSeeds.size();
+	}
+
 	/**
 	 * Sets a handler which is invoked whenever a taint is propagated
 	 * 
@@ -368,6 +383,39 @@ public abstract class AbstractInfoflowProblem
 		return false;
 	}
 
+	/**
+	 * Restricts the taint propagation to the given methods. Taints are not
+	 * returned into callers outside of this set, because they cannot reach a sink
+	 * from there.
+	 * 
+	 * @param relevantMethods The methods in which taints can still reach a sink,
+	 *                        or <code>null</code> to consider all methods
+	 */
+	public void setRelevantMethods(Set<SootMethod> relevantMethods) {
+		this.relevantMethods = relevantMethods;
+	}
+
+	/**
+	 * Gets the methods to which the taint propagation is restricted
+	 * 
+	 * @return The methods in which taints can still reach a sink, or
+	 *         <code>null</code> if all methods are considered
+	 */
+	public Set<SootMethod> getRelevantMethods() {
+		return relevantMethods;
+	}
+
+	/**
+	 * Checks whether a taint in the given method can still reach a sink
+	 * 
+	 * @param sm The method to check
+	 * @return True if a taint in the given method can reach a sink, false if the
+	 *         method is outside of the relevant methods
+	 */
+	protected boolean isRelevantMethod(SootMethod sm) {
+		return relevantMethods == null || sm == null || relevantMethods.contains(sm);
+	}
+
 	/**
 	 * Gets the results of the data flow analysis
 	 */
@@ -222,7 +222,7 @@ public class AliasProblem extends AbstractInfoflowProblem {
 						// though.
 						if (defStmt.getRightOp() instanceof CastExpr) {
 							CastExpr ce = (CastExpr) defStmt.getRightOp();
-							if (!manager.getHierarchy().canStoreType(newType, ce.getCastType()))
+							if (!manager.getTypeUtils().canStoreType(newType, ce.getCastType()))
 								newType = ce.getCastType();
 						}
 						// Special type handling for certain operations
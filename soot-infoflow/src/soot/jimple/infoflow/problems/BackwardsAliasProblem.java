@@ -253,7 +253,7 @@ public class BackwardsAliasProblem extends AbstractInfoflowProblem {
 								// LengthExpr extends UnopExpr, not possible here
 								if (rightVal instanceof CastExpr) {
 									CastExpr ce = (CastExpr) rightOp;
-									if (!manager.getHierarchy().canStoreType(leftType, ce.getCastType()))
+									if (!manager.getTypeUtils().canStoreType(leftType, ce.getCastType()))
 										leftType = ce.getCastType();
 								} else if (rightVal instanceof InstanceOfExpr) {
 									// We could just produce a boolean, which won't be tracked anyways
@@ -223,7 +223,7 @@ public class BackwardsInfoflowProblem extends AbstractInfoflowProblem {
 
 								if (rightVal instanceof CastExpr) {
 									CastExpr ce = (CastExpr) rightOp;
-									if (!manager.getHierarchy().canStoreType(leftType, ce.getCastType()))
+									if (!manager.getTypeUtils().canStoreType(leftType, ce.getCastType()))
 										leftType = ce.getCastType();
 								}
 							}
@@ -138,7 +138,7 @@ public class InfoflowProblem extends AbstractInfoflowProblem {
 					if (rightValue instanceof CastExpr) {
 						// For casts, we must update our typing information
 						CastExpr cast = (CastExpr) assignStmt.getRightOp();
-						if (!manager.getHierarchy().canStoreType(targetType, cast.getCastType()))
+						if (!manager.getTypeUtils().canStoreType(targetType, cast.getCastType()))
 							targetType = cast.getType();
 					}
 					// Comparisons don't propagate the type of the incoming tainted value
@@ -495,6 +495,10 @@ public class InfoflowProblem extends AbstractInfoflowProblem {
 					return KillAll.v();
 				final Stmt iCallStmt = (Stmt) callSite;
 
+				// There is no need to return into a caller from which no sink is reachable
+				if (callSite != null && !isRelevantMethod(interproceduralCFG().getMethodOf(callSite)))
+					return KillAll.v();
+
 				final ReturnStmt returnStmt = (exitStmt instanceof ReturnStmt) ? (ReturnStmt) exitStmt : null;
 
 				final Local[] paramLocals = callee.getActiveBody().getParameterLocals().toArray(new Local[0]);
@@ -5,6 +5,7 @@ import java.util.Collection;
 import soot.SootMethod;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
 
 /**
@@ -80,5 +81,22 @@ public interface ITaintPropagationRule {
 			Collection<Abstraction> callerD1s, Abstraction calleeD1, Abstraction source,
 			Stmt stmt, Stmt retSite, Stmt callSite,
 			ByReferenceBoolean killAll);
-	
+
+	/**
+	 * Checks whether this rule may have any effect in the given flow function at
+	 * a statement of the given kind. If this method returns false, the rule must
+	 * neither produce taints nor change the kill flags for any such statement,
+	 * regardless of the incoming taint. Rules for which this method returns false
+	 * are not invoked at all. For the call, call-to-return, and return flow
+	 * functions, the kind refers to the call site or the exit statement,
+	 * respectively.
+	 * @param type The type of flow function
+	 * @param kind The kind of statement at which the flow function is applied
+	 * @return True if this rule may have an effect, false if it certainly has
+	 * none
+	 */
+	public default boolean isApplicable(FlowFunctionType type, StatementKind kind) {
+		return true;
+	}
+
 }
@@ -1,13 +1,16 @@
 package soot.jimple.infoflow.problems.rules;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import soot.SootMethod;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
 
@@ -19,12 +22,21 @@ import soot.jimple.infoflow.util.ByReferenceBoolean;
  */
 public class PropagationRuleManager {
 
+	private static final FlowFunctionType[] FLOW_FUNCTION_TYPES = FlowFunctionType.values();
+	private static final StatementKind[] STATEMENT_KINDS = StatementKind.values();
+
 	protected final InfoflowManager manager;
 	protected final Abstraction zeroValue;
 	protected final TaintPropagationResults results;
 	protected final ITaintPropagationRule[] rules;
 	protected IArrayContextProvider arrayRule;
 
+	/**
+	 * The rules that are applicable for each combination of flow function type
+	 * and statement kind, in the original order of the rules
+	 */
+	private final ITaintPropagationRule[][] dispatchTable;
+
 	public PropagationRuleManager(InfoflowManager manager, Abstraction zeroValue, TaintPropagationResults results,
 			ITaintPropagationRule[] rules) {
 		this.manager = manager;
@@ -42,6 +54,64 @@ public class PropagationRuleManager {
 		}
 		if (arrayRule == null)
 			arrayRule = new DummyArrayContext();
+
+		this.dispatchTable = rules == null ? null : buildDispatchTable(rules);
+	}
+
+	/**
+	 * Builds the table that contains the applicable rules for each combination of
+	 * flow function type and statement kind
+	 * 
+	 * @param rules The rules to distribute
+	 * @return The dispatch table
+	 */
+	private static ITaintPropagationRule[][] buildDispatchTable(ITaintPropagationRule[] rules) {
+		ITaintPropagationRule[][] table = new ITaintPropagationRule[FLOW_FUNCTION_TYPES.length
+				* STATEMENT_KINDS.length][];
+		List<ITaintPropagationRule> applicable = new ArrayList<>(rules.length);
+		for (FlowFunctionType type : FLOW_FUNCTION_TYPES) {
+			for (StatementKind kind : STATEMENT_KINDS) {
+				applicable.clear();
+				for (ITaintPropagationRule rule : rules)
+					if (rule.isApplicable(type, kind))
+						applicable.add(rule);
+				table[getDispatchIndex(type, kind)] = applicable.toArray(new ITaintPropagationRule[0]);
+			}
+		}
+		return table;
+	}
+
+	private static int getDispatchIndex(FlowFunctionType type, StatementKind kind) {
+		return type.ordinal() * STATEMENT_KINDS.length + kind.ordinal();
+	}
+
+	/**
+	 * Gets the rules that may have an effect in the given flow function at the
+	 * given statement
+	 * 
+	 * @param type The type of flow function
+	 * @param stmt The statement at which the flow function is applied
+	 * @return The rules to apply
+	 */
+	protected ITaintPropagationRule[] getApplicableRules(FlowFunctionType type, Stmt stmt) {
+		return dispatchTable[getDispatchIndex(type, StatementKind.of(stmt))];
+	}
+
+	/**
+	 * Adds the given outgoing taints of a rule to the result set
+	 * 
+	 * @param res     The result set collected so far, or <code>null</code> if no
+	 *                rule has produced any taints yet
+	 * @param ruleOut The outgoing taints of the rule
+	 * @return The result set that contains the taints of the rule
+	 */
+	private static Set<Abstraction> addResults(Set<Abstraction> res, Collection<Abstraction> ruleOut) {
+		if (ruleOut == null || ruleOut.isEmpty())
+			return res;
+		if (res == null)
+			return new HashSet<>(ruleOut);
+		res.addAll(ruleOut);
+		return res;
 	}
 
 	/**
@@ -77,23 +147,17 @@ public class PropagationRuleManager {
 		Set<Abstraction> res = null;
 		if (killSource == null)
 			killSource = new ByReferenceBoolean();
-		for (ITaintPropagationRule rule : rules) {
+		for (ITaintPropagationRule rule : getApplicableRules(FlowFunctionType.NormalFlowFunction, stmt)) {
 			Collection<Abstraction> ruleOut = rule.propagateNormalFlow(d1, source, stmt, destStmt, killSource, killAll);
 			if (killAll != null && killAll.value)
 				return null;
-			if (ruleOut != null && !ruleOut.isEmpty()) {
-				if (res == null)
-					res = new HashSet<Abstraction>(ruleOut);
-				else
-					res.addAll(ruleOut);
-			}
+			res = addResults(res, ruleOut);
 		}
 
 		// Do we need to retain the source value?
 		if ((killAll == null || !killAll.value) && !killSource.value) {
-			if (res == null) {
+			if (res == null)
 				res = new HashSet<>();
-			}
 			res.add(source);
 		}
 		return res;
@@ -113,16 +177,11 @@ public class PropagationRuleManager {
 	public Set<Abstraction> applyCallFlowFunction(Abstraction d1, Abstraction source, Stmt stmt, SootMethod dest,
 			ByReferenceBoolean killAll) {
 		Set<Abstraction> res = null;
-		for (ITaintPropagationRule rule : rules) {
+		for (ITaintPropagationRule rule : getApplicableRules(FlowFunctionType.CallFlowFunction, stmt)) {
 			Collection<Abstraction> ruleOut = rule.propagateCallFlow(d1, source, stmt, dest, killAll);
 			if (killAll.value)
 				return null;
-			if (ruleOut != null && !ruleOut.isEmpty()) {
-				if (res == null)
-					res = new HashSet<Abstraction>(ruleOut);
-				else
-					res.addAll(ruleOut);
-			}
+			res = addResults(res, ruleOut);
 		}
 		return res;
 	}
@@ -136,39 +195,40 @@ public class PropagationRuleManager {
 	 * @return The collection of outgoing taints
 	 */
 	public Set<Abstraction> applyCallToReturnFlowFunction(Abstraction d1, Abstraction source, Stmt stmt) {
-		return applyCallToReturnFlowFunction(d1, source, stmt, new ByReferenceBoolean(), null, false);
+		return applyCallToReturnFlowFunction(d1, source, stmt, null, null, false);
 	}
 
 	/**
 	 * Applies all rules to the call-to-return flow function
 	 * 
-	 * @param d1         The context abstraction
-	 * @param source     The incoming taint to propagate over the given statement
-	 * @param stmt       The statement to which to apply the rules
-	 * @param killSource Outgoing value for the rule to indicate whether the
-	 *                   incoming taint abstraction shall be killed
+	 * @param d1          The context abstraction
+	 * @param source      The incoming taint to propagate over the given statement
+	 * @param stmt        The statement to which to apply the rules
+	 * @param killSource  Outgoing value for the rule to indicate whether the
+	 *                    incoming taint abstraction shall be killed, or
+	 *                    <code>null</code> if the caller is not interested in
+	 *                    this information
+	 * @param killAll     Outgoing value that receives whether all taints shall be
+	 *                    killed and nothing shall be propagated onwards
+	 * @param noAddSource True to never retain the incoming taint
 	 * @return The collection of outgoing taints
 	 */
 	public Set<Abstraction> applyCallToReturnFlowFunction(Abstraction d1, Abstraction source, Stmt stmt,
 			ByReferenceBoolean killSource, ByReferenceBoolean killAll, boolean noAddSource) {
 		Set<Abstraction> res = null;
-		for (ITaintPropagationRule rule : rules) {
+		if (killSource == null)
+			killSource = new ByReferenceBoolean();
+		for (ITaintPropagationRule rule : getApplicableRules(FlowFunctionType.CallToReturnFlowFunction, stmt)) {
 			Collection<Abstraction> ruleOut = rule.propagateCallToReturnFlow(d1, source, stmt, killSource, killAll);
 			if (killAll != null && killAll.value)
 				return null;
-			if (ruleOut != null && !ruleOut.isEmpty()) {
-				if (res == null)
-					res = new HashSet<Abstraction>(ruleOut);
-				else
-					res.addAll(ruleOut);
-			}
+			res = addResults(res, ruleOut);
 		}
 
 		// Do we need to retain the source value?
 		if (!noAddSource && !killSource.value) {
-			if (res == null) {
+			if (res == null)
 				res = new HashSet<>();
-			}
 			res.add(source);
 		}
 		return res;
@@ -191,17 +251,12 @@ public class PropagationRuleManager {
 	public Set<Abstraction> applyReturnFlowFunction(Collection<Abstraction> callerD1s, Abstraction calleeD1,
 			Abstraction source, Stmt stmt, Stmt retSite, Stmt callSite, ByReferenceBoolean killAll) {
 		Set<Abstraction> res = null;
-		for (ITaintPropagationRule rule : rules) {
+		for (ITaintPropagationRule rule : getApplicableRules(FlowFunctionType.ReturnFlowFunction, stmt)) {
 			Collection<Abstraction> ruleOut = rule.propagateReturnFlow(callerD1s, calleeD1, source, stmt, retSite,
 					callSite, killAll);
 			if (killAll != null && killAll.value)
 				return null;
-			if (ruleOut != null && !ruleOut.isEmpty()) {
-				if (res == null)
-					res = new HashSet<Abstraction>(ruleOut);
-				else
-					res.addAll(ruleOut);
-			}
+			res = addResults(res, ruleOut);
 		}
 		return res;
 	}
@@ -0,0 +1,78 @@
+package soot.jimple.infoflow.problems.rules;
+
+import soot.jimple.AssignStmt;
+import soot.jimple.IdentityStmt;
+import soot.jimple.IfStmt;
+import soot.jimple.InvokeStmt;
+import soot.jimple.LookupSwitchStmt;
+import soot.jimple.ReturnStmt;
+import soot.jimple.ReturnVoidStmt;
+import soot.jimple.Stmt;
+import soot.jimple.TableSwitchStmt;
+import soot.jimple.ThrowStmt;
+
+/**
+ * The shapes of Jimple statements that the propagation rules distinguish. The
+ * {@link PropagationRuleManager} uses the kind of a statement to skip all rules
+ * that can never fire on statements of that kind.
+ */
+public enum StatementKind {
+	/**
+	 * An assignment, including assignments of the return value of a call
+	 */
+	Assign,
+	/**
+	 * An identity statement, e.g., a parameter, <code>this</code>, or a caught
+	 * exception
+	 */
+	Identity,
+	/**
+	 * A call whose return value is not assigned
+	 */
+	Invoke,
+	/**
+	 * A return statement with a value
+	 */
+	Return,
+	/**
+	 * A return statement without a value
+	 */
+	ReturnVoid,
+	/**
+	 * A throw statement
+	 */
+	Throw,
+	/**
+	 * A conditional jump or switch statement
+	 */
+	Branch,
+	/**
+	 * Any other statement, e.g., gotos, nops, or monitor statements
+	 */
+	Other;
+
+	/**
+	 * Gets the kind of the given statement
+	 *
+	 * @param stmt The statement
+	 * @return The kind of the given statement
+	 */
+	public static StatementKind of(Stmt stmt) {
+		if (stmt instanceof AssignStmt)
+			return Assign;
+		if (stmt instanceof InvokeStmt)
+			return Invoke;
+		if (stmt instanceof IdentityStmt)
+			return Identity;
+		if (stmt instanceof ReturnStmt)
+			return Return;
+		if (stmt instanceof ReturnVoidStmt)
+			return ReturnVoid;
+		if (stmt instanceof IfStmt || stmt instanceof LookupSwitchStmt || stmt instanceof TableSwitchStmt)
+			return Branch;
+		if (stmt instanceof ThrowStmt)
+			return Throw;
+		return Other;
+	}
+
+}
@@ -19,9 +19,11 @@ import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
 import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
 import soot.jimple.infoflow.data.ContainerContext;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.problems.rules.AbstractTaintPropagationRule;
 import soot.jimple.infoflow.problems.rules.IArrayContextProvider;
+import soot.jimple.infoflow.problems.rules.StatementKind;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
 
 /**
@@ -141,4 +143,11 @@ public class ArrayPropagationRule extends AbstractTaintPropagationRule implement
 	public ContainerContext[] getContextForArrayRef(ArrayRef arrayRef, Stmt stmt) {
 		return null;
 	}
+
+	@Override
+	public boolean isApplicable(FlowFunctionType type, StatementKind kind) {
+		// We only handle array accesses, array creation, and array length
+		return type == FlowFunctionType.NormalFlowFunction && kind == StatementKind.Assign;
+	}
+
 }
@@ -11,8 +11,10 @@ import soot.jimple.ThrowStmt;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.problems.rules.AbstractTaintPropagationRule;
+import soot.jimple.infoflow.problems.rules.StatementKind;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
 
 /**
@@ -87,4 +89,16 @@ public class ExceptionPropagationRule extends AbstractTaintPropagationRule {
 		return null;
 	}
 
+	@Override
+	public boolean isApplicable(FlowFunctionType type, StatementKind kind) {
+		switch (type) {
+		case NormalFlowFunction:
+			return kind == StatementKind.Assign || kind == StatementKind.Identity || kind == StatementKind.Throw;
+		case ReturnFlowFunction:
+			return kind == StatementKind.Throw;
+		default:
+			return false;
+		}
+	}
+
 }
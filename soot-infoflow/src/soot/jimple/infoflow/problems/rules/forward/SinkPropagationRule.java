@@ -17,8 +17,10 @@ import soot.jimple.infoflow.aliasing.Aliasing;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AbstractionAtSink;
 import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.problems.rules.AbstractTaintPropagationRule;
+import soot.jimple.infoflow.problems.rules.StatementKind;
 import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
 import soot.jimple.infoflow.sourcesSinks.manager.SinkInfo;
 import soot.jimple.infoflow.util.BaseSelector;
@@ -193,4 +195,12 @@ public class SinkPropagationRule extends AbstractTaintPropagationRule {
 		return null;
 	}
 
+	@Override
+	public boolean isApplicable(FlowFunctionType type, StatementKind kind) {
+		// Inside a method, only values that are read can reach a sink
+		if (type == FlowFunctionType.NormalFlowFunction)
+			return kind == StatementKind.Assign || kind == StatementKind.Return || kind == StatementKind.Branch;
+		return true;
+	}
+
 }
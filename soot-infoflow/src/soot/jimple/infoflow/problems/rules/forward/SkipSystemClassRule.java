@@ -8,8 +8,10 @@ import soot.SootMethod;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.problems.rules.AbstractTaintPropagationRule;
+import soot.jimple.infoflow.problems.rules.StatementKind;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
 
 /**
@@ -88,4 +90,9 @@ public class SkipSystemClassRule extends AbstractTaintPropagationRule {
 		return null;
 	}
 
+	@Override
+	public boolean isApplicable(FlowFunctionType type, StatementKind kind) {
+		return type == FlowFunctionType.CallFlowFunction || type == FlowFunctionType.CallToReturnFlowFunction;
+	}
+
 }
@@ -12,8 +12,10 @@ import soot.jimple.infoflow.cfg.FlowDroidSinkStatement;
 import soot.jimple.infoflow.cfg.FlowDroidSourceStatement;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.problems.rules.AbstractTaintPropagationRule;
+import soot.jimple.infoflow.problems.rules.StatementKind;
 import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
 import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition;
 import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition.CallType;
@@ -108,4 +110,10 @@ public class SourcePropagationRule extends AbstractTaintPropagationRule {
 				|| (!getManager().getConfig().getInspectSinks() && stmt.hasTag(FlowDroidSinkStatement.TAG_NAME));
 		return null;
 	}
+
+	@Override
+	public boolean isApplicable(FlowFunctionType type, StatementKind kind) {
+		return type != FlowFunctionType.ReturnFlowFunction;
+	}
+
 }
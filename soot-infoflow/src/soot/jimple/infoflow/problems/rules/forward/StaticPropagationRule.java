@@ -11,8 +11,10 @@ import soot.jimple.infoflow.aliasing.Aliasing;
 import soot.jimple.infoflow.aliasing.IAliasingStrategy;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.problems.rules.AbstractTaintPropagationRule;
+import soot.jimple.infoflow.problems.rules.StatementKind;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
 
 /**
@@ -100,4 +102,9 @@ public class StaticPropagationRule extends AbstractTaintPropagationRule {
 		return Collections.singleton(source.deriveNewAbstraction(source.getAccessPath(), stmt));
 	}
 
+	@Override
+	public boolean isApplicable(FlowFunctionType type, StatementKind kind) {
+		return type != FlowFunctionType.NormalFlowFunction;
+	}
+
 }
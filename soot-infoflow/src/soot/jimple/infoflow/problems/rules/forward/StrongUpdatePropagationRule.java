@@ -15,8 +15,10 @@ import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.aliasing.Aliasing;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
 import soot.jimple.infoflow.problems.TaintPropagationResults;
 import soot.jimple.infoflow.problems.rules.AbstractTaintPropagationRule;
+import soot.jimple.infoflow.problems.rules.StatementKind;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
 
 /**
@@ -153,4 +155,12 @@ public class StrongUpdatePropagationRule extends AbstractTaintPropagationRule {
 		return null;
 	}
 
+	@Override
+	public boolean isApplicable(FlowFunctionType type, StatementKind kind) {
+		// Only assignments can overwrite a tainted value
+		if (type == FlowFunctionType.NormalFlowFunction || type == FlowFunctionType.CallToReturnFlowFunction)
+			return kind == StatementKind.Assign;
+		return false;
+	}
+
 }
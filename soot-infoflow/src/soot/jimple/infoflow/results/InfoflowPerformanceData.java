@@ -22,6 +22,33 @@ public class InfoflowPerformanceData {
 
 	private long infoflowPropagationCount = -1;
 	private long aliasPropagationCount = -1;
+	private double aliasQueryCacheHitRate = -1;
+
+	private long estimatedJumpFunctionMemorySavedPerMillionEdges = -1;
+
+	private int taintPropagationThreads = -1;
+	private int pathReconstructionThreads = -1;
+
+	private long peakEdgesPerSecond = -1;
+	private long maxSolverQueueDepth = -1;
+	private double flowFunctionCacheHitRate = -1;
+	private long endSummaryReuseCount = -1;
+	private long incomingRecordFanOut = -1;
+	private long accessPathInternHitCount = -1;
+	private long internedAccessPathCount = -1;
+
+	private int sourceSinkScanSeconds = -1;
+	private int prepassSeconds = -1;
+	private int prunedSeedCount = -1;
+	private int prunedMethodCount = -1;
+	private double typeCheckCacheHitRate = -1;
+
+	private long generatedAbstractionCount = -1;
+	private long estimatedAbstractionBytes = -1;
+
+	private long gcCycleCount = -1;
+	private long gcCollectedEdgeCount = -1;
+	private long gcCollectionMillis = -1;
 
 	public InfoflowPerformanceData() {
 		//
@@ -190,6 +217,37 @@ public class InfoflowPerformanceData {
 			else
 				this.sinkCount += performanceData.sinkCount;
 		}
+		updateTaintPropagationThreads(performanceData.taintPropagationThreads);
+		updatePathReconstructionThreads(performanceData.pathReconstructionThreads);
+		updatePeakEdgesPerSecond(performanceData.peakEdgesPerSecond);
+		updateMaxSolverQueueDepth(performanceData.maxSolverQueueDepth);
+		if (performanceData.endSummaryReuseCount > 0)
+			addEndSummaryReuseCount(performanceData.endSummaryReuseCount);
+		if (performanceData.incomingRecordFanOut > 0)
+			addIncomingRecordFanOut(performanceData.incomingRecordFanOut);
+		if (performanceData.flowFunctionCacheHitRate >= 0 && this.flowFunctionCacheHitRate < 0)
+			this.flowFunctionCacheHitRate = performanceData.flowFunctionCacheHitRate;
+		if (performanceData.accessPathInternHitCount > 0)
+			addAccessPathInternHitCount(performanceData.accessPathInternHitCount);
+		updateInternedAccessPathCount(performanceData.internedAccessPathCount);
+		if (performanceData.sourceSinkScanSeconds > 0)
+			addSourceSinkScanSeconds(performanceData.sourceSinkScanSeconds);
+		if (performanceData.prepassSeconds > 0)
+			addPrepassSeconds(performanceData.prepassSeconds);
+		if (performanceData.prunedSeedCount > 0)
+			addPrunedSeedCount(performanceData.prunedSeedCount);
+		if (performanceData.prunedMethodCount > 0)
+			addPrunedMethodCount(performanceData.prunedMethodCount);
+		if (performanceData.typeCheckCacheHitRate >= 0 && this.typeCheckCacheHitRate < 0)
+			this.typeCheckCacheHitRate = performanceData.typeCheckCacheHitRate;
+		if (performanceData.aliasQueryCacheHitRate >= 0 && this.aliasQueryCacheHitRate < 0)
+			this.aliasQueryCacheHitRate = performanceData.aliasQueryCacheHitRate;
+		if (performanceData.generatedAbstractionCount > 0)
+			addGeneratedAbstractions(performanceData.generatedAbstractionCount,
+					performanceData.estimatedAbstractionBytes);
+		if (performanceData.gcCycleCount > 0)
+			addGarbageCollection(performanceData.gcCycleCount, performanceData.gcCollectedEdgeCount,
+					performanceData.gcCollectionMillis);
 	}
 
 	/**
@@ -310,6 +368,515 @@ public class InfoflowPerformanceData {
 		return this.aliasPropagationCount;
 	}
 
+	/**
+	 * Gets the share of alias queries that were not sent to the alias solver,
+	 * because the same query had already been started before
+	 * 
+	 * @return The alias query cache hit rate between 0 and 1, or -1 if no such
+	 *         data has been recorded
+	 */
+	public double getAliasQueryCacheHitRate() {
+		return aliasQueryCacheHitRate;
+	}
+
+	/**
+	 * Sets the share of alias queries that were not sent to the alias solver,
+	 * because the same query had already been started before
+	 * 
+	 * @param aliasQueryCacheHitRate The alias query cache hit rate between 0 and 1
+	 */
+	public void setAliasQueryCacheHitRate(double aliasQueryCacheHitRate) {
+		this.aliasQueryCacheHitRate = aliasQueryCacheHitRate;
+	}
+
+	/**
+	 * Gets the estimated number of bytes that the configured jump function store
+	 * saved per one million jump functions compared to the default store
+	 * 
+	 * @return The number of bytes saved per one million jump functions, or -1 if no
+	 *         such data has been recorded
+	 */
+	public long getEstimatedJumpFunctionMemorySavedPerMillionEdges() {
+		return estimatedJumpFunctionMemorySavedPerMillionEdges;
+	}
+
+	/**
+	 * Sets the estimated number of bytes that the configured jump function store
+	 * saved per one million jump functions compared to the default store
+	 * 
+	 * @param bytesSaved The estimated number of bytes saved per one million jump
+	 *                   functions
+	 */
+	public void setEstimatedJumpFunctionMemorySavedPerMillionEdges(long bytesSaved) {
+		this.estimatedJumpFunctionMemorySavedPerMillionEdges = bytesSaved;
+	}
+
+	/**
+	 * Gets the largest number of threads that were running the taint propagation
+	 * at the same time, including the alias analysis
+	 * 
+	 * @return The largest number of threads used for the taint propagation, or -1
+	 *         if no such data has been recorded
+	 */
+	public int getTaintPropagationThreads() {
+		return taintPropagationThreads;
+	}
+
+	/**
+	 * Sets the largest number of threads that were running the taint propagation
+	 * at the same time, including the alias analysis
+	 * 
+	 * @param taintPropagationThreads The largest number of threads used for the
+	 *                                taint propagation
+	 */
+	public void setTaintPropagationThreads(int taintPropagationThreads) {
+		this.taintPropagationThreads = taintPropagationThreads;
+	}
+
+	/**
+	 * Updates the largest number of threads used for the taint propagation. The
+	 * new value is the maximum of the old value and the given one.
+	 * 
+	 * @param threads The number of threads used in one run of the taint
+	 *                propagation
+	 */
+	public void updateTaintPropagationThreads(int threads) {
+		if (threads > this.taintPropagationThreads)
+			this.taintPropagationThreads = threads;
+	}
+
+	/**
+	 * Gets the largest number of threads that were running the path reconstruction
+	 * at the same time
+	 * 
+	 * @return The largest number of threads used for the path reconstruction, or
+	 *         -1 if no such data has been recorded
+	 */
+	public int getPathReconstructionThreads() {
+		return pathReconstructionThreads;
+	}
+
+	/**
+	 * Sets the largest number of threads that were running the path reconstruction
+	 * at the same time
+	 * 
+	 * @param pathReconstructionThreads The largest number of threads used for the
+	 *                                  path reconstruction
+	 */
+	public void setPathReconstructionThreads(int pathReconstructionThreads) {
+		this.pathReconstructionThreads = pathReconstructionThreads;
+	}
+
+	/**
+	 * Updates the largest number of threads used for the path reconstruction. The
+	 * new value is the maximum of the old value and the given one.
+	 * 
+	 * @param threads The number of threads used in one run of the path
+	 *                reconstruction
+	 */
+	public void updatePathReconstructionThreads(int threads) {
+		if (threads > this.pathReconstructionThreads)
+			this.pathReconstructionThreads = threads;
+	}
+
+	/**
+	 * Gets the highest number of edges that a data flow solver has processed per
+	 * second
+	 * 
+	 * @return The peak solver throughput in edges per second, or -1 if no such data
+	 *         has been recorded
+	 */
+	public long getPeakEdgesPerSecond() {
+		return peakEdgesPerSecond;
+	}
+
+	/**
+	 * Updates the peak solver throughput. The new value is the maximum of the old
+	 * value and the given one.
+	 * 
+	 * @param edgesPerSecond The solver throughput in edges per second
+	 */
+	public void updatePeakEdgesPerSecond(long edgesPerSecond) {
+		if (edgesPerSecond > this.peakEdgesPerSecond)
+			this.peakEdgesPerSecond = edgesPerSecond;
+	}
+
+	/**
+	 * Gets the largest number of edge processing tasks that were waiting for
+	 * execution at the same time
+	 * 
+	 * @return The largest solver queue depth, or -1 if no such data has been
+	 *         recorded
+	 */
+	public long getMaxSolverQueueDepth() {
+		return maxSolverQueueDepth;
+	}
+
+	/**
+	 * Updates the largest solver queue depth. The new value is the maximum of the
+	 * old value and the given one.
+	 * 
+	 * @param queueDepth The number of waiting edge processing tasks
+	 */
+	public void updateMaxSolverQueueDepth(long queueDepth) {
+		if (queueDepth > this.maxSolverQueueDepth)
+			this.maxSolverQueueDepth = queueDepth;
+	}
+
+	/**
+	 * Gets the share of flow function requests that the solvers could answer from
+	 * their flow function caches
+	 * 
+	 * @return The flow function cache hit rate between 0 and 1, or -1 if no such
+	 *         data has been recorded
+	 */
+	public double getFlowFunctionCacheHitRate() {
+		return flowFunctionCacheHitRate;
+	}
+
+	/**
+	 * Sets the share of flow function requests that the solvers could answer from
+	 * their flow function caches
+	 * 
+	 * @param flowFunctionCacheHitRate The flow function cache hit rate between 0
+	 *                                 and 1
+	 */
+	public void setFlowFunctionCacheHitRate(double flowFunctionCacheHitRate) {
+		this.flowFunctionCacheHitRate = flowFunctionCacheHitRate;
+	}
+
+	/**
+	 * Gets the number of times the solvers applied an existing end summary at a
+	 * call site instead of analyzing the callee again
+	 * 
+	 * @return The number of reused end summaries, or -1 if no such data has been
+	 *         recorded
+	 */
+	public long getEndSummaryReuseCount() {
+		return endSummaryReuseCount;
+	}
+
+	/**
+	 * Adds the given number of reused end summaries
+	 * 
+	 * @param toAdd The number of reused end summaries to add
+	 */
+	public void addEndSummaryReuseCount(long toAdd) {
+		long count = this.endSummaryReuseCount;
+		if (count < 0)
+			this.endSummaryReuseCount = toAdd;
+		else
+			this.endSummaryReuseCount = count + toAdd;
+	}
+
+	/**
+	 * Gets the total number of incoming records to which the solvers applied new
+	 * end summaries
+	 * 
+	 * @return The incoming-record fan-out, or -1 if no such data has been recorded
+	 */
+	public long getIncomingRecordFanOut() {
+		return incomingRecordFanOut;
+	}
+
+	/**
+	 * Adds the given number of incoming records to which new end summaries were
+	 * applied
+	 * 
+	 * @param toAdd The number of incoming records to add
+	 */
+	public void addIncomingRecordFanOut(long toAdd) {
+		long count = this.incomingRecordFanOut;
+		if (count < 0)
+			this.incomingRecordFanOut = toAdd;
+		else
+			this.incomingRecordFanOut = count + toAdd;
+	}
+
+	/**
+	 * Gets the number of newly created access paths that were replaced with an
+	 * existing canonical instance
+	 * 
+	 * @return The number of reused canonical access paths, or -1 if no such data
+	 *         has been recorded
+	 */
+	public long getAccessPathInternHitCount() {
+		return accessPathInternHitCount;
+	}
+
+	/**
+	 * Adds the given number of newly created access paths that were replaced with
+	 * an existing canonical instance
+	 * 
+	 * @param toAdd The number of reused canonical access paths to add
+	 */
+	public void addAccessPathInternHitCount(long toAdd) {
+		long count = this.accessPathInternHitCount;
+		if (count < 0)
+			this.accessPathInternHitCount = toAdd;
+		else
+			this.accessPathInternHitCount = count + toAdd;
+	}
+
+	/**
+	 * Gets the largest number of canonical access paths that were alive at the end
+	 * of a taint propagation
+	 * 
+	 * @return The number of canonical access paths, or -1 if no such data has been
+	 *         recorded
+	 */
+	public long getInternedAccessPathCount() {
+		return internedAccessPathCount;
+	}
+
+	/**
+	 * Updates the number of canonical access paths that are alive. The new value
+	 * is the maximum of the old value and the given one.
+	 * 
+	 * @param internedAccessPathCount The number of canonical access paths
+	 */
+	public void updateInternedAccessPathCount(long internedAccessPathCount) {
+		if (internedAccessPathCount > this.internedAccessPathCount)
+			this.internedAccessPathCount = internedAccessPathCount;
+	}
+
+	/**
+	 * Gets the number of seconds spent on scanning the methods for sources and
+	 * sinks
+	 * 
+	 * @return The number of seconds spent on scanning for sources and sinks, or -1
+	 *         if no such data has been recorded
+	 */
+	public int getSourceSinkScanSeconds() {
+		return sourceSinkScanSeconds;
+	}
+
+	/**
+	 * Adds the given number of seconds to the time spent on scanning the methods
+	 * for sources and sinks
+	 * 
+	 * @param toAdd The number of seconds to add
+	 */
+	public void addSourceSinkScanSeconds(int toAdd) {
+		if (this.sourceSinkScanSeconds < 0)
+			this.sourceSinkScanSeconds = toAdd;
+		else
+			this.sourceSinkScanSeconds += toAdd;
+	}
+
+	/**
+	 * Gets the number of seconds spent on the flow-insensitive prepass that prunes
+	 * the seeds of the precise taint propagation
+	 * 
+	 * @return The number of seconds spent on the flow-insensitive prepass, or -1 if
+	 *         no such data has been recorded
+	 */
+	public int getPrepassSeconds() {
+		return prepassSeconds;
+	}
+
+	/**
+	 * Adds the given number of seconds to the time spent on the flow-insensitive
+	 * prepass
+	 * 
+	 * @param toAdd The number of seconds to add
+	 */
+	public void addPrepassSeconds(int toAdd) {
+		if (this.prepassSeconds < 0)
+			this.prepassSeconds = toAdd;
+		else
+			this.prepassSeconds += toAdd;
+	}
+
+	/**
+	 * Gets the number of seeds that were removed before the precise taint
+	 * propagation, because they cannot lead to a sink
+	 * 
+	 * @return The number of pruned seeds, or -1 if no such data has been recorded
+	 */
+	public int getPrunedSeedCount() {
+		return prunedSeedCount;
+	}
+
+	/**
+	 * Adds the given number of seeds that were removed before the precise taint
+	 * propagation
+	 * 
+	 * @param toAdd The number of pruned seeds to add
+	 */
+	public void addPrunedSeedCount(int toAdd) {
+		if (this.prunedSeedCount < 0)
+			this.prunedSeedCount = toAdd;
+		else
+			this.prunedSeedCount += toAdd;
+	}
+
+	/**
+	 * Gets the number of reachable methods that were excluded from the taint
+	 * propagation, because no sink can be reached from them
+	 * 
+	 * @return The number of pruned methods, or -1 if no such data has been
+	 *         recorded
+	 */
+	public int getPrunedMethodCount() {
+		return prunedMethodCount;
+	}
+
+	/**
+	 * Adds the given number of methods that were excluded from the taint
+	 * propagation
+	 * 
+	 * @param toAdd The number of pruned methods to add
+	 */
+	public void addPrunedMethodCount(int toAdd) {
+		if (this.prunedMethodCount < 0)
+			this.prunedMethodCount = toAdd;
+		else
+			this.prunedMethodCount += toAdd;
+	}
+
+	/**
+	 * Gets the share of type compatibility checks that could be answered from the
+	 * cache that is shared by the forward, backward and alias problems
+	 * 
+	 * @return The type check cache hit rate between 0 and 1, or -1 if no such data
+	 *         has been recorded
+	 */
+	public double getTypeCheckCacheHitRate() {
+		return typeCheckCacheHitRate;
+	}
+
+	/**
+	 * Sets the share of type compatibility checks that could be answered from the
+	 * cache that is shared by the forward, backward and alias problems
+	 * 
+	 * @param typeCheckCacheHitRate The type check cache hit rate between 0 and 1
+	 */
+	public void setTypeCheckCacheHitRate(double typeCheckCacheHitRate) {
+		this.typeCheckCacheHitRate = typeCheckCacheHitRate;
+	}
+
+	/**
+	 * Gets the number of new abstractions that the data flow solvers have kept
+	 * 
+	 * @return The number of new abstractions, or -1 if no such data has been
+	 *         recorded
+	 */
+	public long getGeneratedAbstractionCount() {
+		return generatedAbstractionCount;
+	}
+
+	/**
+	 * Gets the estimated shallow heap size of all new abstractions that the data
+	 * flow solvers have kept
+	 * 
+	 * @return The estimated size of all new abstractions in bytes, or -1 if no
+	 *         such data has been recorded
+	 */
+	public long getEstimatedAbstractionBytes() {
+		return estimatedAbstractionBytes;
+	}
+
+	/**
+	 * Gets the average estimated shallow heap size of the new abstractions that
+	 * the data flow solvers have kept
+	 * 
+	 * @return The average estimated size of an abstraction in bytes, or -1 if no
+	 *         such data has been recorded
+	 */
+	public double getEstimatedBytesPerAbstraction() {
+		if (generatedAbstractionCount <= 0 || estimatedAbstractionBytes < 0)
+			return -1;
+		return (double) estimatedAbstractionBytes / generatedAbstractionCount;
+	}
+
+	/**
+	 * Adds new abstractions to the statistics
+	 * 
+	 * @param count          The number of new abstractions
+	 * @param estimatedBytes The estimated shallow heap size of the new
+	 *                       abstractions in bytes
+	 */
+	public void addGeneratedAbstractions(long count, long estimatedBytes) {
+		if (count <= 0)
+			return;
+		if (this.generatedAbstractionCount < 0) {
+			this.generatedAbstractionCount = count;
+			this.estimatedAbstractionBytes = estimatedBytes;
+		} else {
+			this.generatedAbstractionCount += count;
+			this.estimatedAbstractionBytes += estimatedBytes;
+		}
+	}
+
+	/**
+	 * Gets the number of collection cycles that the garbage-collecting solvers
+	 * have performed
+	 * 
+	 * @return The number of garbage collection cycles, or -1 if no such data has
+	 *         been recorded
+	 */
+	public long getGarbageCollectionCycles() {
+		return gcCycleCount;
+	}
+
+	/**
+	 * Gets the number of path edges that the garbage-collecting solvers have
+	 * removed
+	 * 
+	 * @return The number of collected path edges, or -1 if no such data has been
+	 *         recorded
+	 */
+	public long getGarbageCollectedEdges() {
+		return gcCollectedEdgeCount;
+	}
+
+	/**
+	 * Gets the total time that the garbage-collecting solvers have spent in
+	 * collection cycles
+	 * 
+	 * @return The garbage collection time in milliseconds, or -1 if no such data
+	 *         has been recorded
+	 */
+	public long getGarbageCollectionMillis() {
+		return gcCollectionMillis;
+	}
+
+	/**
+	 * Gets the number of path edges that the garbage-collecting solvers have
+	 * removed per second of collection time
+	 * 
+	 * @return The garbage collection throughput in edges per second, or -1 if no
+	 *         such data has been recorded
+	 */
+	public long getGarbageCollectionEdgesPerSecond() {
+		if (gcCollectionMillis <= 0 || gcCollectedEdgeCount < 0)
+			return -1;
+		return gcCollectedEdgeCount * 1000 / gcCollectionMillis;
+	}
+
+	/**
+	 * Adds the collection cycles of a garbage-collecting solver to the statistics
+	 * 
+	 * @param cycles           The number of collection cycles
+	 * @param collectedEdges   The number of path edges that have been removed
+	 * @param collectionMillis The time spent in the collection cycles in
+	 *                         milliseconds
+	 */
+	public void addGarbageCollection(long cycles, long collectedEdges, long collectionMillis) {
+		if (cycles <= 0)
+			return;
+		if (this.gcCycleCount < 0) {
+			this.gcCycleCount = cycles;
+			this.gcCollectedEdgeCount = collectedEdges;
+			this.gcCollectionMillis = collectionMillis;
+		} else {
+			this.gcCycleCount += cycles;
+			this.gcCollectedEdgeCount += collectedEdges;
+			this.gcCollectionMillis += collectionMillis;
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -326,15 +893,59 @@ public class InfoflowPerformanceData {
 			sb.append(String.format("Max Memory Consumption: %d MB\n", maxMemoryConsumption));
 		if (edgePropagationCount > 0)
 			sb.append(String.format("Edge Propagation Count: %d\n", edgePropagationCount));
+		if (aliasQueryCacheHitRate >= 0)
+			sb.append(String.format("Alias Query Cache Hit Rate: %.1f%%\n", aliasQueryCacheHitRate * 100));
+		if (estimatedJumpFunctionMemorySavedPerMillionEdges > 0)
+			sb.append(String.format("Jump Function Memory Saved (estimated): %d MB per million edges\n",
+					estimatedJumpFunctionMemorySavedPerMillionEdges / (1024 * 1024)));
+		if (taintPropagationThreads > 0)
+			sb.append(String.format("Taint Propagation Threads: %d\n", taintPropagationThreads));
+		if (pathReconstructionThreads > 0)
+			sb.append(String.format("Path Reconstruction Threads: %d\n", pathReconstructionThreads));
+		if (peakEdgesPerSecond > 0)
+			sb.append(String.format("Peak Edges per Second: %d\n", peakEdgesPerSecond));
+		if (maxSolverQueueDepth > 0)
+			sb.append(String.format("Max Solver Queue Depth: %d\n", maxSolverQueueDepth));
+		if (flowFunctionCacheHitRate >= 0)
+			sb.append(String.format("Flow Function Cache Hit Rate: %.1f%%\n", flowFunctionCacheHitRate * 100));
+		if (endSummaryReuseCount > 0)
+			sb.append(String.format("End Summary Reuse Count: %d\n", endSummaryReuseCount));
+		if (incomingRecordFanOut > 0)
+			sb.append(String.format("Incoming Record Fan-Out: %d\n", incomingRecordFanOut));
+		if (accessPathInternHitCount > 0)
+			sb.append(String.format("Access Path Intern Hits: %d\n", accessPathInternHitCount));
+		if (internedAccessPathCount > 0)
+			sb.append(String.format("Interned Access Paths: %d\n", internedAccessPathCount));
+		if (sourceSinkScanSeconds > 0)
+			sb.append(String.format("Source/Sink Scan: %d seconds\n", sourceSinkScanSeconds));
+		if (prepassSeconds > 0)
+			sb.append(String.format("Flow-Insensitive Prepass: %d seconds\n", prepassSeconds));
+		if (prunedSeedCount > 0)
+			sb.append(String.format("Pruned Seeds: %d\n", prunedSeedCount));
+		if (prunedMethodCount > 0)
+			sb.append(String.format("Pruned Methods: %d\n", prunedMethodCount));
+		if (typeCheckCacheHitRate >= 0)
+			sb.append(String.format("Type Check Cache Hit Rate: %.1f%%\n", typeCheckCacheHitRate * 100));
+		if (generatedAbstractionCount > 0)
+			sb.append(String.format("Generated Abstractions: %d (estimated %.1f bytes each)\n",
+					generatedAbstractionCount, getEstimatedBytesPerAbstraction()));
+		if (gcCycleCount > 0)
+			sb.append(String.format("Garbage Collection: %d cycles in %d ms, %d edges removed (%d edges/s)\n",
+					gcCycleCount, gcCollectionMillis, gcCollectedEdgeCount, getGarbageCollectionEdgesPerSecond()));
 
 		return sb.toString();
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(aliasPropagationCount, callgraphConstructionSeconds, edgePropagationCount,
-				infoflowPropagationCount, maxMemoryConsumption, pathReconstructionSeconds, sinkCount, sourceCount,
-				taintPropagationSeconds, totalRuntimeSeconds);
+		return Objects.hash(accessPathInternHitCount, aliasPropagationCount, aliasQueryCacheHitRate,
+				callgraphConstructionSeconds, edgePropagationCount, endSummaryReuseCount, estimatedAbstractionBytes,
+				estimatedJumpFunctionMemorySavedPerMillionEdges, flowFunctionCacheHitRate, gcCollectedEdgeCount,
+				gcCollectionMillis, gcCycleCount, generatedAbstractionCount, incomingRecordFanOut,
+				infoflowPropagationCount, internedAccessPathCount, maxMemoryConsumption, maxSolverQueueDepth,
+				pathReconstructionSeconds, pathReconstructionThreads, peakEdgesPerSecond, prepassSeconds,
+				prunedMethodCount, prunedSeedCount, sinkCount, sourceCount, sourceSinkScanSeconds,
+				taintPropagationSeconds, taintPropagationThreads, totalRuntimeSeconds, typeCheckCacheHitRate);
 	}
 
 	@Override
@@ -346,14 +957,36 @@ public class InfoflowPerformanceData {
 		if (getClass() != obj.getClass())
 			return false;
 		InfoflowPerformanceData other = (InfoflowPerformanceData) obj;
-		return aliasPropagationCount == other.aliasPropagationCount
+		return accessPathInternHitCount == other.accessPathInternHitCount
+				&& aliasPropagationCount == other.aliasPropagationCount
+				&& Double.doubleToLongBits(aliasQueryCacheHitRate) == Double
+						.doubleToLongBits(other.aliasQueryCacheHitRate)
 				&& callgraphConstructionSeconds == other.callgraphConstructionSeconds
 				&& edgePropagationCount == other.edgePropagationCount
+				&& endSummaryReuseCount == other.endSummaryReuseCount
+				&& estimatedAbstractionBytes == other.estimatedAbstractionBytes
+				&& estimatedJumpFunctionMemorySavedPerMillionEdges == other.estimatedJumpFunctionMemorySavedPerMillionEdges
+				&& Double.doubleToLongBits(flowFunctionCacheHitRate) == Double
+						.doubleToLongBits(other.flowFunctionCacheHitRate)
+				&& gcCollectedEdgeCount == other.gcCollectedEdgeCount
+				&& gcCollectionMillis == other.gcCollectionMillis && gcCycleCount == other.gcCycleCount
+				&& generatedAbstractionCount == other.generatedAbstractionCount
+				&& incomingRecordFanOut == other.incomingRecordFanOut
 				&& infoflowPropagationCount == other.infoflowPropagationCount
+				&& internedAccessPathCount == other.internedAccessPathCount
 				&& maxMemoryConsumption == other.maxMemoryConsumption
-				&& pathReconstructionSeconds == other.pathReconstructionSeconds && sinkCount == other.sinkCount
-				&& sourceCount == other.sourceCount && taintPropagationSeconds == other.taintPropagationSeconds
-				&& totalRuntimeSeconds == other.totalRuntimeSeconds;
+				&& maxSolverQueueDepth == other.maxSolverQueueDepth
+				&& pathReconstructionSeconds == other.pathReconstructionSeconds
+				&& pathReconstructionThreads == other.pathReconstructionThreads
+				&& peakEdgesPerSecond == other.peakEdgesPerSecond && prepassSeconds == other.prepassSeconds
+				&& prunedMethodCount == other.prunedMethodCount && prunedSeedCount == other.prunedSeedCount
+				&& sinkCount == other.sinkCount
+				&& sourceCount == other.sourceCount && sourceSinkScanSeconds == other.sourceSinkScanSeconds
+				&& taintPropagationSeconds == other.taintPropagationSeconds
+				&& taintPropagationThreads == other.taintPropagationThreads
+				&& totalRuntimeSeconds == other.totalRuntimeSeconds
+				&& Double.doubleToLongBits(typeCheckCacheHitRate) == Double
+						.doubleToLongBits(other.typeCheckCacheHitRate);
 	}
 
 }
@@ -47,6 +47,33 @@ public class InfoflowResults {
 	public final static int TERMINATION_PATH_RECONSTRUCTION_TIMEOUT = 4;
 	public final static int TERMINATION_PATH_RECONSTRUCTION_OOM = 8;
 
+	/**
+	 * The data flow analysis flushed its caches because the memory was getting low
+	 */
+	public final static int TERMINATION_DEGRADED_CACHES_FLUSHED = 16;
+	/**
+	 * The data flow analysis stopped recording path data because the memory was
+	 * getting low. Some paths may be incomplete.
+	 */
+	public final static int TERMINATION_DEGRADED_PATH_DATA_ERASED = 32;
+	/**
+	 * The data flow analysis forced its garbage collector to run because the memory
+	 * was getting low
+	 */
+	public final static int TERMINATION_DEGRADED_SOLVER_GC = 64;
+	/**
+	 * The data flow analysis used shorter access paths for new taints because the
+	 * memory was getting low. Results may be less precise.
+	 */
+	public final static int TERMINATION_DEGRADED_ACCESS_PATHS_SHORTENED = 128;
+
+	/**
+	 * All termination states that denote a degradation step instead of an abortion
+	 */
+	public final static int TERMINATION_DEGRADED = TERMINATION_DEGRADED_CACHES_FLUSHED
+			| TERMINATION_DEGRADED_PATH_DATA_ERASED | TERMINATION_DEGRADED_SOLVER_GC
+			| TERMINATION_DEGRADED_ACCESS_PATHS_SHORTENED;
+
 	private static final Logger logger = LoggerFactory.getLogger(InfoflowResults.class);
 
 	protected volatile MultiMap<ResultSinkInfo, ResultSourceInfo> results = null;
@@ -558,6 +585,17 @@ public class InfoflowResults {
 				|| ((terminationState & TERMINATION_PATH_RECONSTRUCTION_OOM) == TERMINATION_PATH_RECONSTRUCTION_OOM);
 	}
 
+	/**
+	 * Gets whether the analysis had to save memory at the expense of precision,
+	 * path information, or running time. The individual degradation steps are
+	 * recorded in the termination state.
+	 *
+	 * @return True if the analysis was degraded to save memory, otherwise false
+	 */
+	public boolean wasDegraded() {
+		return (terminationState & TERMINATION_DEGRADED) != 0;
+	}
+
 	/**
 	 * Gets the performance data on this FlowDroid run
 	 *
@@ -105,7 +105,8 @@ public class InfoflowResultsSerializer {
 	 * @return A human-readable version of the termination state
 	 */
 	private String terminationStateToString(int terminationState) {
-		switch (terminationState) {
+		// Degradation steps do not change how the analysis terminated
+		switch (terminationState & ~InfoflowResults.TERMINATION_DEGRADED) {
 		case InfoflowResults.TERMINATION_SUCCESS:
 			return "Success";
 		case InfoflowResults.TERMINATION_DATA_FLOW_TIMEOUT:
@@ -0,0 +1,109 @@
+package soot.jimple.infoflow.solver;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.jimple.infoflow.collect.AppendOnlyRecordSet;
+
+/**
+ * Concurrent store for the end summaries and incoming records of the IFDS
+ * solvers. Each context, e.g., a pair of a method and a calling context, has an
+ * append-only list of records that can be extended without locking.
+ *
+ * The algorithm of Naeem, Lhotak and Rodriguez requires that whenever one
+ * thread registers an end summary for a context and another thread registers
+ * an incoming edge for the same context, at least one of the two threads sees
+ * the record of the other one and applies the summary. Both threads first add
+ * their own record and only afterwards read the records of the other kind. All
+ * additions and reads in this store are volatile accesses or compare-and-set
+ * operations, so this ordering is preserved and no summary application gets
+ * lost.
+ *
+ * @param <K> The type of the contexts
+ * @param <R> The type of the records
+ */
+public class ConcurrentSummaryStore<K, R> {
+
+	private final ConcurrentHashMap<K, AppendOnlyRecordSet<R>> records = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the records for the given context
+	 *
+	 * @param context The context for which to get the records
+	 * @return The records for the given context, or <code>null</code> if the
+	 *         context is unknown
+	 */
+	public Set<R> get(K context) {
+		return records.get(context);
+	}
+
+	/**
+	 * Gets the record set for the given context, and creates an empty one if
+	 * necessary
+	 *
+	 * @param context The context for which to get the records
+	 * @return The record set for the given context
+	 */
+	private AppendOnlyRecordSet<R> getOrCreate(K context) {
+		AppendOnlyRecordSet<R> set = records.get(context);
+		if (set != null)
+			return set;
+
+		AppendOnlyRecordSet<R> newSet = new AppendOnlyRecordSet<>();
+		set = records.putIfAbsent(context, newSet);
+		return set == null ? newSet : set;
+	}
+
+	/**
+	 * Adds the given record to the given context if no equal record exists yet
+	 *
+	 * @param context The context to which to add the record
+	 * @param record  The record to add
+	 * @return The existing record if there is one, otherwise <code>null</code>
+	 */
+	public R putIfAbsent(K context, R record) {
+		return getOrCreate(context).putIfAbsent(record);
+	}
+
+	/**
+	 * Registers the given context without adding any records to it
+	 *
+	 * @param context The context to register
+	 * @return True if the context is new, false if it has already been registered
+	 *         before
+	 */
+	public boolean addContext(K context) {
+		if (records.containsKey(context))
+			return false;
+		return records.putIfAbsent(context, new AppendOnlyRecordSet<>()) == null;
+	}
+
+	/**
+	 * Gets the number of contexts in this store
+	 *
+	 * @return The number of contexts in this store
+	 */
+	public int getContextCount() {
+		return records.size();
+	}
+
+	/**
+	 * Gets the total number of records in this store
+	 *
+	 * @return The total number of records over all contexts
+	 */
+	public long getRecordCount() {
+		long count = 0;
+		for (AppendOnlyRecordSet<R> set : records.values())
+			count += set.size();
+		return count;
+	}
+
+	/**
+	 * Removes all contexts and records from this store
+	 */
+	public void clear() {
+		records.clear();
+	}
+
+}
@@ -5,7 +5,6 @@ import heros.solver.Pair;
 import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.infoflow.data.Abstraction;
-import soot.util.ConcurrentHashMultiMap;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -18,8 +17,8 @@ import java.util.Set;
 public class DefaultSolverPeerGroup implements ISolverPeerGroup {
 	// edges going along calls
 	// see CC 2010 paper by Naeem, Lhotak and Rodriguez
-	@SynchronizedBy("consistent lock on field")
-	protected final ConcurrentHashMultiMap<Pair<SootMethod, Abstraction>, IncomingRecord<Unit, Abstraction>> incoming = new ConcurrentHashMultiMap<>();
+	@SynchronizedBy("lock-free append-only record lists")
+	protected final ConcurrentSummaryStore<Pair<SootMethod, Abstraction>, IncomingRecord<Unit, Abstraction>> incoming = new ConcurrentSummaryStore<>();
 
 	protected Set<IInfoflowSolver> solvers = new HashSet<>();
 
@@ -0,0 +1,535 @@
+package soot.jimple.infoflow.solver.cfg;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soot.Body;
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.jimple.InvokeExpr;
+import soot.jimple.toolkits.callgraph.ReachableMethods;
+import soot.toolkits.graph.DirectedGraph;
+
+/**
+ * Immutable snapshot of an interprocedural control-flow graph. The snapshot
+ * assigns dense integer IDs to all units and methods that exist when it is
+ * built. It then answers the queries that the data flow solvers issue most
+ * frequently (successors, predecessors, callees, callers, return sites, start
+ * and end points, owning method, call and exit statements) from flat arrays in
+ * compressed sparse row layout. All other queries, as well as queries for units
+ * that were not part of the snapshot or that belong to methods that have
+ * changed since, are delegated to the original CFG.
+ *
+ * The snapshot must be built after the callgraph has been constructed and
+ * after all code transformations have been applied.
+ */
+public class FrozenInfoflowCFG implements IInfoflowCFG {
+
+	/**
+	 * Open-addressing hash map from units to their IDs based on object identity
+	 */
+	private static class UnitIdMap {
+
+		private final Unit[] keys;
+		private final int[] values;
+		private final int mask;
+
+		private UnitIdMap(int expectedSize) {
+			int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+			this.keys = new Unit[capacity];
+			this.values = new int[capacity];
+			this.mask = capacity - 1;
+		}
+
+		private static int hash(Unit u) {
+			int h = System.identityHashCode(u);
+			return h ^ (h >>> 16);
+		}
+
+		private void put(Unit u, int id) {
+			int idx = hash(u) & mask;
+			while (keys[idx] != null && keys[idx] != u)
+				idx = (idx + 1) & mask;
+			keys[idx] = u;
+			values[idx] = id;
+		}
+
+		private int get(Unit u) {
+			int idx = hash(u) & mask;
+			while (true) {
+				Unit k = keys[idx];
+				if (k == u)
+					return values[idx];
+				if (k == null)
+					return -1;
+				idx = (idx + 1) & mask;
+			}
+		}
+
+	}
+
+	/**
+	 * Immutable view on a slice of an array
+	 */
+	private static class ArraySlice<E> extends AbstractList<E> implements RandomAccess {
+
+		private final E[] data;
+		private final int from;
+		private final int size;
+
+		private ArraySlice(E[] data, int from, int to) {
+			this.data = data;
+			this.from = from;
+			this.size = to - from;
+		}
+
+		@Override
+		public E get(int index) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			return data[from + index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+	/**
+	 * Builder for one adjacency relation in compressed sparse row layout
+	 */
+	private static class CSRBuilder<E> {
+
+		private final int[] offsets;
+		private final List<E> targets = new ArrayList<>();
+		private int next = 0;
+
+		private CSRBuilder(int numRows) {
+			this.offsets = new int[numRows + 1];
+		}
+
+		private void addRow(Collection<E> row) {
+			if (row != null)
+				targets.addAll(row);
+			offsets[++next] = targets.size();
+		}
+
+	}
+
+	protected final IInfoflowCFG delegate;
+
+	private final UnitIdMap unitIds;
+	private final Unit[] units;
+	private final SootMethod[] methods;
+	private final int[] unitMethod;
+	private final boolean[] callStmts;
+	private final boolean[] exitStmts;
+	private final boolean[] startPoints;
+
+	private final int[] succOffsets;
+	private final Unit[] succs;
+	private final int[] predOffsets;
+	private final Unit[] preds;
+	private final int[] calleeOffsets;
+	private final SootMethod[] callees;
+	private final int[] returnSiteOffsets;
+	private final Unit[] returnSites;
+
+	private final int[] startPointOffsets;
+	private final Unit[] methodStartPoints;
+	private final int[] endPointOffsets;
+	private final Unit[] methodEndPoints;
+	private final int[] callerOffsets;
+	private final Unit[] callers;
+
+	private final Set<SootMethod> changedMethods = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates a snapshot of the given CFG that contains all methods that are
+	 * reachable in the current callgraph
+	 *
+	 * @param delegate The CFG to freeze
+	 * @return The frozen snapshot of the given CFG
+	 */
+	public static FrozenInfoflowCFG freeze(IInfoflowCFG delegate) {
+		List<SootMethod> methods = new ArrayList<>();
+		ReachableMethods rm = Scene.v().getReachableMethods();
+		for (Iterator<MethodOrMethodContext> it = rm.listener(); it.hasNext();) {
+			SootMethod sm = it.next().method();
+			if (sm.isConcrete() && sm.hasActiveBody())
+				methods.add(sm);
+		}
+		return new FrozenInfoflowCFG(delegate, methods);
+	}
+
+	/**
+	 * Creates a snapshot of the given CFG
+	 *
+	 * @param delegate The CFG to freeze
+	 * @param methods  The methods to include in the snapshot. All of these methods
+	 *                 must have an active body.
+	 */
+	public FrozenInfoflowCFG(IInfoflowCFG delegate, Collection<SootMethod> methods) {
+		this.delegate = delegate;
+		this.methods = methods.toArray(new SootMethod[methods.size()]);
+
+		// Assign the IDs
+		int numUnits = 0;
+		for (SootMethod sm : this.methods)
+			numUnits += sm.getActiveBody().getUnits().size();
+		this.units = new Unit[numUnits];
+		this.unitMethod = new int[numUnits];
+		this.unitIds = new UnitIdMap(numUnits);
+		int unitId = 0;
+		for (int methodId = 0; methodId < this.methods.length; methodId++) {
+			for (Unit u : this.methods[methodId].getActiveBody().getUnits()) {
+				units[unitId] = u;
+				unitMethod[unitId] = methodId;
+				unitIds.put(u, unitId);
+				unitId++;
+			}
+		}
+
+		// Record the unit-level relations
+		this.callStmts = new boolean[numUnits];
+		this.exitStmts = new boolean[numUnits];
+		this.startPoints = new boolean[numUnits];
+		CSRBuilder<Unit> succBuilder = new CSRBuilder<>(numUnits);
+		CSRBuilder<Unit> predBuilder = new CSRBuilder<>(numUnits);
+		CSRBuilder<SootMethod> calleeBuilder = new CSRBuilder<>(numUnits);
+		CSRBuilder<Unit> returnSiteBuilder = new CSRBuilder<>(numUnits);
+		for (int i = 0; i < numUnits; i++) {
+			Unit u = units[i];
+			callStmts[i] = delegate.isCallStmt(u);
+			exitStmts[i] = delegate.isExitStmt(u);
+			startPoints[i] = delegate.isStartPoint(u);
+			succBuilder.addRow(delegate.getSuccsOf(u));
+			predBuilder.addRow(delegate.getPredsOf(u));
+			calleeBuilder.addRow(delegate.getCalleesOfCallAt(u));
+			returnSiteBuilder.addRow(callStmts[i] ? delegate.getReturnSitesOfCallAt(u) : null);
+		}
+		this.succOffsets = succBuilder.offsets;
+		this.succs = succBuilder.targets.toArray(new Unit[succBuilder.targets.size()]);
+		this.predOffsets = predBuilder.offsets;
+		this.preds = predBuilder.targets.toArray(new Unit[predBuilder.targets.size()]);
+		this.calleeOffsets = calleeBuilder.offsets;
+		this.callees = calleeBuilder.targets.toArray(new SootMethod[calleeBuilder.targets.size()]);
+		this.returnSiteOffsets = returnSiteBuilder.offsets;
+		this.returnSites = returnSiteBuilder.targets.toArray(new Unit[returnSiteBuilder.targets.size()]);
+
+		// Record the method-level relations
+		CSRBuilder<Unit> startPointBuilder = new CSRBuilder<>(this.methods.length);
+		CSRBuilder<Unit> endPointBuilder = new CSRBuilder<>(this.methods.length);
+		CSRBuilder<Unit> callerBuilder = new CSRBuilder<>(this.methods.length);
+		for (SootMethod sm : this.methods) {
+			startPointBuilder.addRow(delegate.getStartPointsOf(sm));
+			endPointBuilder.addRow(delegate.getEndPointsOf(sm));
+			callerBuilder.addRow(delegate.getCallersOf(sm));
+		}
+		this.startPointOffsets = startPointBuilder.offsets;
+		this.methodStartPoints = startPointBuilder.targets.toArray(new Unit[startPointBuilder.targets.size()]);
+		this.endPointOffsets = endPointBuilder.offsets;
+		this.methodEndPoints = endPointBuilder.targets.toArray(new Unit[endPointBuilder.targets.size()]);
+		this.callerOffsets = callerBuilder.offsets;
+		this.callers = callerBuilder.targets.toArray(new Unit[callerBuilder.targets.size()]);
+	}
+
+	/**
+	 * Gets the ID of the given unit in this snapshot
+	 *
+	 * @param u The unit
+	 * @return The ID of the given unit, or -1 if the unit is not part of the
+	 *         snapshot or if its method has changed since the snapshot was taken
+	 */
+	private int unitId(Unit u) {
+		if (u == null)
+			return -1;
+		int id = unitIds.get(u);
+		if (id >= 0 && !changedMethods.isEmpty() && changedMethods.contains(methods[unitMethod[id]]))
+			return -1;
+		return id;
+	}
+
+	/**
+	 * Gets the ID of the given method in this snapshot
+	 *
+	 * @param m The method
+	 * @return The ID of the given method, or -1 if the method is not part of the
+	 *         snapshot or if it has changed since the snapshot was taken
+	 */
+	private int methodId(SootMethod m) {
+		if (m == null || !m.hasActiveBody())
+			return -1;
+		if (!changedMethods.isEmpty() && changedMethods.contains(m))
+			return -1;
+		Iterator<Unit> it = m.getActiveBody().getUnits().iterator();
+		if (!it.hasNext())
+			return -1;
+		int id = unitIds.get(it.next());
+		if (id < 0)
+			return -1;
+		int mId = unitMethod[id];
+		return methods[mId] == m ? mId : -1;
+	}
+
+	private static <E> List<E> slice(E[] data, int[] offsets, int row) {
+		int from = offsets[row];
+		int to = offsets[row + 1];
+		if (from == to)
+			return Collections.emptyList();
+		return new ArraySlice<>(data, from, to);
+	}
+
+	/**
+	 * Gets the number of units in this snapshot
+	 *
+	 * @return The number of units in this snapshot
+	 */
+	public int getUnitCount() {
+		return units.length;
+	}
+
+	/**
+	 * Gets the number of methods in this snapshot
+	 *
+	 * @return The number of methods in this snapshot
+	 */
+	public int getMethodCount() {
+		return methods.length;
+	}
+
+	/**
+	 * Gets the CFG on which this snapshot is based
+	 *
+	 * @return The CFG on which this snapshot is based
+	 */
+	public IInfoflowCFG getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public SootMethod getMethodOf(Unit u) {
+		int id = unitId(u);
+		return id < 0 ? delegate.getMethodOf(u) : methods[unitMethod[id]];
+	}
+
+	@Override
+	public List<Unit> getPredsOf(Unit u) {
+		int id = unitId(u);
+		return id < 0 ? delegate.getPredsOf(u) : slice(preds, predOffsets, id);
+	}
+
+	@Override
+	public List<Unit> getSuccsOf(Unit u) {
+		int id = unitId(u);
+		return id < 0 ? delegate.getSuccsOf(u) : slice(succs, succOffsets, id);
+	}
+
+	@Override
+	public Collection<SootMethod> getCalleesOfCallAt(Unit u) {
+		int id = unitId(u);
+		return id < 0 ? delegate.getCalleesOfCallAt(u) : slice(callees, calleeOffsets, id);
+	}
+
+	@Override
+	public Collection<Unit> getCallersOf(SootMethod m) {
+		// If any method has changed, it may contain new call sites
+		if (!changedMethods.isEmpty())
+			return delegate.getCallersOf(m);
+		int id = methodId(m);
+		return id < 0 ? delegate.getCallersOf(m) : slice(callers, callerOffsets, id);
+	}
+
+	@Override
+	public Set<Unit> getCallsFromWithin(SootMethod m) {
+		return delegate.getCallsFromWithin(m);
+	}
+
+	@Override
+	public Collection<Unit> getStartPointsOf(SootMethod m) {
+		int id = methodId(m);
+		return id < 0 ? delegate.getStartPointsOf(m) : slice(methodStartPoints, startPointOffsets, id);
+	}
+
+	@Override
+	public Collection<Unit> getReturnSitesOfCallAt(Unit u) {
+		int id = unitId(u);
+		return id < 0 || !callStmts[id] ? delegate.getReturnSitesOfCallAt(u)
+				: slice(returnSites, returnSiteOffsets, id);
+	}
+
+	@Override
+	public boolean isCallStmt(Unit u) {
+		int id = unitId(u);
+		return id < 0 ? delegate.isCallStmt(u) : callStmts[id];
+	}
+
+	@Override
+	public boolean isExitStmt(Unit u) {
+		int id = unitId(u);
+		return id < 0 ? delegate.isExitStmt(u) : exitStmts[id];
+	}
+
+	@Override
+	public boolean isStartPoint(Unit u) {
+		int id = unitId(u);
+		return id < 0 ? delegate.isStartPoint(u) : startPoints[id];
+	}
+
+	@Override
+	public Set<Unit> allNonCallStartNodes() {
+		return delegate.allNonCallStartNodes();
+	}
+
+	@Override
+	public boolean isFallThroughSuccessor(Unit u, Unit succ) {
+		return delegate.isFallThroughSuccessor(u, succ);
+	}
+
+	@Override
+	public boolean isBranchTarget(Unit u, Unit succ) {
+		return delegate.isBranchTarget(u, succ);
+	}
+
+	@Override
+	public Collection<Unit> getEndPointsOf(SootMethod m) {
+		int id = methodId(m);
+		return id < 0 ? delegate.getEndPointsOf(m) : slice(methodEndPoints, endPointOffsets, id);
+	}
+
+	@Override
+	public List<Unit> getPredsOfCallAt(Unit u) {
+		return delegate.getPredsOfCallAt(u);
+	}
+
+	@Override
+	public Set<Unit> allNonCallEndNodes() {
+		return delegate.allNonCallEndNodes();
+	}
+
+	@Override
+	public DirectedGraph<Unit> getOrCreateUnitGraph(SootMethod body) {
+		return delegate.getOrCreateUnitGraph(body);
+	}
+
+	@Override
+	public List<Value> getParameterRefs(SootMethod m) {
+		return delegate.getParameterRefs(m);
+	}
+
+	@Override
+	public boolean isReturnSite(Unit n) {
+		return delegate.isReturnSite(n);
+	}
+
+	@Override
+	public boolean isReachable(Unit u) {
+		return unitId(u) >= 0 || delegate.isReachable(u);
+	}
+
+	@Override
+	public UnitContainer getPostdominatorOf(Unit u) {
+		return delegate.getPostdominatorOf(u);
+	}
+
+	@Override
+	public UnitContainer getDominatorOf(Unit u) {
+		return delegate.getDominatorOf(u);
+	}
+
+	@Override
+	public List<Unit> getAllDominators(Unit u) {
+		return delegate.getAllDominators(u);
+	}
+
+	@Override
+	public List<Unit> getConditionalBranchIntraprocedural(Unit callSite) {
+		return delegate.getConditionalBranchIntraprocedural(callSite);
+	}
+
+	@Override
+	public List<Unit> getConditionalBranchesInterprocedural(Unit unit) {
+		return delegate.getConditionalBranchesInterprocedural(unit);
+	}
+
+	@Override
+	public boolean isStaticFieldRead(SootMethod method, SootField variable) {
+		return delegate.isStaticFieldRead(method, variable);
+	}
+
+	@Override
+	public boolean isStaticFieldUsed(SootMethod method, SootField variable) {
+		return delegate.isStaticFieldUsed(method, variable);
+	}
+
+	@Override
+	public boolean hasSideEffects(SootMethod method) {
+		return delegate.hasSideEffects(method);
+	}
+
+	@Override
+	public void notifyMethodChanged(SootMethod m) {
+		changedMethods.add(m);
+		delegate.notifyMethodChanged(m);
+	}
+
+	@Override
+	public void notifyNewBody(Body b) {
+		changedMethods.add(b.getMethod());
+		delegate.notifyNewBody(b);
+	}
+
+	@Override
+	public boolean methodReadsValue(SootMethod m, Value v) {
+		return delegate.methodReadsValue(m, v);
+	}
+
+	@Override
+	public boolean methodWritesValue(SootMethod m, Value v) {
+		return delegate.methodWritesValue(m, v);
+	}
+
+	@Override
+	public boolean isExceptionalEdgeBetween(Unit u1, Unit u2) {
+		return delegate.isExceptionalEdgeBetween(u1, u2);
+	}
+
+	@Override
+	public Collection<SootMethod> getOrdinaryCalleesOfCallAt(Unit u) {
+		return delegate.getOrdinaryCalleesOfCallAt(u);
+	}
+
+	@Override
+	public boolean isExecutorExecute(InvokeExpr ie, SootMethod dest) {
+		return delegate.isExecutorExecute(ie, dest);
+	}
+
+	@Override
+	public boolean isReflectiveCallSite(Unit u) {
+		return delegate.isReflectiveCallSite(u);
+	}
+
+	@Override
+	public boolean isReflectiveCallSite(InvokeExpr iexpr) {
+		return delegate.isReflectiveCallSite(iexpr);
+	}
+
+	@Override
+	public void purge() {
+		delegate.purge();
+	}
+
+}
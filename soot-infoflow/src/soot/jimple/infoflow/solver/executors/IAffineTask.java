@@ -0,0 +1,18 @@
+package soot.jimple.infoflow.solver.executors;
+
+/**
+ * Common interface for tasks that should preferably be executed on the same
+ * worker thread as other tasks with the same affinity key
+ */
+public interface IAffineTask extends Runnable {
+
+	/**
+	 * Gets the key that identifies the group of tasks to which this task belongs,
+	 * e.g., the method in which the task operates
+	 *
+	 * @return The affinity key of this task, or <code>null</code> if the task can
+	 *         run anywhere
+	 */
+	public Object getAffinityKey();
+
+}
@@ -2,6 +2,7 @@ package soot.jimple.infoflow.solver.executors;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -14,8 +15,10 @@ public class InterruptableExecutor extends CountingThreadPoolExecutor {
 
 	protected static final Logger logger = LoggerFactory.getLogger(InterruptableExecutor.class);
 
-	private boolean interrupted = false;
-	private boolean terminated = false;
+	protected boolean interrupted = false;
+	protected boolean terminated = false;
+
+	private Semaphore runningTasks = null;
 
 	public InterruptableExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
 			BlockingQueue<Runnable> workQueue) {
@@ -39,6 +42,33 @@ public class InterruptableExecutor extends CountingThreadPoolExecutor {
 		numRunningTasks.resetAndInterrupt();
 	}
 
+	/**
+	 * Limits the number of tasks that this executor runs at the same time,
+	 * independent of the number of its pool threads. Pool threads that exceed the
+	 * limit wait until a running task has finished. This method must be called
+	 * before the first task is submitted.
+	 * 
+	 * @param maxRunningTasks The maximum number of tasks to run at the same time,
+	 *                        or zero to only limit the tasks by the pool size
+	 */
+	public void setMaxRunningTasks(int maxRunningTasks) {
+		this.runningTasks = maxRunningTasks > 0 ? new Semaphore(maxRunningTasks) : null;
+	}
+
+	@Override
+	protected void beforeExecute(Thread t, Runnable r) {
+		super.beforeExecute(t, r);
+		if (runningTasks != null)
+			runningTasks.acquireUninterruptibly();
+	}
+
+	@Override
+	protected void afterExecute(Runnable r, Throwable t) {
+		if (runningTasks != null)
+			runningTasks.release();
+		super.afterExecute(r, t);
+	}
+
 	/**
 	 * Resets the executor to allow for new tasks once all previous tasks have
 	 * completed or after the executor has been interrupted.
@@ -104,4 +134,14 @@ public class InterruptableExecutor extends CountingThreadPoolExecutor {
 		return terminated || super.isTerminated();
 	}
 
+	/**
+	 * Gets the number of tasks that have been submitted to this executor, but have
+	 * not been started yet
+	 * 
+	 * @return The number of tasks waiting for execution
+	 */
+	public long getPendingTaskCount() {
+		return getQueue().size();
+	}
+
 }
@@ -0,0 +1,302 @@
+package soot.jimple.infoflow.solver.executors;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that runs its tasks on a {@link ForkJoinPool} instead of a thread
+ * pool with a single shared work queue. Tasks that implement
+ * {@link IAffineTask} are grouped by their affinity key (e.g., the method in
+ * which an edge is processed). All pending tasks of the same group are kept in
+ * one lane that is drained by a single worker at a time. Lanes are forked onto
+ * the deque of the worker that scheduled them, so that the data of a method
+ * stays local to one worker. Idle workers steal complete lanes from the other
+ * workers. Lanes that have run empty are removed, so that the executor does not
+ * keep a lane for every key it has ever seen.
+ *
+ * The thread pool infrastructure inherited from {@link InterruptableExecutor}
+ * is only used for counting the running tasks and for reporting exceptions. It
+ * never starts any threads on its own. Consequently, thread factories that are
+ * registered via {@link #setThreadFactory(java.util.concurrent.ThreadFactory)}
+ * are not used.
+ */
+public class WorkStealingExecutor extends InterruptableExecutor {
+
+	/**
+	 * The maximum number of tasks that a worker takes from a lane before giving
+	 * other lanes a chance
+	 */
+	private static final int MAX_LANE_BATCH = 64;
+
+	/**
+	 * A group of pending tasks with the same affinity key
+	 */
+	private static class Lane {
+
+		private final Object key;
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+		private Lane(Object key) {
+			this.key = key;
+		}
+
+	}
+
+	/**
+	 * Fork/join task that processes the pending tasks of one lane
+	 */
+	private class LaneTask extends RecursiveAction {
+
+		private static final long serialVersionUID = -4727467214637473520L;
+
+		private final Lane lane;
+
+		private LaneTask(Lane lane) {
+			this.lane = lane;
+		}
+
+		@Override
+		protected void compute() {
+			Runnable r;
+			int processed = 0;
+			while (processed++ < MAX_LANE_BATCH && (r = lane.tasks.poll()) != null)
+				runTask(r);
+
+			// Release the lane. If new tasks have arrived in the meantime, we
+			// need to schedule the lane again.
+			lane.scheduled.set(false);
+			if (!lane.tasks.isEmpty())
+				scheduleLane(lane);
+			else
+				removeLane(lane);
+		}
+
+	}
+
+	/**
+	 * Fork/join task that runs a single task without affinity
+	 */
+	private class SingleTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1394867419236577311L;
+
+		private final Runnable task;
+
+		private SingleTask(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		protected void compute() {
+			runTask(task);
+		}
+
+	}
+
+	protected final ForkJoinPool pool;
+	protected final ConcurrentHashMap<Object, Lane> lanes = new ConcurrentHashMap<>();
+	protected final Set<Runnable> waiting;
+
+	/**
+	 * Creates a new instance of the {@link WorkStealingExecutor} class
+	 *
+	 * @param numThreads        The number of worker threads
+	 * @param allowSetSemantics True if the executor is allowed to skip new tasks
+	 *                          if the same task is already waiting for execution,
+	 *                          false if the executor must run all tasks it is
+	 *                          given
+	 */
+	public WorkStealingExecutor(int numThreads, boolean allowSetSemantics) {
+		super(0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
+		final AtomicInteger threadCounter = new AtomicInteger();
+		this.pool = new ForkJoinPool(Math.max(1, numThreads), p -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+			thread.setDaemon(true);
+			thread.setName("FlowDroid-" + threadCounter.incrementAndGet());
+			return thread;
+		}, null, false);
+		this.waiting = allowSetSemantics ? Collections.newSetFromMap(new ConcurrentHashMap<Runnable, Boolean>())
+				: null;
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		// If the executor was terminated, it must be reset explicitly
+		if (this.terminated) {
+			logger.warn("Executor has terminated. Call reset() before submitting new tasks.");
+			return;
+		}
+
+		// Discard all submitted tasks if the executor has been interrupted
+		if (this.interrupted || pool.isShutdown())
+			return;
+
+		// Make sure that we don't schedule a task for execution that is already
+		// waiting
+		if (waiting != null && !waiting.add(command))
+			return;
+		numRunningTasks.increment();
+
+		Object key = command instanceof IAffineTask ? ((IAffineTask) command).getAffinityKey() : null;
+		if (key == null) {
+			submit(new SingleTask(command));
+			return;
+		}
+
+		// Adding the task and removing an empty lane are atomic with respect to each
+		// other, so a task is never added to a lane that has already been removed
+		Lane lane = lanes.compute(key, (k, l) -> {
+			if (l == null)
+				l = new Lane(k);
+			l.tasks.add(command);
+			return l;
+		});
+		scheduleLane(lane);
+	}
+
+	/**
+	 * Removes the given lane if it has no pending tasks and no worker is taking
+	 * care of it. New tasks with the same key then go into a new lane. Since the
+	 * old lane is empty, the tasks of a key are still run in the order in which
+	 * they were submitted.
+	 *
+	 * @param lane The lane to remove
+	 */
+	private void removeLane(Lane lane) {
+		lanes.computeIfPresent(lane.key,
+				(k, l) -> l == lane && l.tasks.isEmpty() && !l.scheduled.get() ? null : l);
+	}
+
+	/**
+	 * Schedules the given lane for processing unless a worker is already taking
+	 * care of it
+	 *
+	 * @param lane The lane to schedule
+	 */
+	private void scheduleLane(Lane lane) {
+		if (lane.scheduled.compareAndSet(false, true))
+			submit(new LaneTask(lane));
+	}
+
+	/**
+	 * Submits the given fork/join task. If the current thread is one of our
+	 * workers, the task is pushed onto the worker's own deque. Otherwise, it is
+	 * submitted to the pool.
+	 *
+	 * @param task The task to submit
+	 */
+	private void submit(ForkJoinTask<?> task) {
+		Thread curThread = Thread.currentThread();
+		if (curThread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) curThread).getPool() == pool)
+			task.fork();
+		else {
+			try {
+				pool.execute(task);
+			} catch (RejectedExecutionException ex) {
+				// We expect the solver to be aborted, just terminate silently
+				// now
+				this.interrupted = true;
+			}
+		}
+	}
+
+	/**
+	 * Runs the given task and updates the task counters
+	 *
+	 * @param r The task to run
+	 */
+	private void runTask(Runnable r) {
+		Throwable t = null;
+		try {
+			r.run();
+		} catch (Throwable ex) {
+			t = ex;
+		} finally {
+			if (waiting != null)
+				waiting.remove(r);
+			afterExecute(r, t);
+		}
+	}
+
+	@Override
+	public void interrupt() {
+		super.interrupt();
+		clearPendingTasks();
+	}
+
+	@Override
+	public void shutdown() {
+		super.shutdown();
+		pool.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> tasks = super.shutdownNow();
+		pool.shutdownNow();
+		clearPendingTasks();
+		return tasks;
+	}
+
+	/**
+	 * Removes all tasks that are still waiting for execution
+	 */
+	private void clearPendingTasks() {
+		for (Lane lane : lanes.values())
+			lane.tasks.clear();
+		lanes.clear();
+		if (waiting != null)
+			waiting.clear();
+	}
+
+	@Override
+	public boolean isTerminating() {
+		return super.isTerminating() || pool.isTerminating();
+	}
+
+	/**
+	 * Gets the number of worker threads in the fork/join pool. Idle workers are
+	 * only retired after a keep-alive time, so this is a close estimate of the
+	 * largest number of workers that have been running at the same time.
+	 */
+	@Override
+	public int getLargestPoolSize() {
+		return Math.max(super.getLargestPoolSize(), pool.getPoolSize());
+	}
+
+	/**
+	 * Gets the number of tasks that are waiting in the fork/join pool. Tasks that
+	 * wait in a lane which is already scheduled are not counted, so this is only a
+	 * lower bound.
+	 */
+	@Override
+	public long getPendingTaskCount() {
+		return pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount();
+	}
+
+	/**
+	 * Gets the number of tasks that other workers have stolen from the worker that
+	 * has scheduled them. This is only an estimate.
+	 *
+	 * @return The estimated number of stolen tasks
+	 */
+	public long getStealCount() {
+		return pool.getStealCount();
+	}
+
+}
@@ -0,0 +1,88 @@
+package soot.jimple.infoflow.solver.fastSolver;
+
+import heros.solver.PathEdge;
+import soot.jimple.infoflow.collect.ConcurrentIdMap;
+import soot.jimple.infoflow.collect.StripedLongKeyedMap;
+
+/**
+ * Jump function store that assigns integer IDs to nodes and data flow facts and
+ * encodes the triple (source fact, target node, target fact) as a primitive
+ * key. The jump functions are kept in a striped, open-addressing table, so that
+ * no objects need to be allocated per jump function. Only the target fact is
+ * retained per jump function, because the solver needs it for registering
+ * neighbors.
+ *
+ * Every ID takes a full 32 bits in the key, so the store can hold as many nodes
+ * and facts as there are positive integers. If the IDs run out nevertheless,
+ * the store fails with an {@link IllegalStateException} rather than silently
+ * degrading. The IDs are kept for the lifetime of the store. A jump function
+ * must never be forgotten while the solver runs, and the table holds the
+ * target facts anyway.
+ *
+ * @param <N> The type of nodes in the interprocedural control flow graph
+ * @param <D> The type of data flow facts
+ */
+public class CompactJumpFunctions<N, D> implements IJumpFunctions<N, D> {
+
+	/**
+	 * Estimated heap size of an entry in one of the ID maps
+	 */
+	private static final int BYTES_PER_ID = 56;
+
+	/**
+	 * Heap size of a single slot in the table, i.e., the two key parts and the
+	 * value reference
+	 */
+	private static final int BYTES_PER_SLOT = 16;
+
+	private final ConcurrentIdMap<D> factIds;
+	private final ConcurrentIdMap<N> nodeIds;
+	private final StripedLongKeyedMap<D> table;
+
+	/**
+	 * Creates a new instance of the {@link CompactJumpFunctions} class
+	 */
+	public CompactJumpFunctions() {
+		this(Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	/**
+	 * Creates a new instance of the {@link CompactJumpFunctions} class
+	 *
+	 * @param numStripes The number of lock stripes in the jump function table
+	 */
+	public CompactJumpFunctions(int numStripes) {
+		this.table = new StripedLongKeyedMap<>(numStripes);
+		this.factIds = new ConcurrentIdMap<>(numStripes, true);
+		this.nodeIds = new ConcurrentIdMap<>(numStripes, true);
+	}
+
+	@Override
+	public D addFunction(PathEdge<N, D> edge) {
+		final int sourceId = factIds.getOrCreateId(edge.factAtSource());
+		final int nodeId = nodeIds.getOrCreateId(edge.getTarget());
+		final int targetId = factIds.getOrCreateId(edge.factAtTarget());
+
+		// IDs start at 1, so the key is never 0
+		final long key = ((long) sourceId << 32) | nodeId;
+		return table.putIfAbsent(key, targetId, edge.factAtTarget());
+	}
+
+	@Override
+	public int size() {
+		return table.size();
+	}
+
+	@Override
+	public void clear() {
+		table.clear();
+		factIds.clear();
+		nodeIds.clear();
+	}
+
+	@Override
+	public long getEstimatedMemoryConsumption() {
+		return table.getCapacity() * BYTES_PER_SLOT + (long) (factIds.size() + nodeIds.size()) * BYTES_PER_ID;
+	}
+
+}
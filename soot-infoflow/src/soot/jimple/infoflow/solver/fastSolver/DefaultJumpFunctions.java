@@ -0,0 +1,44 @@
+package soot.jimple.infoflow.solver.fastSolver;
+
+import heros.solver.PathEdge;
+import soot.jimple.infoflow.collect.MyConcurrentHashMap;
+
+/**
+ * Jump function store that keeps one {@link PathEdge} object per jump function
+ * in a concurrent hash map
+ *
+ * @param <N> The type of nodes in the interprocedural control flow graph
+ * @param <D> The type of data flow facts
+ */
+public class DefaultJumpFunctions<N, D> implements IJumpFunctions<N, D> {
+
+	/**
+	 * Estimated heap size of a single jump function in this store, consisting of
+	 * the path edge, the hash map node and the share of the hash table
+	 */
+	public static final int BYTES_PER_EDGE = 72;
+
+	private MyConcurrentHashMap<PathEdge<N, D>, D> jumpFunctions = new MyConcurrentHashMap<>();
+
+	@Override
+	public D addFunction(PathEdge<N, D> edge) {
+		return jumpFunctions.putIfAbsent(edge, edge.factAtTarget());
+	}
+
+	@Override
+	public int size() {
+		return jumpFunctions.size();
+	}
+
+	@Override
+	public void clear() {
+		// A cleared hash map keeps its table, so we need a new one
+		jumpFunctions = new MyConcurrentHashMap<>();
+	}
+
+	@Override
+	public long getEstimatedMemoryConsumption() {
+		return (long) jumpFunctions.size() * BYTES_PER_EDGE;
+	}
+
+}
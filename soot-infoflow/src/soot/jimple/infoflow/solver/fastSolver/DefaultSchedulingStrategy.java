@@ -135,6 +135,54 @@ public class DefaultSchedulingStrategy<N, D extends FastSolverLinkedNode<D, N>,
 
 	};
 
+	/**
+	 * Strategy that collects all edges that a task produces for the same source
+	 * abstraction and target statement, and schedules them together in a single
+	 * task
+	 */
+	public final ISchedulingStrategy<N, D> EACH_EDGE_BATCHED = new ISchedulingStrategy<N, D>() {
+
+		@Override
+		public void propagateInitialSeeds(D sourceVal, N target, D targetVal, N relatedCallSite,
+				boolean isUnbalancedReturn) {
+			solver.propagate(sourceVal, target, targetVal, relatedCallSite, isUnbalancedReturn,
+					ScheduleTarget.EXECUTOR);
+		}
+
+		@Override
+		public void propagateNormalFlow(D sourceVal, N target, D targetVal, N relatedCallSite,
+				boolean isUnbalancedReturn) {
+			solver.propagate(sourceVal, target, targetVal, relatedCallSite, isUnbalancedReturn, ScheduleTarget.BATCH);
+		}
+
+		@Override
+		public void propagateCallFlow(D sourceVal, N target, D targetVal, N relatedCallSite,
+				boolean isUnbalancedReturn) {
+			// Each callee-side self-loop has its own source abstraction, so there is
+			// nothing to batch
+			solver.propagate(sourceVal, target, targetVal, relatedCallSite, isUnbalancedReturn,
+					ScheduleTarget.EXECUTOR);
+		}
+
+		@Override
+		public void propagateCallToReturnFlow(D sourceVal, N target, D targetVal, N relatedCallSite,
+				boolean isUnbalancedReturn) {
+			solver.propagate(sourceVal, target, targetVal, relatedCallSite, isUnbalancedReturn, ScheduleTarget.BATCH);
+		}
+
+		@Override
+		public void propagateReturnFlow(D sourceVal, N target, D targetVal, N relatedCallSite,
+				boolean isUnbalancedReturn) {
+			solver.propagate(sourceVal, target, targetVal, relatedCallSite, isUnbalancedReturn, ScheduleTarget.BATCH);
+		}
+
+		@Override
+		public boolean isBatching() {
+			return true;
+		}
+
+	};
+
 	/**
 	 * Creates a new instance of the {@link DefaultSchedulingStrategy} class
 	 * 
@@ -13,13 +13,14 @@
  ******************************************************************************/
 package soot.jimple.infoflow.solver.fastSolver;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -41,18 +42,21 @@ import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
-import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
 import soot.jimple.infoflow.solver.AbstractIFDSSolver;
+import soot.jimple.infoflow.solver.ConcurrentSummaryStore;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.IStrategyBasedParallelSolver;
 import soot.jimple.infoflow.solver.IncomingRecord;
+import soot.jimple.infoflow.solver.executors.IAffineTask;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
+import soot.jimple.infoflow.solver.metrics.CountingFlowFunctions;
+import soot.jimple.infoflow.solver.metrics.IMeteredSolver;
+import soot.jimple.infoflow.solver.metrics.SolverMetrics;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
-import soot.util.ConcurrentHashMultiMap;
 
 /**
  * A solver for an {@link IFDSTabulationProblem}. This solver is not based on
@@ -66,7 +70,8 @@ import soot.util.ConcurrentHashMultiMap;
  * @see IFDSTabulationProblem
  */
 public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiInterproceduralCFG<N, SootMethod>>
-		extends AbstractIFDSSolver<N, D> implements IMemoryBoundedSolver, IStrategyBasedParallelSolver<N, D> {
+		extends AbstractIFDSSolver<N, D>
+		implements IMemoryBoundedSolver, IStrategyBasedParallelSolver<N, D>, IMeteredSolver {
 
 	public enum ScheduleTarget {
 		/**
@@ -77,7 +82,15 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		/**
 		 * Run possibly on another executor
 		 */
-		EXECUTOR;
+		EXECUTOR,
+
+		/**
+		 * Collect the edge and schedule it together with all other edges that the
+		 * current task produces for the same source abstraction and target statement.
+		 * Falls back to {@link #EXECUTOR} if the edge is not produced inside a task of
+		 * the same solver.
+		 */
+		BATCH;
 	}
 
 	public static CacheBuilder<Object, Object> DEFAULT_CACHE_BUILDER = CacheBuilder.newBuilder()
@@ -94,23 +107,23 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected int numThreads;
 
 	@SynchronizedBy("thread safe data structure, consistent locking when used")
-	protected MyConcurrentHashMap<PathEdge<N, D>, D> jumpFunctions = new MyConcurrentHashMap<PathEdge<N, D>, D>();
+	protected IJumpFunctions<N, D> jumpFunctions = new DefaultJumpFunctions<N, D>();
 
 	@SynchronizedBy("thread safe data structure, only modified internally")
 	protected final I icfg;
 
 	// stores summaries that were queried before they were computed
 	// see CC 2010 paper by Naeem, Lhotak and Rodriguez
-	@SynchronizedBy("consistent lock on 'incoming'")
-	protected final MyConcurrentHashMap<Pair<SootMethod, D>, Map<EndSummary<N, D>, EndSummary<N, D>>> endSummary = new MyConcurrentHashMap<>();
+	@SynchronizedBy("lock-free append-only record lists")
+	protected final ConcurrentSummaryStore<Pair<SootMethod, D>, EndSummary<N, D>> endSummary = new ConcurrentSummaryStore<>();
 
 	// edges going along calls
 	// see CC 2010 paper by Naeem, Lhotak and Rodriguez
-	@SynchronizedBy("consistent lock on field")
-	protected final ConcurrentHashMultiMap<Pair<SootMethod, D>, IncomingRecord<N, D>> incoming = new ConcurrentHashMultiMap<>();
+	@SynchronizedBy("lock-free append-only record lists")
+	protected final ConcurrentSummaryStore<Pair<SootMethod, D>, IncomingRecord<N, D>> incoming = new ConcurrentSummaryStore<>();
 
 	@DontSynchronize("stateless")
-	protected final FlowFunctions<N, D, SootMethod> flowFunctions;
+	protected FlowFunctions<N, D, SootMethod> flowFunctions;
 
 	@DontSynchronize("only used by single thread")
 	protected final Map<N, Set<D>> initialSeeds;
@@ -124,6 +137,16 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	@DontSynchronize("readOnly")
 	protected final FlowFunctionCache<N, D, SootMethod> ffCache;
 
+	// counts the flow functions that were not found in the cache
+	@DontSynchronize("readOnly")
+	protected final CountingFlowFunctions<N, D, SootMethod> ffCacheMisses;
+
+	@DontSynchronize("readOnly")
+	protected MethodFlowFunctionCache<N, D, SootMethod> methodFFCache = null;
+
+	@DontSynchronize("readOnly")
+	protected SolverMetrics metrics = null;
+
 	@DontSynchronize("readOnly")
 	protected final boolean followReturnsPastSeeds;
 
@@ -144,6 +167,11 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected ISchedulingStrategy<N, D> schedulingStrategy = new DefaultSchedulingStrategy<N, D, I>(
 			this).EACH_EDGE_INDIVIDUALLY;
 
+	// edges that the task currently running on this thread has scheduled for
+	// batched processing
+	@DontSynchronize("thread-local")
+	private final ThreadLocal<List<PathEdge<N, D>>> pendingBatch = new ThreadLocal<>();
+
 	/**
 	 * Creates a solver for the given problem, which caches flow functions and edge
 	 * functions. The solver must then be started by calling {@link #solve()}.
@@ -171,8 +199,9 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		FlowFunctions<N, D, SootMethod> flowFunctions = tabulationProblem.autoAddZero()
 				? new ZeroedFlowFunctions<N, D, SootMethod>(tabulationProblem.flowFunctions(), zeroValue)
 				: tabulationProblem.flowFunctions();
+		ffCacheMisses = new CountingFlowFunctions<>(flowFunctions);
 		if (flowFunctionCacheBuilder != null) {
-			ffCache = new FlowFunctionCache<N, D, SootMethod>(flowFunctions, flowFunctionCacheBuilder);
+			ffCache = new FlowFunctionCache<N, D, SootMethod>(ffCacheMisses, flowFunctionCacheBuilder);
 			flowFunctions = ffCache;
 		} else {
 			ffCache = null;
@@ -277,6 +306,18 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		if (killFlag != null || executor.isTerminating() || executor.isTerminated())
 			return;
 
+		// Batched edges are only collected here and scheduled once the current task
+		// is done
+		if (scheduleTarget == ScheduleTarget.BATCH) {
+			List<PathEdge<N, D>> batch = pendingBatch.get();
+			if (batch != null) {
+				batch.add(edge);
+				propagationCount++;
+				return;
+			}
+			scheduleTarget = ScheduleTarget.EXECUTOR;
+		}
+
 		IFDSSolver<N, D, I>.PathEdgeProcessingTask task = new PathEdgeProcessingTask(edge, solverId);
 		if (scheduleTarget == ScheduleTarget.EXECUTOR)
 			executor.execute(task);
@@ -286,6 +327,39 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		propagationCount++;
 	}
 
+	/**
+	 * Schedules the edges that have been collected for batched processing. All
+	 * consecutive edges with the same source abstraction and target statement are
+	 * processed together in a single task.
+	 *
+	 * @param batch The edges to schedule
+	 */
+	private void flushBatch(List<PathEdge<N, D>> batch) {
+		if (batch.isEmpty())
+			return;
+		if (killFlag != null || executor.isTerminating() || executor.isTerminated())
+			return;
+
+		int start = 0;
+		while (start < batch.size()) {
+			final PathEdge<N, D> first = batch.get(start);
+			int end = start + 1;
+			while (end < batch.size() && batch.get(end).factAtSource() == first.factAtSource()
+					&& batch.get(end).getTarget() == first.getTarget())
+				end++;
+
+			if (end - start == 1)
+				executor.execute(new PathEdgeProcessingTask(first, solverId));
+			else {
+				List<D> targetVals = new ArrayList<>(end - start);
+				for (int i = start; i < end; i++)
+					targetVals.add(batch.get(i).factAtTarget());
+				executor.execute(new PathEdgeBatchProcessingTask(first.factAtSource(), first.getTarget(), targetVals));
+			}
+			start = end;
+		}
+	}
+
 	/**
 	 * Lines 13-20 of the algorithm; processing a call site in the caller's context.
 	 *
@@ -378,6 +452,8 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 			SootMethod sCalledProcN, D d3) {
 		// line 15.2
 		Set<EndSummary<N, D>> endSumm = endSummary(sCalledProcN, d3);
+		if (metrics != null)
+			metrics.onEndSummaryLookup(endSumm == null ? 0 : endSumm.size());
 
 		// still line 15.2 of Naeem/Lhotak/Rodriguez
 		// for each already-queried exit value <eP,d4> reachable
@@ -466,6 +542,8 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		if (!addEndSummary(methodThatNeedsSummary, d1, n, d2))
 			return;
 		Set<IncomingRecord<N, D>> inc = incoming(d1, methodThatNeedsSummary);
+		if (metrics != null)
+			metrics.onExitProcessed(inc == null ? 0 : inc.size());
 
 		// for each incoming call edge already processed
 		// (see processCall(..))
@@ -659,22 +737,19 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	 * @see PathEdge
 	 */
 	public D addFunction(PathEdge<N, D> edge) {
-		return jumpFunctions.putIfAbsent(edge, edge.factAtTarget());
+		return jumpFunctions.addFunction(edge);
 	}
 
 	protected Set<EndSummary<N, D>> endSummary(SootMethod m, D d3) {
-		Map<EndSummary<N, D>, EndSummary<N, D>> map = endSummary.get(new Pair<>(m, d3));
-		return map == null ? null : map.keySet();
+		return endSummary.get(new Pair<>(m, d3));
 	}
 
 	protected boolean addEndSummary(SootMethod m, D d1, N eP, D d2) {
 		if (d1 == zeroValue)
 			return true;
 
-		Map<EndSummary<N, D>, EndSummary<N, D>> summaries = endSummary.putIfAbsentElseGet(new Pair<>(m, d1),
-				() -> new ConcurrentHashMap<>());
 		EndSummary<N, D> newSummary = new EndSummary<>(eP, d2, d1);
-		EndSummary<N, D> existingSummary = summaries.putIfAbsent(newSummary, newSummary);
+		EndSummary<N, D> existingSummary = endSummary.putIfAbsent(new Pair<>(m, d1), newSummary);
 		if (existingSummary != null) {
 			existingSummary.calleeD1.addNeighbor(d2);
 			return false;
@@ -723,14 +798,78 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 
 	public void printStats() {
 		if (logger.isDebugEnabled()) {
-			if (ffCache != null)
+			if (methodFFCache != null)
+				methodFFCache.printStats();
+			else if (ffCache != null)
 				ffCache.printStats();
 		} else {
 			logger.info("No statistics were collected, as DEBUG is disabled.");
 		}
 	}
 
-	protected class PathEdgeProcessingTask extends LocalWorklistTask {
+	/**
+	 * Processes the given path edge according to the type of its target statement
+	 *
+	 * @param edge The edge to process
+	 */
+	protected void dispatchEdge(PathEdge<N, D> edge) {
+		final N target = edge.getTarget();
+		if (metrics != null)
+			metrics.onEdgeProcessed(icfg.getMethodOf(target));
+		if (icfg.isCallStmt(target)) {
+			processCall(edge);
+		} else {
+			// note that some statements, such as "throw" may be
+			// both an exit statement and a "normal" statement
+			if (icfg.isExitStmt(target))
+				processExit(edge);
+			if (!icfg.getSuccsOf(target).isEmpty())
+				processNormalFlow(edge);
+		}
+	}
+
+	/**
+	 * Task that processes a group of path edges that share the same source
+	 * abstraction and target statement
+	 */
+	protected class PathEdgeBatchProcessingTask extends LocalWorklistTask implements IAffineTask {
+
+		protected final D sourceVal;
+		protected final N target;
+		protected final List<D> targetVals;
+
+		public PathEdgeBatchProcessingTask(D sourceVal, N target, List<D> targetVals) {
+			this.sourceVal = sourceVal;
+			this.target = target;
+			this.targetVals = targetVals;
+		}
+
+		@Override
+		public void runInternal() {
+			final List<PathEdge<N, D>> batch = new ArrayList<>();
+			final List<PathEdge<N, D>> oldBatch = pendingBatch.get();
+			pendingBatch.set(batch);
+			try {
+				for (D targetVal : targetVals) {
+					// Early termination check
+					if (killFlag != null)
+						return;
+					dispatchEdge(new PathEdge<>(sourceVal, target, targetVal));
+				}
+			} finally {
+				pendingBatch.set(oldBatch);
+			}
+			flushBatch(batch);
+		}
+
+		@Override
+		public Object getAffinityKey() {
+			return icfg.getMethodOf(target);
+		}
+
+	}
+
+	protected class PathEdgeProcessingTask extends LocalWorklistTask implements IAffineTask {
 
 		protected final PathEdge<N, D> edge;
 		protected final boolean solverId;
@@ -741,17 +880,25 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 
 		public void runInternal() {
-			final N target = edge.getTarget();
-			if (icfg.isCallStmt(target)) {
-				processCall(edge);
-			} else {
-				// note that some statements, such as "throw" may be
-				// both an exit statement and a "normal" statement
-				if (icfg.isExitStmt(target))
-					processExit(edge);
-				if (!icfg.getSuccsOf(target).isEmpty())
-					processNormalFlow(edge);
+			if (!schedulingStrategy.isBatching()) {
+				dispatchEdge(edge);
+				return;
+			}
+
+			final List<PathEdge<N, D>> batch = new ArrayList<>();
+			final List<PathEdge<N, D>> oldBatch = pendingBatch.get();
+			pendingBatch.set(batch);
+			try {
+				dispatchEdge(edge);
+			} finally {
+				pendingBatch.set(oldBatch);
 			}
+			flushBatch(batch);
+		}
+
+		@Override
+		public Object getAffinityKey() {
+			return icfg.getMethodOf(edge.getTarget());
 		}
 
 		@Override
@@ -838,6 +985,14 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.killFlag = null;
 	}
 
+	@Override
+	public void releaseCaches() {
+		if (methodFFCache != null)
+			methodFFCache.invalidate();
+		else if (ffCache != null)
+			ffCache.invalidate();
+	}
+
 	@Override
 	public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
 		this.notificationListeners.add(listener);
@@ -856,9 +1011,90 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxAbstractionPathLength = maxAbstractionPathLength;
 	}
 
+	/**
+	 * Replaces the default flow function cache with a cache that keeps the flow
+	 * functions of each method together and evicts complete methods when it runs
+	 * full. This method must be called before the solver is started.
+	 *
+	 * @param maxMethods The maximum number of methods for which to cache flow
+	 *                   functions, or -1 for no limit
+	 */
+	public void enableMethodFlowFunctionCache(int maxMethods) {
+		this.methodFFCache = new MethodFlowFunctionCache<>(ffCacheMisses, icfg, maxMethods);
+		this.flowFunctions = methodFFCache;
+		if (ffCache != null)
+			ffCache.invalidate();
+	}
+
+	/**
+	 * Gets the per-method flow function cache of this solver
+	 *
+	 * @return The per-method flow function cache, or <code>null</code> if the
+	 *         solver uses the default flow function cache
+	 */
+	public MethodFlowFunctionCache<N, D, SootMethod> getMethodFlowFunctionCache() {
+		return this.methodFFCache;
+	}
+
+	@Override
+	public void setSolverMetrics(SolverMetrics metrics) {
+		this.metrics = metrics;
+
+		// Only count the flow function lookups if somebody is interested
+		FlowFunctions<N, D, SootMethod> cache = methodFFCache != null ? methodFFCache : ffCache;
+		if (cache != null) {
+			if (metrics == null)
+				this.flowFunctions = cache;
+			else {
+				CountingFlowFunctions<N, D, SootMethod> ffLookups = new CountingFlowFunctions<>(cache);
+				this.flowFunctions = ffLookups;
+				metrics.setFlowFunctionCounters(ffLookups, ffCacheMisses);
+			}
+		}
+	}
+
+	@Override
+	public SolverMetrics getSolverMetrics() {
+		return this.metrics;
+	}
+
+	@Override
+	public long getPendingTaskCount() {
+		return executor.getPendingTaskCount();
+	}
+
 	@Override
 	public void setSchedulingStrategy(ISchedulingStrategy<N, D> strategy) {
 		this.schedulingStrategy = strategy;
 	}
 
+	/**
+	 * Sets the data structure in which this solver stores its jump functions. This
+	 * method must be called before the solver is started.
+	 *
+	 * @param jumpFunctions The data structure for storing the jump functions
+	 */
+	public void setJumpFunctions(IJumpFunctions<N, D> jumpFunctions) {
+		this.jumpFunctions = jumpFunctions;
+	}
+
+	/**
+	 * Gets the number of bytes per one million jump functions that the current jump
+	 * function store saves compared to the default store. This is not a
+	 * measurement, but is computed from the estimated memory consumption of the two
+	 * stores.
+	 *
+	 * @return The number of bytes saved per one million jump functions, or -1 if
+	 *         this solver uses the default store or has no jump functions
+	 */
+	public long getEstimatedJumpFunctionMemorySavedPerMillionEdges() {
+		if (jumpFunctions instanceof DefaultJumpFunctions)
+			return -1;
+		int size = jumpFunctions.size();
+		if (size == 0)
+			return -1;
+		long saved = (long) size * DefaultJumpFunctions.BYTES_PER_EDGE - jumpFunctions.getEstimatedMemoryConsumption();
+		return Math.round(saved * (1000000d / size));
+	}
+
 }
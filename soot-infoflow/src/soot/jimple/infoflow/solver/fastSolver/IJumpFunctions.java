@@ -0,0 +1,44 @@
+package soot.jimple.infoflow.solver.fastSolver;
+
+import heros.solver.PathEdge;
+
+/**
+ * Common interface for all data structures in which the fast solver can store
+ * its jump functions
+ *
+ * @param <N> The type of nodes in the interprocedural control flow graph
+ * @param <D> The type of data flow facts
+ */
+public interface IJumpFunctions<N, D> {
+
+	/**
+	 * Records a jump function if no equivalent jump function has been recorded
+	 * before
+	 *
+	 * @param edge The edge that represents the jump function
+	 * @return The target fact of the existing jump function if there is one,
+	 *         otherwise <code>null</code>
+	 */
+	public D addFunction(PathEdge<N, D> edge);
+
+	/**
+	 * Gets the number of jump functions in this store
+	 *
+	 * @return The number of jump functions in this store
+	 */
+	public int size();
+
+	/**
+	 * Removes all jump functions from this store and releases the memory
+	 */
+	public void clear();
+
+	/**
+	 * Gets an estimate of the number of bytes that this store occupies on the heap,
+	 * not counting the data flow facts and nodes themselves
+	 *
+	 * @return The estimated memory consumption of this store in bytes
+	 */
+	public long getEstimatedMemoryConsumption();
+
+}
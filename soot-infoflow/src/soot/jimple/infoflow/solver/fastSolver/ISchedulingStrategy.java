@@ -20,4 +20,16 @@ public interface ISchedulingStrategy<N, D extends FastSolverLinkedNode<D, N>> {
 
 	public void propagateReturnFlow(D sourceVal, N target, D targetVal, N relatedCallSite, boolean isUnbalancedReturn);
 
+	/**
+	 * Gets whether this strategy schedules edges for batched processing. If so,
+	 * the solver collects the edges that a task produces and schedules them once
+	 * the task has completed.
+	 * 
+	 * @return True if this strategy schedules edges for batched processing,
+	 *         otherwise false
+	 */
+	public default boolean isBatching() {
+		return false;
+	}
+
 }
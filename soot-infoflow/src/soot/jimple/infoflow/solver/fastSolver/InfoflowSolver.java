@@ -17,7 +17,6 @@ import heros.FlowFunction;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
-import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.solver.*;
@@ -123,11 +122,13 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, IInfoflowCFG>
 
 	@Override
 	public void cleanup() {
-		this.jumpFunctions = new MyConcurrentHashMap<PathEdge<Unit, Abstraction>, Abstraction>();
+		this.jumpFunctions.clear();
 		this.incoming.clear();
 		this.endSummary.clear();
 		if (this.ffCache != null)
 			this.ffCache.invalidate();
+		if (this.methodFFCache != null)
+			this.methodFFCache.invalidate();
 	}
 
 	@Override
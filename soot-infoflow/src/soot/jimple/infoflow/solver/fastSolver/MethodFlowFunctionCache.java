@@ -0,0 +1,413 @@
+package soot.jimple.infoflow.solver.fastSolver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import heros.FlowFunction;
+import heros.FlowFunctions;
+import heros.InterproceduralCFG;
+
+/**
+ * Flow function cache that keeps the flow functions of each method together.
+ * When a method is first accessed, its statements are numbered. The flow
+ * functions are then stored in arrays indexed by the number of the statement at
+ * which they start, so that a lookup only needs to scan the few flow functions
+ * of a single statement. Lookups do not take any locks.
+ *
+ * In contrast to a cache with soft values, the memory consumption of this
+ * cache is predictable. If a maximum number of methods is configured, the
+ * methods that have not been used for the longest time are evicted as a whole.
+ * The usage order is kept in an access-ordered {@link LinkedHashMap}. To keep
+ * lookups free of locks, a method is only moved to the end of that order on its
+ * first use after another method has been added to the cache.
+ *
+ * Statements and methods are compared by identity.
+ *
+ * @param <N> The type of statements
+ * @param <D> The type of data flow facts
+ * @param <M> The type of methods
+ */
+public class MethodFlowFunctionCache<N, D, M> implements FlowFunctions<N, D, M> {
+
+	private static final Logger logger = LoggerFactory.getLogger(MethodFlowFunctionCache.class);
+
+	/**
+	 * Identity map from the statements of a method to their numbers
+	 */
+	private static class UnitIndex<N> {
+
+		private final Object[] keys;
+		private final int[] values;
+		private final int mask;
+
+		private UnitIndex(List<N> units) {
+			int capacity = Integer.highestOneBit(Math.max(2, units.size() * 2 - 1)) << 1;
+			this.keys = new Object[capacity];
+			this.values = new int[capacity];
+			this.mask = capacity - 1;
+			for (int i = 0; i < units.size(); i++) {
+				int slot = System.identityHashCode(units.get(i)) & mask;
+				while (keys[slot] != null)
+					slot = (slot + 1) & mask;
+				keys[slot] = units.get(i);
+				values[slot] = i;
+			}
+		}
+
+		private int get(Object unit) {
+			int slot = System.identityHashCode(unit) & mask;
+			Object key;
+			while ((key = keys[slot]) != null) {
+				if (key == unit)
+					return values[slot];
+				slot = (slot + 1) & mask;
+			}
+			return -1;
+		}
+
+	}
+
+	/**
+	 * The cached flow functions of a single method. Each slot holds a flat array
+	 * of keys and flow functions, which is replaced as a whole when a new flow
+	 * function is added.
+	 */
+	private static class MethodEntry<N> {
+
+		private final UnitIndex<N> index;
+		private final AtomicReferenceArray<Object[]> normal;
+		private final AtomicReferenceArray<Object[]> call;
+		private final AtomicReferenceArray<Object[]> ret;
+		private final AtomicReferenceArray<Object[]> callToReturn;
+		private volatile long lastUsed;
+
+		private MethodEntry(List<N> units, long epoch) {
+			this.index = new UnitIndex<>(units);
+			this.normal = new AtomicReferenceArray<>(units.size());
+			this.call = new AtomicReferenceArray<>(units.size());
+			this.ret = new AtomicReferenceArray<>(units.size());
+			this.callToReturn = new AtomicReferenceArray<>(units.size());
+			this.lastUsed = epoch;
+		}
+
+	}
+
+	private final FlowFunctions<N, D, M> delegate;
+	private final InterproceduralCFG<N, M> icfg;
+	private final int maxMethods;
+
+	private final Map<M, MethodEntry<N>> methods = new ConcurrentHashMap<>();
+	private final LinkedHashMap<M, MethodEntry<N>> usageOrder;
+	private final AtomicLong epoch = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a new instance of the {@link MethodFlowFunctionCache} class
+	 *
+	 * @param delegate   The flow function factory that creates the flow functions
+	 *                   that are not yet in the cache
+	 * @param icfg       The interprocedural control flow graph
+	 * @param maxMethods The maximum number of methods for which to keep flow
+	 *                   functions, or -1 for no limit
+	 */
+	public MethodFlowFunctionCache(FlowFunctions<N, D, M> delegate, InterproceduralCFG<N, M> icfg, int maxMethods) {
+		this.delegate = delegate;
+		this.icfg = icfg;
+		this.maxMethods = maxMethods;
+		this.usageOrder = maxMethods > 0 ? new LinkedHashMap<>(16, 0.75f, true) : null;
+	}
+
+	@Override
+	public FlowFunction<D> getNormalFlowFunction(N curr, N succ) {
+		MethodEntry<N> entry = getEntry(curr);
+		int id = entry == null ? -1 : entry.index.get(curr);
+		if (id >= 0) {
+			FlowFunction<D> ff = find(entry.normal.get(id), succ, null, null, 2);
+			if (ff != null) {
+				hits.increment();
+				return ff;
+			}
+		}
+
+		misses.increment();
+		FlowFunction<D> ff = delegate.getNormalFlowFunction(curr, succ);
+		return id < 0 ? ff : store(entry.normal, id, succ, null, null, 2, ff);
+	}
+
+	@Override
+	public FlowFunction<D> getCallFlowFunction(N callStmt, M destinationMethod) {
+		MethodEntry<N> entry = getEntry(callStmt);
+		int id = entry == null ? -1 : entry.index.get(callStmt);
+		if (id >= 0) {
+			FlowFunction<D> ff = find(entry.call.get(id), destinationMethod, null, null, 2);
+			if (ff != null) {
+				hits.increment();
+				return ff;
+			}
+		}
+
+		misses.increment();
+		FlowFunction<D> ff = delegate.getCallFlowFunction(callStmt, destinationMethod);
+		return id < 0 ? ff : store(entry.call, id, destinationMethod, null, null, 2, ff);
+	}
+
+	@Override
+	public FlowFunction<D> getReturnFlowFunction(N callSite, M calleeMethod, N exitStmt, N returnSite) {
+		// Unbalanced returns have no call site
+		MethodEntry<N> entry = callSite == null ? null : getEntry(callSite);
+		int id = entry == null ? -1 : entry.index.get(callSite);
+		if (id >= 0) {
+			FlowFunction<D> ff = find(entry.ret.get(id), calleeMethod, exitStmt, returnSite, 4);
+			if (ff != null) {
+				hits.increment();
+				return ff;
+			}
+		}
+
+		misses.increment();
+		FlowFunction<D> ff = delegate.getReturnFlowFunction(callSite, calleeMethod, exitStmt, returnSite);
+		return id < 0 ? ff : store(entry.ret, id, calleeMethod, exitStmt, returnSite, 4, ff);
+	}
+
+	@Override
+	public FlowFunction<D> getCallToReturnFlowFunction(N callSite, N returnSite) {
+		MethodEntry<N> entry = getEntry(callSite);
+		int id = entry == null ? -1 : entry.index.get(callSite);
+		if (id >= 0) {
+			FlowFunction<D> ff = find(entry.callToReturn.get(id), returnSite, null, null, 2);
+			if (ff != null) {
+				hits.increment();
+				return ff;
+			}
+		}
+
+		misses.increment();
+		FlowFunction<D> ff = delegate.getCallToReturnFlowFunction(callSite, returnSite);
+		return id < 0 ? ff : store(entry.callToReturn, id, returnSite, null, null, 2, ff);
+	}
+
+	/**
+	 * Gets the cache entry for the method that contains the given statement, and
+	 * creates it if necessary
+	 *
+	 * @param unit The statement for which to get the cache entry
+	 * @return The cache entry for the method that contains the given statement,
+	 *         or <code>null</code> if the method is unknown
+	 */
+	private MethodEntry<N> getEntry(N unit) {
+		M method = icfg.getMethodOf(unit);
+		if (method == null)
+			return null;
+
+		MethodEntry<N> entry = methods.get(method);
+		if (entry == null) {
+			entry = methods.computeIfAbsent(method, m -> new MethodEntry<>(collectUnits(m), epoch.incrementAndGet()));
+			if (usageOrder != null)
+				addToUsageOrder(method, entry);
+		} else {
+			// Only write the time stamp if it has changed to avoid needless cache line
+			// invalidations
+			long now = epoch.get();
+			if (entry.lastUsed != now) {
+				entry.lastUsed = now;
+				if (usageOrder != null) {
+					synchronized (usageOrder) {
+						usageOrder.get(method);
+					}
+				}
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Registers a new cache entry as the most recently used one, and evicts the
+	 * methods that have not been used for the longest time if the cache is full
+	 *
+	 * @param method The method to which the new cache entry belongs
+	 * @param entry  The new cache entry
+	 */
+	private void addToUsageOrder(M method, MethodEntry<N> entry) {
+		synchronized (usageOrder) {
+			// The entry may already have been registered by another thread, or even
+			// have been evicted again
+			if (methods.get(method) != entry || usageOrder.containsKey(method))
+				return;
+			usageOrder.put(method, entry);
+
+			Iterator<Map.Entry<M, MethodEntry<N>>> it = usageOrder.entrySet().iterator();
+			while (usageOrder.size() > maxMethods && it.hasNext()) {
+				Map.Entry<M, MethodEntry<N>> eldest = it.next();
+				it.remove();
+				if (methods.remove(eldest.getKey(), eldest.getValue()))
+					evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Collects all statements of the given method that are reachable from its
+	 * start points
+	 *
+	 * @param method The method for which to collect the statements
+	 * @return The statements of the given method
+	 */
+	private List<N> collectUnits(M method) {
+		List<N> units = new ArrayList<>();
+		Deque<N> workList = new ArrayDeque<>(icfg.getStartPointsOf(method));
+		Set<N> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		while (!workList.isEmpty()) {
+			N unit = workList.poll();
+			if (visited.add(unit)) {
+				units.add(unit);
+				workList.addAll(icfg.getSuccsOf(unit));
+			}
+		}
+		return units;
+	}
+
+	/**
+	 * Searches for a flow function in the given slot
+	 *
+	 * @param slot   The flat array of keys and flow functions
+	 * @param k1     The first key
+	 * @param k2     The second key, only used if the stride is larger than 2
+	 * @param k3     The third key, only used if the stride is larger than 2
+	 * @param stride The number of array elements per flow function
+	 * @return The flow function with the given keys, or <code>null</code> if there
+	 *         is no such flow function in the slot
+	 */
+	@SuppressWarnings("unchecked")
+	private static <D> FlowFunction<D> find(Object[] slot, Object k1, Object k2, Object k3, int stride) {
+		if (slot == null)
+			return null;
+		for (int i = 0; i < slot.length; i += stride) {
+			if (slot[i] == k1 && (stride == 2 || (slot[i + 1] == k2 && slot[i + 2] == k3)))
+				return (FlowFunction<D>) slot[i + stride - 1];
+		}
+		return null;
+	}
+
+	/**
+	 * Adds a flow function to the given slot unless another thread has already
+	 * added a flow function for the same keys
+	 *
+	 * @param slots  The slots of the method
+	 * @param id     The number of the statement
+	 * @param k1     The first key
+	 * @param k2     The second key, only used if the stride is larger than 2
+	 * @param k3     The third key, only used if the stride is larger than 2
+	 * @param stride The number of array elements per flow function
+	 * @param ff     The flow function to add
+	 * @return The flow function that is in the cache for the given keys
+	 */
+	private static <D> FlowFunction<D> store(AtomicReferenceArray<Object[]> slots, int id, Object k1, Object k2,
+			Object k3, int stride, FlowFunction<D> ff) {
+		while (true) {
+			Object[] oldSlot = slots.get(id);
+			FlowFunction<D> existing = find(oldSlot, k1, k2, k3, stride);
+			if (existing != null)
+				return existing;
+
+			int pos = oldSlot == null ? 0 : oldSlot.length;
+			Object[] newSlot = oldSlot == null ? new Object[stride] : Arrays.copyOf(oldSlot, pos + stride);
+			newSlot[pos] = k1;
+			if (stride > 2) {
+				newSlot[pos + 1] = k2;
+				newSlot[pos + 2] = k3;
+			}
+			newSlot[pos + stride - 1] = ff;
+			if (slots.compareAndSet(id, oldSlot, newSlot))
+				return ff;
+		}
+	}
+
+	/**
+	 * Removes all flow functions from the cache
+	 */
+	public void invalidate() {
+		if (usageOrder != null) {
+			synchronized (usageOrder) {
+				usageOrder.clear();
+				methods.clear();
+			}
+		} else
+			methods.clear();
+	}
+
+	/**
+	 * Gets the number of flow function requests that were answered from the cache
+	 *
+	 * @return The number of cache hits
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of flow function requests for which the flow function had to
+	 * be created
+	 *
+	 * @return The number of cache misses
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Gets the number of methods that were evicted from the cache
+	 *
+	 * @return The number of evicted methods
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Gets the share of flow function requests that were answered from the cache
+	 *
+	 * @return The cache hit rate between 0 and 1, or -1 if there were no requests
+	 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? -1 : (double) h / total;
+	}
+
+	/**
+	 * Gets the number of methods for which flow functions are cached
+	 *
+	 * @return The number of cached methods
+	 */
+	public int getMethodCount() {
+		return methods.size();
+	}
+
+	/**
+	 * Writes the cache statistics to the log
+	 */
+	public void printStats() {
+		logger.debug("Method flow function cache: {} hits, {} misses, {} methods cached, {} methods evicted",
+				getHitCount(), getMissCount(), getMethodCount(), getEvictionCount());
+	}
+
+}
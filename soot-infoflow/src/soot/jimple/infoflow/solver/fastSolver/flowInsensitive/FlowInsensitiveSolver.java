@@ -808,6 +808,12 @@ public class FlowInsensitiveSolver<N extends Unit, D extends FastSolverLinkedNod
 		this.killFlag = null;
 	}
 
+	@Override
+	public void releaseCaches() {
+		if (ffCache != null)
+			ffCache.invalidate();
+	}
+
 	@Override
 	public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
 		this.notificationListeners.add(listener);
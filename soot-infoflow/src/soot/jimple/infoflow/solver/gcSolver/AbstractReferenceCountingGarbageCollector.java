@@ -1,14 +1,27 @@
 package soot.jimple.infoflow.solver.gcSolver;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import heros.solver.PathEdge;
 import soot.SootMethod;
+import soot.jimple.infoflow.AnalysisPhase;
 import soot.jimple.infoflow.collect.ConcurrentCountingMap;
 import soot.jimple.infoflow.collect.ConcurrentHashSet;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.threading.ThreadBudget;
 import soot.jimple.infoflow.util.ExtendedAtomicInteger;
+import soot.jimple.infoflow.util.ThreadUtils;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 import soot.util.ConcurrentHashMultiMap;
 
@@ -23,10 +36,10 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D, A> extends
 
 	protected ConcurrentCountingMap<A> jumpFnCounter = new ConcurrentCountingMap<>();
 	protected final Set<A> gcScheduleSet = new ConcurrentHashSet<>();
-	protected final AtomicInteger gcedAbstractions = new AtomicInteger();
-	protected final AtomicInteger gcedEdges = new AtomicInteger();
+	protected final LongAdder gcedAbstractions = new LongAdder();
+	protected final LongAdder gcedEdges = new LongAdder();
 	protected final ExtendedAtomicInteger edgeCounterForThreshold = new ExtendedAtomicInteger();
-	protected GarbageCollectionTrigger trigger = GarbageCollectionTrigger.Immediate;
+	protected volatile GarbageCollectionTrigger trigger = GarbageCollectionTrigger.Immediate;
 	protected GarbageCollectorPeerGroup<A> peerGroup = null;
 	protected boolean checkChangeCounter = false;
 
@@ -43,6 +56,36 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D, A> extends
 	 */
 	protected int edgeThreshold = 0;
 
+	/**
+	 * The minimum number of candidates for which it is worthwhile to split a
+	 * collection cycle into several partitions
+	 */
+	private static final int MIN_PARALLEL_CANDIDATES = 64;
+
+	/**
+	 * The number of threads that process the partitions of a collection cycle
+	 */
+	protected int parallelism = 1;
+	/**
+	 * The maximum time in milliseconds that a single collection cycle may take, or
+	 * 0 for no limit. Candidates that have not been processed when the budget is
+	 * exhausted remain scheduled for the next cycle.
+	 */
+	protected long pauseBudgetMillis = 0;
+	/**
+	 * The thread budget of the analysis, or <code>null</code> if the number of
+	 * threads is only limited by the parallelism
+	 */
+	protected ThreadBudget threadBudget = null;
+
+	private final ReentrantLock cycleLock = new ReentrantLock();
+	private ExecutorService partitionExecutor = null;
+	private int partitionThreadCount = 0;
+
+	private final LongAdder collectionCycles = new LongAdder();
+	private final LongAdder interruptedCycles = new LongAdder();
+	private final LongAdder collectionNanos = new LongAdder();
+
 	public AbstractReferenceCountingGarbageCollector(BiDiInterproceduralCFG<N, SootMethod> icfg,
 			ConcurrentHashMultiMap<A, PathEdge<N, D>> jumpFunctions,
 			IGCReferenceProvider<A> referenceProvider) {
@@ -77,9 +120,32 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D, A> extends
 	}
 
 	/**
-	 * Immediately performs garbage collection
+	 * Immediately performs garbage collection. If another thread is currently
+	 * collecting, this method waits for it to finish and then runs another cycle.
 	 */
 	protected void gcImmediate() {
+		cycleLock.lock();
+		try {
+			runCollectionCycle();
+		} finally {
+			cycleLock.unlock();
+		}
+	}
+
+	/**
+	 * Performs garbage collection unless another thread is already collecting
+	 */
+	protected void tryGcImmediate() {
+		if (cycleLock.tryLock()) {
+			try {
+				runCollectionCycle();
+			} finally {
+				cycleLock.unlock();
+			}
+		}
+	}
+
+	private void runCollectionCycle() {
 		if (gcScheduleSet != null && !gcScheduleSet.isEmpty()) {
 			// Check our various triggers for garbage collection
 			boolean gc = trigger == GarbageCollectionTrigger.Immediate;
@@ -88,37 +154,164 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D, A> extends
 
 			// Perform the garbage collection if required
 			if (gc) {
+				final long start = System.nanoTime();
+				final long deadline = pauseBudgetMillis > 0 ? start + pauseBudgetMillis * 1000000L : Long.MAX_VALUE;
+
 				onBeforeRemoveEdges();
-				for (A abst : gcScheduleSet) {
-					// Is it safe to remove this method?
-					if (peerGroup != null) {
-						if (peerGroup.hasActiveDependencies(abst))
-							continue;
-					} else if (hasActiveDependencies(abst))
-						continue;
-
-					// Get stats for the stuff we are about to remove
-					Set<PathEdge<N, D>> oldFunctions = jumpFunctions.get(abst);
-					if (oldFunctions != null) {
-						int gcedSize = oldFunctions.size();
-						gcedEdges.addAndGet(gcedSize);
-						if (trigger == GarbageCollectionTrigger.EdgeThreshold)
-							edgeCounterForThreshold.subtract(gcedSize);
-					}
+				boolean completed;
+				if (getPartitionThreadCount() > 1 && gcScheduleSet.size() >= MIN_PARALLEL_CANDIDATES)
+					completed = collectPartitions(deadline);
+				else
+					completed = collectCandidates(gcScheduleSet, deadline);
+				onAfterRemoveEdges();
 
-					// First unregister the method, then delete the edges. In case some other thread
-					// concurrently schedules a new edge, the method gets back into the GC work list
-					// this way.
-					gcScheduleSet.remove(abst);
-					if (jumpFunctions.remove(abst)) {
-						gcedAbstractions.incrementAndGet();
-						if (validateEdges)
-							oldEdges.addAll(oldFunctions);
+				collectionCycles.increment();
+				collectionNanos.add(System.nanoTime() - start);
+				if (!completed)
+					interruptedCycles.increment();
+			}
+		}
+	}
+
+	/**
+	 * Splits the current candidates into partitions that share the same partition
+	 * key and collects these partitions concurrently
+	 * 
+	 * @param deadline The time at which the collection cycle must end
+	 * @return True if all candidates have been processed, false if the pause
+	 *         budget was exhausted before
+	 */
+	private boolean collectPartitions(long deadline) {
+		final ExecutorService executor = getPartitionExecutor();
+		final int numPartitions = getPartitionThreadCount();
+		List<List<A>> partitions = new ArrayList<>(numPartitions);
+		for (int i = 0; i < numPartitions; i++)
+			partitions.add(new ArrayList<>());
+		for (A abst : gcScheduleSet)
+			partitions.get(Math.floorMod(getPartitionKey(abst).hashCode(), numPartitions)).add(abst);
+
+		List<Future<Boolean>> futures = new ArrayList<>(numPartitions);
+		for (List<A> partition : partitions) {
+			if (!partition.isEmpty())
+				futures.add(executor.submit(() -> collectCandidates(partition, deadline)));
+		}
+
+		boolean completed = true;
+		try {
+			for (Future<Boolean> future : futures)
+				completed &= future.get();
+		} catch (InterruptedException e) {
+			// We are being shut down, the partitions will finish on their own
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Garbage collection failed", e.getCause());
+		}
+		return completed;
+	}
+
+	/**
+	 * Gets the number of threads that process the partitions of a collection
+	 * cycle. The configured parallelism is limited by the number of threads that
+	 * the taint propagation may use according to the thread budget.
+	 * 
+	 * @return The number of threads per collection cycle
+	 */
+	private synchronized int getPartitionThreadCount() {
+		if (partitionThreadCount == 0) {
+			partitionThreadCount = parallelism;
+			if (threadBudget != null)
+				partitionThreadCount = Math.min(parallelism,
+						threadBudget.getThreadCount(AnalysisPhase.TAINT_PROPAGATION));
+		}
+		return partitionThreadCount;
+	}
+
+	private synchronized ExecutorService getPartitionExecutor() {
+		if (partitionExecutor == null) {
+			int threadCount = getPartitionThreadCount();
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 30, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(),
+					r -> ThreadUtils.createGenericThread(r, "IFDS Garbage Collector Worker", true));
+			executor.allowCoreThreadTimeOut(true);
+
+			// The lease of the taint propagation shuts down the executor at the latest
+			partitionExecutor = threadBudget == null ? executor
+					: threadBudget.track(AnalysisPhase.TAINT_PROPAGATION, executor);
+		}
+		return partitionExecutor;
+	}
+
+	/**
+	 * Removes the jump functions of all given candidates that no longer have
+	 * active dependencies
+	 * 
+	 * @param candidates The candidates to check
+	 * @param deadline   The time at which the collection cycle must end
+	 * @return True if all candidates have been processed, false if the pause
+	 *         budget was exhausted before
+	 */
+	private boolean collectCandidates(Iterable<A> candidates, long deadline) {
+		final boolean checkDeadline = deadline != Long.MAX_VALUE;
+		for (A abst : candidates) {
+			// Leave the remaining candidates for the next cycle
+			if (checkDeadline && System.nanoTime() > deadline)
+				return false;
+
+			// Is it safe to remove this method?
+			if (peerGroup != null) {
+				if (peerGroup.hasActiveDependencies(abst))
+					continue;
+			} else if (hasActiveDependencies(abst))
+				continue;
+
+			// Get stats for the stuff we are about to remove
+			Set<PathEdge<N, D>> oldFunctions = jumpFunctions.get(abst);
+			if (oldFunctions != null) {
+				int gcedSize = oldFunctions.size();
+				gcedEdges.add(gcedSize);
+				if (trigger == GarbageCollectionTrigger.EdgeThreshold)
+					edgeCounterForThreshold.subtract(gcedSize);
+			}
+
+			// First unregister the method, then delete the edges. In case some other thread
+			// concurrently schedules a new edge, the method gets back into the GC work list
+			// this way.
+			gcScheduleSet.remove(abst);
+			if (jumpFunctions.remove(abst)) {
+				gcedAbstractions.increment();
+				if (validateEdges) {
+					synchronized (oldEdges) {
+						oldEdges.addAll(oldFunctions);
 					}
 				}
-				onAfterRemoveEdges();
 			}
 		}
+		return true;
+	}
+
+	/**
+	 * Gets the key that decides in which partition the given candidate is
+	 * collected. Candidates with the same key are always processed by the same
+	 * thread.
+	 * 
+	 * @param abstraction The candidate
+	 * @return The partition key of the candidate
+	 */
+	protected Object getPartitionKey(A abstraction) {
+		return abstraction;
+	}
+
+	/**
+	 * Stops the threads that process the partitions of the collection cycles. The
+	 * solver calls this method when it terminates or is killed. A later collection
+	 * cycle starts new threads if necessary.
+	 */
+	public synchronized void shutdownPartitionExecutor() {
+		if (partitionExecutor != null) {
+			partitionExecutor.shutdown();
+			partitionExecutor = null;
+		}
 	}
 
 	/**
@@ -139,12 +332,95 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D, A> extends
 
 	@Override
 	public int getGcedAbstractions() {
-		return gcedAbstractions.get();
+		return gcedAbstractions.intValue();
 	}
 
 	@Override
 	public int getGcedEdges() {
-		return gcedEdges.get();
+		return gcedEdges.intValue();
+	}
+
+	/**
+	 * Gets the number of collection cycles that have been performed
+	 * 
+	 * @return The number of collection cycles
+	 */
+	public long getCollectionCycles() {
+		return collectionCycles.sum();
+	}
+
+	/**
+	 * Gets the number of collection cycles that ended because the pause budget was
+	 * exhausted
+	 * 
+	 * @return The number of interrupted collection cycles
+	 */
+	public long getInterruptedCycles() {
+		return interruptedCycles.sum();
+	}
+
+	/**
+	 * Gets the total time spent in collection cycles
+	 * 
+	 * @return The total time spent in collection cycles in milliseconds
+	 */
+	public long getCollectionTimeMillis() {
+		return collectionNanos.sum() / 1000000L;
+	}
+
+	/**
+	 * Gets the number of path edges that the collector removed per second of
+	 * collection time
+	 * 
+	 * @return The collection throughput in edges per second
+	 */
+	public long getCollectedEdgesPerSecond() {
+		long nanos = collectionNanos.sum();
+		return nanos == 0 ? 0 : (long) (gcedEdges.sum() * 1E9 / nanos);
+	}
+
+	/**
+	 * Writes the statistics of the collection cycles into the given performance
+	 * data object
+	 * 
+	 * @param performanceData The performance data object to fill
+	 */
+	public void reportTo(InfoflowPerformanceData performanceData) {
+		performanceData.addGarbageCollection(collectionCycles.sum(), gcedEdges.sum(), getCollectionTimeMillis());
+	}
+
+	/**
+	 * Sets the number of threads that process the partitions of a collection cycle
+	 * concurrently
+	 * 
+	 * @param parallelism The number of threads per collection cycle
+	 */
+	public synchronized void setParallelism(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+		this.partitionThreadCount = 0;
+	}
+
+	/**
+	 * Sets the thread budget of the analysis. The collection cycles never use more
+	 * threads than the taint propagation may use.
+	 * 
+	 * @param threadBudget The thread budget of the analysis
+	 */
+	public synchronized void setThreadBudget(ThreadBudget threadBudget) {
+		this.threadBudget = threadBudget;
+		this.partitionThreadCount = 0;
+	}
+
+	/**
+	 * Sets the maximum time that a single collection cycle may take. Candidates
+	 * that have not been processed when the budget is exhausted remain scheduled
+	 * for the next cycle.
+	 * 
+	 * @param pauseBudgetMillis The maximum duration of a collection cycle in
+	 *                          milliseconds, or 0 for no limit
+	 */
+	public void setPauseBudget(long pauseBudgetMillis) {
+		this.pauseBudgetMillis = pauseBudgetMillis;
 	}
 
 	/**
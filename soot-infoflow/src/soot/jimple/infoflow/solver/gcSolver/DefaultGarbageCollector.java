@@ -26,12 +26,13 @@ public class DefaultGarbageCollector<N, D> extends MethodLevelReferenceCountingG
 
 	@Override
 	public void gc() {
-		gcImmediate();
+		// If another solver thread is already collecting, there is no need to wait
+		tryGcImmediate();
 	}
 
 	@Override
 	public void notifySolverTerminated() {
-		// nothing to do here
+		shutdownPartitionExecutor();
 	}
 
 }
@@ -13,13 +13,13 @@
  ******************************************************************************/
 package soot.jimple.infoflow.solver.gcSolver;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -41,7 +41,6 @@ import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
-import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
 import soot.jimple.infoflow.solver.*;
@@ -49,6 +48,7 @@ import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
 import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
+import soot.jimple.infoflow.threading.ThreadBudget;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 import soot.util.ConcurrentHashMultiMap;
 
@@ -90,13 +90,13 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 
 	// stores summaries that were queried before they were computed
 	// see CC 2010 paper by Naeem, Lhotak and Rodriguez
-	@SynchronizedBy("consistent lock on 'incoming'")
-	protected final MyConcurrentHashMap<Pair<SootMethod, D>, Map<EndSummary<N, D>, EndSummary<N, D>>> endSummary = new MyConcurrentHashMap<>();
+	@SynchronizedBy("lock-free append-only record lists")
+	protected final ConcurrentSummaryStore<Pair<SootMethod, D>, EndSummary<N, D>> endSummary = new ConcurrentSummaryStore<>();
 
 	// edges going along calls
 	// see CC 2010 paper by Naeem, Lhotak and Rodriguez
-	@SynchronizedBy("consistent lock on field")
-	protected final ConcurrentHashMultiMap<Pair<SootMethod, D>, IncomingRecord<N, D>> incoming = new ConcurrentHashMultiMap<>();
+	@SynchronizedBy("lock-free append-only record lists")
+	protected final ConcurrentSummaryStore<Pair<SootMethod, D>, IncomingRecord<N, D>> incoming = new ConcurrentSummaryStore<>();
 
 	@DontSynchronize("stateless")
 	protected final FlowFunctions<N, D, SootMethod> flowFunctions;
@@ -133,6 +133,11 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	protected ISolverPeerGroup solverPeerGroup;
 
 	protected int sleepTime = 1;
+	protected int gcThreadCount = 1;
+	protected int gcPauseBudget = 0;
+	protected ThreadBudget threadBudget = null;
+	protected File referenceCacheDirectory = null;
+	protected PersistentReferenceProvider<N> persistentReferenceProvider = null;
 
 	/**
 	 * Creates a solver for the given problem, which caches flow functions and edge
@@ -185,8 +190,16 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 			return garbageCollector;
 
 //		DefaultGarbageCollector<N, D> gc = new DefaultGarbageCollector<>(icfg, jumpFunctions);
-		ThreadedGarbageCollector<N, D> gc = new ThreadedGarbageCollector<>(icfg, jumpFunctions);
+		ThreadedGarbageCollector<N, D> gc;
+		if (referenceCacheDirectory != null) {
+			persistentReferenceProvider = new PersistentReferenceProvider<>(icfg, referenceCacheDirectory);
+			gc = new ThreadedGarbageCollector<>(icfg, jumpFunctions, persistentReferenceProvider);
+		} else
+			gc = new ThreadedGarbageCollector<>(icfg, jumpFunctions);
 		gc.setSleepTimeSeconds(sleepTime);
+		gc.setParallelism(gcThreadCount);
+		gc.setPauseBudget(gcPauseBudget);
+		gc.setThreadBudget(threadBudget);
 		@SuppressWarnings("unchecked")
 		GCSolverPeerGroup<SootMethod> gcSolverGroup = (GCSolverPeerGroup<SootMethod>) solverPeerGroup;
 		gc.setPeerGroup(gcSolverGroup.getGCPeerGroup());
@@ -222,10 +235,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		logger.info(String.format("GC removed abstractions for %d edges", garbageCollector.getGcedEdges()));
 		if (garbageCollector instanceof ThreadedGarbageCollector) {
 			ThreadedGarbageCollector<N, D> threadedgc =(ThreadedGarbageCollector<N, D>) garbageCollector;
-			int fwEndSumCnt = 0;
-			for(Map<EndSummary<N, D>, EndSummary<N, D>> map: this.endSummary.values()) {
-				fwEndSumCnt += map.size();
-			}
+			long fwEndSumCnt = this.endSummary.getRecordCount();
 			int bwEndSumCnt = 0;
 			logger.info(String.format("forward end Summary size: %d", fwEndSumCnt));
 			logger.info(String.format("Recorded Maximum Path edges count is %d", threadedgc.getMaxPathEdgeCount()));
@@ -233,6 +243,10 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		@SuppressWarnings("unchecked")
 		GCSolverPeerGroup<SootMethod> gcSolverGroup = (GCSolverPeerGroup<SootMethod>) solverPeerGroup;
 		gcSolverGroup.getGCPeerGroup().notifySolverTerminated();
+
+		// Keep the references for the next analysis of the same program
+		if (persistentReferenceProvider != null)
+			persistentReferenceProvider.save();
 	}
 
 	/**
@@ -681,18 +695,15 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	}
 
 	protected Set<EndSummary<N, D>> endSummary(SootMethod m, D d3) {
-		Map<EndSummary<N, D>, EndSummary<N, D>> map = endSummary.get(new Pair<>(m, d3));
-		return map == null ? null : map.keySet();
+		return endSummary.get(new Pair<>(m, d3));
 	}
 
 	private boolean addEndSummary(SootMethod m, D d1, N eP, D d2) {
 		if (d1 == zeroValue)
 			return true;
 
-		Map<EndSummary<N, D>, EndSummary<N, D>> summaries = endSummary.putIfAbsentElseGet(new Pair<>(m, d1),
-				() -> new ConcurrentHashMap<>());
 		EndSummary<N, D> newSummary = new EndSummary<>(eP, d2, d1);
-		EndSummary<N, D> existingSummary = summaries.putIfAbsent(newSummary, newSummary);
+		EndSummary<N, D> existingSummary = endSummary.putIfAbsent(new Pair<>(m, d1), newSummary);
 		if (existingSummary != null) {
 			existingSummary.calleeD1.addNeighbor(d2);
 			return false;
@@ -839,6 +850,11 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.killFlag = reason;
 		this.executor.interrupt();
 		this.executor.shutdown();
+
+		// The garbage collector must not keep its threads once the solver is dead
+		IGarbageCollector<N, D> gc = this.garbageCollector;
+		if (gc instanceof AbstractReferenceCountingGarbageCollector)
+			((AbstractReferenceCountingGarbageCollector<N, D, ?>) gc).shutdownPartitionExecutor();
 	}
 
 	@Override
@@ -856,6 +872,24 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.killFlag = null;
 	}
 
+	@Override
+	public void releaseCaches() {
+		if (ffCache != null)
+			ffCache.invalidate();
+	}
+
+	@Override
+	public void collectGarbage() {
+		IGarbageCollector<N, D> gc = this.garbageCollector;
+		if (gc == null)
+			return;
+
+		// From now on, collect as early as possible
+		if (gc instanceof AbstractReferenceCountingGarbageCollector)
+			((AbstractReferenceCountingGarbageCollector<N, D, ?>) gc).setTrigger(GarbageCollectionTrigger.Immediate);
+		gc.gc();
+	}
+
 	@Override
 	public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
 		this.notificationListeners.add(listener);
@@ -874,6 +908,59 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxAbstractionPathLength = maxAbstractionPathLength;
 	}
 
+	/**
+	 * Sets the number of threads that the garbage collector uses for checking and
+	 * removing the candidates of a single collection cycle
+	 * 
+	 * @param gcThreadCount The number of threads per garbage collection cycle
+	 */
+	public void setGcThreadCount(int gcThreadCount) {
+		this.gcThreadCount = gcThreadCount;
+	}
+
+	/**
+	 * Sets the maximum time that a single garbage collection cycle may take
+	 * 
+	 * @param gcPauseBudget The maximum duration of a garbage collection cycle in
+	 *                      milliseconds, or 0 for no limit
+	 */
+	public void setGcPauseBudget(int gcPauseBudget) {
+		this.gcPauseBudget = gcPauseBudget;
+	}
+
+	/**
+	 * Sets the thread budget of the analysis, which limits the number of threads
+	 * that the garbage collector uses for a single collection cycle
+	 * 
+	 * @param threadBudget The thread budget of the analysis
+	 */
+	public void setThreadBudget(ThreadBudget threadBudget) {
+		this.threadBudget = threadBudget;
+	}
+
+	/**
+	 * Gets the garbage collector of this solver
+	 * 
+	 * @return The garbage collector of this solver, or <code>null</code> if the
+	 *         solver has not been started yet
+	 */
+	public IGarbageCollector<N, D> getGarbageCollector() {
+		return garbageCollector;
+	}
+
+	/**
+	 * Sets the directory in which the garbage collector persists the transitive
+	 * callees of the methods, so that later analyses of the same program can
+	 * reuse them
+	 * 
+	 * @param referenceCacheDirectory The directory for the reference index, or
+	 *                                <code>null</code> to always compute the
+	 *                                references from the call graph
+	 */
+	public void setReferenceCacheDirectory(File referenceCacheDirectory) {
+		this.referenceCacheDirectory = referenceCacheDirectory;
+	}
+
 	/**
 	 * Sets the peer group in which this solver operates. Peer groups allow for
 	 * synchronization between solvers
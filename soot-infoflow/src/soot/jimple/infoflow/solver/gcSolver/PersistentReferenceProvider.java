@@ -0,0 +1,348 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.Scene;
+import soot.SootMethod;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
+
+/**
+ * Reference provider that persists the transitive callees it computes in a
+ * binary index file. The index is keyed by a fingerprint of the call graph, so
+ * later analyses of the same program can map the index into memory instead of
+ * computing the callees again. Methods that are not in the index are computed
+ * on demand and added to the index when it is saved.
+ *
+ * The index consists of a header (magic number, version, call graph
+ * fingerprint), a table of method signatures, a table of entries that points
+ * each method to a slice of the reference array, and the reference array
+ * itself, which contains indices into the method table.
+ *
+ * @param <N> The type of the statements in the interprocedural control flow
+ *            graph
+ */
+public class PersistentReferenceProvider<N> extends AbstractReferenceProvider<SootMethod, N> {
+
+	private static final Logger logger = LoggerFactory.getLogger(PersistentReferenceProvider.class);
+
+	private static final int MAGIC = 0x46444752;
+	private static final int VERSION = 1;
+
+	/**
+	 * The fingerprints of the call graphs for which reference providers have been
+	 * created, together with the number of edges at that time. All solvers of an
+	 * analysis share the same call graph, so we only need to compute its
+	 * fingerprint once.
+	 */
+	private static final Map<CallGraph, long[]> fingerprintCache = new WeakHashMap<>();
+
+	private final File indexFile;
+	private final long fingerprint;
+
+	private final ConcurrentMap<SootMethod, Set<SootMethod>> methodToReferences = new ConcurrentHashMap<>();
+	private final ConcurrentMap<SootMethod, Boolean> computedMethods = new ConcurrentHashMap<>();
+
+	// The index that was loaded from disk, if any
+	private String[] indexedSignatures = null;
+	private Map<String, Integer> indexedEntries = null;
+	private int[] entryMethods = null;
+	private int[] entryStarts = null;
+	private MappedByteBuffer references = null;
+	private int referencesOffset = 0;
+
+	/**
+	 * Creates a new reference provider that stores its index in the given
+	 * directory
+	 *
+	 * @param icfg           The interprocedural control flow graph
+	 * @param cacheDirectory The directory in which the index files are stored
+	 */
+	public PersistentReferenceProvider(BiDiInterproceduralCFG<N, SootMethod> icfg, File cacheDirectory) {
+		super(icfg);
+		this.fingerprint = computeCallGraphFingerprint();
+		this.indexFile = new File(cacheDirectory, String.format("gc-references-%016x.idx", fingerprint));
+
+		if (indexFile.exists()) {
+			try {
+				loadIndex();
+				logger.info("Loaded {} reference sets from {}", indexedEntries.size(), indexFile.getAbsolutePath());
+			} catch (IOException | RuntimeException e) {
+				logger.warn("Could not load reference index {}, recomputing references", indexFile.getAbsolutePath(),
+						e);
+				indexedSignatures = null;
+				indexedEntries = null;
+				entryMethods = null;
+				entryStarts = null;
+				references = null;
+			}
+		}
+	}
+
+	/**
+	 * Computes a fingerprint of the current call graph. The fingerprint does not
+	 * depend on the order in which the edges are stored. It is only computed again
+	 * if the number of edges in the call graph has changed.
+	 *
+	 * @return The fingerprint of the call graph
+	 */
+	protected long computeCallGraphFingerprint() {
+		CallGraph cg = Scene.v().getCallGraph();
+		synchronized (fingerprintCache) {
+			long[] cached = fingerprintCache.get(cg);
+			if (cached != null && cached[0] == cg.size())
+				return cached[1];
+		}
+
+		long sum = 0;
+		long count = 0;
+		for (Edge e : cg) {
+			SootMethod src = e.src();
+			SootMethod tgt = e.tgt();
+			long h = hash(src == null ? "" : src.getSignature()) * 31 + hash(tgt == null ? "" : tgt.getSignature());
+			sum += mix(h + e.kind().ordinal());
+			count++;
+		}
+		long fingerprint = mix(sum ^ mix(count));
+		synchronized (fingerprintCache) {
+			fingerprintCache.put(cg, new long[] { count, fingerprint });
+		}
+		return fingerprint;
+	}
+
+	private static long hash(String s) {
+		// 64-bit FNV-1a
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < s.length(); i++) {
+			h ^= s.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return h;
+	}
+
+	private static long mix(long h) {
+		h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+		h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+		return h ^ (h >>> 31);
+	}
+
+	/**
+	 * Maps the index file into memory and reads the method and entry tables. The
+	 * references themselves are decoded lazily when they are requested.
+	 */
+	private void loadIndex() throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+			throw new IOException("Unsupported index format");
+		if (buffer.getLong() != fingerprint)
+			throw new IOException("Index does not match the current call graph");
+
+		final int methodCount = buffer.getInt();
+		final int entryCount = buffer.getInt();
+		String[] signatures = new String[methodCount];
+		for (int i = 0; i < methodCount; i++) {
+			byte[] bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			signatures[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		// Each entry consists of the method index and the start of its references.
+		// The last start marks the end of the reference array.
+		Map<String, Integer> entries = new HashMap<>(entryCount * 2);
+		int[] methods = new int[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			methods[i] = buffer.getInt();
+			entries.put(signatures[methods[i]], i);
+		}
+		int[] starts = new int[entryCount + 1];
+		for (int i = 0; i <= entryCount; i++)
+			starts[i] = buffer.getInt();
+
+		this.indexedSignatures = signatures;
+		this.entryMethods = methods;
+		this.entryStarts = starts;
+		this.referencesOffset = buffer.position();
+		this.references = buffer;
+		this.indexedEntries = entries;
+	}
+
+	/**
+	 * Reads the references of the given entry from the index
+	 *
+	 * @param entry The index of the entry
+	 * @return The indices of the referenced methods in the method table
+	 */
+	private int[] readReferences(int entry) {
+		int start = entryStarts[entry];
+		int[] refs = new int[entryStarts[entry + 1] - start];
+		ByteBuffer view = references.duplicate();
+		view.position(referencesOffset + start * 4);
+		view.asIntBuffer().get(refs);
+		return refs;
+	}
+
+	/**
+	 * Gets the references of the given method from the index that was loaded from
+	 * disk
+	 *
+	 * @param method The method for which to get the references
+	 * @return The references of the given method, or <code>null</code> if the
+	 *         method is not in the index
+	 */
+	private Set<SootMethod> getIndexedReferences(SootMethod method) {
+		if (indexedEntries == null)
+			return null;
+		Integer entry = indexedEntries.get(method.getSignature());
+		if (entry == null)
+			return null;
+
+		int[] refs = readReferences(entry);
+		Set<SootMethod> callees = new HashSet<>(refs.length * 2);
+		for (int ref : refs) {
+			SootMethod callee = Scene.v().grabMethod(indexedSignatures[ref]);
+			if (callee == null)
+				return null;
+			callees.add(callee);
+		}
+		return callees;
+	}
+
+	@Override
+	public Set<SootMethod> getAbstractionReferences(SootMethod method) {
+		Set<SootMethod> callees = methodToReferences.get(method);
+		if (callees != null)
+			return callees;
+
+		// We do not compute the references inside the map to avoid blocking other
+		// threads during the call graph traversal
+		callees = getIndexedReferences(method);
+		if (callees == null) {
+			callees = getTransitiveCallees(method);
+			computedMethods.put(method, Boolean.TRUE);
+		}
+		Set<SootMethod> oldCallees = methodToReferences.putIfAbsent(method, callees);
+		return oldCallees == null ? callees : oldCallees;
+	}
+
+	/**
+	 * Writes all references that are known to this provider to the index file.
+	 * This includes the references loaded from an earlier index. If no new
+	 * references have been computed, the index file is left untouched.
+	 */
+	public synchronized void save() {
+		if (computedMethods.isEmpty())
+			return;
+
+		// Collect the entries by signature. Entries that we have computed again
+		// replace the ones from the old index.
+		Set<String> computedSignatures = new HashSet<>();
+		for (SootMethod sm : computedMethods.keySet())
+			computedSignatures.add(sm.getSignature());
+		Map<String, Integer> methodTable = new LinkedHashMap<>();
+		List<Integer> entryIds = new ArrayList<>();
+		List<int[]> entryRefs = new ArrayList<>();
+		if (entryMethods != null) {
+			for (int entry = 0; entry < entryMethods.length; entry++) {
+				if (computedSignatures.contains(indexedSignatures[entryMethods[entry]]))
+					continue;
+				int[] oldRefs = readReferences(entry);
+				int[] refs = new int[oldRefs.length];
+				for (int i = 0; i < oldRefs.length; i++)
+					refs[i] = getMethodId(methodTable, indexedSignatures[oldRefs[i]]);
+				entryIds.add(getMethodId(methodTable, indexedSignatures[entryMethods[entry]]));
+				entryRefs.add(refs);
+			}
+		}
+		for (SootMethod sm : computedMethods.keySet()) {
+			Set<SootMethod> callees = methodToReferences.getOrDefault(sm, Collections.emptySet());
+			int[] refs = new int[callees.size()];
+			int i = 0;
+			for (SootMethod callee : callees)
+				refs[i++] = getMethodId(methodTable, callee.getSignature());
+			entryIds.add(getMethodId(methodTable, sm.getSignature()));
+			entryRefs.add(refs);
+		}
+
+		// Write the new index to a temporary file and then replace the old one
+		File tempFile = null;
+		try {
+			File dir = indexFile.getAbsoluteFile().getParentFile();
+			if (!dir.exists() && !dir.mkdirs())
+				throw new IOException("Could not create directory " + dir.getAbsolutePath());
+			tempFile = File.createTempFile("gc-references", ".tmp", dir);
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(fingerprint);
+				out.writeInt(methodTable.size());
+				out.writeInt(entryIds.size());
+				for (String signature : methodTable.keySet()) {
+					byte[] bytes = signature.getBytes(StandardCharsets.UTF_8);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+				for (int id : entryIds)
+					out.writeInt(id);
+				int start = 0;
+				for (int[] refs : entryRefs) {
+					out.writeInt(start);
+					start += refs.length;
+				}
+				out.writeInt(start);
+				for (int[] refs : entryRefs)
+					for (int ref : refs)
+						out.writeInt(ref);
+			}
+			Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			logger.info("Saved {} reference sets to {}", entryIds.size(), indexFile.getAbsolutePath());
+		} catch (IOException e) {
+			logger.warn("Could not save reference index {}", indexFile.getAbsolutePath(), e);
+			if (tempFile != null)
+				tempFile.delete();
+		}
+	}
+
+	private static int getMethodId(Map<String, Integer> methodTable, String signature) {
+		return methodTable.computeIfAbsent(signature, s -> methodTable.size());
+	}
+
+	/**
+	 * Gets the file in which this provider stores its index
+	 *
+	 * @return The index file
+	 */
+	public File getIndexFile() {
+		return indexFile;
+	}
+
+}
@@ -94,7 +94,10 @@ public class ThreadedGarbageCollector<N, D> extends MethodLevelReferenceCounting
 		logger.info(String.format("Remaining Path edges count is %d", getRemainingPathEdgeCount()));
 		logger.info(String.format("Recorded Maximum Path edges count is %d", getMaxPathEdgeCount()));
 		logger.info(String.format("Recorded Maximum memory consumption is %d", getMaxMemoryConsumption()));
+		logger.info(String.format("GC ran %d cycles (%d cut short by the pause budget) in %d ms, removing %d edges/s",
+				getCollectionCycles(), getInterruptedCycles(), getCollectionTimeMillis(), getCollectedEdgesPerSecond()));
 		gcThread.finish();
+		shutdownPartitionExecutor();
 	}
 
 	/**
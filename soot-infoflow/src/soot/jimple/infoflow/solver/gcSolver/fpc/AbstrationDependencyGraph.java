@@ -6,10 +6,10 @@ import soot.jimple.infoflow.collect.ConcurrentHashSet;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class AbstrationDependencyGraph<D> implements IGraph<Pair<SootMethod, D>> {
-	private final ReentrantLock lock = new ReentrantLock();
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 	private final Set<Pair<SootMethod, D>> nodes = new ConcurrentHashSet<>();
 	private final Map<Pair<SootMethod, D>, Set<Pair<SootMethod, D>>> succMap = new ConcurrentHashMap<>();
 	private final Map<Pair<SootMethod, D>, Set<Pair<SootMethod, D>>> predMap = new ConcurrentHashMap<>();
@@ -64,16 +64,33 @@ public class AbstrationDependencyGraph<D> implements IGraph<Pair<SootMethod, D>>
 		}
 	}
 
+	/**
+	 * Locks the graph for modifications. No other thread can read or modify the
+	 * graph until {@link #unlock()} is called.
+	 */
 	public void lock() {
-		lock.lock();
+		lock.writeLock().lock();
 	}
 
 	public void unlock() {
-		if (lock.isHeldByCurrentThread()) {
-			lock.unlock();
+		if (lock.isWriteLockedByCurrentThread()) {
+			lock.writeLock().unlock();
 		}
 	}
 
+	/**
+	 * Locks the graph for reading. Multiple threads can read the graph at the same
+	 * time, but no thread can modify it until all of them have called
+	 * {@link #unlockShared()}.
+	 */
+	public void lockShared() {
+		lock.readLock().lock();
+	}
+
+	public void unlockShared() {
+		lock.readLock().unlock();
+	}
+
 	public int nodeSize() {
 		return this.nodes.size();
 	}
@@ -88,7 +88,10 @@ public abstract class FineGrainedReferenceCountingGarbageCollector<N, D>
 		logger.info(String.format("Remaining Path edges count is %d", getRemainingPathEdgeCount()));
 		logger.info(String.format("Recorded Maximum Path edges count is %d", getMaxPathEdgeCount()));
 		logger.info(String.format("Recorded Maximum memory consumption is %d", getMaxMemoryConsumption()));
+		logger.info(String.format("GC ran %d cycles (%d cut short by the pause budget) in %d ms, removing %d edges/s",
+				getCollectionCycles(), getInterruptedCycles(), getCollectionTimeMillis(), getCollectedEdgesPerSecond()));
 		gcThread.finish();
+		shutdownPartitionExecutor();
 	}
 
 	/**
@@ -123,6 +126,12 @@ public abstract class FineGrainedReferenceCountingGarbageCollector<N, D>
 		this.maxMemoryConsumption = Math.max(this.maxMemoryConsumption, getUsedMemory());
 	}
 
+	@Override
+	protected Object getPartitionKey(Pair<SootMethod, D> abstraction) {
+		// Keep all contexts of the same method in the same partition
+		return abstraction.getO1();
+	}
+
 	@Override
 	protected Pair<SootMethod, D> genAbstraction(PathEdge<N, D> edge) {
 		SootMethod method = icfg.getMethodOf(edge.getTarget());
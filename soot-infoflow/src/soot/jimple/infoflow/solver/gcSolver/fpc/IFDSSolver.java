@@ -19,7 +19,6 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -42,19 +41,22 @@ import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
-import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
 import soot.jimple.infoflow.solver.AbstractIFDSSolver;
+import soot.jimple.infoflow.solver.ConcurrentSummaryStore;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.ISolverPeerGroup;
 import soot.jimple.infoflow.solver.IncomingRecord;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
 import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
+import soot.jimple.infoflow.solver.gcSolver.AbstractReferenceCountingGarbageCollector;
 import soot.jimple.infoflow.solver.gcSolver.GCSolverPeerGroup;
+import soot.jimple.infoflow.solver.gcSolver.GarbageCollectionTrigger;
 import soot.jimple.infoflow.solver.gcSolver.IGarbageCollector;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
+import soot.jimple.infoflow.threading.ThreadBudget;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 import soot.util.ConcurrentHashMultiMap;
 
@@ -96,13 +98,13 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 
 	// stores summaries that were queried before they were computed
 	// see CC 2010 paper by Naeem, Lhotak and Rodriguez
-	@SynchronizedBy("consistent lock on 'incoming'")
-	protected final MyConcurrentHashMap<Pair<SootMethod, D>, Map<EndSummary<N, D>, EndSummary<N, D>>> endSummary = new MyConcurrentHashMap<>();
+	@SynchronizedBy("lock-free append-only record lists")
+	protected final ConcurrentSummaryStore<Pair<SootMethod, D>, EndSummary<N, D>> endSummary = new ConcurrentSummaryStore<>();
 
 	// edges going along calls
 	// see CC 2010 paper by Naeem, Lhotak and Rodriguez
-	@SynchronizedBy("consistent lock on field")
-	protected final ConcurrentHashMultiMap<Pair<SootMethod, D>, IncomingRecord<N, D>> incoming = new ConcurrentHashMultiMap<>();
+	@SynchronizedBy("lock-free append-only record lists")
+	protected final ConcurrentSummaryStore<Pair<SootMethod, D>, IncomingRecord<N, D>> incoming = new ConcurrentSummaryStore<>();
 
 	@DontSynchronize("stateless")
 	protected final FlowFunctions<N, D, SootMethod> flowFunctions;
@@ -140,6 +142,9 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 
 	protected AbstrationDependencyGraph<D> abstDependencyGraph;
 	protected int sleepTime = 1;
+	protected int gcThreadCount = 1;
+	protected int gcPauseBudget = 0;
+	protected ThreadBudget threadBudget = null;
 
 	/**
 	 * Creates a solver for the given problem, which caches flow functions and edge
@@ -197,6 +202,9 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		NormalGarbageCollector<N, D> gc = new NormalGarbageCollector<>(icfg, jumpFunctions, endSummary,
 				abstDependencyGraph);
 		gc.setSleepTimeSeconds(sleepTime);
+		gc.setParallelism(gcThreadCount);
+		gc.setPauseBudget(gcPauseBudget);
+		gc.setThreadBudget(threadBudget);
 		logger.info("sleep time is {}", sleepTime);
 		@SuppressWarnings("unchecked")
 		GCSolverPeerGroup<Pair<SootMethod, D>> gcSolverGroup = (GCSolverPeerGroup<Pair<SootMethod, D>>) solverPeerGroup;
@@ -311,9 +319,7 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		if (newSelfLoop) {
 			SootMethod sm = icfg.getMethodOf(edge.getTarget());
 			Pair<SootMethod, D> abst = new Pair<>(sm, edge.factAtSource());
-			Map<EndSummary<N, D>, EndSummary<N, D>> map = new MyConcurrentHashMap<>();
-			Map<EndSummary<N, D>, EndSummary<N, D>> sumMap = endSummary.putIfAbsentElseGet(abst, map);
-			if (map != sumMap) { // already exists.
+			if (!endSummary.addContext(abst)) { // already exists.
 				return;
 			}
 			if (garbageCollector instanceof NormalGarbageCollector && orgSrc != null) {
@@ -707,18 +713,15 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	}
 
 	protected Set<EndSummary<N, D>> endSummary(SootMethod m, D d3) {
-		Map<EndSummary<N, D>, EndSummary<N, D>> map = endSummary.get(new Pair<>(m, d3));
-		return map == null ? null : map.keySet();
+		return endSummary.get(new Pair<>(m, d3));
 	}
 
 	private boolean addEndSummary(SootMethod m, D d1, N eP, D d2) {
 		if (d1 == zeroValue)
 			return true;
 
-		Map<EndSummary<N, D>, EndSummary<N, D>> summaries = endSummary.putIfAbsentElseGet(new Pair<>(m, d1),
-				() -> new ConcurrentHashMap<>());
 		EndSummary<N, D> newSummary = new EndSummary<>(eP, d2, d1);
-		EndSummary<N, D> existingSummary = summaries.putIfAbsent(newSummary, newSummary);
+		EndSummary<N, D> existingSummary = endSummary.putIfAbsent(new Pair<>(m, d1), newSummary);
 		if (existingSummary != null) {
 			existingSummary.calleeD1.addNeighbor(d2);
 			return false;
@@ -865,6 +868,11 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.killFlag = reason;
 		this.executor.interrupt();
 		this.executor.shutdown();
+
+		// The garbage collector must not keep its threads once the solver is dead
+		IGarbageCollector<N, D> gc = this.garbageCollector;
+		if (gc instanceof AbstractReferenceCountingGarbageCollector)
+			((AbstractReferenceCountingGarbageCollector<N, D, ?>) gc).shutdownPartitionExecutor();
 	}
 
 	@Override
@@ -882,6 +890,24 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.killFlag = null;
 	}
 
+	@Override
+	public void releaseCaches() {
+		if (ffCache != null)
+			ffCache.invalidate();
+	}
+
+	@Override
+	public void collectGarbage() {
+		IGarbageCollector<N, D> gc = this.garbageCollector;
+		if (gc == null)
+			return;
+
+		// From now on, collect as early as possible
+		if (gc instanceof AbstractReferenceCountingGarbageCollector)
+			((AbstractReferenceCountingGarbageCollector<N, D, ?>) gc).setTrigger(GarbageCollectionTrigger.Immediate);
+		gc.gc();
+	}
+
 	@Override
 	public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
 		this.notificationListeners.add(listener);
@@ -900,6 +926,46 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxAbstractionPathLength = maxAbstractionPathLength;
 	}
 
+	/**
+	 * Sets the number of threads that the garbage collector uses for checking and
+	 * removing the candidates of a single collection cycle
+	 * 
+	 * @param gcThreadCount The number of threads per garbage collection cycle
+	 */
+	public void setGcThreadCount(int gcThreadCount) {
+		this.gcThreadCount = gcThreadCount;
+	}
+
+	/**
+	 * Sets the maximum time that a single garbage collection cycle may take
+	 * 
+	 * @param gcPauseBudget The maximum duration of a garbage collection cycle in
+	 *                      milliseconds, or 0 for no limit
+	 */
+	public void setGcPauseBudget(int gcPauseBudget) {
+		this.gcPauseBudget = gcPauseBudget;
+	}
+
+	/**
+	 * Sets the thread budget of the analysis, which limits the number of threads
+	 * that the garbage collector uses for a single collection cycle
+	 * 
+	 * @param threadBudget The thread budget of the analysis
+	 */
+	public void setThreadBudget(ThreadBudget threadBudget) {
+		this.threadBudget = threadBudget;
+	}
+
+	/**
+	 * Gets the garbage collector of this solver
+	 * 
+	 * @return The garbage collector of this solver, or <code>null</code> if the
+	 *         solver has not been started yet
+	 */
+	public IGarbageCollector<N, D> getGarbageCollector() {
+		return garbageCollector;
+	}
+
 	/**
 	 * Sets the peer group in which this solver operates. Peer groups allow for
 	 * synchronization between solvers
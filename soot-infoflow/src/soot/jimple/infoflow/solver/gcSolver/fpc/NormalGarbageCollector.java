@@ -3,7 +3,7 @@ package soot.jimple.infoflow.solver.gcSolver.fpc;
 import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
-import soot.jimple.infoflow.collect.MyConcurrentHashMap;
+import soot.jimple.infoflow.solver.ConcurrentSummaryStore;
 import soot.jimple.infoflow.solver.EndSummary;
 import soot.jimple.infoflow.solver.cfg.BackwardsInfoflowCFG;
 import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
@@ -11,7 +11,6 @@ import soot.jimple.infoflow.solver.gcSolver.IGCReferenceProvider;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 import soot.util.ConcurrentHashMultiMap;
 
-import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -22,11 +21,11 @@ public class NormalGarbageCollector<N, D extends FastSolverLinkedNode<D, N>>
 
 	protected static final Logger logger = LoggerFactory.getLogger(NormalGarbageCollector.class);
 	protected final AbstrationDependencyGraph<D> abstDependencyGraph;
-	protected final MyConcurrentHashMap<Pair<SootMethod, D>, Map<EndSummary<N, D>, EndSummary<N, D>>> endSummary;
+	protected final ConcurrentSummaryStore<Pair<SootMethod, D>, EndSummary<N, D>> endSummary;
 
 	public NormalGarbageCollector(BiDiInterproceduralCFG<N, SootMethod> icfg,
 			ConcurrentHashMultiMap<Pair<SootMethod, D>, PathEdge<N, D>> jumpFunctions,
-			MyConcurrentHashMap<Pair<SootMethod, D>, Map<EndSummary<N, D>, EndSummary<N, D>>> endSummary,
+			ConcurrentSummaryStore<Pair<SootMethod, D>, EndSummary<N, D>> endSummary,
 			AbstrationDependencyGraph<D> adg) {
 		super(icfg, jumpFunctions, null);
 		this.abstDependencyGraph = adg;
@@ -36,8 +35,10 @@ public class NormalGarbageCollector<N, D extends FastSolverLinkedNode<D, N>>
 	@Override
 	public boolean hasActiveDependencies(Pair<SootMethod, D> abstraction) {
 		int changeCounter = -1;
+		// The graph is only read here, so that the partitions of a collection cycle
+		// can be checked concurrently
+		abstDependencyGraph.lockShared();
 		try {
-			abstDependencyGraph.lock();
 			do {
 				// Update the change counter for the next round
 				changeCounter = jumpFnCounter.getChangeCounter();
@@ -60,7 +61,7 @@ public class NormalGarbageCollector<N, D extends FastSolverLinkedNode<D, N>>
 			// abstDependencyGraph.remove(ref);
 			// }
 		} finally {
-			abstDependencyGraph.unlock();
+			abstDependencyGraph.unlockShared();
 		}
 		return false;
 	}
@@ -80,11 +81,8 @@ public class NormalGarbageCollector<N, D extends FastSolverLinkedNode<D, N>>
 		logger.info(icfg.getClass().toString());
 		logger.info(String.format("#nodes of %s Abstraction Dependency Graph: %d", s, abstDependencyGraph.nodeSize()));
 		logger.info(String.format("#edges of %s Abstraction Dependency Graph: %d", s, abstDependencyGraph.edgeSize()));
-		logger.info(String.format("#dummy end summary edges of %s: %d", s, this.endSummary.keySet().size()));
-		long v = 0;
-		for(Map<EndSummary<N, D>, EndSummary<N, D>> map: this.endSummary.values()) {
-			v += map.size();
-		}
+		logger.info(String.format("#dummy end summary edges of %s: %d", s, this.endSummary.getContextCount()));
+		long v = this.endSummary.getRecordCount();
 		logger.info(String.format("#end summary edges of %s: %d", s, v));
 	}
 }
@@ -0,0 +1,66 @@
+package soot.jimple.infoflow.solver.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import heros.FlowFunction;
+import heros.FlowFunctions;
+
+/**
+ * Flow function factory that counts how often flow functions are requested
+ * from the wrapped factory. When wrapped around a flow function cache, this
+ * counts the lookups. When wrapped inside a flow function cache, this counts
+ * the cache misses.
+ *
+ * @param <N> The type of statements
+ * @param <D> The type of data flow facts
+ * @param <M> The type of methods
+ */
+public class CountingFlowFunctions<N, D, M> implements FlowFunctions<N, D, M> {
+
+	private final FlowFunctions<N, D, M> delegate;
+	private final LongAdder count = new LongAdder();
+
+	/**
+	 * Creates a new instance of the {@link CountingFlowFunctions} class
+	 *
+	 * @param delegate The flow function factory to which all requests are
+	 *                 forwarded
+	 */
+	public CountingFlowFunctions(FlowFunctions<N, D, M> delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public FlowFunction<D> getNormalFlowFunction(N curr, N succ) {
+		count.increment();
+		return delegate.getNormalFlowFunction(curr, succ);
+	}
+
+	@Override
+	public FlowFunction<D> getCallFlowFunction(N callStmt, M destinationMethod) {
+		count.increment();
+		return delegate.getCallFlowFunction(callStmt, destinationMethod);
+	}
+
+	@Override
+	public FlowFunction<D> getReturnFlowFunction(N callSite, M calleeMethod, N exitStmt, N returnSite) {
+		count.increment();
+		return delegate.getReturnFlowFunction(callSite, calleeMethod, exitStmt, returnSite);
+	}
+
+	@Override
+	public FlowFunction<D> getCallToReturnFlowFunction(N callSite, N returnSite) {
+		count.increment();
+		return delegate.getCallToReturnFlowFunction(callSite, returnSite);
+	}
+
+	/**
+	 * Gets the number of flow functions that have been requested so far
+	 *
+	 * @return The number of flow function requests
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+}
@@ -0,0 +1,33 @@
+package soot.jimple.infoflow.solver.metrics;
+
+/**
+ * Interface for data flow solvers that can collect {@link SolverMetrics} on
+ * their hot paths
+ */
+public interface IMeteredSolver {
+
+	/**
+	 * Sets the object in which the solver shall collect its metrics. This method
+	 * must be called before the solver is started.
+	 *
+	 * @param metrics The object in which to collect the metrics, or
+	 *                <code>null</code> to disable the metrics
+	 */
+	public void setSolverMetrics(SolverMetrics metrics);
+
+	/**
+	 * Gets the object in which the solver collects its metrics
+	 *
+	 * @return The object in which the solver collects its metrics, or
+	 *         <code>null</code> if metrics are disabled
+	 */
+	public SolverMetrics getSolverMetrics();
+
+	/**
+	 * Gets the number of edge processing tasks that are waiting for execution
+	 *
+	 * @return The number of waiting tasks
+	 */
+	public long getPendingTaskCount();
+
+}
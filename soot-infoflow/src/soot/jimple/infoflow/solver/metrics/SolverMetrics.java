@@ -0,0 +1,317 @@
+package soot.jimple.infoflow.solver.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import soot.SootMethod;
+
+/**
+ * Metrics that a data flow solver collects on its hot paths. All counters are
+ * striped, i.e., the worker threads of the solver can update them without
+ * contending for a single memory location. The counters are only aggregated
+ * when a sample is taken or when the metrics are reported.
+ *
+ * One instance can be shared by a sequence of solvers that play the same role,
+ * e.g., the forward solvers of the individual iterations when analyzing one
+ * source at a time. The counters then add up over all of these solvers.
+ */
+public class SolverMetrics {
+
+	/**
+	 * A point-in-time sample of the solver throughput
+	 */
+	public static class Sample {
+
+		private final long timestamp;
+		private final long edgesPerSecond;
+		private final long queueDepth;
+
+		private Sample(long timestamp, long edgesPerSecond, long queueDepth) {
+			this.timestamp = timestamp;
+			this.edgesPerSecond = edgesPerSecond;
+			this.queueDepth = queueDepth;
+		}
+
+		/**
+		 * Gets the time at which this sample was taken
+		 *
+		 * @return The time at which this sample was taken in milliseconds since the
+		 *         epoch
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		/**
+		 * Gets the number of edges that the solver processed per second since the
+		 * previous sample
+		 *
+		 * @return The number of edges processed per second
+		 */
+		public long getEdgesPerSecond() {
+			return edgesPerSecond;
+		}
+
+		/**
+		 * Gets the number of tasks that were waiting for execution when this sample
+		 * was taken
+		 *
+		 * @return The number of waiting tasks
+		 */
+		public long getQueueDepth() {
+			return queueDepth;
+		}
+
+	}
+
+	private final String name;
+
+	private final LongAdder processedEdges = new LongAdder();
+	private final Map<SootMethod, LongAdder> methodEdges = new ConcurrentHashMap<>();
+	private final LongAdder endSummaryLookups = new LongAdder();
+	private final LongAdder endSummaryReuses = new LongAdder();
+	private final LongAdder exitEdges = new LongAdder();
+	private final LongAdder incomingFanOut = new LongAdder();
+
+	private CountingFlowFunctions<?, ?, ?> flowFunctionLookups;
+	private CountingFlowFunctions<?, ?, ?> flowFunctionMisses;
+	private long previousFlowFunctionLookups = 0;
+	private long previousFlowFunctionMisses = 0;
+
+	private final List<Sample> samples = new ArrayList<>();
+	private long lastSampleTime = -1;
+	private long lastSampleEdges = 0;
+
+	/**
+	 * Creates a new instance of the {@link SolverMetrics} class
+	 *
+	 * @param name The name of the solver for which the metrics are collected
+	 */
+	public SolverMetrics(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Records that the solver has processed an edge in the given method
+	 *
+	 * @param method The method that contains the target statement of the edge
+	 */
+	public void onEdgeProcessed(SootMethod method) {
+		processedEdges.increment();
+		if (method != null)
+			methodEdges.computeIfAbsent(method, m -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Records that the solver has looked up the end summaries of a callee at a call
+	 * site
+	 *
+	 * @param reused The number of existing end summaries that the solver has
+	 *               applied at the call site
+	 */
+	public void onEndSummaryLookup(int reused) {
+		endSummaryLookups.increment();
+		if (reused > 0)
+			endSummaryReuses.add(reused);
+	}
+
+	/**
+	 * Records that the solver has processed a new end summary at a method exit
+	 *
+	 * @param fanOut The number of incoming records to which the new end summary
+	 *               was applied
+	 */
+	public void onExitProcessed(int fanOut) {
+		exitEdges.increment();
+		if (fanOut > 0)
+			incomingFanOut.add(fanOut);
+	}
+
+	/**
+	 * Registers the counters for the flow function cache of the solver. If another
+	 * solver has registered counters before, their current values are kept, but
+	 * the counters themselves are dropped, so that the metrics do not keep the
+	 * flow functions of old solvers alive.
+	 *
+	 * @param lookups The counter that sees all flow function requests of the
+	 *                solver
+	 * @param misses  The counter that sees all requests that the cache could not
+	 *                answer
+	 */
+	public synchronized void setFlowFunctionCounters(CountingFlowFunctions<?, ?, ?> lookups,
+			CountingFlowFunctions<?, ?, ?> misses) {
+		if (flowFunctionLookups != null)
+			previousFlowFunctionLookups += flowFunctionLookups.getCount();
+		if (flowFunctionMisses != null)
+			previousFlowFunctionMisses += flowFunctionMisses.getCount();
+		this.flowFunctionLookups = lookups;
+		this.flowFunctionMisses = misses;
+	}
+
+	/**
+	 * Takes a sample of the current solver throughput
+	 *
+	 * @param queueDepth The number of tasks that are currently waiting for
+	 *                   execution
+	 */
+	public synchronized void takeSample(long queueDepth) {
+		final long now = System.currentTimeMillis();
+		final long edges = processedEdges.sum();
+
+		long edgesPerSecond = 0;
+		if (lastSampleTime >= 0 && now > lastSampleTime)
+			edgesPerSecond = (edges - lastSampleEdges) * 1000 / (now - lastSampleTime);
+		samples.add(new Sample(now, edgesPerSecond, queueDepth));
+
+		lastSampleTime = now;
+		lastSampleEdges = edges;
+	}
+
+	/**
+	 * Ends the current series of samples, e.g., because the solver has finished.
+	 * The next sample does not compute a throughput, so that the time between two
+	 * solvers that share these metrics does not lower the throughput.
+	 */
+	public synchronized void endSampling() {
+		lastSampleTime = -1;
+	}
+
+	/**
+	 * Gets the name of the solver for which the metrics are collected
+	 *
+	 * @return The name of the solver
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the number of edges that the solver has processed
+	 *
+	 * @return The number of processed edges
+	 */
+	public long getProcessedEdges() {
+		return processedEdges.sum();
+	}
+
+	/**
+	 * Gets the methods in which the solver has processed the most edges
+	 *
+	 * @param limit The maximum number of methods to return
+	 * @return The methods with the most processed edges along with their edge
+	 *         counts, sorted by descending edge count
+	 */
+	public List<Map.Entry<SootMethod, Long>> getTopMethods(int limit) {
+		List<Map.Entry<SootMethod, Long>> entries = new ArrayList<>(methodEdges.size());
+		for (Map.Entry<SootMethod, LongAdder> entry : methodEdges.entrySet())
+			entries.add(Map.entry(entry.getKey(), entry.getValue().sum()));
+		entries.sort(Map.Entry.<SootMethod, Long>comparingByValue(Comparator.reverseOrder()));
+		return entries.size() > limit ? entries.subList(0, limit) : entries;
+	}
+
+	/**
+	 * Gets the number of times the solver has looked up end summaries at call sites
+	 *
+	 * @return The number of end summary lookups
+	 */
+	public long getEndSummaryLookups() {
+		return endSummaryLookups.sum();
+	}
+
+	/**
+	 * Gets the number of times the solver has applied an existing end summary
+	 * instead of analyzing the callee again
+	 *
+	 * @return The number of reused end summaries
+	 */
+	public long getEndSummaryReuses() {
+		return endSummaryReuses.sum();
+	}
+
+	/**
+	 * Gets the number of new end summaries that the solver has processed at method
+	 * exits
+	 *
+	 * @return The number of processed exit edges with new end summaries
+	 */
+	public long getExitEdges() {
+		return exitEdges.sum();
+	}
+
+	/**
+	 * Gets the total number of incoming records to which new end summaries were
+	 * applied
+	 *
+	 * @return The total incoming-record fan-out
+	 */
+	public long getIncomingFanOut() {
+		return incomingFanOut.sum();
+	}
+
+	/**
+	 * Gets the number of flow function requests of the solver
+	 *
+	 * @return The number of flow function requests, or -1 if the solver does not
+	 *         use a flow function cache
+	 */
+	public synchronized long getFlowFunctionLookups() {
+		if (flowFunctionLookups == null)
+			return -1;
+		return previousFlowFunctionLookups + flowFunctionLookups.getCount();
+	}
+
+	/**
+	 * Gets the share of flow function requests that were answered from the cache
+	 *
+	 * @return The flow function cache hit rate between 0 and 1, or -1 if no data
+	 *         has been recorded
+	 */
+	public synchronized double getFlowFunctionCacheHitRate() {
+		if (flowFunctionLookups == null || flowFunctionMisses == null)
+			return -1;
+		long lookups = previousFlowFunctionLookups + flowFunctionLookups.getCount();
+		if (lookups <= 0)
+			return -1;
+		long misses = Math.min(lookups, previousFlowFunctionMisses + flowFunctionMisses.getCount());
+		return (double) (lookups - misses) / lookups;
+	}
+
+	/**
+	 * Gets the samples that have been taken so far
+	 *
+	 * @return The samples in the order in which they were taken
+	 */
+	public synchronized List<Sample> getSamples() {
+		return Collections.unmodifiableList(new ArrayList<>(samples));
+	}
+
+	/**
+	 * Gets the highest throughput of the solver over all samples
+	 *
+	 * @return The highest number of edges processed per second
+	 */
+	public synchronized long getPeakEdgesPerSecond() {
+		long peak = 0;
+		for (Sample sample : samples)
+			peak = Math.max(peak, sample.edgesPerSecond);
+		return peak;
+	}
+
+	/**
+	 * Gets the largest number of waiting tasks over all samples
+	 *
+	 * @return The largest queue depth
+	 */
+	public synchronized long getMaxQueueDepth() {
+		long max = 0;
+		for (Sample sample : samples)
+			max = Math.max(max, sample.queueDepth);
+		return max;
+	}
+
+}
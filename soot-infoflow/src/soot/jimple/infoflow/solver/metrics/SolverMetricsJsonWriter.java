@@ -0,0 +1,126 @@
+package soot.jimple.infoflow.solver.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import soot.SootMethod;
+import soot.jimple.infoflow.solver.metrics.SolverMetrics.Sample;
+
+/**
+ * Class for writing {@link SolverMetrics} into a JSON document
+ */
+public class SolverMetricsJsonWriter {
+
+	private final int topMethodCount;
+
+	/**
+	 * Creates a new instance of the {@link SolverMetricsJsonWriter} class
+	 *
+	 * @param topMethodCount The number of methods with the most processed edges
+	 *                       that shall be written per solver
+	 */
+	public SolverMetricsJsonWriter(int topMethodCount) {
+		this.topMethodCount = topMethodCount;
+	}
+
+	/**
+	 * Writes the given metrics as a JSON document
+	 *
+	 * @param metrics The metrics to write
+	 * @param writer  The writer to which to write the JSON document
+	 * @throws IOException Thrown if the document could not be written
+	 */
+	public void write(Collection<SolverMetrics> metrics, Writer writer) throws IOException {
+		writer.write("{\n  \"solvers\": [");
+		boolean first = true;
+		for (SolverMetrics solverMetrics : metrics) {
+			if (!first)
+				writer.write(",");
+			first = false;
+			writeSolver(solverMetrics, writer);
+		}
+		writer.write("\n  ]\n}\n");
+	}
+
+	private void writeSolver(SolverMetrics metrics, Writer writer) throws IOException {
+		writer.write("\n    {\n");
+		writer.write("      \"name\": " + quote(metrics.getName()) + ",\n");
+		writer.write("      \"processedEdges\": " + metrics.getProcessedEdges() + ",\n");
+		writer.write("      \"peakEdgesPerSecond\": " + metrics.getPeakEdgesPerSecond() + ",\n");
+		writer.write("      \"maxQueueDepth\": " + metrics.getMaxQueueDepth() + ",\n");
+		writer.write("      \"flowFunctionLookups\": " + metrics.getFlowFunctionLookups() + ",\n");
+		writer.write("      \"flowFunctionCacheHitRate\": " + metrics.getFlowFunctionCacheHitRate() + ",\n");
+		writer.write("      \"endSummaryLookups\": " + metrics.getEndSummaryLookups() + ",\n");
+		writer.write("      \"endSummaryReuses\": " + metrics.getEndSummaryReuses() + ",\n");
+		writer.write("      \"exitEdges\": " + metrics.getExitEdges() + ",\n");
+		writer.write("      \"incomingFanOut\": " + metrics.getIncomingFanOut() + ",\n");
+
+		writer.write("      \"topMethods\": [");
+		Iterator<Map.Entry<SootMethod, Long>> methodIt = metrics.getTopMethods(topMethodCount).iterator();
+		while (methodIt.hasNext()) {
+			Map.Entry<SootMethod, Long> entry = methodIt.next();
+			writer.write("\n        { \"method\": " + quote(entry.getKey().getSignature()) + ", \"edges\": "
+					+ entry.getValue() + " }");
+			if (methodIt.hasNext())
+				writer.write(",");
+		}
+		writer.write("\n      ],\n");
+
+		writer.write("      \"samples\": [");
+		List<Sample> samples = metrics.getSamples();
+		for (int i = 0; i < samples.size(); i++) {
+			Sample sample = samples.get(i);
+			writer.write("\n        { \"timestamp\": " + sample.getTimestamp() + ", \"edgesPerSecond\": "
+					+ sample.getEdgesPerSecond() + ", \"queueDepth\": " + sample.getQueueDepth() + " }");
+			if (i < samples.size() - 1)
+				writer.write(",");
+		}
+		writer.write("\n      ]\n    }");
+	}
+
+	/**
+	 * Encodes the given string as a JSON string literal
+	 *
+	 * @param value The string to encode
+	 * @return The JSON string literal
+	 */
+	private static String quote(String value) {
+		if (value == null)
+			return "null";
+
+		StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20)
+					sb.append(String.format("\\u%04x", (int) c));
+				else
+					sb.append(c);
+			}
+		}
+		sb.append('"');
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,198 @@
+package soot.jimple.infoflow.solver.metrics;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.memory.AbstractSolverWatcher;
+import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.util.ThreadUtils;
+
+/**
+ * Watcher that periodically samples the {@link SolverMetrics} of the registered
+ * solvers. In contrast to the other watchers, this watcher never terminates a
+ * solver. The metrics remain available after the solvers have been removed, so
+ * that they can be reported once the data flow analysis has finished. Solvers
+ * that are added under the same name share one metrics record, so that the
+ * solvers of multiple iterations of the same analysis are reported together.
+ */
+public class SolverMetricsWatcher extends AbstractSolverWatcher {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * The number of methods with the most processed edges that are exported
+	 */
+	private static final int TOP_METHOD_COUNT = 100;
+
+	private final long samplingInterval;
+	private final Map<IMeteredSolver, SolverMetrics> meteredSolvers = new ConcurrentHashMap<>();
+	private final Map<String, SolverMetrics> metricsByName = new HashMap<>();
+	private final List<SolverMetrics> metrics = new ArrayList<>();
+	private volatile int generation = 0;
+
+	/**
+	 * Creates a new instance of the {@link SolverMetricsWatcher} class
+	 *
+	 * @param samplingInterval The interval in which to sample the metrics in
+	 *                         milliseconds
+	 */
+	public SolverMetricsWatcher(long samplingInterval) {
+		this.samplingInterval = Math.max(1, samplingInterval);
+	}
+
+	@Override
+	public void addSolver(IMemoryBoundedSolver solver) {
+		addSolver(solver, solver == null ? null : solver.getClass().getSimpleName());
+	}
+
+	/**
+	 * Adds a solver whose metrics shall be sampled. If the solver does not collect
+	 * metrics yet, metrics collection is enabled on the solver. If a solver with
+	 * the same name has been added before, the new solver adds to the metrics of
+	 * the previous one.
+	 *
+	 * @param solver The solver to watch
+	 * @param name   The name under which the metrics of the solver are reported
+	 */
+	public void addSolver(IMemoryBoundedSolver solver, String name) {
+		if (solver instanceof IMeteredSolver) {
+			IMeteredSolver meteredSolver = (IMeteredSolver) solver;
+			SolverMetrics solverMetrics = meteredSolver.getSolverMetrics();
+			synchronized (metrics) {
+				if (solverMetrics == null) {
+					solverMetrics = metricsByName.computeIfAbsent(name, SolverMetrics::new);
+					meteredSolver.setSolverMetrics(solverMetrics);
+				}
+				if (!metrics.contains(solverMetrics))
+					metrics.add(solverMetrics);
+			}
+			meteredSolvers.put(meteredSolver, solverMetrics);
+		}
+		super.addSolver(solver);
+	}
+
+	@Override
+	public boolean removeSolver(IMemoryBoundedSolver solver) {
+		meteredSolvers.remove(solver);
+		return super.removeSolver(solver);
+	}
+
+	@Override
+	public void clearSolvers() {
+		meteredSolvers.clear();
+		super.clearSolvers();
+	}
+
+	@Override
+	public void start() {
+		super.start();
+
+		// A sampling thread from a previous run may still be sleeping, so each
+		// thread only runs as long as the watcher has not been restarted
+		final int currentGeneration = ++generation;
+		ThreadUtils.createGenericThread(new Runnable() {
+
+			@Override
+			public void run() {
+				while (!stopped && currentGeneration == generation) {
+					try {
+						Thread.sleep(samplingInterval);
+					} catch (InterruptedException e) {
+						// There's little we can do here
+					}
+					if (!stopped && currentGeneration == generation)
+						sample();
+				}
+			}
+
+		}, "FlowDroid Metrics Watcher", true).start();
+	}
+
+	@Override
+	public void stop() {
+		// Record the throughput since the last regular sample
+		if (!stopped) {
+			sample();
+			for (SolverMetrics solverMetrics : meteredSolvers.values())
+				solverMetrics.endSampling();
+		}
+		super.stop();
+	}
+
+	/**
+	 * Takes a sample of all solvers that have been started
+	 */
+	protected void sample() {
+		for (Map.Entry<IMeteredSolver, SolverMetrics> entry : meteredSolvers.entrySet()) {
+			SolverState state = solvers.get(entry.getKey());
+			if (state != null && state != SolverState.IDLE)
+				entry.getValue().takeSample(entry.getKey().getPendingTaskCount());
+		}
+	}
+
+	/**
+	 * Gets the metrics of all solvers that have been watched so far
+	 *
+	 * @return The metrics of all watched solvers
+	 */
+	public List<SolverMetrics> getMetrics() {
+		synchronized (metrics) {
+			return new ArrayList<>(metrics);
+		}
+	}
+
+	/**
+	 * Writes the aggregated metrics of all watched solvers into the given
+	 * performance data object
+	 *
+	 * @param performanceData The performance data object to fill
+	 */
+	public void reportTo(InfoflowPerformanceData performanceData) {
+		long ffLookups = 0;
+		double ffHits = 0;
+		long endSummaryReuses = 0;
+		long incomingFanOut = 0;
+		for (SolverMetrics solverMetrics : getMetrics()) {
+			performanceData.updatePeakEdgesPerSecond(solverMetrics.getPeakEdgesPerSecond());
+			performanceData.updateMaxSolverQueueDepth(solverMetrics.getMaxQueueDepth());
+			endSummaryReuses += solverMetrics.getEndSummaryReuses();
+			incomingFanOut += solverMetrics.getIncomingFanOut();
+
+			double hitRate = solverMetrics.getFlowFunctionCacheHitRate();
+			if (hitRate >= 0) {
+				long lookups = solverMetrics.getFlowFunctionLookups();
+				ffLookups += lookups;
+				ffHits += hitRate * lookups;
+			}
+		}
+		performanceData.addEndSummaryReuseCount(endSummaryReuses);
+		performanceData.addIncomingRecordFanOut(incomingFanOut);
+		if (ffLookups > 0)
+			performanceData.setFlowFunctionCacheHitRate(ffHits / ffLookups);
+	}
+
+	/**
+	 * Writes the metrics of all watched solvers into the given JSON file
+	 *
+	 * @param file The target file
+	 * @throws IOException Thrown if the file could not be written
+	 */
+	public void writeJson(File file) throws IOException {
+		try (Writer writer = new FileWriter(file)) {
+			new SolverMetricsJsonWriter(TOP_METHOD_COUNT).write(getMetrics(), writer);
+		}
+		logger.info("Solver metrics written to {}", file.getAbsolutePath());
+	}
+
+}
@@ -17,6 +17,7 @@ import soot.jimple.infoflow.solver.sparseSolver.propagation.DensePropagation;
 import soot.jimple.infoflow.solver.sparseSolver.propagation.IPropagationStrategy;
 import soot.jimple.infoflow.solver.sparseSolver.propagation.PreciseSparsePropagation;
 import soot.jimple.infoflow.solver.sparseSolver.propagation.SimpleSparsePropagation;
+import soot.jimple.infoflow.solver.sparseSolver.propagation.SparseCFGIndex;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 
 /**
@@ -26,25 +27,47 @@ import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
  */
 public class SparseInfoflowSolver extends InfoflowSolver {
     private final IPropagationStrategy<Unit, Abstraction, BiDiInterproceduralCFG<Unit, SootMethod>> propagationStrategy;
+    private final SparseCFGIndex index;
 
     public SparseInfoflowSolver(AbstractInfoflowProblem problem, InterruptableExecutor executor,
                                 InfoflowConfiguration.SparsePropagationStrategy propStrategyOpt) {
+        this(problem, executor, propStrategyOpt, new SparseCFGIndex());
+    }
+
+    /**
+     * Creates a new sparse solver
+     *
+     * @param problem         The problem to solve
+     * @param executor        The executor on which to run the tasks
+     * @param propStrategyOpt The sparse propagation strategy
+     * @param index           The per-method index of the sparse control flow graph, which may be shared with
+     *                        other sparse solvers
+     */
+    public SparseInfoflowSolver(AbstractInfoflowProblem problem, InterruptableExecutor executor,
+                                InfoflowConfiguration.SparsePropagationStrategy propStrategyOpt, SparseCFGIndex index) {
         super(problem, executor);
+        this.index = index;
         switch (propStrategyOpt) {
             case Dense:
                 propagationStrategy = new DensePropagation<>(problem.interproceduralCFG());
                 break;
             case Simple:
-                propagationStrategy = new SimpleSparsePropagation(problem);
+                propagationStrategy = new SimpleSparsePropagation(problem, index);
                 break;
             case Precise:
-                propagationStrategy = new PreciseSparsePropagation(problem);
+                propagationStrategy = new PreciseSparsePropagation(problem, index);
                 break;
             default:
                 throw new RuntimeException("Unknown option!");
         }
     }
 
+    @Override
+    public void releaseCaches() {
+        super.releaseCaches();
+        index.invalidate();
+    }
+
     @Override
     protected void processNormalFlow(PathEdge<Unit, Abstraction> edge) {
         // Fallback for implicit flows, which always need the successor statement
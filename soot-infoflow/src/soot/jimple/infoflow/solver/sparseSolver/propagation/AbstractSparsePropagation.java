@@ -1,7 +1,6 @@
 package soot.jimple.infoflow.solver.sparseSolver.propagation;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 import soot.Local;
 import soot.SootField;
@@ -27,6 +26,7 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
         protected final SootField field;
         protected final Unit activationUnit;
         protected final Unit turnUnit;
+        private final int hashCode;
 
         protected SCFGNode(Unit unit, Local local, SootField field, Unit activationUnit, Unit turnUnit) {
             this.unit = unit;
@@ -34,6 +34,7 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
             this.field = field;
             this.activationUnit = activationUnit;
             this.turnUnit = turnUnit;
+            this.hashCode = Objects.hash(unit, local, field, activationUnit, turnUnit);
         }
 
         /**
@@ -43,6 +44,17 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
          * @return true if this node is used at unit
          */
         public boolean isAffectedBy(Unit unit) {
+            return isAffectedBy(unit, null);
+        }
+
+        /**
+         * Checks whether the unit affects the value
+         *
+         * @param unit current unit
+         * @param info def-use summary of the unit, or null if there is none
+         * @return true if this node is used at unit
+         */
+        protected boolean isAffectedBy(Unit unit, SparseCFGIndex.UnitInfo info) {
             // To keep flow sensitivity, each fact must visit its activation unit/turn unit
             if (requiredForFlowSensitivity(unit))
                 return true;
@@ -52,11 +64,17 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
             if (iCfg.isExitStmt(unit))
                 return true;
 
+            // Statements that neither mention the local nor define a potential alias of it are never relevant
+            if (local != null && info != null && !info.mayAffect(local))
+                return false;
+
             return isAffectedByInternal(unit);
         }
 
         /**
          * Checks whether the unit affects the value. Does not need to handle flow sensitivity and exits.
+         * If the node has a local, the unit can only affect it if the unit mentions the local or defines a
+         * local or an instance field.
          *
          * @param unit current unit
          * @return true if this node is used at unit
@@ -86,7 +104,9 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             SCFGNode SCFGNode = (SCFGNode) o;
-            return Objects.equals(unit, SCFGNode.unit)
+            // Nodes of different propagations may share the same index
+            return getOwner() == SCFGNode.getOwner()
+                    && Objects.equals(unit, SCFGNode.unit)
                     && Objects.equals(local, SCFGNode.local)
                     && Objects.equals(field, SCFGNode.field)
                     && Objects.equals(activationUnit, SCFGNode.activationUnit)
@@ -95,7 +115,11 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
 
         @Override
         public int hashCode() {
-            return Objects.hash(unit, local, field, activationUnit, turnUnit);
+            return hashCode;
+        }
+
+        private AbstractSparsePropagation getOwner() {
+            return AbstractSparsePropagation.this;
         }
 
         @Override
@@ -130,21 +154,27 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
     protected final BiDiInterproceduralCFG<Unit, SootMethod> iCfg;
     protected final AbstractInfoflowProblem problem;
 
-    // Maps nodes to successors
-    private final ConcurrentHashMap<SCFGNode, Collection<Unit>> sparseCfg = new ConcurrentHashMap<>();
+    // Maps nodes to successors, grouped by method
+    private final SparseCFGIndex index;
 
     protected AbstractSparsePropagation(AbstractInfoflowProblem problem) {
+        this(problem, new SparseCFGIndex());
+    }
+
+    protected AbstractSparsePropagation(AbstractInfoflowProblem problem, SparseCFGIndex index) {
         this.problem = problem;
         this.iCfg = problem.interproceduralCFG();
+        this.index = index;
     }
 
     /**
      * DFS from node towards the exit of methods. Aborts each path at the first usage and adds it as a successor
      *
-     * @param node current node
+     * @param node  current node
+     * @param entry index entry of the method that contains the node, or null if there is none
      * @return collection of successor statements for node
      */
-    private Collection<Unit> computeSuccessors(SCFGNode node) {
+    private Collection<Unit> computeSuccessors(SCFGNode node, SparseCFGIndex.MethodEntry entry) {
         Set<Unit> succs = new HashSet<>();
 
         Deque<Unit> stack = new ArrayDeque<>();
@@ -155,7 +185,7 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
             Unit current = stack.pop();
             if (visited.add(current)) {
                 Stmt stmt = (Stmt) current;
-                if (node.isAffectedBy(current)) {
+                if (node.isAffectedBy(current, entry == null ? null : entry.getUnitInfo(current))) {
                     succs.add(stmt);
                 } else {
                     for (Unit succ : iCfg.getSuccsOf(current)) {
@@ -175,6 +205,9 @@ public abstract class AbstractSparsePropagation implements IPropagationStrategy<
      * @return collection of successors
      */
     protected Collection<Unit> getSuccessors(SCFGNode node) {
-        return sparseCfg.computeIfAbsent(node, this::computeSuccessors);
+        SparseCFGIndex.MethodEntry entry = index.getEntry(iCfg.getMethodOf(node.unit));
+        if (entry == null)
+            return computeSuccessors(node, null);
+        return entry.successors.computeIfAbsent(node, n -> computeSuccessors(node, entry));
     }
 }
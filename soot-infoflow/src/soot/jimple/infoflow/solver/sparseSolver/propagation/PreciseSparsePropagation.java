@@ -169,6 +169,10 @@ public class PreciseSparsePropagation extends AbstractSparsePropagation {
         super(problem);
     }
 
+    public PreciseSparsePropagation(AbstractInfoflowProblem problem, SparseCFGIndex index) {
+        super(problem, index);
+    }
+
     @Override
     public Collection<Unit> getSuccsOf(Unit unit, Abstraction abstraction) {
         assert !abstraction.getAccessPath().isEmpty();
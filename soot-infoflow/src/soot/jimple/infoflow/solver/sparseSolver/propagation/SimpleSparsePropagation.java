@@ -67,6 +67,10 @@ public class SimpleSparsePropagation extends AbstractSparsePropagation {
         super(problem);
     }
 
+    public SimpleSparsePropagation(AbstractInfoflowProblem problem, SparseCFGIndex index) {
+        super(problem, index);
+    }
+
     @Override
     public Collection<Unit> getSuccsOf(Unit unit, Abstraction abstraction) {
         assert !abstraction.getAccessPath().isEmpty();
@@ -0,0 +1,242 @@
+package soot.jimple.infoflow.solver.sparseSolver.propagation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.Local;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.ValueBox;
+import soot.jimple.DefinitionStmt;
+import soot.jimple.InstanceFieldRef;
+
+/**
+ * Per-method index for the sparse propagation strategies. For each method, the
+ * index records which locals each statement uses or defines, and caches the
+ * sparse successors that the propagation strategies have computed for the
+ * statements of the method.
+ *
+ * The def-use data does not depend on the direction of the analysis, so a
+ * single index can be shared by the forward, backward and alias solvers. The
+ * successors are kept separately for each propagation strategy. If a maximum
+ * number of methods is configured, the methods that have not been used for the
+ * longest time are evicted as a whole.
+ */
+public class SparseCFGIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SparseCFGIndex.class);
+
+    private static final Local[] NO_LOCALS = new Local[0];
+
+    /**
+     * Def-use summary of a single statement
+     */
+    static class UnitInfo {
+        private final Local[] locals;
+        private final boolean aliasableDef;
+
+        private UnitInfo(Unit unit) {
+            List<Local> locals = null;
+            for (ValueBox vb : unit.getUseAndDefBoxes()) {
+                Value val = vb.getValue();
+                if (val instanceof Local) {
+                    if (locals == null)
+                        locals = new ArrayList<>(4);
+                    if (!locals.contains(val))
+                        locals.add((Local) val);
+                }
+            }
+            this.locals = locals == null ? NO_LOCALS : locals.toArray(new Local[locals.size()]);
+
+            // Definitions of locals and instance fields may be strong updates through a
+            // must-alias of the tracked local, even if the local itself is not mentioned
+            if (unit instanceof DefinitionStmt) {
+                Value lhs = ((DefinitionStmt) unit).getLeftOp();
+                this.aliasableDef = lhs instanceof Local || lhs instanceof InstanceFieldRef;
+            } else
+                this.aliasableDef = false;
+        }
+
+        /**
+         * Checks whether the statement may affect the given local. If this method
+         * returns false, the statement neither mentions the local nor defines a value
+         * that may be a must-alias of the local.
+         *
+         * @param local The local to check
+         * @return True if the statement may affect the given local, false if it
+         *         certainly does not
+         */
+        boolean mayAffect(Local local) {
+            if (aliasableDef)
+                return true;
+            for (Local l : locals)
+                if (l == local)
+                    return true;
+            return false;
+        }
+    }
+
+    /**
+     * The indexed data of a single method
+     */
+    static class MethodEntry {
+        private final Map<Unit, UnitInfo> units;
+        final Map<Object, Collection<Unit>> successors = new ConcurrentHashMap<>();
+        private volatile long lastUsed;
+
+        private MethodEntry(SootMethod method, long epoch) {
+            Collection<Unit> body = method.getActiveBody().getUnits();
+            this.units = new IdentityHashMap<>(body.size());
+            for (Unit u : body)
+                units.put(u, new UnitInfo(u));
+            this.lastUsed = epoch;
+        }
+
+        /**
+         * Gets the def-use summary of the given statement
+         *
+         * @param unit The statement
+         * @return The def-use summary of the given statement, or <code>null</code> if
+         *         the statement is not part of this method
+         */
+        UnitInfo getUnitInfo(Unit unit) {
+            return units.get(unit);
+        }
+    }
+
+    private final int maxMethods;
+
+    private final Map<SootMethod, MethodEntry> methods = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder builtMethods = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new index without a limit on the number of methods
+     */
+    public SparseCFGIndex() {
+        this(-1);
+    }
+
+    /**
+     * Creates a new index
+     *
+     * @param maxMethods The maximum number of methods to keep in the index, or -1
+     *                   for no limit
+     */
+    public SparseCFGIndex(int maxMethods) {
+        this.maxMethods = maxMethods;
+    }
+
+    /**
+     * Gets the index entry of the given method, and builds it if necessary
+     *
+     * @param method The method
+     * @return The index entry of the given method, or <code>null</code> if the
+     *         method has no body
+     */
+    MethodEntry getEntry(SootMethod method) {
+        if (method == null)
+            return null;
+
+        MethodEntry entry = methods.get(method);
+        if (entry == null) {
+            if (!method.hasActiveBody())
+                return null;
+            entry = methods.computeIfAbsent(method, m -> {
+                builtMethods.increment();
+                return new MethodEntry(m, epoch.incrementAndGet());
+            });
+            if (maxMethods > 0 && methods.size() > maxMethods)
+                evict();
+        } else {
+            // Only write the time stamp if it has changed to avoid needless cache line
+            // invalidations
+            long now = epoch.get();
+            if (entry.lastUsed != now)
+                entry.lastUsed = now;
+        }
+        return entry;
+    }
+
+    /**
+     * Evicts the methods that have not been used for the longest time. Only one
+     * thread evicts at a time, all other threads just continue.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock())
+            return;
+        try {
+            int toRemove = methods.size() - maxMethods;
+            if (toRemove <= 0)
+                return;
+
+            // Evict a few more methods so that we don't have to sort on every new
+            // method
+            toRemove = Math.min(methods.size(), toRemove + maxMethods / 10);
+            List<Map.Entry<SootMethod, MethodEntry>> entries = new ArrayList<>(methods.entrySet());
+            entries.sort((e1, e2) -> Long.compare(e1.getValue().lastUsed, e2.getValue().lastUsed));
+            for (int i = 0; i < toRemove; i++) {
+                if (methods.remove(entries.get(i).getKey(), entries.get(i).getValue()))
+                    evictions.increment();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes all methods from the index
+     */
+    public void invalidate() {
+        methods.clear();
+    }
+
+    /**
+     * Gets the number of method entries that have been built, including entries
+     * that were built again after they had been evicted
+     *
+     * @return The number of method entries that have been built
+     */
+    public long getBuiltMethodCount() {
+        return builtMethods.sum();
+    }
+
+    /**
+     * Gets the number of methods that were evicted from the index
+     *
+     * @return The number of evicted methods
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of methods that are currently in the index
+     *
+     * @return The number of indexed methods
+     */
+    public int getMethodCount() {
+        return methods.size();
+    }
+
+    /**
+     * Writes the index statistics to the log
+     */
+    public void printStats() {
+        logger.debug("Sparse CFG index: {} methods indexed, {} methods built, {} methods evicted", getMethodCount(),
+                getBuiltMethodCount(), getEvictionCount());
+    }
+}
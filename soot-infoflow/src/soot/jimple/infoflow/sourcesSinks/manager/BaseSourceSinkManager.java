@@ -12,6 +12,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -29,6 +31,7 @@ import soot.SootClass;
 import soot.SootField;
 import soot.SootMethod;
 import soot.Type;
+import soot.Unit;
 import soot.Value;
 import soot.VoidType;
 import soot.jimple.AssignStmt;
@@ -46,6 +49,7 @@ import soot.jimple.infoflow.InfoflowConfiguration.CallbackSourceMode;
 import soot.jimple.infoflow.InfoflowConfiguration.SourceSinkConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.callbacks.CallbackDefinition;
+import soot.jimple.infoflow.collect.IdentityArrayIndex;
 import soot.jimple.infoflow.data.AccessPath;
 import soot.jimple.infoflow.data.AccessPath.ArrayTaintType;
 import soot.jimple.infoflow.data.SootMethodAndClass;
@@ -97,6 +101,105 @@ public abstract class BaseSourceSinkManager
 		UISource
 	}
 
+	/**
+	 * The part of the source and sink lookup for a single statement that does not
+	 * depend on the tainted access path
+	 */
+	protected static class StatementClassification {
+
+		private final boolean excluded;
+		private final Collection<ISourceSinkDefinition> sinkDefinitions;
+		private final SootMethod sinkCallee;
+		private final Collection<ISourceSinkDefinition> sourceDefinitions;
+
+		/**
+		 * Creates a new classification
+		 *
+		 * @param excluded          True if no sources or sinks shall be detected at
+		 *                          the statement
+		 * @param sinkDefinitions   The candidate sink definitions of the statement
+		 * @param sinkCallee        The callee in which a taint must be visible for the
+		 *                          sink definitions to apply, or <code>null</code> if
+		 *                          the definitions apply to all taints
+		 * @param sourceDefinitions The source definitions of the statement that stem
+		 *                          from statement-specific definitions or from the
+		 *                          callee, or <code>null</code> if the sources have
+		 *                          not been classified
+		 */
+		protected StatementClassification(boolean excluded, Collection<ISourceSinkDefinition> sinkDefinitions,
+				SootMethod sinkCallee, Collection<ISourceSinkDefinition> sourceDefinitions) {
+			this.excluded = excluded;
+			this.sinkDefinitions = sinkDefinitions;
+			this.sinkCallee = sinkCallee;
+			this.sourceDefinitions = sourceDefinitions;
+		}
+
+	}
+
+	private static final StatementClassification NO_DEFINITIONS = new StatementClassification(false,
+			Collections.emptySet(), null, Collections.emptySet());
+	private static final StatementClassification NO_DEFINITIONS_EXCLUDED = new StatementClassification(true,
+			Collections.emptySet(), null, Collections.emptySet());
+
+	/**
+	 * The precomputed classifications of the statements together with the
+	 * interprocedural control flow graph for which they were computed
+	 */
+	private static class StatementIndex {
+
+		private final IInfoflowCFG icfg;
+		private final boolean classifySources;
+		private final IdentityArrayIndex<Stmt, StatementClassification> classifications;
+
+		private StatementIndex(IInfoflowCFG icfg, boolean classifySources,
+				IdentityArrayIndex<Stmt, StatementClassification> classifications) {
+			this.icfg = icfg;
+			this.classifySources = classifySources;
+			this.classifications = classifications;
+		}
+
+	}
+
+	/**
+	 * Task for classifying a range of statements. Large ranges are split.
+	 */
+	private class ClassificationTask extends RecursiveAction {
+
+		private static final long serialVersionUID = -3806186123454208707L;
+
+		private static final int STMTS_PER_TASK = 256;
+
+		private final List<Stmt> stmts;
+		private final StatementClassification[] results;
+		private final IInfoflowCFG icfg;
+		private final boolean classifySources;
+		private final int from;
+		private final int to;
+
+		private ClassificationTask(List<Stmt> stmts, StatementClassification[] results, IInfoflowCFG icfg,
+				boolean classifySources, int from, int to) {
+			this.stmts = stmts;
+			this.results = results;
+			this.icfg = icfg;
+			this.classifySources = classifySources;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= STMTS_PER_TASK) {
+				for (int i = from; i < to; i++)
+					results[i] = classifyStatement(stmts.get(i), icfg, classifySources);
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ClassificationTask(stmts, results, icfg, classifySources, from, mid),
+						new ClassificationTask(stmts, results, icfg, classifySources, mid, to));
+			}
+		}
+
+	}
+
 	protected MultiMap<String, ISourceSinkDefinition> sourceDefs;
 	protected MultiMap<String, ISourceSinkDefinition> sinkDefs;
 
@@ -125,6 +228,8 @@ public abstract class BaseSourceSinkManager
 	protected SootMethod currentSource = null;
 	protected IValueProvider valueProvider = new SimpleConstantValueProvider();
 
+	private volatile StatementIndex statementIndex = null;
+
 	protected final LoadingCache<SootClass, Collection<SootClass>> parentClassesAndInterfaces = IDESolver.DEFAULT_CACHE_BUILDER
 			.build(new CacheLoader<SootClass, Collection<SootClass>>() {
 
@@ -272,6 +377,16 @@ public abstract class BaseSourceSinkManager
 	 */
 	protected Collection<ISourceSinkDefinition> getSinkDefinitions(Stmt sCallSite, InfoflowManager manager,
 			AccessPath ap) {
+		// Do we have a precomputed classification?
+		StatementClassification classification = getStatementClassification(sCallSite, manager.getICFG());
+		if (classification != null) {
+			// Check whether the taint is even visible inside the callee
+			if (classification.sinkCallee != null
+					&& !SystemClassHandler.v().isTaintVisible(ap, classification.sinkCallee))
+				return Collections.emptySet();
+			return classification.sinkDefinitions;
+		}
+
 		// Do we have a statement-specific definition?
 		{
 			Collection<ISourceSinkDefinition> def = sinkStatements.get(sCallSite);
@@ -279,15 +394,30 @@ public abstract class BaseSourceSinkManager
 				return def;
 		}
 
+		// Check whether the taint is even visible inside the callee
+		if (sCallSite.containsInvokeExpr()
+				&& !SystemClassHandler.v().isTaintVisible(ap, sCallSite.getInvokeExpr().getMethod()))
+			return Collections.emptySet();
+
+		return getSinkCandidates(sCallSite, manager.getICFG());
+	}
+
+	/**
+	 * Gets the sink definitions that match the callee, the field, or the method of
+	 * the given statement. The result does not depend on the tainted access path.
+	 * Statement-specific definitions are not considered.
+	 *
+	 * @param sCallSite The statement to check
+	 * @param icfg      The interprocedural control flow graph
+	 * @return The sink definitions that match the given statement
+	 */
+	protected Collection<ISourceSinkDefinition> getSinkCandidates(Stmt sCallSite, IInfoflowCFG icfg) {
 		if (sCallSite.containsInvokeExpr()) {
-			// Check whether the taint is even visible inside the callee
 			final SootMethod callee = sCallSite.getInvokeExpr().getMethod();
-			if (!SystemClassHandler.v().isTaintVisible(ap, callee))
-				return Collections.emptySet();
 
 			// Do we have a direct hit?
 			{
-				Collection<ISourceSinkDefinition> def = this.sinkMethods.get(sCallSite.getInvokeExpr().getMethod());
+				Collection<ISourceSinkDefinition> def = this.sinkMethods.get(callee);
 				if (def.size() > 0)
 					return def;
 			}
@@ -295,8 +425,7 @@ public abstract class BaseSourceSinkManager
 			final String subSig = callee.getSubSignature();
 
 			// Check whether we have any of the interfaces on the list
-			for (SootClass i : parentClassesAndInterfaces
-					.getUnchecked(sCallSite.getInvokeExpr().getMethod().getDeclaringClass())) {
+			for (SootClass i : parentClassesAndInterfaces.getUnchecked(callee.getDeclaringClass())) {
 				if (i.declaresMethod(subSig)) {
 					Collection<ISourceSinkDefinition> def = this.sinkMethods.get(i.getMethod(subSig));
 					if (def.size() > 0)
@@ -305,7 +434,7 @@ public abstract class BaseSourceSinkManager
 			}
 
 			// Ask the CFG in case we don't know any better
-			for (SootMethod sm : manager.getICFG().getCalleesOfCallAt(sCallSite)) {
+			for (SootMethod sm : icfg.getCalleesOfCallAt(sCallSite)) {
 				Collection<ISourceSinkDefinition> def = this.sinkMethods.get(sm);
 				if (def.size() > 0)
 					return def;
@@ -320,7 +449,7 @@ public abstract class BaseSourceSinkManager
 					return def;
 			}
 		} else if (sCallSite instanceof ReturnStmt) {
-			SootMethod sm = manager.getICFG().getMethodOf(sCallSite);
+			SootMethod sm = icfg.getMethodOf(sCallSite);
 			// Do we have a direct hit?
 			{
 				Collection<ISourceSinkDefinition> def = this.sinkReturnMethods.get(sm);
@@ -406,9 +535,7 @@ public abstract class BaseSourceSinkManager
 	@Override
 	public SinkInfo getSinkInfo(Stmt sCallSite, InfoflowManager manager, AccessPath ap) {
 		// Do not look for sinks in excluded methods
-		if (excludedMethods.contains(manager.getICFG().getMethodOf(sCallSite)))
-			return null;
-		if (sCallSite.hasTag(SimulatedCodeElementTag.TAG_NAME))
+		if (isExcluded(sCallSite, manager.getICFG()))
 			return null;
 
 		Collection<ISourceSinkDefinition> def = getSinkDefinitions(sCallSite, manager, ap);
@@ -429,9 +556,7 @@ public abstract class BaseSourceSinkManager
 	@Override
 	public SourceInfo getSourceInfo(Stmt sCallSite, InfoflowManager manager) {
 		// Do not look for sources in excluded methods
-		if (excludedMethods.contains(manager.getICFG().getMethodOf(sCallSite)))
-			return null;
-		if (sCallSite.hasTag(SimulatedCodeElementTag.TAG_NAME))
+		if (isExcluded(sCallSite, manager.getICFG()))
 			return null;
 
 		Collection<ISourceSinkDefinition> defs = getSource(sCallSite, manager.getICFG());
@@ -617,34 +742,23 @@ public abstract class BaseSourceSinkManager
 		assert cfg != null;
 		assert cfg instanceof BiDiInterproceduralCFG;
 
-		// Do we have a statement-specific definition?
-		{
-			Collection<ISourceSinkDefinition> defs = sourceStatements.get(sCallSite);
-			if (defs.size() > 0)
-				return defs;
-		}
-
-		if ((!oneSourceAtATime || osaatType == SourceType.MethodCall) && sCallSite.containsInvokeExpr()) {
-			// This might be a normal source method
-			final SootMethod callee = sCallSite.getInvokeExpr().getMethod();
-			Collection<ISourceSinkDefinition> defs = getSourceDefinition(callee);
-			if (defs.size() > 0)
-				return defs;
-
-			// Check whether we have any of the interfaces on the list
-			final String subSig = callee.getSubSignature();
-			for (SootClass i : parentClassesAndInterfaces.getUnchecked(callee.getDeclaringClass())) {
-				SootMethod m = i.getMethodUnsafe(subSig);
-				if (m != null) {
-					defs = getSourceDefinition(m);
-					if (defs.size() > 0)
-						return defs;
-				}
+		// Do we have a precomputed classification? The classification does not know
+		// about the current source in one-source-at-a-time mode.
+		StatementClassification classification = oneSourceAtATime ? null
+				: getStatementClassification(sCallSite, cfg);
+		if (classification != null && classification.sourceDefinitions != null) {
+			if (classification.sourceDefinitions.size() > 0)
+				return classification.sourceDefinitions;
+		} else {
+			// Do we have a statement-specific definition?
+			{
+				Collection<ISourceSinkDefinition> defs = sourceStatements.get(sCallSite);
+				if (defs.size() > 0)
+					return defs;
 			}
 
-			// Ask the CFG in case we don't know any better
-			for (SootMethod sm : cfg.getCalleesOfCallAt(sCallSite)) {
-				defs = getSourceDefinition(sm);
+			if ((!oneSourceAtATime || osaatType == SourceType.MethodCall) && sCallSite.containsInvokeExpr()) {
+				Collection<ISourceSinkDefinition> defs = getSourceCandidates(sCallSite, cfg);
 				if (defs.size() > 0)
 					return defs;
 			}
@@ -671,6 +785,41 @@ public abstract class BaseSourceSinkManager
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Gets the source definitions that match the callee of the given call site.
+	 * Statement-specific definitions are not considered.
+	 *
+	 * @param sCallSite The call site to check
+	 * @param cfg       The interprocedural control flow graph
+	 * @return The source definitions that match the callee of the given call site
+	 */
+	protected Collection<ISourceSinkDefinition> getSourceCandidates(Stmt sCallSite, IInfoflowCFG cfg) {
+		// This might be a normal source method
+		final SootMethod callee = sCallSite.getInvokeExpr().getMethod();
+		Collection<ISourceSinkDefinition> defs = getSourceDefinition(callee);
+		if (defs.size() > 0)
+			return defs;
+
+		// Check whether we have any of the interfaces on the list
+		final String subSig = callee.getSubSignature();
+		for (SootClass i : parentClassesAndInterfaces.getUnchecked(callee.getDeclaringClass())) {
+			SootMethod m = i.getMethodUnsafe(subSig);
+			if (m != null) {
+				defs = getSourceDefinition(m);
+				if (defs.size() > 0)
+					return defs;
+			}
+		}
+
+		// Ask the CFG in case we don't know any better
+		for (SootMethod sm : cfg.getCalleesOfCallAt(sCallSite)) {
+			defs = getSourceDefinition(sm);
+			if (defs.size() > 0)
+				return defs;
+		}
+		return Collections.emptySet();
+	}
+
 	protected Collection<ISourceSinkDefinition> getInverseSinkDefinition(Stmt sCallSite, IInfoflowCFG cfg) {
 		// Do we have a statement-specific definition?
 		{
@@ -841,6 +990,9 @@ public abstract class BaseSourceSinkManager
 
 	@Override
 	public void initialize() {
+		// The definitions change, so any precomputed classification is outdated
+		statementIndex = null;
+
 		// Get the Soot method or field for the source signatures we have
 		if (sourceDefs != null) {
 			collectSourceCallbacks();
@@ -1070,6 +1222,138 @@ public abstract class BaseSourceSinkManager
 	 */
 	public void excludeMethod(SootMethod toExclude) {
 		this.excludedMethods.add(toExclude);
+		this.statementIndex = null;
+	}
+
+	/**
+	 * Checks whether no sources or sinks shall be detected at the given statement
+	 *
+	 * @param stmt The statement to check
+	 * @param icfg The interprocedural control flow graph
+	 * @return True if the given statement is in an excluded method or is part of
+	 *         simulated code, false otherwise
+	 */
+	protected boolean isExcluded(Stmt stmt, IInfoflowCFG icfg) {
+		StatementClassification classification = getStatementClassification(stmt, icfg);
+		if (classification != null)
+			return classification.excluded;
+		return excludedMethods.contains(icfg.getMethodOf(stmt)) || stmt.hasTag(SimulatedCodeElementTag.TAG_NAME);
+	}
+
+	/**
+	 * Precomputes the part of the source and sink lookup that does not depend on
+	 * the tainted access path for all call sites, field writes and return
+	 * statements in the given methods. Afterwards, checking such a statement for a
+	 * sink only requires a lookup in the index and a check whether the taint is
+	 * visible inside the callee. The index is discarded when the definitions or
+	 * the excluded methods change. Statements that are not in the index are
+	 * classified on demand as before.
+	 *
+	 * The index does not depend on the current source in one-source-at-a-time
+	 * mode. If a valid index for the given control flow graph already exists, it
+	 * is kept, so that the index is only built once for all sources.
+	 *
+	 * @param icfg        The interprocedural control flow graph that will be used
+	 *                    for the data flow analysis
+	 * @param methods     The methods whose statements shall be classified
+	 * @param threadCount The maximum number of threads to use for the
+	 *                    classification
+	 * @return True if a new index has been built, false if the existing index
+	 *         was still valid
+	 */
+	public boolean buildStatementIndex(IInfoflowCFG icfg, Collection<SootMethod> methods, int threadCount) {
+		// In one-source-at-a-time mode, the sources depend on the current source and
+		// cannot be precomputed
+		final boolean classifySources = !oneSourceAtATime;
+		StatementIndex index = this.statementIndex;
+		if (index != null && index.icfg == icfg && index.classifySources == classifySources)
+			return false;
+
+		List<Stmt> stmts = new ArrayList<>();
+		for (SootMethod sm : methods) {
+			if (!sm.hasActiveBody())
+				continue;
+			for (Unit u : sm.getActiveBody().getUnits()) {
+				Stmt s = (Stmt) u;
+				if (s.containsInvokeExpr() || s instanceof ReturnStmt
+						|| (s instanceof AssignStmt && ((AssignStmt) s).getLeftOp() instanceof FieldRef))
+					stmts.add(s);
+			}
+		}
+
+		// The hierarchy is created lazily and must not be created by multiple threads
+		// at the same time
+		Scene.v().getActiveHierarchy();
+
+		StatementClassification[] classifications = new StatementClassification[stmts.size()];
+		ClassificationTask task = new ClassificationTask(stmts, classifications, icfg, classifySources, 0,
+				stmts.size());
+		if (threadCount <= 1 || stmts.size() <= ClassificationTask.STMTS_PER_TASK)
+			task.compute();
+		else {
+			ForkJoinPool pool = new ForkJoinPool(threadCount);
+			try {
+				pool.invoke(task);
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		this.statementIndex = new StatementIndex(icfg, classifySources,
+				new IdentityArrayIndex<>(stmts, classifications));
+		logger.info("Classified {} statements for sources and sinks", stmts.size());
+		return true;
+	}
+
+	/**
+	 * Computes the part of the source and sink lookup for the given statement that
+	 * does not depend on the tainted access path
+	 *
+	 * @param stmt            The statement to classify
+	 * @param icfg            The interprocedural control flow graph
+	 * @param classifySources True to also compute the source definitions of the
+	 *                        statement, false to only compute the sink definitions
+	 * @return The classification of the given statement
+	 */
+	private StatementClassification classifyStatement(Stmt stmt, IInfoflowCFG icfg, boolean classifySources) {
+		final boolean excluded = excludedMethods.contains(icfg.getMethodOf(stmt))
+				|| stmt.hasTag(SimulatedCodeElementTag.TAG_NAME);
+
+		// Statement-specific sinks apply to all taints, sinks on the callee only to
+		// taints that are visible inside the callee
+		Collection<ISourceSinkDefinition> sinkDefs = sinkStatements.get(stmt);
+		SootMethod sinkCallee = null;
+		if (sinkDefs.isEmpty()) {
+			sinkDefs = getSinkCandidates(stmt, icfg);
+			if (!sinkDefs.isEmpty() && stmt.containsInvokeExpr())
+				sinkCallee = stmt.getInvokeExpr().getMethod();
+		}
+
+		Collection<ISourceSinkDefinition> sourceDefs = null;
+		if (classifySources) {
+			sourceDefs = sourceStatements.get(stmt);
+			if (sourceDefs.isEmpty() && stmt.containsInvokeExpr())
+				sourceDefs = getSourceCandidates(stmt, icfg);
+			if (sinkDefs.isEmpty() && sourceDefs.isEmpty())
+				return excluded ? NO_DEFINITIONS_EXCLUDED : NO_DEFINITIONS;
+		}
+		return new StatementClassification(excluded, sinkDefs, sinkCallee, sourceDefs);
+	}
+
+	/**
+	 * Gets the precomputed classification of the given statement
+	 *
+	 * @param stmt The statement
+	 * @param icfg The interprocedural control flow graph of the current analysis
+	 * @return The precomputed classification of the given statement, or
+	 *         <code>null</code> if the statement has not been classified for the
+	 *         given control flow graph
+	 */
+	protected StatementClassification getStatementClassification(Stmt stmt, IInfoflowCFG icfg) {
+		StatementIndex index = this.statementIndex;
+		if (index == null || index.icfg != icfg)
+			return null;
+		return index.classifications.get(stmt);
 	}
 
 	@Override
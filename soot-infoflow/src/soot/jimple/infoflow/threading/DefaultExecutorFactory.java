@@ -4,8 +4,11 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
+import soot.jimple.infoflow.InfoflowConfiguration.TaskSchedulingMode;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
+import soot.jimple.infoflow.solver.executors.WorkStealingExecutor;
 
 /**
  * Default implementation of a factory for thread pool executors
@@ -15,21 +18,51 @@ import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
  */
 public class DefaultExecutorFactory implements IExecutorFactory {
 
+	private final VirtualThreadExecutorFactory virtualThreadFactory = new VirtualThreadExecutorFactory();
+
 	public DefaultExecutorFactory() {
 		//
 	}
 
+	/**
+	 * Checks whether the executor shall run on virtual threads
+	 * 
+	 * @param allowSetSemantics True if the executor is allowed to skip tasks
+	 * @param config            The configuration of the data flow solver
+	 * @return True if the executor shall be created by the factory for virtual
+	 *         threads, otherwise false
+	 */
+	private boolean useVirtualThreads(boolean allowSetSemantics, InfoflowConfiguration config) {
+		if (config.getExecutorType() != ExecutorType.VirtualThreads)
+			return false;
+
+		// Work stealing brings its own worker threads
+		return !allowSetSemantics
+				|| config.getSolverConfiguration().getTaskSchedulingMode() != TaskSchedulingMode.WorkStealing;
+	}
+
+	@Override
+	public InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
+			InfoflowConfiguration config, String threadName) {
+		if (useVirtualThreads(allowSetSemantics, config))
+			return virtualThreadFactory.createExecutor(numThreads, allowSetSemantics, config, threadName);
+		return IExecutorFactory.super.createExecutor(numThreads, allowSetSemantics, config, threadName);
+	}
+
 	@Override
 	public InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
 			InfoflowConfiguration config) {
-		if (allowSetSemantics) {
-			return new SetPoolExecutor(
-					config.getMaxThreadNum() == -1 ? numThreads : Math.min(config.getMaxThreadNum(), numThreads),
-					Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		if (useVirtualThreads(allowSetSemantics, config))
+			return virtualThreadFactory.createExecutor(numThreads, allowSetSemantics, config);
+		if (allowSetSemantics
+				&& config.getSolverConfiguration().getTaskSchedulingMode() == TaskSchedulingMode.WorkStealing) {
+			return new WorkStealingExecutor(numThreads, true);
+		} else if (allowSetSemantics) {
+			return new SetPoolExecutor(numThreads, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>());
 		} else {
-			return new InterruptableExecutor(
-					config.getMaxThreadNum() == -1 ? numThreads : Math.min(config.getMaxThreadNum(), numThreads),
-					Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+			return new InterruptableExecutor(numThreads, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>());
 		}
 	}
 
@@ -16,7 +16,9 @@ public interface IExecutorFactory {
 	 * Creates a new executor object for spawning worker threads
 	 * 
 	 * @param numThreads
-	 *            The number of threads to use
+	 *            The number of threads to use. Callers take this value from the
+	 *            {@link ThreadBudget} of the analysis, i.e., the maximum number of
+	 *            threads from the configuration has already been applied.
 	 * @param allowSetSemantics
 	 *            True if the executor is allowed to skip new tasks if the same task
 	 *            has already been scheduled before. False if the executor must
@@ -28,4 +30,31 @@ public interface IExecutorFactory {
 	public InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
 			InfoflowConfiguration config);
 
+	/**
+	 * Creates a new executor object for spawning worker threads with the given
+	 * name
+	 * 
+	 * @param numThreads
+	 *            The number of threads to use
+	 * @param allowSetSemantics
+	 *            True if the executor is allowed to skip new tasks if the same task
+	 *            has already been scheduled before. False if the executor must
+	 *            schedule all tasks it is given.
+	 * @param config
+	 *            The configuration of the data flow solver
+	 * @param threadName
+	 *            The name of the worker threads
+	 * @return The generated executor
+	 */
+	public default InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
+			InfoflowConfiguration config, String threadName) {
+		InterruptableExecutor executor = createExecutor(numThreads, allowSetSemantics, config);
+		executor.setThreadFactory(r -> {
+			Thread thr = new Thread(r, threadName);
+			thr.setDaemon(true);
+			return thr;
+		});
+		return executor;
+	}
+
 }
@@ -0,0 +1,260 @@
+package soot.jimple.infoflow.threading;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import soot.jimple.infoflow.AnalysisPhase;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+
+/**
+ * Central thread budget for one run of the data flow analysis. The budget
+ * contains one thread per available processor. A phase of the analysis leases
+ * threads from the budget when it starts and returns them when it ends, so that
+ * phases that run at the same time share the processors instead of each
+ * getting all of them. A lease never exceeds the global or phase-specific
+ * maximum number of threads from the {@link InfoflowConfiguration}. Every lease
+ * has at least one thread, so that a phase can make progress even if other
+ * phases hold the whole budget.
+ *
+ * The executors of a phase are registered with its lease. Releasing the lease
+ * shuts them down and records how many threads they have actually started.
+ */
+public class ThreadBudget {
+
+	/**
+	 * A number of threads that have been leased from the budget for one phase of
+	 * the analysis
+	 */
+	public class Lease implements AutoCloseable {
+
+		private final AnalysisPhase phase;
+		private final int threadCount;
+		private final List<ThreadPoolExecutor> executors = new ArrayList<>();
+		private boolean released = false;
+
+		private Lease(AnalysisPhase phase, int threadCount) {
+			this.phase = phase;
+			this.threadCount = threadCount;
+		}
+
+		/**
+		 * Gets the phase for which the threads have been leased
+		 *
+		 * @return The phase for which the threads have been leased
+		 */
+		public AnalysisPhase getPhase() {
+			return phase;
+		}
+
+		/**
+		 * Gets the number of threads in this lease
+		 *
+		 * @return The number of threads in this lease
+		 */
+		public int getThreadCount() {
+			return threadCount;
+		}
+
+		/**
+		 * Registers an executor that runs on the threads of this lease. The
+		 * executor is shut down when the lease is released.
+		 *
+		 * @param executor The executor
+		 * @return The given executor
+		 */
+		public <T extends ThreadPoolExecutor> T track(T executor) {
+			synchronized (ThreadBudget.this) {
+				if (released)
+					throw new IllegalStateException("The lease for " + phase + " has already been released");
+				executors.add(executor);
+			}
+			return executor;
+		}
+
+		/**
+		 * Shuts down all executors of this lease and returns its threads to the
+		 * budget. Releasing a lease more than once has no effect.
+		 */
+		public void release() {
+			List<ThreadPoolExecutor> toShutdown;
+			synchronized (ThreadBudget.this) {
+				if (released)
+					return;
+				released = true;
+				leasedThreads -= threadCount;
+				activeLeases.get(phase).remove(this);
+				recordUsage(phase, getLargestPoolSize());
+				toShutdown = new ArrayList<>(executors);
+				executors.clear();
+			}
+			for (ThreadPoolExecutor executor : toShutdown)
+				executor.shutdown();
+		}
+
+		@Override
+		public void close() {
+			release();
+		}
+
+		/**
+		 * Gets the largest number of threads that any executor of this lease has
+		 * started
+		 *
+		 * @return The largest number of threads started by an executor of this
+		 *         lease
+		 */
+		private int getLargestPoolSize() {
+			int usage = 0;
+			for (ThreadPoolExecutor executor : executors)
+				usage = Math.max(usage, executor.getLargestPoolSize());
+			return usage;
+		}
+
+	}
+
+	private final InfoflowConfiguration config;
+	private final int availableProcessors;
+	private final Map<AnalysisPhase, Deque<Lease>> activeLeases = new EnumMap<>(AnalysisPhase.class);
+	private final Map<AnalysisPhase, Integer> threadUsage = new EnumMap<>(AnalysisPhase.class);
+	private int leasedThreads = 0;
+
+	/**
+	 * Creates a new instance of the {@link ThreadBudget} class for the current
+	 * machine
+	 *
+	 * @param config The configuration of the data flow analysis
+	 */
+	public ThreadBudget(InfoflowConfiguration config) {
+		this(config, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new instance of the {@link ThreadBudget} class
+	 *
+	 * @param config              The configuration of the data flow analysis
+	 * @param availableProcessors The number of processors that the analysis may
+	 *                            use at most
+	 */
+	public ThreadBudget(InfoflowConfiguration config, int availableProcessors) {
+		this.config = config;
+		this.availableProcessors = Math.max(1, availableProcessors);
+		for (AnalysisPhase phase : AnalysisPhase.values())
+			activeLeases.put(phase, new ArrayDeque<>());
+	}
+
+	/**
+	 * Gets the largest number of threads that the given phase may lease according
+	 * to the configuration
+	 *
+	 * @param phase The phase of the analysis
+	 * @return The largest number of threads for the given phase
+	 */
+	private int getMaxThreadCount(AnalysisPhase phase) {
+		int maxThreadNum = config.getMaxThreadNum(phase);
+		if (maxThreadNum <= 0)
+			return availableProcessors;
+		return Math.min(maxThreadNum, availableProcessors);
+	}
+
+	/**
+	 * Leases threads for the given phase. The lease must be released once the
+	 * phase has ended. Until then, it is the current lease of the phase.
+	 *
+	 * @param phase The phase of the analysis
+	 * @return The new lease
+	 */
+	public synchronized Lease acquire(AnalysisPhase phase) {
+		int free = availableProcessors - leasedThreads;
+		int threadCount = Math.max(1, Math.min(getMaxThreadCount(phase), free));
+		Lease lease = new Lease(phase, threadCount);
+		leasedThreads += threadCount;
+		activeLeases.get(phase).push(lease);
+		return lease;
+	}
+
+	/**
+	 * Gets the number of threads that the given phase may use. If the phase holds
+	 * a lease, this is the size of its current lease. Otherwise, it is the number
+	 * of threads that a new lease would get right now.
+	 *
+	 * @param phase The phase of the analysis
+	 * @return The number of threads that the given phase may use
+	 */
+	public synchronized int getThreadCount(AnalysisPhase phase) {
+		Lease lease = activeLeases.get(phase).peek();
+		if (lease != null)
+			return lease.getThreadCount();
+		return Math.max(1, Math.min(getMaxThreadCount(phase), availableProcessors - leasedThreads));
+	}
+
+	/**
+	 * Registers an executor that runs the tasks of the given phase with the
+	 * current lease of that phase, so that it is shut down when the lease is
+	 * released. If the phase holds no lease, e.g., because a path builder is used
+	 * outside of a data flow analysis, the caller remains responsible for shutting
+	 * down the executor.
+	 *
+	 * @param phase    The phase of the analysis
+	 * @param executor The executor that runs the tasks of the given phase
+	 * @return The given executor
+	 */
+	public <T extends ThreadPoolExecutor> T track(AnalysisPhase phase, T executor) {
+		Lease lease;
+		synchronized (this) {
+			lease = activeLeases.get(phase).peek();
+		}
+		return lease == null ? executor : lease.track(executor);
+	}
+
+	/**
+	 * Gets the number of threads that are currently leased
+	 *
+	 * @return The number of threads that are currently leased
+	 */
+	public synchronized int getLeasedThreadCount() {
+		return leasedThreads;
+	}
+
+	private void recordUsage(AnalysisPhase phase, int usage) {
+		threadUsage.merge(phase, usage, Math::max);
+	}
+
+	/**
+	 * Gets the largest number of threads that any of the executors of the given
+	 * phase has started
+	 *
+	 * @param phase The phase of the analysis
+	 * @return The largest number of threads used in the given phase, or -1 if no
+	 *         lease has been taken for the phase
+	 */
+	public synchronized int getThreadUsage(AnalysisPhase phase) {
+		int usage = threadUsage.getOrDefault(phase, -1);
+		for (Lease lease : activeLeases.get(phase))
+			usage = Math.max(usage, lease.getLargestPoolSize());
+		return usage;
+	}
+
+	/**
+	 * Writes the thread usage of all phases into the given performance data object
+	 *
+	 * @param performanceData The performance data object to fill
+	 */
+	public void reportUsage(InfoflowPerformanceData performanceData) {
+		performanceData.updateTaintPropagationThreads(getThreadUsage(AnalysisPhase.TAINT_PROPAGATION));
+		performanceData.updatePathReconstructionThreads(getThreadUsage(AnalysisPhase.PATH_RECONSTRUCTION));
+	}
+
+	/**
+	 * Forgets the thread usage that has been recorded so far
+	 */
+	public synchronized void clear() {
+		threadUsage.clear();
+	}
+
+}
@@ -0,0 +1,229 @@
+package soot.jimple.infoflow.threading;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.ExecutorType;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
+
+/**
+ * Factory for thread pool executors that run their tasks on virtual threads.
+ * The virtual threads are multiplexed onto a bounded pool of carrier threads,
+ * so the executor can keep more tasks in flight than there are processors
+ * without creating additional platform threads. The executors are regular
+ * {@link InterruptableExecutor}s, i.e., termination detection, interruption and
+ * exception reporting work exactly as with platform threads.
+ *
+ * The carrier threads belong to the JVM-wide scheduler for virtual threads.
+ * This factory does not change the number of carrier threads. To bound it, start
+ * the JVM with <code>-Djdk.virtualThreadScheduler.parallelism=n</code>. The
+ * executors themselves never run more tasks at the same time than the number of
+ * threads they were created for, i.e., the share of the thread budget of the
+ * respective analysis phase.
+ *
+ * FlowDroid is compiled for Java 17, so the virtual thread API is accessed
+ * reflectively. On runtimes without virtual threads, this factory falls back to
+ * platform threads.
+ */
+public class VirtualThreadExecutorFactory implements IExecutorFactory {
+
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutorFactory.class);
+
+	/**
+	 * The number of virtual threads that the executor keeps per thread of its
+	 * budget
+	 */
+	public static final int DEFAULT_TASKS_PER_CARRIER = 4;
+
+	private static final Method OF_VIRTUAL;
+	private static final Method BUILDER_NAME;
+	private static final Method BUILDER_FACTORY;
+
+	static {
+		Method ofVirtual = null;
+		Method builderName = null;
+		Method builderFactory = null;
+		try {
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builderName = builderClass.getMethod("name", String.class, long.class);
+			builderFactory = builderClass.getMethod("factory");
+
+			// On Java 19 and 20, virtual threads are a preview feature that
+			// throws an exception unless enabled explicitly
+			ofVirtual.invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			ofVirtual = null;
+		}
+		OF_VIRTUAL = ofVirtual;
+		BUILDER_NAME = builderName;
+		BUILDER_FACTORY = builderFactory;
+	}
+
+	/**
+	 * Thread factory that creates virtual threads
+	 */
+	private static class VirtualThreadFactory implements ThreadFactory {
+
+		private final ThreadFactory delegate;
+
+		private VirtualThreadFactory(ThreadFactory delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			return delegate.newThread(r);
+		}
+
+	}
+
+	private final int tasksPerCarrier;
+
+	/**
+	 * Creates a new instance of the {@link VirtualThreadExecutorFactory} class
+	 */
+	public VirtualThreadExecutorFactory() {
+		this(DEFAULT_TASKS_PER_CARRIER);
+	}
+
+	/**
+	 * Creates a new instance of the {@link VirtualThreadExecutorFactory} class
+	 *
+	 * @param tasksPerCarrier The number of virtual threads that the executor keeps
+	 *                        per thread of its budget
+	 */
+	public VirtualThreadExecutorFactory(int tasksPerCarrier) {
+		this.tasksPerCarrier = Math.max(1, tasksPerCarrier);
+	}
+
+	@Override
+	public InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
+			InfoflowConfiguration config) {
+		return createExecutor(numThreads, allowSetSemantics, config, "FlowDroid");
+	}
+
+	@Override
+	public InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
+			InfoflowConfiguration config, String threadName) {
+		int carriers = Math.max(1, numThreads);
+		int poolSize = getPoolSize(carriers, tasksPerCarrier);
+
+		InterruptableExecutor executor;
+		if (allowSetSemantics)
+			executor = new SetPoolExecutor(poolSize, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>());
+		else
+			executor = new InterruptableExecutor(poolSize, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>());
+		executor.setThreadFactory(createThreadFactory(threadName));
+		executor.setMaxRunningTasks(carriers);
+		return executor;
+	}
+
+	/**
+	 * Creates an executor with the given work queue. If the given configuration
+	 * requests virtual threads and the runtime supports them, the executor runs its
+	 * tasks on virtual threads. Otherwise, it uses platform threads.
+	 *
+	 * @param config     The configuration of the data flow analysis
+	 * @param numThreads The maximum number of tasks to run at the same time
+	 * @param workQueue  The queue in which the executor keeps its pending tasks
+	 * @param threadName The name of the worker threads
+	 * @return The new executor
+	 */
+	public static InterruptableExecutor createExecutor(InfoflowConfiguration config, int numThreads,
+			BlockingQueue<Runnable> workQueue, String threadName) {
+		int carriers = Math.max(1, numThreads);
+		if (useVirtualThreads(config)) {
+			InterruptableExecutor executor = new InterruptableExecutor(getPoolSize(carriers, DEFAULT_TASKS_PER_CARRIER),
+					Integer.MAX_VALUE, 30, TimeUnit.SECONDS, workQueue);
+			executor.setThreadFactory(createThreadFactory(threadName));
+			executor.setMaxRunningTasks(carriers);
+			return executor;
+		}
+
+		InterruptableExecutor executor = new InterruptableExecutor(carriers, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+				workQueue);
+		executor.setThreadFactory(r -> new Thread(r, threadName));
+		return executor;
+	}
+
+	/**
+	 * Checks whether the given executor runs its tasks on virtual threads
+	 *
+	 * @param executor The executor to check
+	 * @return True if the given executor has been created by this factory and runs
+	 *         its tasks on virtual threads, otherwise false
+	 */
+	public static boolean usesVirtualThreads(InterruptableExecutor executor) {
+		return executor.getThreadFactory() instanceof VirtualThreadFactory;
+	}
+
+	/**
+	 * Checks whether the current Java runtime supports virtual threads
+	 *
+	 * @return True if virtual threads are available, otherwise false
+	 */
+	public static boolean isSupported() {
+		return OF_VIRTUAL != null;
+	}
+
+	/**
+	 * Checks whether the given configuration requests virtual threads and the
+	 * current Java runtime supports them
+	 *
+	 * @param config The configuration of the data flow analysis
+	 * @return True if the analysis shall run on virtual threads, otherwise false
+	 */
+	public static boolean useVirtualThreads(InfoflowConfiguration config) {
+		return config.getExecutorType() == ExecutorType.VirtualThreads && isSupported();
+	}
+
+	/**
+	 * Gets the number of pool threads for an executor that shall run on the given
+	 * number of carrier threads
+	 *
+	 * @param carriers        The number of carrier threads
+	 * @param tasksPerCarrier The number of virtual threads per carrier thread
+	 * @return The number of pool threads
+	 */
+	public static int getPoolSize(int carriers, int tasksPerCarrier) {
+		return isSupported() ? carriers * tasksPerCarrier : carriers;
+	}
+
+	/**
+	 * Creates a factory for virtual threads with the given name. If the runtime
+	 * does not support virtual threads, the factory creates platform daemon
+	 * threads instead.
+	 *
+	 * @param name The name prefix of the new threads
+	 * @return The new thread factory
+	 */
+	public static ThreadFactory createThreadFactory(String name) {
+		if (isSupported()) {
+			try {
+				Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 1L);
+				return new VirtualThreadFactory((ThreadFactory) BUILDER_FACTORY.invoke(builder));
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				logger.warn("Could not create virtual threads, falling back to platform threads", e);
+			}
+		} else
+			logger.warn("Virtual threads are not supported by this Java runtime, falling back to platform threads");
+
+		return r -> {
+			Thread thr = new Thread(r, name);
+			thr.setDaemon(true);
+			return thr;
+		};
+	}
+
+}
@@ -0,0 +1,233 @@
+package soot.jimple.infoflow.typing;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import soot.FastHierarchy;
+import soot.PrimType;
+import soot.Type;
+
+/**
+ * Memoizes the results of {@link FastHierarchy#canStoreType(Type, Type)}. Each
+ * reference type receives a dense numeric id when it is first queried. The
+ * results are kept in a bit matrix with one row per parent type and two bits
+ * per child type, one that records whether the pair has already been checked,
+ * and one for the result. The matrix is filled lazily, and a row only grows up
+ * to the largest child type that has been checked against its parent type. The
+ * overall size of the matrix is capped. Once the cap has been reached, pairs
+ * that do not fit into the matrix are passed on to the hierarchy.
+ *
+ * All users of the same hierarchy share one cache, see
+ * {@link #forHierarchy(FastHierarchy)}.
+ *
+ * The cache is safe for concurrent use. Both bits of a pair are written with a
+ * single compare-and-set operation. When a row has to grow, concurrent updates
+ * to the old row may get lost, which only means that the respective pair is
+ * checked again later.
+ */
+public class TypeCompatibilityCache {
+
+	private static final int BITS_PER_PAIR = 2;
+	private static final int PAIRS_PER_INT = Integer.SIZE / BITS_PER_PAIR;
+	private static final int KNOWN = 1;
+	private static final int COMPATIBLE = 2;
+
+	private static final int INITIAL_ROWS = 256;
+	private static final int INITIAL_ROW_PAIRS = 1024;
+
+	/**
+	 * The default maximum number of pairs in the matrix, which amounts to 16 MB
+	 */
+	public static final long DEFAULT_MAX_PAIRS = 64L * 1024 * 1024;
+
+	private static final Map<FastHierarchy, TypeCompatibilityCache> caches = new WeakHashMap<>();
+
+	// The cache must not keep its key in the map of caches alive
+	private final WeakReference<FastHierarchy> hierarchy;
+	private final long maxInts;
+	private long allocatedInts = 0;
+
+	private final ConcurrentMap<Type, Integer> typeIds = new ConcurrentHashMap<>();
+	private final AtomicInteger nextTypeId = new AtomicInteger();
+	private volatile AtomicIntegerArray[] rows = new AtomicIntegerArray[INITIAL_ROWS];
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Creates a new cache with the default maximum size
+	 *
+	 * @param hierarchy The hierarchy whose results shall be cached
+	 */
+	public TypeCompatibilityCache(FastHierarchy hierarchy) {
+		this(hierarchy, DEFAULT_MAX_PAIRS);
+	}
+
+	/**
+	 * Creates a new cache
+	 *
+	 * @param hierarchy The hierarchy whose results shall be cached
+	 * @param maxPairs  The maximum number of (parent, child) pairs for which the
+	 *                  cache stores results
+	 */
+	public TypeCompatibilityCache(FastHierarchy hierarchy, long maxPairs) {
+		this.hierarchy = new WeakReference<>(hierarchy);
+		this.maxInts = maxPairs / PAIRS_PER_INT;
+	}
+
+	/**
+	 * Gets the cache that is shared by all users of the given hierarchy
+	 *
+	 * @param hierarchy The hierarchy whose results shall be cached
+	 * @return The cache for the given hierarchy
+	 */
+	public static TypeCompatibilityCache forHierarchy(FastHierarchy hierarchy) {
+		synchronized (caches) {
+			return caches.computeIfAbsent(hierarchy, TypeCompatibilityCache::new);
+		}
+	}
+
+	/**
+	 * Checks whether a value of type "child" can be stored in a variable of type
+	 * "parent"
+	 *
+	 * @param child  The actual type of the value
+	 * @param parent The declared type of the variable
+	 * @return True if a value of type "child" can be stored in a variable of type
+	 *         "parent", false otherwise or if one of the types is
+	 *         <code>null</code>
+	 */
+	public boolean canStoreType(Type child, Type parent) {
+		// Same as the uncached check in TypeUtils
+		if (child == null || parent == null)
+			return false;
+
+		final FastHierarchy hierarchy = this.hierarchy.get();
+
+		// Primitive types are cheap to check and there are only few of them
+		if (child instanceof PrimType || parent instanceof PrimType)
+			return hierarchy.canStoreType(child, parent);
+		if (child == parent)
+			return true;
+
+		final int childId = getTypeId(child);
+		final int parentId = getTypeId(parent);
+		final int idx = childId / PAIRS_PER_INT;
+		final int shift = (childId % PAIRS_PER_INT) * BITS_PER_PAIR;
+
+		AtomicIntegerArray row = getRow(parentId, idx);
+		if (row == null) {
+			// The matrix has reached its maximum size
+			misses.increment();
+			return hierarchy.canStoreType(child, parent);
+		}
+		int bits = row.get(idx) >>> shift;
+		if ((bits & KNOWN) != 0) {
+			hits.increment();
+			return (bits & COMPATIBLE) != 0;
+		}
+
+		misses.increment();
+		boolean compatible = hierarchy.canStoreType(child, parent);
+		int pairBits = (KNOWN | (compatible ? COMPATIBLE : 0)) << shift;
+		int old;
+		do {
+			old = row.get(idx);
+		} while ((old & pairBits) != pairBits && !row.compareAndSet(idx, old, old | pairBits));
+		return compatible;
+	}
+
+	private int getTypeId(Type type) {
+		Integer id = typeIds.get(type);
+		if (id == null)
+			id = typeIds.computeIfAbsent(type, t -> nextTypeId.getAndIncrement());
+		return id;
+	}
+
+	/**
+	 * Gets the row of the given parent type, and makes sure that the row has at
+	 * least the given number of entries
+	 *
+	 * @param parentId The id of the parent type
+	 * @param minIdx   The index of the entry that must exist in the row
+	 * @return The row of the given parent type, or <code>null</code> if the row
+	 *         cannot grow without exceeding the maximum size of the matrix
+	 */
+	private AtomicIntegerArray getRow(int parentId, int minIdx) {
+		AtomicIntegerArray[] rows = this.rows;
+		if (parentId < rows.length) {
+			AtomicIntegerArray row = rows[parentId];
+			if (row != null && minIdx < row.length())
+				return row;
+		}
+		return growRow(parentId, minIdx);
+	}
+
+	private synchronized AtomicIntegerArray growRow(int parentId, int minIdx) {
+		AtomicIntegerArray[] rows = this.rows;
+		if (parentId >= rows.length) {
+			AtomicIntegerArray[] newRows = new AtomicIntegerArray[Math.max(rows.length * 2, parentId + 1)];
+			System.arraycopy(rows, 0, newRows, 0, rows.length);
+			rows = newRows;
+		}
+
+		AtomicIntegerArray row = rows[parentId];
+		if (row == null || minIdx >= row.length()) {
+			int newLength = Math.max(INITIAL_ROW_PAIRS / PAIRS_PER_INT, minIdx + 1);
+			if (row != null)
+				newLength = Math.max(newLength, row.length() * 2);
+
+			// Rows only grow up to the number of known types
+			newLength = Math.max(minIdx + 1, Math.min(newLength, nextTypeId.get() / PAIRS_PER_INT + 1));
+			long addedInts = newLength - (row == null ? 0 : row.length());
+			if (allocatedInts + addedInts > maxInts) {
+				this.rows = rows;
+				return null;
+			}
+			allocatedInts += addedInts;
+
+			AtomicIntegerArray newRow = new AtomicIntegerArray(newLength);
+			if (row != null)
+				for (int i = 0; i < row.length(); i++)
+					newRow.set(i, row.get(i));
+			rows[parentId] = newRow;
+			row = newRow;
+		}
+		this.rows = rows;
+		return row;
+	}
+
+	/**
+	 * Gets the hierarchy whose results are cached
+	 *
+	 * @return The hierarchy whose results are cached
+	 */
+	public FastHierarchy getHierarchy() {
+		return hierarchy.get();
+	}
+
+	/**
+	 * Gets the number of queries that were answered from the cache
+	 *
+	 * @return The number of cache hits
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of queries that had to be answered by the hierarchy
+	 *
+	 * @return The number of cache misses
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+}
@@ -36,6 +36,8 @@ public class TypeUtils {
 	private final InfoflowManager manager;
 	private final Scene scene;
 
+	private volatile TypeCompatibilityCache compatibilityCache;
+
 	public TypeUtils(InfoflowManager manager) {
 		this.manager = manager;
 		this.scene = Scene.v();
@@ -99,16 +101,9 @@ public class TypeUtils {
 		// If we have a reference type, we use the Soot hierarchy
 		FastHierarchy hierarchy = manager.getHierarchy();
 		if (hierarchy != null) {
-			if (hierarchy.canStoreType(destType, sourceType) // cast-up,
-					// i.e.
-					// Object
-					// to
-					// String
-					|| manager.getHierarchy().canStoreType(sourceType, destType)) // cast-down,
-																					// i.e.
-																					// String
-																					// to
-																					// Object
+			TypeCompatibilityCache cache = getCompatibilityCache(hierarchy);
+			if (cache.canStoreType(destType, sourceType) // cast-up, i.e. Object to String
+					|| cache.canStoreType(sourceType, destType)) // cast-down, i.e. String to Object
 				return true;
 		}
 
@@ -195,7 +190,7 @@ public class TypeUtils {
 	 * @return The more precise one of the two given types
 	 */
 	public Type getMorePreciseType(Type tp1, Type tp2) {
-		final FastHierarchy fastHierarchy = scene.getOrMakeFastHierarchy();
+		final TypeCompatibilityCache compatibility = getCompatibilityCache(scene.getOrMakeFastHierarchy());
 
 		if (tp1 == null)
 			return tp2;
@@ -209,9 +204,9 @@ public class TypeUtils {
 			return tp1;
 		else if (tp1 instanceof PrimType && tp2 instanceof PrimType)
 			return null;
-		else if (fastHierarchy.canStoreType(tp2, tp1))
+		else if (compatibility.canStoreType(tp2, tp1))
 			return tp2;
-		else if (fastHierarchy.canStoreType(tp1, tp2))
+		else if (compatibility.canStoreType(tp1, tp2))
 			return tp1;
 		else {
 			// If one type is an array type and the other one is the base type,
@@ -374,6 +369,57 @@ public class TypeUtils {
 		return fh.canStoreType(child, parent);
 	}
 
+	/**
+	 * Checks whether a value of type "child" can be stored in a variable of type
+	 * "parent". The results are cached for the hierarchy of the current analysis.
+	 * 
+	 * @param child  The actual type of the value
+	 * @param parent The declared type of the variable
+	 * @return True if a value of type "child" can be stored in a variable of type
+	 *         "parent", false otherwise or if one of the types is
+	 *         <code>null</code>
+	 */
+	public boolean canStoreType(Type child, Type parent) {
+		FastHierarchy hierarchy = manager.getHierarchy();
+		if (hierarchy == null)
+			hierarchy = scene.getOrMakeFastHierarchy();
+		return getCompatibilityCache(hierarchy).canStoreType(child, parent);
+	}
+
+	/**
+	 * Gets the cache for type compatibility checks against the given hierarchy.
+	 * The cache is shared with all other users of the same hierarchy, e.g., the
+	 * managers of the alias and reverse analyses. If the hierarchy has changed,
+	 * this object switches to the cache of the new hierarchy.
+	 * 
+	 * @param hierarchy The current hierarchy
+	 * @return The cache for the given hierarchy
+	 */
+	private TypeCompatibilityCache getCompatibilityCache(FastHierarchy hierarchy) {
+		TypeCompatibilityCache cache = compatibilityCache;
+		if (cache == null || cache.getHierarchy() != hierarchy) {
+			cache = TypeCompatibilityCache.forHierarchy(hierarchy);
+			compatibilityCache = cache;
+		}
+		return cache;
+	}
+
+	/**
+	 * Gets the share of type compatibility checks that were answered from the
+	 * cache
+	 * 
+	 * @return The cache hit rate between 0 and 1, or -1 if no checks have been
+	 *         performed yet
+	 */
+	public double getTypeCheckCacheHitRate() {
+		TypeCompatibilityCache cache = compatibilityCache;
+		if (cache == null)
+			return -1;
+		long hits = cache.getHitCount();
+		long lookups = hits + cache.getMissCount();
+		return lookups == 0 ? -1 : (double) hits / lookups;
+	}
+
 	/**
 	 * Checks whether "overriden" is an overriden version of "originalSubSig". We
 	 * have to check for covariance of the return value and the contra variance of
@@ -191,6 +191,13 @@ public class OtherTestCode {
 		return obj.field;
 	}
 
+	public void sourceWithoutSinkTest() {
+		String deviceId = TelephonyManager.getDeviceId();
+		O x = new O();
+		x.set(deviceId);
+		x.get().toString();
+	}
+
 	private class O {
 		String field;
 
@@ -0,0 +1,91 @@
+package soot.jimple.infoflow.test.collect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.collect.AppendOnlyRecordSet;
+
+public class AppendOnlyRecordSetTest {
+
+	@Test
+	public void putIfAbsentTest() {
+		AppendOnlyRecordSet<String> set = new AppendOnlyRecordSet<>();
+		String hello = new String("Hello");
+		assertNull(set.putIfAbsent(hello));
+		assertSame(hello, set.putIfAbsent(new String("Hello")));
+		assertTrue(set.contains("Hello"));
+		assertFalse(set.contains("World"));
+		assertEquals(1, set.size());
+	}
+
+	@Test
+	public void indexTest() {
+		AppendOnlyRecordSet<Integer> set = new AppendOnlyRecordSet<>();
+		for (int i = 0; i < 1000; i++)
+			assertTrue(set.add(i));
+		for (int i = 0; i < 1000; i++)
+			assertFalse(set.add(i));
+		assertEquals(1000, set.size());
+
+		Set<Integer> seen = new HashSet<>(set);
+		assertEquals(1000, seen.size());
+	}
+
+	@Test(timeout = 30000)
+	public void concurrentAddTest() throws InterruptedException {
+		final AppendOnlyRecordSet<Integer> set = new AppendOnlyRecordSet<>();
+		final AtomicInteger added = new AtomicInteger();
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 5000; i++)
+					if (set.add(i))
+						added.incrementAndGet();
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(5000, added.get());
+		assertEquals(5000, set.size());
+		assertEquals(5000, new HashSet<>(set).size());
+	}
+
+	@Test(timeout = 60000)
+	public void concurrentSealTest() throws InterruptedException {
+		// Many small sets, so that the threads race for sealing each of them
+		for (int round = 0; round < 500; round++) {
+			final AppendOnlyRecordSet<Integer> set = new AppendOnlyRecordSet<>();
+			final AtomicInteger added = new AtomicInteger();
+			Thread[] threads = new Thread[4];
+			for (int t = 0; t < threads.length; t++) {
+				final int offset = t;
+				threads[t] = new Thread(() -> {
+					for (int i = 0; i < 32; i++)
+						if (set.add((i + offset * 8) % 32))
+							added.incrementAndGet();
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads)
+				thread.join();
+
+			assertEquals(32, added.get());
+			assertEquals(32, set.size());
+			assertEquals(32, new HashSet<>(set).size());
+			for (int i = 0; i < 32; i++)
+				assertTrue(set.contains(i));
+		}
+	}
+
+}
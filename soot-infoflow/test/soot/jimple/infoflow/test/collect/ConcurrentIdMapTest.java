@@ -0,0 +1,90 @@
+package soot.jimple.infoflow.test.collect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.collect.ConcurrentIdMap;
+
+public class ConcurrentIdMapTest {
+
+	@Test
+	public void idTest() {
+		ConcurrentIdMap<String> map = new ConcurrentIdMap<>(4);
+		int a = map.getOrCreateId("a");
+		int b = map.getOrCreateId("b");
+		assertTrue(a > 0);
+		assertTrue(b > 0);
+		assertNotEquals(a, b);
+		assertEquals(a, map.getOrCreateId(new String("a")));
+		assertEquals(2, map.size());
+		assertTrue(map.isLive(a));
+		assertFalse(map.isLive(0));
+		assertFalse(map.isLive(map.getMaxId() + 1));
+	}
+
+	@Test
+	public void concurrentTest() throws InterruptedException {
+		final ConcurrentIdMap<Integer> map = new ConcurrentIdMap<>(8);
+		final int[][] ids = new int[4][1000];
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < ids.length; t++) {
+			final int[] myIds = ids[t];
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < myIds.length; i++)
+					myIds[i] = map.getOrCreateId(Integer.valueOf(i + 100000));
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		for (int t = 1; t < ids.length; t++)
+			for (int i = 0; i < ids[0].length; i++)
+				assertEquals(ids[0][i], ids[t][i]);
+		assertEquals(1000, map.getMaxId());
+	}
+
+	@Test(timeout = 30000)
+	public void releaseTest() throws InterruptedException {
+		ConcurrentIdMap<Object> map = new ConcurrentIdMap<>(1);
+		Object kept = new Object();
+		int keptId = map.getOrCreateId(kept);
+		int droppedId = map.getOrCreateId(new Object());
+
+		while (map.isLive(droppedId)) {
+			System.gc();
+			Thread.sleep(10);
+			map.expungeStaleEntries();
+		}
+		assertEquals(1, map.getReleasedCount());
+		assertEquals(1, map.size());
+		assertTrue(map.isLive(keptId));
+
+		// Released IDs are never handed out again
+		assertTrue(map.getOrCreateId(new Object()) > droppedId);
+		assertEquals(keptId, map.getOrCreateId(kept));
+	}
+
+	@Test(timeout = 30000)
+	public void strongTest() throws InterruptedException {
+		ConcurrentIdMap<Object> map = new ConcurrentIdMap<>(1, true);
+		int id = map.getOrCreateId(new String("a"));
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			Thread.sleep(10);
+			map.expungeStaleEntries();
+		}
+		assertTrue(map.isLive(id));
+		assertEquals(0, map.getReleasedCount());
+		assertEquals(id, map.getOrCreateId(new String("a")));
+	}
+
+}
@@ -0,0 +1,108 @@
+package soot.jimple.infoflow.test.collect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import gnu.trove.strategy.HashingStrategy;
+import soot.jimple.infoflow.collect.ConcurrentWeakInterner;
+
+public class ConcurrentWeakInternerTest {
+
+	@Test
+	public void internTest() {
+		ConcurrentWeakInterner<String> interner = new ConcurrentWeakInterner<>();
+		String a = new String("a");
+		String a2 = new String("a");
+		String b = new String("b");
+
+		assertSame(a, interner.intern(a));
+		assertSame(a, interner.intern(a2));
+		assertSame(b, interner.intern(b));
+		assertSame(a, interner.intern(a));
+		assertNull(interner.intern(null));
+
+		assertEquals(2, interner.size());
+		assertEquals(2, interner.getHitCount());
+		assertEquals(2, interner.getMissCount());
+	}
+
+	@Test
+	public void strategyTest() {
+		ConcurrentWeakInterner<int[]> interner = new ConcurrentWeakInterner<>(new HashingStrategy<int[]>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public int computeHashCode(int[] object) {
+				return Arrays.hashCode(object);
+			}
+
+			@Override
+			public boolean equals(int[] o1, int[] o2) {
+				return Arrays.equals(o1, o2);
+			}
+
+		}, 1);
+		int[] first = new int[] { 1, 2, 3 };
+		assertSame(first, interner.intern(first));
+		assertSame(first, interner.intern(new int[] { 1, 2, 3 }));
+		int[] other = new int[] { 3, 2, 1 };
+		assertSame(other, interner.intern(other));
+		assertEquals(2, interner.size());
+	}
+
+	@Test
+	public void concurrentTest() throws InterruptedException {
+		final ConcurrentWeakInterner<Integer> interner = new ConcurrentWeakInterner<>();
+		final Integer[][] canonical = new Integer[4][1000];
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < canonical.length; t++) {
+			final Integer[] mine = canonical[t];
+			Thread thread = new Thread(() -> {
+				// Each thread creates its own objects, because these values are outside
+				// of the integer cache
+				for (int i = 0; i < mine.length; i++)
+					mine[i] = interner.intern(Integer.valueOf(i + 100000));
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		for (int t = 1; t < canonical.length; t++)
+			for (int i = 0; i < canonical[0].length; i++)
+				assertSame(canonical[0][i], canonical[t][i]);
+		assertEquals(1000, interner.size());
+		assertEquals(1000, interner.getMissCount());
+		assertEquals(3000, interner.getHitCount());
+	}
+
+	@Test(timeout = 30000)
+	public void releaseTest() throws InterruptedException {
+		ConcurrentWeakInterner<String> interner = new ConcurrentWeakInterner<>();
+		String kept = new String("kept");
+		interner.intern(kept);
+		interner.intern(new String("dropped"));
+
+		while (interner.size() > 1) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		// The dropped instance is no longer canonical
+		String dropped = new String("dropped");
+		assertSame(dropped, interner.intern(dropped));
+		assertSame(kept, interner.intern(new String("kept")));
+		assertNotSame(kept, interner.intern(new String("other")));
+	}
+
+}
@@ -0,0 +1,69 @@
+package soot.jimple.infoflow.test.collect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.collect.StripedLongKeyedMap;
+
+public class StripedLongKeyedMapTest {
+
+	@Test
+	public void putIfAbsentTest() {
+		StripedLongKeyedMap<String> map = new StripedLongKeyedMap<>(4);
+		assertNull(map.putIfAbsent(42, "Hello"));
+		assertEquals("Hello", map.putIfAbsent(42, "World"));
+		assertEquals("Hello", map.get(42));
+		assertNull(map.get(43));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void growTest() {
+		StripedLongKeyedMap<Long> map = new StripedLongKeyedMap<>(8);
+		for (long i = 1; i <= 100000; i++)
+			assertNull(map.putIfAbsent(i * 31, i));
+		assertEquals(100000, map.size());
+		for (long i = 1; i <= 100000; i++)
+			assertEquals(Long.valueOf(i), map.get(i * 31));
+
+		map.clear();
+		assertEquals(0, map.size());
+		assertNull(map.get(31));
+	}
+
+	@Test
+	public void subKeyTest() {
+		StripedLongKeyedMap<String> map = new StripedLongKeyedMap<>(4);
+		assertNull(map.putIfAbsent(42, 1, "Hello"));
+		assertNull(map.putIfAbsent(42, 2, "World"));
+		assertEquals("Hello", map.putIfAbsent(42, 1, "Other"));
+		assertEquals("Hello", map.get(42, 1));
+		assertEquals("World", map.get(42, 2));
+		assertNull(map.get(42));
+		assertNull(map.get(42, 3));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	public void removeIfTest() {
+		StripedLongKeyedMap<Long> map = new StripedLongKeyedMap<>(8);
+		for (long i = 1; i <= 10000; i++)
+			map.putIfAbsent(i, (int) (i % 3), i);
+
+		assertEquals(3333, map.removeIf((key, subKey) -> subKey == 0));
+		assertEquals(6667, map.size());
+		for (long i = 1; i <= 10000; i++) {
+			if (i % 3 == 0)
+				assertNull(map.get(i, 0));
+			else
+				assertEquals(Long.valueOf(i), map.get(i, (int) (i % 3)));
+		}
+
+		// The map must still accept new entries after removing some
+		assertNull(map.putIfAbsent(3, 0, 3L));
+		assertEquals(Long.valueOf(3), map.get(3, 0));
+	}
+
+}
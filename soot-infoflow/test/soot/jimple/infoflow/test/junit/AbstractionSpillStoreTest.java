@@ -0,0 +1,185 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.RefType;
+import soot.SootField;
+import soot.jimple.Jimple;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AbstractionSpillStore;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+
+public class AbstractionSpillStoreTest {
+
+	/**
+	 * The number of predecessors that the store always keeps on the heap
+	 */
+	private static final int HOT_CHAIN_LENGTH = 8;
+
+	/**
+	 * Creates the access paths that the abstractions in the test chains use, so
+	 * that each kind of access path is written to disk
+	 *
+	 * @return The access paths for the test chains
+	 */
+	private static List<AccessPath> createAccessPaths() {
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		config.setEnableTypeChecking(false);
+		AccessPathFactory factory = new AccessPathFactory(config, null);
+
+		RefType objectType = RefType.v("java.lang.Object");
+		SootField field = new SootField("f", objectType);
+		List<AccessPath> aps = new ArrayList<>();
+		aps.add(AccessPath.getEmptyAccessPath());
+		aps.add(factory.createAccessPath(Jimple.v().newLocal("a", objectType), true));
+		aps.add(factory.createAccessPath(Jimple.v().newLocal("b", objectType), new SootField[] { field }, false));
+		return aps;
+	}
+
+	/**
+	 * Creates a chain of abstractions
+	 *
+	 * @param length The number of abstractions in the chain
+	 * @param aps    The access paths to use for the abstractions
+	 * @param stmts  The list to which the statements of the abstractions are
+	 *               added, starting with the source
+	 * @return The abstractions of the chain, starting with the source
+	 */
+	private static Abstraction[] createChain(int length, List<AccessPath> aps, List<Stmt> stmts) {
+		Abstraction[] chain = new Abstraction[length];
+		Stmt sourceStmt = Jimple.v().newNopStmt();
+		stmts.add(sourceStmt);
+		chain[0] = new Abstraction(Collections.emptySet(), AccessPath.getEmptyAccessPath(), sourceStmt, null, false,
+				false);
+		for (int i = 1; i < length; i++) {
+			Stmt stmt = Jimple.v().newNopStmt();
+			stmts.add(stmt);
+			chain[i] = chain[i - 1].deriveDefinitelyNewAbstraction(aps.get(i % aps.size()), stmt);
+		}
+		return chain;
+	}
+
+	/**
+	 * Runs the garbage collector until the given reference has been cleared
+	 *
+	 * @param ref The reference to wait for
+	 */
+	private static void awaitCollection(WeakReference<?> ref) throws InterruptedException {
+		while (ref.get() != null) {
+			System.gc();
+			Thread.sleep(10);
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void roundTripTest() throws IOException, InterruptedException {
+		List<AccessPath> aps = createAccessPaths();
+		List<Stmt> stmts = new ArrayList<>();
+		Abstraction[] chain = createChain(20, aps, stmts);
+
+		// Give one of the cold abstractions an alternative predecessor
+		Stmt neighborStmt = Jimple.v().newNopStmt();
+		chain[5].addNeighbor(chain[4].deriveDefinitelyNewAbstraction(aps.get(1), neighborStmt));
+
+		AbstractionSpillStore store = new AbstractionSpillStore(null);
+		try {
+			store.activate();
+			Abstraction last = chain[chain.length - 1];
+			store.spillColdChain(last);
+			// The cold part of the chain and the neighbor have been spilled
+			assertEquals(chain.length - HOT_CHAIN_LENGTH + 1, store.getSpilledCount());
+
+			// Make sure that the cold part of the chain is loaded from disk
+			WeakReference<Abstraction> cold = new WeakReference<>(chain[5]);
+			chain = null;
+			awaitCollection(cold);
+
+			Abstraction cur = last;
+			for (int i = stmts.size() - 1; i >= 0; i--) {
+				assertNotNull(cur);
+				assertSame(stmts.get(i), cur.getCurrentStmt());
+				assertEquals(aps.get(i % aps.size()), cur.getAccessPath());
+				if (i == 5) {
+					Set<Abstraction> neighbors = cur.getNeighbors();
+					assertEquals(1, neighbors.size());
+					Abstraction neighbor = neighbors.iterator().next();
+					assertSame(neighborStmt, neighbor.getCurrentStmt());
+					assertSame(stmts.get(4), neighbor.getPredecessor().getCurrentStmt());
+				} else
+					assertNull(cur.getNeighbors());
+				cur = cur.getPredecessor();
+			}
+			assertNull(cur);
+			assertTrue(store.getLoadedCount() > 0);
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void concurrentNeighborTest() throws IOException, InterruptedException {
+		List<AccessPath> aps = createAccessPaths();
+		AbstractionSpillStore store = new AbstractionSpillStore(null);
+		try {
+			store.activate();
+			for (int run = 0; run < 50; run++) {
+				List<Stmt> stmts = new ArrayList<>();
+				final Abstraction[] chain = createChain(HOT_CHAIN_LENGTH + 50, aps, stmts);
+				final Abstraction last = chain[chain.length - 1];
+				final Set<Stmt> neighborStmts = Collections.synchronizedSet(new HashSet<>());
+
+				// The neighbors must not keep the chain alive
+				final Abstraction other = createChain(1, aps, new ArrayList<>())[0];
+
+				// Add one neighbor to each cold abstraction while the chain is spilled
+				Thread spiller = new Thread(() -> store.spillColdChain(last));
+				Thread adder = new Thread(() -> {
+					for (int i = 1; i < chain.length - HOT_CHAIN_LENGTH; i++) {
+						Stmt stmt = Jimple.v().newNopStmt();
+						neighborStmts.add(stmt);
+						chain[i].addNeighbor(other.deriveDefinitelyNewAbstraction(aps.get(1), stmt));
+					}
+				});
+				spiller.start();
+				adder.start();
+				spiller.join();
+				adder.join();
+
+				// Drop all abstractions that the store does not need to keep
+				WeakReference<Abstraction> probe = new WeakReference<>(chain[0]);
+				for (int i = 0; i < chain.length - 1; i++)
+					chain[i] = null;
+				awaitCollection(probe);
+
+				Set<Stmt> foundStmts = new HashSet<>();
+				for (Abstraction cur = last; cur != null; cur = cur.getPredecessor()) {
+					Set<Abstraction> neighbors = cur.getNeighbors();
+					if (neighbors != null)
+						for (Abstraction nb : neighbors)
+							foundStmts.add(nb.getCurrentStmt());
+				}
+				assertEquals(neighborStmts, foundStmts);
+			}
+		} finally {
+			store.close();
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import soot.Local;
+import soot.RefType;
+import soot.jimple.Jimple;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+
+public class AccessPathInterningTest {
+
+	private final InfoflowConfiguration config = new InfoflowConfiguration();
+	private final Local local = Jimple.v().newLocal("a", RefType.v("java.lang.Object"));
+
+	public AccessPathInterningTest() {
+		config.setEnableTypeChecking(false);
+	}
+
+	@Test
+	public void sameFactoryTest() {
+		AccessPathFactory factory = new AccessPathFactory(config, null);
+		AccessPath ap1 = factory.createAccessPath(local, true);
+		AccessPath ap2 = factory.createAccessPath(local, true);
+		assertTrue(ap1.isInterned());
+		assertSame(ap1, ap2);
+	}
+
+	@Test
+	public void differentFactoriesTest() {
+		// Access paths from different interning tables must still be equal
+		AccessPath ap1 = new AccessPathFactory(config, null).createAccessPath(local, true);
+		AccessPath ap2 = new AccessPathFactory(config, null).createAccessPath(local, true);
+		assertTrue(ap1.isInterned());
+		assertTrue(ap2.isInterned());
+		assertNotSame(ap1, ap2);
+		assertEquals(ap1, ap2);
+		assertEquals(ap2, ap1);
+		assertEquals(ap1.hashCode(), ap2.hashCode());
+	}
+
+	@Test
+	public void internedAndPlainTest() {
+		AccessPath interned = new AccessPathFactory(config, null).createAccessPath(local, true);
+		InfoflowConfiguration plainConfig = new InfoflowConfiguration();
+		plainConfig.setEnableTypeChecking(false);
+		plainConfig.getAccessPathConfiguration().setUseAccessPathInterning(false);
+		AccessPath plain = new AccessPathFactory(plainConfig, null).createAccessPath(local, true);
+		assertEquals(interned, plain);
+		assertEquals(plain, interned);
+	}
+
+}
@@ -0,0 +1,97 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import soot.RefType;
+import soot.jimple.Jimple;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.aliasing.AliasQueryCache;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.AccessPathFactory;
+
+public class AliasQueryCacheTest {
+
+	private final Stmt sourceStmt = Jimple.v().newNopStmt();
+	private final Abstraction d1 = new Abstraction(Collections.emptySet(), AccessPath.getEmptyAccessPath(),
+			sourceStmt, null, false, false);
+	private final AccessPath ap;
+
+	public AliasQueryCacheTest() {
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		config.setEnableTypeChecking(false);
+		AccessPathFactory factory = new AccessPathFactory(config, null);
+		ap = factory.createAccessPath(Jimple.v().newLocal("a", RefType.v("java.lang.Object")), true);
+	}
+
+	@Test
+	public void registerQueryTest() {
+		AliasQueryCache cache = new AliasQueryCache();
+		Stmt stmt = Jimple.v().newNopStmt();
+		Abstraction abs = d1.deriveDefinitelyNewAbstraction(ap, Jimple.v().newNopStmt());
+		assertTrue(cache.registerQuery(d1, stmt, abs));
+		assertEquals(0, cache.getHitRate(), 0);
+
+		// An equal abstraction on another path must not be sent again, but must be
+		// recorded as an alternative path
+		Abstraction equalAbs = d1.deriveDefinitelyNewAbstraction(ap, Jimple.v().newNopStmt());
+		assertEquals(abs, equalAbs);
+		assertFalse(cache.registerQuery(d1, stmt, equalAbs));
+		assertEquals(Collections.singleton(equalAbs), abs.getNeighbors());
+		assertEquals(0.5, cache.getHitRate(), 0);
+
+		// Other statements and contexts are different queries
+		assertTrue(cache.registerQuery(d1, Jimple.v().newNopStmt(), equalAbs));
+		Abstraction otherD1 = new Abstraction(Collections.emptySet(), AccessPath.getEmptyAccessPath(), sourceStmt,
+				null, false, false);
+		assertTrue(cache.registerQuery(otherD1, stmt, equalAbs));
+	}
+
+	@Test
+	public void maxJoinPointAbstractionsTest() {
+		AliasQueryCache cache = new AliasQueryCache(1);
+		Stmt stmt = Jimple.v().newNopStmt();
+		Abstraction abs = d1.deriveDefinitelyNewAbstraction(ap, Jimple.v().newNopStmt());
+		assertTrue(cache.registerQuery(d1, stmt, abs));
+		for (int i = 0; i < 3; i++)
+			assertFalse(cache.registerQuery(d1, stmt, d1.deriveDefinitelyNewAbstraction(ap, Jimple.v().newNopStmt())));
+		assertEquals(1, abs.getNeighborCount());
+	}
+
+	@Test
+	public void clearTest() {
+		AliasQueryCache cache = new AliasQueryCache();
+		Stmt stmt = Jimple.v().newNopStmt();
+		Abstraction abs = d1.deriveDefinitelyNewAbstraction(ap, Jimple.v().newNopStmt());
+		assertTrue(cache.registerQuery(d1, stmt, abs));
+		cache.clear();
+		Abstraction equalAbs = d1.deriveDefinitelyNewAbstraction(ap, Jimple.v().newNopStmt());
+		assertTrue(cache.registerQuery(d1, stmt, equalAbs));
+		assertNull(abs.getNeighbors());
+	}
+
+	@Test(timeout = 30000)
+	public void releaseTest() throws InterruptedException {
+		AliasQueryCache cache = new AliasQueryCache();
+		Stmt stmt = Jimple.v().newNopStmt();
+		assertTrue(cache.registerQuery(d1, stmt, d1.deriveDefinitelyNewAbstraction(ap, Jimple.v().newNopStmt())));
+
+		// Once nobody uses the abstraction of the query anymore, the query must be
+		// sent again
+		Abstraction equalAbs = d1.deriveDefinitelyNewAbstraction(ap, Jimple.v().newNopStmt());
+		while (!cache.registerQuery(d1, stmt, equalAbs)) {
+			equalAbs = d1.deriveDefinitelyNewAbstraction(ap, Jimple.v().newNopStmt());
+			System.gc();
+			Thread.sleep(10);
+		}
+	}
+
+}
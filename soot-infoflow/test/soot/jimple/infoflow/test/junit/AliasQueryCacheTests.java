@@ -0,0 +1,105 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+
+/**
+ * Checks that skipping repeated alias queries does not change the results of
+ * the data flow analysis, including the paths between the sources and sinks
+ */
+public abstract class AliasQueryCacheTests extends JUnitTests {
+
+	/**
+	 * Runs the data flow analysis with precise path reconstruction on the given
+	 * entry point
+	 *
+	 * @param entryPoint        The entry point of the analysis
+	 * @param aliasQueryCaching True to skip repeated alias queries, otherwise
+	 *                          false
+	 * @return The sources, sinks, and paths that the analysis has found
+	 */
+	private Set<String> computeResults(String entryPoint, boolean aliasQueryCaching) {
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setInspectSources(false);
+		infoflow.getConfig().setInspectSinks(false);
+		infoflow.getConfig().setPathAgnosticResults(false);
+		infoflow.getConfig().getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Precise);
+		infoflow.getConfig().getSolverConfiguration().setAliasQueryCaching(aliasQueryCaching);
+
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(entryPoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+
+		// Statements are re-created in every run, so we compare their string
+		// representations
+		Set<String> results = new HashSet<>();
+		InfoflowResults map = infoflow.getResults();
+		for (ResultSinkInfo sink : map.getResults().keySet()) {
+			for (ResultSourceInfo source : map.getResults().get(sink)) {
+				List<String> path = new ArrayList<>();
+				if (source.getPath() != null)
+					for (Stmt stmt : source.getPath())
+						path.add(stmt.toString());
+				results.add(source.getStmt() + " -> " + sink.getStmt() + ": " + path);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Checks that the analysis finds the same results with and without the alias
+	 * query cache
+	 *
+	 * @param entryPoint The entry point of the analysis
+	 */
+	private void checkSameResults(String entryPoint) {
+		Set<String> uncached = computeResults(entryPoint, false);
+		Set<String> cached = computeResults(entryPoint, true);
+		assertFalse(uncached.isEmpty());
+		assertEquals(uncached, cached);
+	}
+
+	@Test(timeout = 300000)
+	public void multiAliasTest() {
+		checkSameResults("<soot.jimple.infoflow.test.HeapTestCode: void multiAliasTest()>");
+	}
+
+	@Test(timeout = 300000)
+	public void functionAliasTest() {
+		checkSameResults("<soot.jimple.infoflow.test.HeapTestCode: void functionAliasTest()>");
+	}
+
+	@Test(timeout = 300000)
+	public void tripleAliasTest() {
+		checkSameResults("<soot.jimple.infoflow.test.HeapTestCode: void tripleAliasTest()>");
+	}
+
+	@Test(timeout = 300000)
+	public void doubleAliasTest1() {
+		checkSameResults("<soot.jimple.infoflow.test.HeapTestCode: void doubleAliasTest1()>");
+	}
+
+	@Test(timeout = 300000)
+	public void activationUnitTest() {
+		for (String entryPoint : Arrays.asList("<soot.jimple.infoflow.test.HeapTestCode: void activationUnitTest1()>",
+				"<soot.jimple.infoflow.test.HeapTestCode: void activationUnitTest3()>"))
+			checkSameResults(entryPoint);
+	}
+
+}
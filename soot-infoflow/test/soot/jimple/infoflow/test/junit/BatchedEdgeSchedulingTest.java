@@ -0,0 +1,97 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import soot.Unit;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.EdgeSchedulingStrategy;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler;
+
+/**
+ * Checks that the batched edge scheduling of the context- and flow-sensitive
+ * solver finds the same leaks and propagates the same taints as the scheduling
+ * of each edge individually
+ */
+public class BatchedEdgeSchedulingTest extends JUnitTests {
+
+	/**
+	 * Handler that records all taints that arrive at a statement
+	 */
+	private static class RecordingPropagationHandler implements TaintPropagationHandler {
+
+		private final Set<String> taints = ConcurrentHashMap.newKeySet();
+
+		@Override
+		public void notifyFlowIn(Unit stmt, Abstraction taint, InfoflowManager manager, FlowFunctionType type) {
+			taints.add(type + ": " + stmt + " - " + taint);
+		}
+
+		@Override
+		public Set<Abstraction> notifyFlowOut(Unit stmt, Abstraction d1, Abstraction incoming,
+				Set<Abstraction> outgoing, InfoflowManager manager, FlowFunctionType type) {
+			return outgoing;
+		}
+
+	}
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+	private Set<String> runAnalysis(String entryPoint, EdgeSchedulingStrategy strategy, int resultCount) {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setEdgeSchedulingStrategy(strategy);
+		RecordingPropagationHandler handler = new RecordingPropagationHandler();
+		infoflow.setTaintPropagationHandler(handler);
+
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(entryPoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		if (resultCount > 0)
+			checkInfoflow(infoflow, resultCount);
+		else
+			negativeCheckInfoflow(infoflow);
+		return handler.taints;
+	}
+
+	private void checkSameTaints(String entryPoint, int resultCount) {
+		Set<String> individual = runAnalysis(entryPoint, EdgeSchedulingStrategy.EachEdgeIndividually, resultCount);
+		Set<String> batched = runAnalysis(entryPoint, EdgeSchedulingStrategy.Batched, resultCount);
+		assertFalse(batched.isEmpty());
+		assertEquals(individual, batched);
+	}
+
+	@Test(timeout = 300000)
+	public void fieldTest() {
+		checkSameTaints("<soot.jimple.infoflow.test.OtherTestCode: void testWithField()>", 2);
+	}
+
+	@Test(timeout = 300000)
+	public void calleeTest() {
+		checkSameTaints("<soot.jimple.infoflow.test.OtherTestCode: void method2()>", 1);
+	}
+
+	@Test(timeout = 300000)
+	public void multiSinkTest() {
+		checkSameTaints("<soot.jimple.infoflow.test.TypeTestCode: void followReturnsPastSeedsTest2()>", 2);
+	}
+
+	@Test(timeout = 300000)
+	public void negativeTest() {
+		checkSameTaints("<soot.jimple.infoflow.test.OtherTestCode: void methodNotTainted()>", 0);
+	}
+
+}
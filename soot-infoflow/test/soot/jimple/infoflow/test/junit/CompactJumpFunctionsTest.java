@@ -0,0 +1,44 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import heros.solver.PathEdge;
+import soot.jimple.infoflow.solver.fastSolver.CompactJumpFunctions;
+
+public class CompactJumpFunctionsTest {
+
+	@Test
+	public void addFunctionTest() {
+		CompactJumpFunctions<String, String> jumpFunctions = new CompactJumpFunctions<>(4);
+		String target = new String("t");
+		assertNull(jumpFunctions.addFunction(new PathEdge<>("s", "n", target)));
+		assertSame(target, jumpFunctions.addFunction(new PathEdge<>("s", "n", new String("t"))));
+		assertNull(jumpFunctions.addFunction(new PathEdge<>("s", "m", target)));
+		assertNull(jumpFunctions.addFunction(new PathEdge<>("r", "n", target)));
+		assertEquals(3, jumpFunctions.size());
+	}
+
+	@Test(timeout = 30000)
+	public void keepFunctionsTest() throws InterruptedException {
+		CompactJumpFunctions<String, String> jumpFunctions = new CompactJumpFunctions<>(4);
+
+		// Register the facts with instances that are dropped right away
+		for (int i = 0; i < 2000; i++)
+			assertNull(jumpFunctions.addFunction(new PathEdge<>(new String("s" + i), "n", new String("t" + i))));
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		// The jump functions must survive, even if equal facts are propagated with
+		// other instances
+		for (int i = 0; i < 2000; i++)
+			assertEquals("t" + i, jumpFunctions.addFunction(new PathEdge<>(new String("s" + i), "n", "t" + i)));
+		assertEquals(2000, jumpFunctions.size());
+	}
+
+}
@@ -0,0 +1,118 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.handlers.PreAnalysisHandler;
+import soot.jimple.infoflow.solver.cfg.FrozenInfoflowCFG;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.solver.cfg.InfoflowCFG;
+
+/**
+ * Checks that the frozen snapshot of a CFG answers all queries in the same way
+ * as the CFG on which it is based
+ */
+public class FrozenInfoflowCFGTest extends JUnitTests {
+
+	private int checkedUnits;
+	private int checkedCalls;
+	private AssertionError failure;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+	@Test(timeout = 300000)
+	public void sameGraphTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.addPreprocessor(new PreAnalysisHandler() {
+
+			@Override
+			public void onBeforeCallgraphConstruction() {
+				// nothing to do here
+			}
+
+			@Override
+			public void onAfterCallgraphConstruction() {
+				try {
+					compareWithDelegate();
+				} catch (AssertionError e) {
+					failure = e;
+				}
+			}
+
+		});
+
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void testWithField()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+
+		if (failure != null)
+			throw failure;
+		assertTrue(checkedUnits > 0);
+		assertTrue(checkedCalls > 0);
+	}
+
+	private void compareWithDelegate() {
+		IInfoflowCFG icfg = new InfoflowCFG();
+		FrozenInfoflowCFG frozen = FrozenInfoflowCFG.freeze(icfg);
+		assertTrue(frozen.getMethodCount() > 0);
+
+		List<SootMethod> methods = new ArrayList<>();
+		for (Iterator<MethodOrMethodContext> it = Scene.v().getReachableMethods().listener(); it.hasNext();) {
+			SootMethod sm = it.next().method();
+			if (sm.isConcrete() && sm.hasActiveBody())
+				methods.add(sm);
+		}
+
+		for (SootMethod sm : methods) {
+			assertSameElements(icfg.getStartPointsOf(sm), frozen.getStartPointsOf(sm));
+			assertSameElements(icfg.getEndPointsOf(sm), frozen.getEndPointsOf(sm));
+			assertSameElements(icfg.getCallersOf(sm), frozen.getCallersOf(sm));
+
+			for (Unit u : sm.getActiveBody().getUnits()) {
+				assertEquals(icfg.getMethodOf(u), frozen.getMethodOf(u));
+				assertEquals(icfg.getSuccsOf(u), frozen.getSuccsOf(u));
+				assertEquals(icfg.getPredsOf(u), frozen.getPredsOf(u));
+				assertEquals(icfg.isStartPoint(u), frozen.isStartPoint(u));
+				assertEquals(icfg.isExitStmt(u), frozen.isExitStmt(u));
+				assertEquals(icfg.isCallStmt(u), frozen.isCallStmt(u));
+				assertSameElements(icfg.getCalleesOfCallAt(u), frozen.getCalleesOfCallAt(u));
+				if (icfg.isCallStmt(u)) {
+					assertSameElements(icfg.getReturnSitesOfCallAt(u), frozen.getReturnSitesOfCallAt(u));
+					checkedCalls++;
+				}
+				checkedUnits++;
+			}
+		}
+
+		// After a method has changed, the snapshot must fall back to the original CFG
+		SootMethod changed = methods.get(0);
+		frozen.notifyMethodChanged(changed);
+		Unit first = changed.getActiveBody().getUnits().getFirst();
+		assertEquals(icfg.getSuccsOf(first), frozen.getSuccsOf(first));
+		assertSameElements(icfg.getStartPointsOf(changed), frozen.getStartPointsOf(changed));
+	}
+
+	private static <E> void assertSameElements(Collection<E> expected, Collection<E> actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+	}
+
+}
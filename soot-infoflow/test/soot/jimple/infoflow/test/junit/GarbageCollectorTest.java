@@ -0,0 +1,129 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+
+import heros.solver.PathEdge;
+import soot.jimple.infoflow.AnalysisPhase;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.solver.gcSolver.AbstractReferenceCountingGarbageCollector;
+import soot.jimple.infoflow.solver.gcSolver.IGCReferenceProvider;
+import soot.jimple.infoflow.threading.ThreadBudget;
+import soot.util.ConcurrentHashMultiMap;
+
+public class GarbageCollectorTest {
+
+	/**
+	 * Garbage collector that uses the target of a path edge as its abstraction and
+	 * has no dependencies between abstractions
+	 */
+	private static class TargetGarbageCollector
+			extends AbstractReferenceCountingGarbageCollector<Object, Object, Object> {
+
+		private TargetGarbageCollector(ConcurrentHashMultiMap<Object, PathEdge<Object, Object>> jumpFunctions) {
+			super(null, jumpFunctions, new IGCReferenceProvider<Object>() {
+
+				@Override
+				public Set<Object> getAbstractionReferences(Object abstraction) {
+					return Collections.emptySet();
+				}
+
+			});
+		}
+
+		@Override
+		protected Object genAbstraction(PathEdge<Object, Object> edge) {
+			return edge.getTarget();
+		}
+
+		@Override
+		protected IGCReferenceProvider<Object> createReferenceProvider() {
+			return null;
+		}
+
+		@Override
+		public boolean hasActiveDependencies(Object abstraction) {
+			return jumpFnCounter.get(abstraction) > 0;
+		}
+
+		@Override
+		public void gc() {
+			gcImmediate();
+		}
+
+		@Override
+		public void notifySolverTerminated() {
+			shutdownPartitionExecutor();
+		}
+
+	}
+
+	/**
+	 * Schedules and processes one edge for each of the given number of targets
+	 *
+	 * @param gc            The garbage collector
+	 * @param jumpFunctions The jump functions of the simulated solver
+	 * @param targets       The number of targets
+	 */
+	private static void processEdges(TargetGarbageCollector gc,
+			ConcurrentHashMultiMap<Object, PathEdge<Object, Object>> jumpFunctions, int targets) {
+		Object zero = new Object();
+		for (int i = 0; i < targets; i++) {
+			PathEdge<Object, Object> edge = new PathEdge<>(zero, Integer.valueOf(i), zero);
+			jumpFunctions.put(edge.getTarget(), edge);
+			gc.notifyEdgeSchedule(edge);
+			gc.notifyTaskProcessed(edge);
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void threadBudgetTest() {
+		ThreadBudget budget = new ThreadBudget(new InfoflowConfiguration(), 2);
+		ThreadBudget.Lease lease = budget.acquire(AnalysisPhase.TAINT_PROPAGATION);
+
+		ConcurrentHashMultiMap<Object, PathEdge<Object, Object>> jumpFunctions = new ConcurrentHashMultiMap<>();
+		TargetGarbageCollector gc = new TargetGarbageCollector(jumpFunctions);
+		gc.setParallelism(8);
+		gc.setThreadBudget(budget);
+		processEdges(gc, jumpFunctions, 500);
+		gc.gc();
+		assertTrue(jumpFunctions.isEmpty());
+		assertEquals(500, gc.getGcedEdges());
+
+		// The collector must not use more threads than the lease has
+		lease.release();
+		int usage = budget.getThreadUsage(AnalysisPhase.TAINT_PROPAGATION);
+		assertTrue(usage > 0 && usage <= 2);
+		gc.notifySolverTerminated();
+	}
+
+	@Test
+	public void performanceDataTest() {
+		ConcurrentHashMultiMap<Object, PathEdge<Object, Object>> jumpFunctions = new ConcurrentHashMultiMap<>();
+		TargetGarbageCollector gc = new TargetGarbageCollector(jumpFunctions);
+		processEdges(gc, jumpFunctions, 100);
+		gc.gc();
+		processEdges(gc, jumpFunctions, 50);
+		gc.gc();
+
+		InfoflowPerformanceData performanceData = new InfoflowPerformanceData();
+		gc.reportTo(performanceData);
+		assertEquals(2, performanceData.getGarbageCollectionCycles());
+		assertEquals(150, performanceData.getGarbageCollectedEdges());
+		assertEquals(gc.getCollectionTimeMillis(), performanceData.getGarbageCollectionMillis());
+
+		// Merging adds the cycles of other solvers
+		InfoflowPerformanceData merged = new InfoflowPerformanceData();
+		merged.add(performanceData);
+		merged.add(performanceData);
+		assertEquals(4, merged.getGarbageCollectionCycles());
+		assertEquals(300, merged.getGarbageCollectedEdges());
+	}
+
+}
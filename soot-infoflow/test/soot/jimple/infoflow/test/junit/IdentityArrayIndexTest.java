@@ -0,0 +1,55 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.collect.IdentityArrayIndex;
+
+public class IdentityArrayIndexTest {
+
+	@Test
+	public void testLookup() {
+		List<String> keys = new ArrayList<>();
+		Integer[] values = new Integer[1000];
+		for (int i = 0; i < values.length; i++) {
+			keys.add(new String("key" + i));
+			values[i] = i;
+		}
+		IdentityArrayIndex<String, Integer> index = new IdentityArrayIndex<>(keys, values);
+		assertEquals(values.length, index.size());
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(i, (int) index.get(keys.get(i)));
+			assertTrue(index.containsKey(keys.get(i)));
+		}
+
+		// Keys are compared by identity, not by equality
+		String equalKey = new String("key0");
+		assertNull(index.get(equalKey));
+		assertFalse(index.containsKey(equalKey));
+	}
+
+	@Test
+	public void testDuplicateKeys() {
+		String key = "key";
+		IdentityArrayIndex<String, Integer> index = new IdentityArrayIndex<>(Arrays.asList(key, key),
+				new Integer[] { 1, 2 });
+		assertEquals(1, index.size());
+		assertEquals(2, (int) index.get(key));
+	}
+
+	@Test
+	public void testEmpty() {
+		IdentityArrayIndex<String, Integer> index = new IdentityArrayIndex<>(new ArrayList<>(), new Integer[0]);
+		assertEquals(0, index.size());
+		assertNull(index.get("key"));
+	}
+
+}
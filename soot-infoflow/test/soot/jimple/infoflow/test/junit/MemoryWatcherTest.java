@@ -56,6 +56,30 @@ public class MemoryWatcherTest {
 		}
 	}
 
+	@Test
+	public void runSharedThresholdTest() {
+		// Two warning systems with the same threshold must both be notified
+		final boolean[] reached = new boolean[2];
+		try {
+			for (int i = 0; i < reached.length; i++) {
+				final int current = i;
+				MemoryWarningSystem ws = new MemoryWarningSystem();
+				ws.setWarningThreshold(0.2);
+				ws.addListener(new OnMemoryThresholdReached() {
+
+					@Override
+					public void onThresholdReached(long usedMemory, long maxMemory) {
+						reached[current] = true;
+					}
+				});
+			}
+			while (!reached[0] || !reached[1])
+				leakMemory();
+		} finally {
+			memoryLeak.clear();
+		}
+	}
+
 	private void leakMemory() {
 		for (long i = 0; i < MEMORY_STEP_BIG; i += MEMORY_STEP_SMALL)
 			memoryLeak.add(new byte[MEMORY_STEP_SMALL]);
@@ -0,0 +1,162 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import heros.FlowFunction;
+import heros.FlowFunctions;
+import heros.InterproceduralCFG;
+import soot.jimple.infoflow.solver.fastSolver.MethodFlowFunctionCache;
+
+public class MethodFlowFunctionCacheTest {
+
+	/**
+	 * Flow functions that create a new flow function on every request
+	 */
+	private static class NewFlowFunctions implements FlowFunctions<Object, Object, Object> {
+
+		private FlowFunction<Object> create() {
+			return new FlowFunction<Object>() {
+
+				@Override
+				public Set<Object> computeTargets(Object source) {
+					return Collections.singleton(source);
+				}
+
+			};
+		}
+
+		@Override
+		public FlowFunction<Object> getNormalFlowFunction(Object curr, Object succ) {
+			return create();
+		}
+
+		@Override
+		public FlowFunction<Object> getCallFlowFunction(Object callStmt, Object destinationMethod) {
+			return create();
+		}
+
+		@Override
+		public FlowFunction<Object> getReturnFlowFunction(Object callSite, Object calleeMethod, Object exitStmt,
+				Object returnSite) {
+			return create();
+		}
+
+		@Override
+		public FlowFunction<Object> getCallToReturnFlowFunction(Object callSite, Object returnSite) {
+			return create();
+		}
+
+	}
+
+	private final Map<Object, Object> methodOf = new HashMap<>();
+	private final Map<Object, Object> startPointOf = new HashMap<>();
+
+	/**
+	 * Creates a method with a single statement
+	 *
+	 * @param name The name of the method
+	 * @return The statement of the new method
+	 */
+	private Object createMethod(String name) {
+		Object method = name;
+		Object unit = new Object();
+		methodOf.put(unit, method);
+		startPointOf.put(method, unit);
+		return unit;
+	}
+
+	/**
+	 * Creates an interprocedural control flow graph over the methods created with
+	 * {@link #createMethod(String)}
+	 *
+	 * @return The new control flow graph
+	 */
+	@SuppressWarnings("unchecked")
+	private InterproceduralCFG<Object, Object> createICFG() {
+		return (InterproceduralCFG<Object, Object>) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { InterproceduralCFG.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getMethodOf":
+						return methodOf.get(args[0]);
+					case "getStartPointsOf":
+						return Collections.singleton(startPointOf.get(args[0]));
+					case "getSuccsOf":
+						return Collections.emptyList();
+					default:
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedTest() {
+		Object[] units = new Object[4];
+		for (int i = 0; i < units.length; i++)
+			units[i] = createMethod("m" + i);
+		MethodFlowFunctionCache<Object, Object, Object> cache = new MethodFlowFunctionCache<>(
+				new NewFlowFunctions(), createICFG(), 3);
+
+		FlowFunction<Object> ff0 = cache.getNormalFlowFunction(units[0], units[0]);
+		cache.getNormalFlowFunction(units[1], units[1]);
+		cache.getNormalFlowFunction(units[2], units[2]);
+
+		// Use the first method again, so that the second one becomes the least
+		// recently used method
+		assertSame(ff0, cache.getNormalFlowFunction(units[0], units[0]));
+		cache.getNormalFlowFunction(units[3], units[3]);
+		assertEquals(3, cache.getMethodCount());
+		assertEquals(1, cache.getEvictionCount());
+
+		assertSame(ff0, cache.getNormalFlowFunction(units[0], units[0]));
+		long misses = cache.getMissCount();
+		cache.getNormalFlowFunction(units[1], units[1]);
+		assertEquals(misses + 1, cache.getMissCount());
+	}
+
+	@Test
+	public void evictOneMethodAtATimeTest() {
+		MethodFlowFunctionCache<Object, Object, Object> cache = new MethodFlowFunctionCache<>(
+				new NewFlowFunctions(), createICFG(), 2);
+		for (int i = 0; i < 50; i++) {
+			Object unit = createMethod("m" + i);
+			cache.getNormalFlowFunction(unit, unit);
+			assertEquals(Math.min(i + 1, 2), cache.getMethodCount());
+		}
+		assertEquals(48, cache.getEvictionCount());
+	}
+
+	@Test
+	public void unboundedTest() {
+		MethodFlowFunctionCache<Object, Object, Object> cache = new MethodFlowFunctionCache<>(
+				new NewFlowFunctions(), createICFG(), -1);
+		for (int i = 0; i < 50; i++) {
+			Object unit = createMethod("m" + i);
+			cache.getNormalFlowFunction(unit, unit);
+		}
+		assertEquals(50, cache.getMethodCount());
+		assertEquals(0, cache.getEvictionCount());
+	}
+
+	@Test
+	public void invalidateTest() {
+		Object unit = createMethod("m");
+		MethodFlowFunctionCache<Object, Object, Object> cache = new MethodFlowFunctionCache<>(
+				new NewFlowFunctions(), createICFG(), 2);
+		FlowFunction<Object> ff = cache.getNormalFlowFunction(unit, unit);
+		cache.invalidate();
+		assertEquals(0, cache.getMethodCount());
+		assertNotSame(ff, cache.getNormalFlowFunction(unit, unit));
+		assertEquals(1, cache.getMethodCount());
+	}
+
+}
@@ -20,6 +20,8 @@ import soot.jimple.infoflow.IInfoflow;
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
 import soot.jimple.infoflow.config.IInfoflowConfig;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
 import soot.options.Options;
 
 /**
@@ -38,6 +40,21 @@ public abstract class OtherTests extends JUnitTests {
 		checkInfoflow(infoflow, 2);
 	}
 
+	@Test(timeout = 300000)
+	public void abstractionSizeTest() {
+		IInfoflow infoflow = initInfoflow();
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void testWithField()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 2);
+
+		InfoflowPerformanceData performanceData = infoflow.getResults().getPerformanceData();
+		Assert.assertTrue(performanceData.getGeneratedAbstractionCount() > 0);
+		double bytesPerAbstraction = performanceData.getEstimatedBytesPerAbstraction();
+		Assert.assertTrue(bytesPerAbstraction >= Abstraction.BYTES_PER_ABSTRACTION);
+		Assert.assertTrue(bytesPerAbstraction <= Abstraction.BYTES_PER_ABSTRACTION + Abstraction.BYTES_PER_EXTENSION);
+	}
+
 	@Test(timeout = 300000)
 	public void defaultlifecycleTest() {
 		IInfoflow infoflow = initInfoflow();
@@ -0,0 +1,111 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
+
+/**
+ * Checks that scanning the methods for sources and sinks on several threads
+ * finds the same seeds in the same order as a single-threaded scan
+ */
+public class ParallelSourceSinkScanTest extends JUnitTests {
+
+	private final List<String> seeds = new ArrayList<>();
+	private final Set<Thread> scanThreads = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger scannedStmts = new AtomicInteger();
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null) {
+
+			@Override
+			protected SourceOrSink scanStmtForSourcesSinks(ISourceSinkManager sourcesSinks, Stmt s) {
+				scanThreads.add(Thread.currentThread());
+				scannedStmts.incrementAndGet();
+				return super.scanStmtForSourcesSinks(sourcesSinks, s);
+			}
+
+			@Override
+			protected boolean findSourcesAndSinks(ISourceSinkManager sourcesSinks, AbstractInfoflowProblem problem,
+					Set<String> additionalSeeds, IInfoflowCFG iCfg, InfoflowPerformanceData performanceData) {
+				boolean found = super.findSourcesAndSinks(sourcesSinks, problem, additionalSeeds, iCfg,
+						performanceData);
+				for (Unit u : problem.getInitialSeeds().keySet())
+					seeds.add(iCfg.getMethodOf(u) + ": " + u);
+				return found;
+			}
+
+		};
+	}
+
+	/**
+	 * Runs the analysis with the given number of threads
+	 *
+	 * @param numThreads The number of threads
+	 * @return The seeds in the order in which they were registered, followed by
+	 *         the number of sources, sinks and leaks
+	 */
+	private List<String> runAnalysis(int numThreads) {
+		seeds.clear();
+		scanThreads.clear();
+		scannedStmts.set(0);
+
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setMaxThreadNum(numThreads);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void testWithField()>");
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void methodTainted()>");
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void method2()>");
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void multiSinkTest2()>");
+		epoints.add("<soot.jimple.infoflow.test.TypeTestCode: void followReturnsPastSeedsTest2()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+
+		assertTrue(infoflow.isResultAvailable());
+		assertTrue(scannedStmts.get() > 0);
+		InfoflowPerformanceData performanceData = infoflow.getResults().getPerformanceData();
+		List<String> result = new ArrayList<>(seeds);
+		result.add("Sources: " + performanceData.getSourceCount());
+		result.add("Sinks: " + performanceData.getSinkCount());
+		result.add("Leaks: " + infoflow.getResults().size());
+		return result;
+	}
+
+	@Test(timeout = 300000)
+	public void sameSeedsTest() {
+		List<String> sequential = runAnalysis(1);
+		assertEquals(1, scanThreads.size());
+		List<String> parallel = runAnalysis(4);
+
+		assertFalse(seeds.isEmpty());
+		assertEquals(sequential, parallel);
+	}
+
+	@Test(timeout = 300000)
+	public void stableOrderTest() {
+		List<String> first = runAnalysis(4);
+		List<String> second = runAnalysis(4);
+
+		// The seeds must not depend on the thread scheduling
+		assertFalse(seeds.isEmpty());
+		assertEquals(first, second);
+	}
+
+}
@@ -0,0 +1,172 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.Modifier;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.VoidType;
+import soot.jimple.Jimple;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.solver.gcSolver.PersistentReferenceProvider;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
+
+public class PersistentReferenceProviderTest {
+
+	private SootClass testClass;
+	private final Map<SootMethod, List<Unit>> callSites = new HashMap<>();
+	private final Map<Unit, SootMethod> callees = new HashMap<>();
+	private File cacheDirectory;
+
+	@Before
+	public void setUp() throws IOException {
+		G.reset();
+		testClass = new SootClass("ReferenceTest");
+		Scene.v().addClass(testClass);
+		Scene.v().setCallGraph(new CallGraph());
+		cacheDirectory = Files.createTempDirectory("gc-references").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : cacheDirectory.listFiles())
+			file.delete();
+		cacheDirectory.delete();
+		G.reset();
+	}
+
+	/**
+	 * Creates a new static method with an empty body in the test class
+	 *
+	 * @param name The name of the method
+	 * @return The new method
+	 */
+	private SootMethod createMethod(String name) {
+		SootMethod method = new SootMethod(name, Collections.emptyList(), VoidType.v(),
+				Modifier.PUBLIC | Modifier.STATIC);
+		testClass.addMethod(method);
+		method.setActiveBody(Jimple.v().newBody(method));
+		callSites.put(method, new ArrayList<>());
+		return method;
+	}
+
+	/**
+	 * Adds a call from one method to another one to the call graph
+	 *
+	 * @param caller The calling method
+	 * @param callee The called method
+	 */
+	private void addCall(SootMethod caller, SootMethod callee) {
+		Stmt callSite = Jimple.v().newInvokeStmt(Jimple.v().newStaticInvokeExpr(callee.makeRef()));
+		callSites.get(caller).add(callSite);
+		callees.put(callSite, callee);
+		Scene.v().getCallGraph().addEdge(new Edge(caller, callSite, callee));
+	}
+
+	/**
+	 * Creates an interprocedural control flow graph over the calls that have been
+	 * added with {@link #addCall(SootMethod, SootMethod)}
+	 *
+	 * @param queried The set that receives all methods whose calls have been
+	 *                requested
+	 * @return The new control flow graph
+	 */
+	@SuppressWarnings("unchecked")
+	private BiDiInterproceduralCFG<Unit, SootMethod> createICFG(Set<SootMethod> queried) {
+		return (BiDiInterproceduralCFG<Unit, SootMethod>) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { BiDiInterproceduralCFG.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getCallsFromWithin":
+						queried.add((SootMethod) args[0]);
+						return callSites.get(args[0]);
+					case "getCalleesOfCallAt":
+						return Collections.singleton(callees.get(args[0]));
+					default:
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	@Test
+	public void saveAndLoadTest() {
+		SootMethod a = createMethod("a");
+		SootMethod b = createMethod("b");
+		SootMethod c = createMethod("c");
+		SootMethod d = createMethod("d");
+		SootMethod e = createMethod("e");
+		addCall(a, b);
+		addCall(b, c);
+		addCall(d, c);
+
+		// Compute some references and save them
+		Set<SootMethod> queried = new HashSet<>();
+		PersistentReferenceProvider<Unit> provider = new PersistentReferenceProvider<>(createICFG(queried),
+				cacheDirectory);
+		assertEquals(new HashSet<>(Arrays.asList(b, c)), provider.getAbstractionReferences(a));
+		assertEquals(Collections.singleton(c), provider.getAbstractionReferences(d));
+		provider.save();
+		assertTrue(provider.getIndexFile().exists());
+
+		// A new provider must take the references from the index, and save them
+		// again together with the new ones
+		queried.clear();
+		provider = new PersistentReferenceProvider<>(createICFG(queried), cacheDirectory);
+		assertEquals(new HashSet<>(Arrays.asList(b, c)), provider.getAbstractionReferences(a));
+		assertTrue(queried.isEmpty());
+		assertEquals(Collections.emptySet(), provider.getAbstractionReferences(e));
+		assertEquals(Collections.singleton(e), queried);
+		provider.save();
+
+		queried.clear();
+		provider = new PersistentReferenceProvider<>(createICFG(queried), cacheDirectory);
+		assertEquals(new HashSet<>(Arrays.asList(b, c)), provider.getAbstractionReferences(a));
+		assertEquals(Collections.singleton(c), provider.getAbstractionReferences(d));
+		assertEquals(Collections.emptySet(), provider.getAbstractionReferences(e));
+		assertTrue(queried.isEmpty());
+	}
+
+	@Test
+	public void callGraphChangeTest() {
+		SootMethod a = createMethod("a");
+		SootMethod b = createMethod("b");
+		SootMethod c = createMethod("c");
+		addCall(a, b);
+
+		PersistentReferenceProvider<Unit> provider = new PersistentReferenceProvider<>(
+				createICFG(new HashSet<>()), cacheDirectory);
+		File oldIndex = provider.getIndexFile();
+		assertEquals(Collections.singleton(b), provider.getAbstractionReferences(a));
+		provider.save();
+
+		// A different call graph must not use the old index
+		addCall(b, c);
+		provider = new PersistentReferenceProvider<>(createICFG(new HashSet<>()), cacheDirectory);
+		assertNotEquals(oldIndex, provider.getIndexFile());
+		assertEquals(new HashSet<>(Arrays.asList(b, c)), provider.getAbstractionReferences(a));
+	}
+
+}
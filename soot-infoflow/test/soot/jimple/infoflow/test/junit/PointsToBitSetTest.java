@@ -0,0 +1,64 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.aliasing.PointsToBitSet;
+
+public class PointsToBitSetTest {
+
+	private static PointsToBitSet of(int... elements) {
+		BitSet bits = new BitSet();
+		for (int element : elements)
+			bits.set(element);
+		return PointsToBitSet.of(bits);
+	}
+
+	@Test
+	public void testIntersection() {
+		PointsToBitSet low = of(1, 5, 63);
+		PointsToBitSet high = of(1000, 1500);
+		PointsToBitSet both = of(63, 1500);
+
+		assertFalse(low.intersects(high));
+		assertFalse(high.intersects(low));
+		assertTrue(low.intersects(both));
+		assertTrue(both.intersects(low));
+		assertTrue(high.intersects(both));
+		assertTrue(both.intersects(high));
+		assertFalse(of(64).intersects(of(65)));
+	}
+
+	@Test
+	public void testContains() {
+		PointsToBitSet pts = of(130, 200);
+		assertTrue(pts.contains(130));
+		assertTrue(pts.contains(200));
+		assertFalse(pts.contains(2));
+		assertFalse(pts.contains(131));
+		assertFalse(pts.contains(1000));
+	}
+
+	@Test
+	public void testEmpty() {
+		PointsToBitSet empty = of();
+		assertSame(PointsToBitSet.EMPTY, empty);
+		assertTrue(empty.isEmpty());
+		assertFalse(empty.intersects(of(1)));
+		assertFalse(of(1).intersects(empty));
+	}
+
+	@Test
+	public void testEquality() {
+		assertEquals(of(300, 700), of(700, 300));
+		assertEquals(of(300, 700).hashCode(), of(700, 300).hashCode());
+		assertFalse(of(300).equals(of(301)));
+	}
+
+}
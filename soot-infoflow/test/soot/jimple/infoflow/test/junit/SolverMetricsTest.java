@@ -0,0 +1,191 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import heros.FlowFunction;
+import heros.FlowFunctions;
+import heros.flowfunc.Identity;
+import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.solver.metrics.CountingFlowFunctions;
+import soot.jimple.infoflow.solver.metrics.IMeteredSolver;
+import soot.jimple.infoflow.solver.metrics.SolverMetrics;
+import soot.jimple.infoflow.solver.metrics.SolverMetricsWatcher;
+
+public class SolverMetricsTest {
+
+	/**
+	 * Solver that does nothing but record what the test tells it to
+	 */
+	private static class DummySolver implements IMemoryBoundedSolver, IMeteredSolver {
+
+		private final CountingFlowFunctions<Object, Object, Object> misses = new CountingFlowFunctions<>(
+				new IdentityFlowFunctions());
+		private final CountingFlowFunctions<Object, Object, Object> lookups = new CountingFlowFunctions<>(
+				new IdentityFlowFunctions());
+		private SolverMetrics metrics;
+
+		@Override
+		public void setSolverMetrics(SolverMetrics metrics) {
+			this.metrics = metrics;
+			if (metrics != null)
+				metrics.setFlowFunctionCounters(lookups, misses);
+		}
+
+		@Override
+		public SolverMetrics getSolverMetrics() {
+			return metrics;
+		}
+
+		@Override
+		public long getPendingTaskCount() {
+			return 0;
+		}
+
+		/**
+		 * Simulates a run of the solver
+		 *
+		 * @param edges         The number of edges to process
+		 * @param ffLookups     The number of flow function lookups
+		 * @param summaryReuses The number of end summaries to reuse
+		 */
+		private void run(int edges, int ffLookups, int summaryReuses) {
+			for (int i = 0; i < edges; i++)
+				metrics.onEdgeProcessed(null);
+			for (int i = 0; i < ffLookups; i++)
+				lookups.getNormalFlowFunction(null, null);
+			misses.getNormalFlowFunction(null, null);
+			metrics.onEndSummaryLookup(summaryReuses);
+		}
+
+		@Override
+		public void forceTerminate(ISolverTerminationReason reason) {
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return false;
+		}
+
+		@Override
+		public boolean isKilled() {
+			return false;
+		}
+
+		@Override
+		public ISolverTerminationReason getTerminationReason() {
+			return null;
+		}
+
+		@Override
+		public void reset() {
+		}
+
+		@Override
+		public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
+		}
+
+	}
+
+	/**
+	 * Flow functions that map every fact onto itself
+	 */
+	private static class IdentityFlowFunctions implements FlowFunctions<Object, Object, Object> {
+
+		@Override
+		public FlowFunction<Object> getNormalFlowFunction(Object curr, Object succ) {
+			return Identity.v();
+		}
+
+		@Override
+		public FlowFunction<Object> getCallFlowFunction(Object callStmt, Object destinationMethod) {
+			return Identity.v();
+		}
+
+		@Override
+		public FlowFunction<Object> getReturnFlowFunction(Object callSite, Object calleeMethod, Object exitStmt,
+				Object returnSite) {
+			return Identity.v();
+		}
+
+		@Override
+		public FlowFunction<Object> getCallToReturnFlowFunction(Object callSite, Object returnSite) {
+			return Identity.v();
+		}
+
+	}
+
+	@Test
+	public void iterationsAreMergedTest() {
+		SolverMetricsWatcher watcher = new SolverMetricsWatcher(60000);
+
+		// Simulate two iterations with a forward and an alias solver each
+		SolverMetrics forwardMetrics = null;
+		for (int i = 0; i < 2; i++) {
+			DummySolver forward = new DummySolver();
+			DummySolver alias = new DummySolver();
+			watcher.addSolver(forward, "forward");
+			watcher.addSolver(alias, "alias");
+			if (forwardMetrics == null)
+				forwardMetrics = forward.getSolverMetrics();
+			assertSame(forwardMetrics, forward.getSolverMetrics());
+
+			watcher.start();
+			forward.run(10, 4, 3);
+			alias.run(5, 2, 1);
+			watcher.stop();
+			watcher.clearSolvers();
+		}
+
+		List<SolverMetrics> metrics = watcher.getMetrics();
+		assertEquals(2, metrics.size());
+		assertEquals("forward", metrics.get(0).getName());
+		assertEquals(20, metrics.get(0).getProcessedEdges());
+		assertEquals(8, metrics.get(0).getFlowFunctionLookups());
+		assertEquals(2, metrics.get(0).getEndSummaryLookups());
+		assertEquals(6, metrics.get(0).getEndSummaryReuses());
+		assertEquals("alias", metrics.get(1).getName());
+		assertEquals(10, metrics.get(1).getProcessedEdges());
+		assertEquals(4, metrics.get(1).getFlowFunctionLookups());
+		assertEquals(0.75, metrics.get(0).getFlowFunctionCacheHitRate(), 0.0001);
+
+		InfoflowPerformanceData performanceData = new InfoflowPerformanceData();
+		watcher.reportTo(performanceData);
+		assertEquals(8, performanceData.getEndSummaryReuseCount());
+	}
+
+	@Test
+	public void flowFunctionCountersAreKeptTest() {
+		SolverMetrics metrics = new SolverMetrics("forward");
+		CountingFlowFunctions<Object, Object, Object> misses = new CountingFlowFunctions<>(
+				new IdentityFlowFunctions());
+		CountingFlowFunctions<Object, Object, Object> lookups = new CountingFlowFunctions<>(
+				new IdentityFlowFunctions());
+		metrics.setFlowFunctionCounters(lookups, misses);
+		for (int i = 0; i < 4; i++)
+			lookups.getNormalFlowFunction(null, null);
+		misses.getNormalFlowFunction(null, null);
+		assertEquals(4, metrics.getFlowFunctionLookups());
+		assertEquals(0.75, metrics.getFlowFunctionCacheHitRate(), 0.0001);
+
+		// A second solver must add to the counts of the first one
+		CountingFlowFunctions<Object, Object, Object> misses2 = new CountingFlowFunctions<>(
+				new IdentityFlowFunctions());
+		CountingFlowFunctions<Object, Object, Object> lookups2 = new CountingFlowFunctions<>(
+				new IdentityFlowFunctions());
+		metrics.setFlowFunctionCounters(lookups2, misses2);
+		for (int i = 0; i < 4; i++)
+			lookups2.getNormalFlowFunction(null, null);
+		for (int i = 0; i < 3; i++)
+			misses2.getNormalFlowFunction(null, null);
+		assertEquals(8, metrics.getFlowFunctionLookups());
+		assertEquals(0.5, metrics.getFlowFunctionCacheHitRate(), 0.0001);
+	}
+
+}
@@ -0,0 +1,94 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.SparsePropagationStrategy;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.sparseSolver.propagation.SparseCFGIndex;
+
+/**
+ * Tests for the per-method index that the sparse solvers share
+ */
+public class SparseCFGIndexTest extends JUnitTests {
+
+	private final Set<SparseCFGIndex> indices = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null) {
+
+			@Override
+			protected IInfoflowSolver createDataFlowSolver(InterruptableExecutor executor,
+					AbstractInfoflowProblem problem, SolverConfiguration solverConfig) {
+				IInfoflowSolver solver = super.createDataFlowSolver(executor, problem, solverConfig);
+				if (sparseCfgIndex != null)
+					indices.add(sparseCfgIndex);
+				return solver;
+			}
+
+		};
+	}
+
+	private IInfoflow initSparseInfoflow(SparsePropagationStrategy strategy) {
+		indices.clear();
+		IInfoflow infoflow = initInfoflow();
+		SolverConfiguration solverConfig = infoflow.getConfig().getSolverConfiguration();
+		solverConfig.setDataFlowSolver(DataFlowSolver.SparseContextFlowSensitive);
+		solverConfig.setSparsePropagationStrategy(strategy);
+		return infoflow;
+	}
+
+	private void runAnalysis(IInfoflow infoflow, String entryPoint, int resultCount) {
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(entryPoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, resultCount);
+	}
+
+	@Test(timeout = 300000)
+	public void sharedIndexPreciseTest() {
+		IInfoflow infoflow = initSparseInfoflow(SparsePropagationStrategy.Precise);
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.OtherTestCode: void testWithField()>", 2);
+
+		// All sparse solvers of the analysis must use the same index
+		assertEquals(1, indices.size());
+		assertTrue(indices.iterator().next().getBuiltMethodCount() > 0);
+	}
+
+	@Test(timeout = 300000)
+	public void sharedIndexSimpleTest() {
+		IInfoflow infoflow = initSparseInfoflow(SparsePropagationStrategy.Simple);
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.OtherTestCode: void method2()>", 1);
+
+		assertEquals(1, indices.size());
+		assertTrue(indices.iterator().next().getBuiltMethodCount() > 0);
+	}
+
+	@Test(timeout = 300000)
+	public void evictionTest() {
+		IInfoflow infoflow = initSparseInfoflow(SparsePropagationStrategy.Precise);
+		infoflow.getConfig().getSolverConfiguration().setMaxSparseIndexMethods(1);
+		runAnalysis(infoflow, "<soot.jimple.infoflow.test.OtherTestCode: void methodTainted()>", 1);
+
+		// Evicting methods from the index must not change the results
+		assertEquals(1, indices.size());
+		assertTrue(indices.iterator().next().getEvictionCount() > 0);
+	}
+
+}
@@ -0,0 +1,76 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.AnalysisPhase;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.threading.ThreadBudget;
+
+public class ThreadBudgetTest {
+
+	@Test
+	public void concurrentLeasesTest() {
+		InfoflowConfiguration config = new InfoflowConfiguration();
+		config.setMaxThreadNum(AnalysisPhase.TAINT_PROPAGATION, 6);
+		ThreadBudget budget = new ThreadBudget(config, 8);
+
+		// Concurrent phases share the budget
+		ThreadBudget.Lease taint = budget.acquire(AnalysisPhase.TAINT_PROPAGATION);
+		ThreadBudget.Lease paths = budget.acquire(AnalysisPhase.PATH_RECONSTRUCTION);
+		assertEquals(6, taint.getThreadCount());
+		assertEquals(2, paths.getThreadCount());
+		assertEquals(8, budget.getLeasedThreadCount());
+		assertEquals(6, budget.getThreadCount(AnalysisPhase.TAINT_PROPAGATION));
+
+		// Even an exhausted budget grants one thread
+		ThreadBudget.Lease more = budget.acquire(AnalysisPhase.PATH_RECONSTRUCTION);
+		assertEquals(1, more.getThreadCount());
+		more.release();
+
+		// Released threads go to the next phase
+		taint.release();
+		taint.release();
+		assertEquals(2, budget.getLeasedThreadCount());
+		paths.release();
+		assertEquals(0, budget.getLeasedThreadCount());
+		assertEquals(8, budget.acquire(AnalysisPhase.PATH_RECONSTRUCTION).getThreadCount());
+	}
+
+	@Test(timeout = 30000)
+	public void releaseShutsDownExecutorsTest() throws InterruptedException {
+		ThreadBudget budget = new ThreadBudget(new InfoflowConfiguration(), 4);
+		ThreadBudget.Lease lease = budget.acquire(AnalysisPhase.TAINT_PROPAGATION);
+		ThreadPoolExecutor executor = budget.track(AnalysisPhase.TAINT_PROPAGATION, new ThreadPoolExecutor(
+				lease.getThreadCount(), lease.getThreadCount(), 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>()));
+
+		final CountDownLatch started = new CountDownLatch(2);
+		final CountDownLatch done = new CountDownLatch(1);
+		for (int i = 0; i < 2; i++) {
+			executor.execute(() -> {
+				started.countDown();
+				try {
+					done.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		started.await();
+		done.countDown();
+
+		lease.release();
+		assertTrue(executor.isShutdown());
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(2, budget.getThreadUsage(AnalysisPhase.TAINT_PROPAGATION));
+		assertEquals(-1, budget.getThreadUsage(AnalysisPhase.PATH_RECONSTRUCTION));
+	}
+
+}
@@ -0,0 +1,126 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.ArrayType;
+import soot.FastHierarchy;
+import soot.G;
+import soot.IntType;
+import soot.Scene;
+import soot.SootClass;
+import soot.Type;
+import soot.jimple.infoflow.typing.TypeCompatibilityCache;
+import soot.jimple.infoflow.typing.TypeUtils;
+
+public class TypeCompatibilityCacheTest {
+
+	private final List<Type> types = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		G.reset();
+		SootClass object = createClass("java.lang.Object", null);
+		for (int i = 0; i < 20; i++) {
+			SootClass parent = createClass("Parent" + i, object);
+			createClass("Child" + i, parent);
+		}
+		for (SootClass sc : Scene.v().getClasses())
+			types.add(sc.getType());
+		types.add(ArrayType.v(object.getType(), 1));
+		types.add(IntType.v());
+	}
+
+	@After
+	public void tearDown() {
+		G.reset();
+	}
+
+	/**
+	 * Creates a new class in the scene
+	 *
+	 * @param name       The name of the new class
+	 * @param superclass The superclass of the new class, or <code>null</code> for
+	 *                   none
+	 * @return The new class
+	 */
+	private SootClass createClass(String name, SootClass superclass) {
+		SootClass sc = new SootClass(name);
+		if (superclass != null)
+			sc.setSuperclass(superclass);
+		Scene.v().addClass(sc);
+		sc.setApplicationClass();
+		return sc;
+	}
+
+	/**
+	 * Checks that the cache gives the same answers as the hierarchy, both when
+	 * the answers are computed and when they are taken from the cache
+	 *
+	 * @param cache The cache to check
+	 * @param fh    The hierarchy to compare the cache with
+	 */
+	private void checkSameResults(TypeCompatibilityCache cache, FastHierarchy fh) {
+		for (int i = 0; i < 2; i++)
+			for (Type child : types)
+				for (Type parent : types)
+					assertEquals(child + " -> " + parent, TypeUtils.canStoreType(fh, child, parent),
+							cache.canStoreType(child, parent));
+	}
+
+	@Test
+	public void canStoreTypeTest() {
+		FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+		TypeCompatibilityCache cache = new TypeCompatibilityCache(fh);
+		checkSameResults(cache, fh);
+		assertTrue(cache.getHitCount() > 0);
+	}
+
+	@Test
+	public void maxSizeTest() {
+		// 128 pairs do not fit all combinations of the types
+		FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+		TypeCompatibilityCache cache = new TypeCompatibilityCache(fh, 128);
+		checkSameResults(cache, fh);
+		assertTrue(cache.getHitCount() > 0);
+
+		// Without any room, every check goes to the hierarchy
+		cache = new TypeCompatibilityCache(fh, 0);
+		checkSameResults(cache, fh);
+		assertEquals(0, cache.getHitCount());
+	}
+
+	@Test
+	public void nullTest() {
+		FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+		TypeCompatibilityCache cache = new TypeCompatibilityCache(fh);
+		Type object = Scene.v().getSootClass("java.lang.Object").getType();
+		assertFalse(cache.canStoreType(null, object));
+		assertFalse(cache.canStoreType(object, null));
+		assertFalse(cache.canStoreType(null, null));
+		assertEquals(TypeUtils.canStoreType(fh, null, object), cache.canStoreType(null, object));
+	}
+
+	@Test
+	public void sharedCacheTest() {
+		FastHierarchy fh = Scene.v().getOrMakeFastHierarchy();
+		TypeCompatibilityCache cache = TypeCompatibilityCache.forHierarchy(fh);
+		assertSame(cache, TypeCompatibilityCache.forHierarchy(fh));
+		assertSame(fh, cache.getHierarchy());
+
+		// A new hierarchy must not use the results of the old one
+		FastHierarchy newFh = new FastHierarchy();
+		assertNotSame(cache, TypeCompatibilityCache.forHierarchy(newFh));
+	}
+
+}
@@ -0,0 +1,62 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.threading.VirtualThreadExecutorFactory;
+
+public class VirtualThreadExecutorFactoryTest {
+
+	private static final int NUM_TASKS = 64;
+
+	/**
+	 * Runs a number of tasks on the given executor and returns the maximum number
+	 * of tasks that were running at the same time
+	 */
+	private static int runTasks(InterruptableExecutor executor) throws InterruptedException {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final AtomicInteger finished = new AtomicInteger();
+		for (int i = 0; i < NUM_TASKS; i++) {
+			executor.execute(() -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				finished.incrementAndGet();
+			});
+		}
+		executor.awaitCompletion();
+		executor.shutdown();
+		assertEquals(NUM_TASKS, finished.get());
+		return maxRunning.get();
+	}
+
+	@Test(timeout = 30000)
+	public void maxRunningTasksTest() throws InterruptedException {
+		InterruptableExecutor executor = new InterruptableExecutor(8, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		executor.setMaxRunningTasks(2);
+		int maxRunning = runTasks(executor);
+		assertTrue(maxRunning > 0);
+		assertTrue(maxRunning <= 2);
+	}
+
+	@Test(timeout = 30000)
+	public void factoryCapTest() throws InterruptedException {
+		VirtualThreadExecutorFactory factory = new VirtualThreadExecutorFactory();
+		assertTrue(runTasks(factory.createExecutor(3, false, null)) <= 3);
+		assertTrue(runTasks(factory.createExecutor(3, true, null)) <= 3);
+	}
+
+}
@@ -0,0 +1,172 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.solver.executors.IAffineTask;
+import soot.jimple.infoflow.solver.executors.WorkStealingExecutor;
+
+public class WorkStealingExecutorTest {
+
+	/**
+	 * Executor that exposes its lanes and waits for its workers
+	 */
+	private static class TestExecutor extends WorkStealingExecutor {
+
+		private TestExecutor(int numThreads) {
+			super(numThreads, false);
+		}
+
+		private int getLaneCount() {
+			return lanes.size();
+		}
+
+		private boolean awaitWorkers() throws InterruptedException {
+			return pool.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+	}
+
+	private static class AffineTask implements IAffineTask {
+
+		private final Object key;
+		private final Runnable body;
+
+		private AffineTask(Object key, Runnable body) {
+			this.key = key;
+			this.body = body;
+		}
+
+		@Override
+		public Object getAffinityKey() {
+			return key;
+		}
+
+		@Override
+		public void run() {
+			body.run();
+		}
+
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void affinityOrderTest() throws InterruptedException {
+		final int numKeys = 8;
+		final int numTasks = 500;
+		TestExecutor executor = new TestExecutor(4);
+
+		final List<List<Integer>> order = new ArrayList<>();
+		final List<AtomicInteger> running = new ArrayList<>();
+		final AtomicInteger overlaps = new AtomicInteger();
+		for (int k = 0; k < numKeys; k++) {
+			order.add(Collections.synchronizedList(new ArrayList<>()));
+			running.add(new AtomicInteger());
+		}
+		for (int i = 0; i < numTasks; i++) {
+			for (int k = 0; k < numKeys; k++) {
+				final int key = k;
+				final int seq = i;
+				executor.execute(new AffineTask(key, () -> {
+					if (running.get(key).incrementAndGet() > 1)
+						overlaps.incrementAndGet();
+					order.get(key).add(seq);
+					running.get(key).decrementAndGet();
+				}));
+			}
+			// Let the lanes run empty from time to time, so that they are removed
+			// and created again
+			if (i % 50 == 0)
+				sleep(5);
+		}
+		executor.awaitCompletion();
+		executor.shutdown();
+		assertTrue(executor.awaitWorkers());
+
+		// The tasks of each key must run one at a time and in the order in which
+		// they were submitted
+		assertEquals(0, overlaps.get());
+		for (int k = 0; k < numKeys; k++) {
+			List<Integer> keyOrder = order.get(k);
+			assertEquals(numTasks, keyOrder.size());
+			for (int i = 0; i < numTasks; i++)
+				assertEquals(i, keyOrder.get(i).intValue());
+		}
+
+		// All lanes have run empty and must have been removed
+		assertEquals(0, executor.getLaneCount());
+	}
+
+	@Test(timeout = 30000)
+	public void stealTest() throws InterruptedException {
+		TestExecutor executor = new TestExecutor(4);
+		final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+		// All lanes are forked onto the deque of the worker that schedules them, so
+		// the other workers can only get them by stealing
+		executor.execute(() -> {
+			for (int k = 0; k < 32; k++)
+				executor.execute(new AffineTask(k, () -> {
+					threads.add(Thread.currentThread());
+					sleep(20);
+				}));
+		});
+		executor.awaitCompletion();
+		executor.shutdown();
+		assertTrue(executor.awaitWorkers());
+		assertTrue(threads.size() > 1);
+	}
+
+	@Test(timeout = 30000)
+	public void shutdownTest() throws InterruptedException {
+		TestExecutor executor = new TestExecutor(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger ran = new AtomicInteger();
+
+		executor.execute(new AffineTask("key", () -> {
+			started.countDown();
+			boolean released = false;
+			while (!released) {
+				try {
+					released = release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// Keep waiting until the test releases us
+				}
+			}
+			ran.incrementAndGet();
+		}));
+		for (int i = 0; i < 10; i++)
+			executor.execute(new AffineTask("key", ran::incrementAndGet));
+		started.await();
+
+		// The pending tasks must be dropped, and new tasks must be ignored
+		executor.shutdownNow();
+		executor.execute(new AffineTask("key", ran::incrementAndGet));
+		executor.execute(ran::incrementAndGet);
+		release.countDown();
+		assertTrue(executor.awaitWorkers());
+		assertTrue(executor.isTerminating() || executor.isTerminated());
+		assertEquals(1, ran.get());
+		assertEquals(0, executor.getLaneCount());
+	}
+
+}
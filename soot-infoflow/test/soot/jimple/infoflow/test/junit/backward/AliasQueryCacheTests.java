@@ -0,0 +1,13 @@
+package soot.jimple.infoflow.test.junit.backward;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.BackwardsInfoflow;
+
+public class AliasQueryCacheTests extends soot.jimple.infoflow.test.junit.AliasQueryCacheTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new BackwardsInfoflow(null, false, null);
+	}
+
+}
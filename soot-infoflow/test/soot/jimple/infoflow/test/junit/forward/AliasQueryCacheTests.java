@@ -0,0 +1,13 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.Infoflow;
+
+public class AliasQueryCacheTests extends soot.jimple.infoflow.test.junit.AliasQueryCacheTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+}
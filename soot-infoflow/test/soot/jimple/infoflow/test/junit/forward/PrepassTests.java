@@ -0,0 +1,131 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.Scene;
+import soot.SootMethod;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.memory.FlowDroidMemoryWatcher;
+import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
+import soot.jimple.infoflow.threading.ThreadBudget;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the flow-insensitive prepass that removes the seeds from which no
+ * sink can be reached
+ */
+public class PrepassTests extends JUnitTests {
+
+	/**
+	 * Memory watcher that terminates its solvers as soon as they are started, as if
+	 * the memory had run out
+	 */
+	private static class AbortingMemoryWatcher extends FlowDroidMemoryWatcher {
+
+		private volatile boolean aborted = false;
+
+		@Override
+		public void notifySolverStarted(IMemoryBoundedSolver solver) {
+			super.notifySolverStarted(solver);
+			forceTerminate();
+			aborted = true;
+		}
+
+	}
+
+	private AbortingMemoryWatcher prepassWatcher = null;
+	private Set<SootMethod> relevantMethods = null;
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null) {
+
+			@Override
+			protected FlowDroidMemoryWatcher createPrepassMemoryWatcher() {
+				if (prepassWatcher != null)
+					return prepassWatcher;
+				return super.createPrepassMemoryWatcher();
+			}
+
+			@Override
+			protected boolean runFlowInsensitivePrepass(ISourceSinkManager sourcesSinks,
+					AbstractInfoflowProblem problem, Abstraction zeroValue, Set<String> additionalSeeds,
+					IInfoflowCFG iCfg, ThreadBudget threadBudget, InfoflowPerformanceData performanceData) {
+				boolean result = super.runFlowInsensitivePrepass(sourcesSinks, problem, zeroValue, additionalSeeds,
+						iCfg, threadBudget, performanceData);
+				relevantMethods = problem.getRelevantMethods();
+				return result;
+			}
+
+		};
+	}
+
+	@Test(timeout = 300000)
+	public void prepassTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setFlowInsensitivePrepass(true);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void testWithField()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 2);
+
+		// The source reaches the sink, so the prepass must keep its seed
+		InfoflowPerformanceData performanceData = infoflow.getResults().getPerformanceData();
+		assertEquals(0, performanceData.getPrunedSeedCount());
+	}
+
+	@Test(timeout = 300000)
+	public void prepassAbortTest() {
+		prepassWatcher = new AbortingMemoryWatcher();
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setFlowInsensitivePrepass(true);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void testWithField()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		assertTrue(prepassWatcher.aborted);
+
+		// The aborted prepass must neither remove seeds nor terminate the precise
+		// taint propagation
+		checkInfoflow(infoflow, 2);
+		InfoflowPerformanceData performanceData = infoflow.getResults().getPerformanceData();
+		assertEquals(-1, performanceData.getPrunedSeedCount());
+		assertTrue(infoflow.getResults().getExceptions() == null
+				|| infoflow.getResults().getExceptions().isEmpty());
+	}
+
+	@Test(timeout = 300000)
+	public void prepassRelevantMethodsTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setFlowInsensitivePrepass(true);
+		infoflow.getConfig().setDataFlowTimeout(300);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void method2()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+
+		// The taint is returned from the callee into the entry point, so the
+		// restriction to the methods seen by the prepass must keep the leak
+		checkInfoflow(infoflow, 1);
+		assertNotNull(relevantMethods);
+		assertTrue(relevantMethods.contains(
+				Scene.v().getMethod("<soot.jimple.infoflow.test.OtherTestCode: void method2()>")));
+		assertFalse(relevantMethods.contains(
+				Scene.v().getMethod("<soot.jimple.infoflow.test.OtherTestCode: void methodTainted()>")));
+	}
+
+}
@@ -0,0 +1,124 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler;
+import soot.jimple.infoflow.handlers.TaintPropagationHandler.FlowFunctionType;
+import soot.jimple.infoflow.problems.TaintPropagationResults;
+import soot.jimple.infoflow.problems.rules.DefaultPropagationRuleManagerFactory;
+import soot.jimple.infoflow.problems.rules.IPropagationRuleManagerFactory;
+import soot.jimple.infoflow.problems.rules.ITaintPropagationRule;
+import soot.jimple.infoflow.problems.rules.PropagationRuleManager;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests that dispatching the propagation rules by statement kind does not change
+ * the taints that are propagated
+ */
+public class RuleDispatchTests extends JUnitTests {
+
+	/**
+	 * Rule manager factory that creates the default rules, but applies all of them
+	 * to every statement
+	 */
+	private static class UndispatchedRuleManagerFactory implements IPropagationRuleManagerFactory {
+
+		@Override
+		public PropagationRuleManager createRuleManager(InfoflowManager manager, Abstraction zeroValue,
+				TaintPropagationResults results) {
+			PropagationRuleManager ruleManager = new DefaultPropagationRuleManagerFactory().createRuleManager(manager,
+					zeroValue, results);
+			return new PropagationRuleManager(manager, zeroValue, results, ruleManager.getRules()) {
+
+				@Override
+				protected ITaintPropagationRule[] getApplicableRules(FlowFunctionType type, Stmt stmt) {
+					return getRules();
+				}
+
+			};
+		}
+
+	}
+
+	/**
+	 * Handler that records all taints that arrive at a statement
+	 */
+	private static class RecordingPropagationHandler implements TaintPropagationHandler {
+
+		private final Set<String> taints = ConcurrentHashMap.newKeySet();
+
+		@Override
+		public void notifyFlowIn(Unit stmt, Abstraction taint, InfoflowManager manager, FlowFunctionType type) {
+			taints.add(type + ": " + stmt + " - " + taint);
+		}
+
+		@Override
+		public Set<Abstraction> notifyFlowOut(Unit stmt, Abstraction d1, Abstraction incoming,
+				Set<Abstraction> outgoing, InfoflowManager manager, FlowFunctionType type) {
+			return outgoing;
+		}
+
+	}
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+	private Set<String> runAnalysis(String entryPoint, boolean dispatch, int resultCount) {
+		IInfoflow infoflow = initInfoflow();
+		if (!dispatch)
+			infoflow.setPropagationRuleManagerFactory(new UndispatchedRuleManagerFactory());
+		RecordingPropagationHandler handler = new RecordingPropagationHandler();
+		infoflow.setTaintPropagationHandler(handler);
+
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(entryPoint);
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, resultCount);
+		return handler.taints;
+	}
+
+	private void checkSameTaints(String entryPoint, int resultCount) {
+		Set<String> dispatched = runAnalysis(entryPoint, true, resultCount);
+		Set<String> undispatched = runAnalysis(entryPoint, false, resultCount);
+		assertFalse(dispatched.isEmpty());
+		assertEquals(undispatched, dispatched);
+	}
+
+	@Test(timeout = 300000)
+	public void fieldTest() {
+		checkSameTaints("<soot.jimple.infoflow.test.OtherTestCode: void testWithField()>", 2);
+	}
+
+	@Test(timeout = 300000)
+	public void calleeTest() {
+		checkSameTaints("<soot.jimple.infoflow.test.OtherTestCode: void method2()>", 1);
+	}
+
+	@Test(timeout = 300000)
+	public void returnTest() {
+		checkSameTaints("<soot.jimple.infoflow.test.OtherTestCode: void methodTainted()>", 1);
+	}
+
+	@Test(timeout = 300000)
+	public void typeTest() {
+		checkSameTaints("<soot.jimple.infoflow.test.TypeTestCode: void followReturnsPastSeedsTest1()>", 1);
+	}
+
+}
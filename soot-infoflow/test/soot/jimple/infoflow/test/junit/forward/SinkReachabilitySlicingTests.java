@@ -0,0 +1,78 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Tests for the slicing of seeds and methods by their reachability of sinks in
+ * the call graph
+ */
+public class SinkReachabilitySlicingTests extends JUnitTests {
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+	private IInfoflow initSlicingInfoflow(boolean followReturnsPastSeeds) {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setSinkReachabilitySlicing(true);
+		infoflow.getConfig().getSolverConfiguration().setFollowReturnsPastSources(followReturnsPastSeeds);
+		return infoflow;
+	}
+
+	@Test(timeout = 300000)
+	public void unreachableSeedTest() {
+		IInfoflow infoflow = initSlicingInfoflow(false);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void methodTainted()>");
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void sourceWithoutSinkTest()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+
+		// The source in the method that cannot reach a sink must be removed
+		InfoflowPerformanceData performanceData = infoflow.getResults().getPerformanceData();
+		assertEquals(1, performanceData.getPrunedSeedCount());
+	}
+
+	@Test(timeout = 300000)
+	public void calleeReturnTest() {
+		IInfoflow infoflow = initSlicingInfoflow(false);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.OtherTestCode: void method2()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+
+		// The taint is returned from the callee into the caller, which must not be
+		// sliced away
+		checkInfoflow(infoflow, 1);
+		InfoflowPerformanceData performanceData = infoflow.getResults().getPerformanceData();
+		assertEquals(0, performanceData.getPrunedSeedCount());
+	}
+
+	@Test(timeout = 300000)
+	public void followReturnsPastSeedsTest() {
+		IInfoflow infoflow = initSlicingInfoflow(true);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.TypeTestCode: void followReturnsPastSeedsTest1()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+
+		// The source is in a method that does not reach a sink itself. The taint is
+		// returned past the seed into the caller, which leaks it.
+		checkInfoflow(infoflow, 1);
+		InfoflowPerformanceData performanceData = infoflow.getResults().getPerformanceData();
+		assertEquals(0, performanceData.getPrunedSeedCount());
+		assertTrue(performanceData.getPrunedMethodCount() >= 0);
+	}
+
+}
@@ -0,0 +1,161 @@
+package soot.jimple.infoflow.test.junit.forward;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.AbstractInfoflow;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.entryPointCreators.DefaultEntryPointCreator;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
+import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition;
+import soot.jimple.infoflow.sourcesSinks.manager.BaseSourceSinkManager;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+import soot.jimple.infoflow.util.SootMethodRepresentationParser;
+
+/**
+ * Tests for the precomputed per-statement index of the source and sink manager
+ */
+public class SourceSinkIndexTests extends JUnitTests {
+
+	/**
+	 * Source and sink manager that counts how often it builds its index and that
+	 * exposes its lookups
+	 */
+	private static class IndexedSourceSinkManager extends BaseSourceSinkManager {
+
+		private int indexBuilds = 0;
+
+		public IndexedSourceSinkManager(InfoflowConfiguration config) {
+			super(createDefinitions(sources), createDefinitions(sinks), config);
+		}
+
+		@Override
+		protected boolean isEntryPointMethod(SootMethod method) {
+			return false;
+		}
+
+		@Override
+		public boolean buildStatementIndex(IInfoflowCFG icfg, Collection<SootMethod> methods, int threadCount) {
+			boolean built = super.buildStatementIndex(icfg, methods, threadCount);
+			if (built)
+				indexBuilds++;
+			return built;
+		}
+
+		private boolean isIndexed(Stmt stmt, IInfoflowCFG icfg) {
+			return getStatementClassification(stmt, icfg) != null;
+		}
+
+		private Set<ISourceSinkDefinition> getSources(Stmt stmt, IInfoflowCFG icfg) {
+			return toSet(getSource(stmt, icfg));
+		}
+
+		private Set<ISourceSinkDefinition> getSinks(Stmt stmt, InfoflowManager manager) {
+			return toSet(getSinkDefinitions(stmt, manager, null));
+		}
+
+		private static Set<ISourceSinkDefinition> toSet(Collection<ISourceSinkDefinition> defs) {
+			return defs == null ? Collections.emptySet() : new HashSet<>(defs);
+		}
+
+	}
+
+	private static final String entryPoint = "<soot.jimple.infoflow.test.OtherTestCode: void testWithField()>";
+
+	@Override
+	protected AbstractInfoflow createInfoflowInstance() {
+		return new Infoflow(null, false, null);
+	}
+
+	private static List<ISourceSinkDefinition> createDefinitions(List<String> signatures) {
+		List<ISourceSinkDefinition> defs = new ArrayList<>(signatures.size());
+		for (String signature : signatures)
+			defs.add(new MethodSourceSinkDefinition(
+					SootMethodRepresentationParser.v().parseSootMethodString(signature)));
+		return defs;
+	}
+
+	@Test(timeout = 300000)
+	public void sameSourcesAndSinksTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSourceSinkConfig().setPrecomputeStatementIndex(true);
+		final IndexedSourceSinkManager indexed = new IndexedSourceSinkManager(infoflow.getConfig());
+
+		// Compare the indexed lookups with those of a manager without an index
+		final List<String> mismatches = new ArrayList<>();
+		final int[] counts = new int[3];
+		infoflow.addResultsAvailableHandler((cfg, results) -> {
+			IndexedSourceSinkManager plain = new IndexedSourceSinkManager(infoflow.getConfig());
+			plain.initialize();
+			InfoflowManager manager = new InfoflowManager(infoflow.getConfig(), null, cfg);
+			Iterator<MethodOrMethodContext> iter = Scene.v().getReachableMethods().listener();
+			while (iter.hasNext()) {
+				SootMethod sm = iter.next().method();
+				if (!sm.hasActiveBody())
+					continue;
+				for (Unit u : sm.getActiveBody().getUnits()) {
+					Stmt stmt = (Stmt) u;
+					if (indexed.isIndexed(stmt, cfg))
+						counts[0]++;
+					Set<ISourceSinkDefinition> sourceDefs = indexed.getSources(stmt, cfg);
+					if (!sourceDefs.equals(plain.getSources(stmt, cfg)))
+						mismatches.add("Source: " + stmt);
+					Set<ISourceSinkDefinition> sinkDefs = indexed.getSinks(stmt, manager);
+					if (!sinkDefs.equals(plain.getSinks(stmt, manager)))
+						mismatches.add("Sink: " + stmt);
+					counts[1] += sourceDefs.size();
+					counts[2] += sinkDefs.size();
+				}
+			}
+		});
+
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(entryPoint);
+		infoflow.computeInfoflow(appPath, libPath, new DefaultEntryPointCreator(epoints), indexed);
+		checkInfoflow(infoflow, 2);
+
+		assertEquals(1, indexed.indexBuilds);
+		assertTrue(counts[0] > 0);
+		assertTrue(counts[1] > 0);
+		assertTrue(counts[2] > 0);
+		assertEquals(Collections.emptyList(), mismatches);
+	}
+
+	@Test(timeout = 300000)
+	public void oneSourceAtATimeTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSourceSinkConfig().setPrecomputeStatementIndex(true);
+		infoflow.getConfig().setOneSourceAtATime(true);
+		IndexedSourceSinkManager indexed = new IndexedSourceSinkManager(infoflow.getConfig());
+		indexed.setOneSourceAtATimeEnabled(true);
+
+		List<String> epoints = new ArrayList<String>();
+		epoints.add(entryPoint);
+		infoflow.computeInfoflow(appPath, libPath, new DefaultEntryPointCreator(epoints), indexed);
+		checkInfoflow(infoflow, 2);
+
+		// The index does not depend on the current source and must only be built for
+		// the first one
+		assertEquals(1, indexed.indexBuilds);
+	}
+
+}